@@ -1,5 +1,7 @@
 package com.aopds;
 
+import java.util.ArrayList;
+
 import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.os.Bundle;
@@ -8,6 +10,7 @@ import android.widget.Button;
 import android.widget.TextView;
 import com.aopds.aopdsData.AopdsDatabase;
 import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.domain.AbstractWord;
 import com.aopds.aopdsData.domain.Dictionary;
 import com.aopds.aopdsData.domain.Suggestion;
 import com.aopds.tools.AopdsErrorHandler;
@@ -53,18 +56,22 @@ public class AddWordActivity extends AopdsActivity {
 				s.setPhonetic("");
 				s.setIsAddActionType();
 
-				// Get the database and insert the word
+				// Get the database and check the word is not already there
 				AopdsDatabase db = AopdsDatabase
 						.getInstance(getApplicationContext());
 				try {
-					// Add the suggestion in the local database
-					db.addSuggestion(s);
-					// Display the result in the LogCat
-					AopdsLogger.info(getClass().getSimpleName(),
-							"Adding suggestion : " + s);
-					// Display the result for the user
-					displayMessageOK("The word " + s.getWord()
-							+ " has been added ! ");
+					ArrayList<AbstractWord> existing = new ArrayList<AbstractWord>();
+
+					if (s.getWord().length() > 0) {
+						existing = db.lookupWord(
+								concernedDictionary.getCode(), s.getWord());
+					}
+
+					if (existing.isEmpty()) {
+						addSuggestion(s);
+					} else {
+						displayWordExists(s, existing.get(0));
+					}
 				} catch (AopdsDatabaseException e) {
 					AopdsErrorHandler.handleError(e,
 							AopdsErrorHandler.DATABASE_ERROR_DEFAULT,
@@ -74,6 +81,45 @@ public class AddWordActivity extends AopdsActivity {
 		});
 	}
 
+	/**
+	 * Adds the suggestion in the local database.
+	 */
+	public void addSuggestion(Suggestion s) {
+
+		AopdsDatabase db = AopdsDatabase.getInstance(getApplicationContext());
+		try {
+			// Add the suggestion in the local database
+			db.addSuggestion(s);
+			// Display the result in the LogCat
+			AopdsLogger.info(getClass().getSimpleName(),
+					"Adding suggestion : " + s);
+			// Display the result for the user
+			displayMessageOK("The word " + s.getWord() + " has been added ! ");
+		} catch (AopdsDatabaseException e) {
+			AopdsErrorHandler.handleError(e,
+					AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+		}
+	}
+
+	/**
+	 * Tells the user the word is already in the dictionary, with its entry,
+	 * and lets the user add it anyway.
+	 */
+	public void displayWordExists(final Suggestion s, AbstractWord existing) {
+
+		new AlertDialog.Builder(this)
+				.setTitle(R.string.LABEL_WORD_ALREADY_EXISTS)
+				.setMessage(existing.getWord() + " : " + existing.getEntry())
+				.setPositiveButton(R.string.LABEL_ADD_ANYWAY,
+						new DialogInterface.OnClickListener() {
+							public void onClick(DialogInterface dialog,
+									int which) {
+								addSuggestion(s);
+							}
+						})
+				.setNegativeButton(android.R.string.cancel, null).show();
+	}
+
 	public void displayMessageOK(String msg) {
 		AlertDialog msgAlert = new AlertDialog.Builder(this).create();
 		msgAlert.setTitle("Word suggestion added");
@@ -2,6 +2,7 @@ package com.aopds;
 
 import java.util.Locale;
 
+import com.aopds.aopdsData.AopdsProvisioning;
 import com.aopds.aopdsData.domain.User;
 import com.aopds.preferences.AopdsPreferencesManager;
 import com.aopds.preferences.AopdsPreferencesListener;
@@ -79,6 +80,9 @@ public abstract class AopdsActivity extends Activity implements
 		// creating the user manager
 		userManager = AopdsUserManager.getInstance(getApplicationContext());
 
+		// provisioning the database in background at the first launch
+		AopdsProvisioning.getInstance(getApplicationContext()).start();
+
 		// set the language and load the layout text
 		onLanguageChanged(preferencesManager.getLanguage());
 
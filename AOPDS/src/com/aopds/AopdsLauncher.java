@@ -1,16 +1,42 @@
 package com.aopds;
 
+import com.aopds.aopdsData.AopdsProvisioning;
+import com.aopds.aopdsData.AopdsProvisioningListener;
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.tools.AopdsErrorHandler;
 import com.aopds.tools.AopdsLogger;
+import android.app.ProgressDialog;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
 
-public class AopdsLauncher extends AopdsActivity {
+public class AopdsLauncher extends AopdsActivity implements
+		AopdsProvisioningListener {
 
 	public static final int TASK_SEARCH_WORD = 0;
 	public static final int TASK_MANAGE_DICTIONARY = 1;
 
+	/**
+	 * Request code of the screens started without waiting for a result.
+	 */
+	private static final int NO_RESULT = -1;
+
+	private AopdsProvisioning provisioning;
+
+	/**
+	 * The screen waiting for the provisioning of the database, null if there
+	 * is none, with its stage and request code.
+	 */
+	private Intent pendingIntent;
+	private int pendingStage;
+	private int pendingRequestCode;
+
+	/**
+	 * Shown while a screen waits for the provisioning.
+	 */
+	private ProgressDialog preparingDialog;
+
 	/** Called when the activity is first created. */
 	@Override
 	public void onCreate(Bundle savedInstanceState) {
@@ -19,11 +45,27 @@ public class AopdsLauncher extends AopdsActivity {
 
 		super.onCreate(savedInstanceState);
 
+		provisioning = AopdsProvisioning.getInstance(getApplicationContext());
+		provisioning.registerProvisioningListener(this);
+
 		initGui();
 		updateAccountButton();
 
 	}
 
+	@Override
+	protected void onDestroy() {
+
+		provisioning.unregisterProvisioningListener(this);
+
+		if (preparingDialog != null) {
+			preparingDialog.dismiss();
+			preparingDialog = null;
+		}
+
+		super.onDestroy();
+	}
+
 	@Override
 	protected void onResume() {
 		super.onResume();
@@ -84,6 +126,109 @@ public class AopdsLauncher extends AopdsActivity {
 
 	}
 
+	/**
+	 * Starts a screen once the database is provisioned up to the stage it
+	 * needs, showing the progress of the provisioning until then.
+	 * 
+	 * @param stage
+	 *            The stage needed by the screen (see AopdsProvisioning).
+	 * @param intent
+	 *            The intent of the screen.
+	 * @param requestCode
+	 *            The request code of the screen, NO_RESULT to start it
+	 *            without waiting for a result.
+	 */
+	private void startWhenProvisioned(int stage, Intent intent, int requestCode) {
+
+		pendingIntent = intent;
+		pendingStage = stage;
+		pendingRequestCode = requestCode;
+
+		if (provisioning.isReady(stage)) {
+			startPending();
+			return;
+		}
+
+		if (preparingDialog == null) {
+			preparingDialog = new ProgressDialog(this);
+			preparingDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+			preparingDialog
+					.setMessage(getString(R.string.LABEL_PREPARING_DICTIONARY));
+			preparingDialog.setCancelable(false);
+			preparingDialog.show();
+		}
+
+		// running again after a failure
+		provisioning.start();
+	}
+
+	/**
+	 * Starts the screen waiting for the provisioning, if it is ready.
+	 */
+	private void startPending() {
+
+		if (pendingIntent == null || !provisioning.isReady(pendingStage)) {
+			return;
+		}
+
+		Intent intent = pendingIntent;
+		pendingIntent = null;
+
+		if (preparingDialog != null) {
+			preparingDialog.dismiss();
+			preparingDialog = null;
+		}
+
+		if (pendingRequestCode == NO_RESULT) {
+			startActivity(intent);
+		} else {
+			startActivityForResult(intent, pendingRequestCode);
+		}
+	}
+
+	public void onStageProgress(final int stage, final int done,
+			final int total) {
+
+		runOnUiThread(new Runnable() {
+			public void run() {
+				if (preparingDialog != null) {
+					preparingDialog.setMax(total);
+					preparingDialog.setProgress(done);
+				}
+			}
+		});
+	}
+
+	public void onStageReady(int stage) {
+
+		runOnUiThread(new Runnable() {
+			public void run() {
+				startPending();
+			}
+		});
+	}
+
+	public void onProvisioningFailed(int stage, final AopdsDatabaseException e) {
+
+		runOnUiThread(new Runnable() {
+			public void run() {
+
+				if (preparingDialog != null) {
+					preparingDialog.dismiss();
+					preparingDialog = null;
+				}
+
+				// nothing started, the next tap runs the stage again
+				if (pendingIntent != null) {
+					pendingIntent = null;
+					AopdsErrorHandler.handleError(e,
+							AopdsErrorHandler.DATABASE_ERROR_DEFAULT,
+							AopdsLauncher.this);
+				}
+			}
+		});
+	}
+
 	public void initGui() {
 
 		setContentView(R.layout.main);
@@ -114,7 +259,9 @@ public class AopdsLauncher extends AopdsActivity {
 				Intent intent = new Intent(getApplicationContext(),
 						PreferencesActivity.class);
 
-				startActivity(intent);
+				// the languages of the database
+				startWhenProvisioned(AopdsProvisioning.STAGE_LANGUAGES, intent,
+						NO_RESULT);
 
 			}
 		});
@@ -133,7 +280,8 @@ public class AopdsLauncher extends AopdsActivity {
 
 				Intent intent = new Intent(getApplicationContext(),
 						DictionariesActivity.class);
-				startActivityForResult(intent, TASK_SEARCH_WORD);
+				startWhenProvisioned(AopdsProvisioning.STAGE_DICTIONARY,
+						intent, TASK_SEARCH_WORD);
 			}
 		});
 
@@ -143,7 +291,8 @@ public class AopdsLauncher extends AopdsActivity {
 				Intent intent = new Intent(getApplicationContext(),
 						DictionariesActivity.class);
 				intent.putExtra("requestCode", TASK_MANAGE_DICTIONARY);
-				startActivityForResult(intent, TASK_MANAGE_DICTIONARY);
+				startWhenProvisioned(AopdsProvisioning.STAGE_DICTIONARY,
+						intent, TASK_MANAGE_DICTIONARY);
 			}
 		});
 
@@ -0,0 +1,195 @@
+package com.aopds;
+
+import java.util.ArrayList;
+
+import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Dictionary;
+import com.aopds.aopdsData.domain.LetterSection;
+import com.aopds.aopdsData.domain.WordPosition;
+import com.aopds.guiAdapters.BrowseAdapter;
+import com.aopds.tools.AopdsErrorHandler;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.Spinner;
+import android.widget.TextView;
+
+/**
+ * 
+ * Browses the whole ordered list of the words of a dictionary, from the first
+ * word to the last one, the words being read page by page while scrolling
+ * (see BrowseAdapter). The user can jump to the words of a letter, with the
+ * letter spinner or the fast scroll.
+ * 
+ */
+public class BrowseDictionaryActivity extends AopdsActivity implements
+		BrowseAdapter.BrowseListener {
+
+	AopdsDatabase data;
+	BrowseAdapter browseAdapter;
+	ListView wordListView;
+	Dictionary dictionary;
+
+	/**
+	 * Letter sections of the words of the dictionary.
+	 */
+	ArrayList<LetterSection> sections;
+
+	/**
+	 * Position of the letter whose words are displayed.
+	 */
+	int selectedLetter;
+
+	/** Called when the activity is first created. */
+	@Override
+	public void onCreate(Bundle savedInstanceState) {
+
+		super.onCreate(savedInstanceState);
+		setContentView(R.layout.browse_dictionary_gui);
+
+		dictionary = (Dictionary) getIntent().getSerializableExtra(
+				"com.aopds.dictionaryToBrowse");
+
+		if (dictionary == null) {
+			finish();
+			return;
+		}
+
+		data = AopdsDatabase.getInstance(getApplicationContext());
+
+		browseAdapter = new BrowseAdapter(getApplicationContext(),
+				dictionary, this);
+
+		try {
+			sections = data.getLetterSections(dictionary.getCode());
+		} catch (AopdsDatabaseException e) {
+			AopdsErrorHandler.handleError(e,
+					AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+			sections = new ArrayList<LetterSection>();
+		}
+
+		initGUI();
+
+		// from the first word of the dictionary
+		selectedLetter = 0;
+		browseAdapter.setSections(sections, 0);
+		browseAdapter.reset(WordPosition.ofKey(""), 0);
+
+	}
+
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+
+		if (browseAdapter != null) {
+			browseAdapter.close();
+		}
+	}
+
+	private void initGUI() {
+
+		TextView dictionaryName = (TextView) findViewById(R.id.browseDictionaryName);
+		dictionaryName.setText(dictionary.getName());
+
+		ArrayList<String> letters = new ArrayList<String>();
+
+		for (LetterSection section : sections) {
+			letters.add(section.getLetter());
+		}
+
+		ArrayAdapter<String> letterAdapter = new ArrayAdapter<String>(
+				getApplicationContext(), android.R.layout.simple_spinner_item,
+				letters);
+		letterAdapter
+				.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+
+		Spinner letterSpinner = (Spinner) findViewById(R.id.browseLetterSpinner);
+		letterSpinner.setAdapter(letterAdapter);
+		letterSpinner
+				.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+
+					public void onItemSelected(AdapterView<?> adapter, View v,
+							int position, long id) {
+
+						// the first letter is already displayed at start
+						if (position != selectedLetter) {
+							selectedLetter = position;
+							onJumpToSection(sections.get(position));
+						}
+					}
+
+					public void onNothingSelected(AdapterView<?> adapter) {
+					}
+				});
+
+		wordListView = (ListView) findViewById(R.id.browseWordList);
+
+		wordListView.setAdapter(browseAdapter);
+
+		wordListView
+				.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+
+					public void onItemClick(AdapterView<?> adapter, View v,
+							int position, long id) {
+
+						AbstractWord w = (AbstractWord) adapter
+								.getItemAtPosition(position);
+
+						onClickOnWord(w);
+
+					}
+				});
+
+	}
+
+	/**
+	 * Displays the words from a letter.
+	 * 
+	 * @param section
+	 *            The section of the letter.
+	 */
+	public void onJumpToSection(LetterSection section) {
+
+		browseAdapter.reset(WordPosition.ofKey(section.getLetter()),
+				section.getFirstPosition());
+
+		wordListView.setSelectionAfterHeaderView();
+	}
+
+	public void onClickOnWord(AbstractWord word) {
+
+		Intent seeWord = new Intent(getApplicationContext(),
+				SeeWordActivity.class);
+
+		word.setDictionary(dictionary);
+
+		seeWord.putExtra("com.aopds.wordToShow", word);
+
+		startActivity(seeWord);
+
+	}
+
+	/**
+	 * Keeps the same words on the screen when the window of the adapter has
+	 * moved.
+	 */
+	public void onWindowShifted(int shift) {
+
+		int position = wordListView.getFirstVisiblePosition() + shift;
+		View first = wordListView.getChildAt(0);
+		int top = first == null ? 0 : first.getTop();
+
+		wordListView.setSelectionFromTop(Math.max(position, 0), top);
+	}
+
+	public void onBrowseError(AopdsDatabaseException e) {
+		AopdsErrorHandler.handleError(e,
+				AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+	}
+
+}
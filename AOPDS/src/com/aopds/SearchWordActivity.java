@@ -1,20 +1,33 @@
 package com.aopds;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.aopds.aopdsData.AopdsCancellationSignal;
 import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.AopdsFederatedSearch;
 import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.AopdsDataException.DataBaseQueryCanceledException;
+import com.aopds.aopdsData.completion.AopdsCompletionEngine;
 import com.aopds.aopdsData.domain.AbstractWord;
 import com.aopds.aopdsData.domain.Dictionary;
+import com.aopds.aopdsData.domain.FederatedSearchResult;
 import com.aopds.aopdsData.domain.Headword;
 import com.aopds.aopdsData.domain.Suggestion;
-import com.aopds.guiAdapters.WordListAdapter;
+import com.aopds.guiAdapters.CompletionAdapter;
+import com.aopds.guiAdapters.WordCursorAdapter;
 import com.aopds.tools.AopdsErrorHandler;
+import com.aopds.tools.AopdsLogger;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
+import android.database.Cursor;
 import android.os.Bundle;
+import android.os.Handler;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.ContextMenu;
 import android.view.ContextMenu.ContextMenuInfo;
@@ -26,19 +39,81 @@ import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.AdapterView;
 import android.widget.AdapterView.AdapterContextMenuInfo;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ListView;
 import android.widget.TextView;
 import android.widget.TextView.OnEditorActionListener;
+import android.widget.Toast;
 
 public class SearchWordActivity extends AopdsActivity {
 
+	/**
+	 * Delay between the last keystroke and the live search, in ms.
+	 */
+	private static final long LIVE_SEARCH_DELAY = 300;
+
+	/**
+	 * Maximum number of corrections proposed for a word not found.
+	 */
+	private static final int MAX_CORRECTIONS = 8;
+
+	/**
+	 * Maximum number of words shown for each dictionary by the search in all
+	 * the dictionaries.
+	 */
+	private static final int MAX_WORDS_PER_DICTIONARY = 20;
+
+	/**
+	 * Time given to each dictionary by the search in all the dictionaries, in
+	 * ms.
+	 */
+	private static final long DICTIONARY_SEARCH_TIMEOUT = 2000;
+
 	AopdsDatabase data;
-	WordListAdapter headwordListAdapter;
+	AopdsCompletionEngine completionEngine;
+	WordCursorAdapter headwordListAdapter;
 	ListView resultListView;
 	Dictionary dictionary;
 
+	/**
+	 * Handler of the UI thread, debouncing the keystrokes and publishing the
+	 * results.
+	 */
+	private final Handler handler = new Handler();
+
+	/**
+	 * Single thread running the searches, one at a time.
+	 */
+	private ExecutorService searchExecutor;
+
+	/**
+	 * Search in all the installed dictionaries.
+	 */
+	private AopdsFederatedSearch federatedSearch;
+
+	/**
+	 * Cancellation of the last launched search, null if no search is running.
+	 * Only used in the UI thread.
+	 */
+	private AopdsCancellationSignal runningSearch;
+
+	/**
+	 * Number of writes of the dictionary when the last search was launched
+	 * (see AopdsDatabase.getChangeCount).
+	 */
+	private int searchChangeCount;
+
+	/**
+	 * Live search, launched when the user stops typing.
+	 */
+	private final Runnable liveSearch = new Runnable() {
+		public void run() {
+			launchSearch(false);
+		}
+	};
+
 	/** Called when the activity is first created. */
 	@Override
 	public void onCreate(Bundle savedInstanceState) {
@@ -55,10 +130,14 @@ public class SearchWordActivity extends AopdsActivity {
 		}
 
 		data = AopdsDatabase.getInstance(getApplicationContext());
+		completionEngine = AopdsCompletionEngine
+				.getInstance(getApplicationContext());
+
+		searchExecutor = Executors.newSingleThreadExecutor();
+		federatedSearch = new AopdsFederatedSearch(data);
 
-		headwordListAdapter = new WordListAdapter(getApplicationContext(),
-				R.layout.search_word_list_item, new ArrayList<AbstractWord>(),
-				dictionary);
+		headwordListAdapter = new WordCursorAdapter(getApplicationContext(),
+				null);
 		
 		initGUI();
 
@@ -75,11 +154,25 @@ public class SearchWordActivity extends AopdsActivity {
 		}
 	}
 	
+	/**
+	 * Reads the full entry of a word of the list, which only shows its
+	 * beginning.
+	 */
+	private void loadEntry(AbstractWord w) {
+		try {
+			data.loadEntry(w);
+		} catch (AopdsDatabaseException e) {
+			AopdsErrorHandler.handleError(e,
+					AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+		}
+	}
+
 	public void delete(int pos) {
 
 		AbstractWord w = (AbstractWord)resultListView.getAdapter().getItem(pos);
 		Log.i("selectedWord",w.toString());
 		w.setDictionary(dictionary);
+		loadEntry(w);
 		
 		if (w instanceof Headword) {
 			
@@ -107,6 +200,7 @@ public class SearchWordActivity extends AopdsActivity {
 		AbstractWord w = (AbstractWord)resultListView.getAdapter().getItem(pos);
 		Log.i("selectedWord",w.toString());
 		w.setDictionary(dictionary);
+		loadEntry(w);
 
 		Intent intent = new Intent(getApplicationContext(),
 				ModifyWordActivity.class);
@@ -117,14 +211,35 @@ public class SearchWordActivity extends AopdsActivity {
 
 	
 	@Override
-	protected void onRestart() {
-		super.onRestart();
+	protected void onDestroy() {
+		super.onDestroy();
 
-		headwordListAdapter.clear();
+		handler.removeCallbacks(liveSearch);
+		cancelRunningSearch();
+		searchExecutor.shutdownNow();
+		federatedSearch.shutdown();
 
-		headwordListAdapter.notifyDataSetChanged();
+		// closing the displayed results
+		headwordListAdapter.changeCursor(null);
+	}
 
-		resultListView.setSelectionAfterHeaderView();
+	@Override
+	protected void onStop() {
+		super.onStop();
+
+		// the application may be killed in background
+		data.flushWordUsage();
+	}
+
+	@Override
+	protected void onRestart() {
+		super.onRestart();
+
+		// the displayed results are kept, unless the words have been
+		// written since (modification, deletion ...)
+		if (searchChangeCount != data.getChangeCount(dictionary.getCode())) {
+			launchSearch(false);
+		}
 
 	}
 	
@@ -168,7 +283,7 @@ public class SearchWordActivity extends AopdsActivity {
 				+ " => " + dictionary.getLanguageTo().getName());
 
 		// to launch "onSearchWord() when the user press OK on the Keyboard
-		EditText search = (EditText) findViewById(R.id.wordToSearchEditText);
+		AutoCompleteTextView search = (AutoCompleteTextView) findViewById(R.id.wordToSearchEditText);
 		search.setOnEditorActionListener(new OnEditorActionListener() {
 			@Override
 			public boolean onEditorAction(TextView v, int actionId,
@@ -186,6 +301,40 @@ public class SearchWordActivity extends AopdsActivity {
 			}
 		});
 
+		// live search : searching when the user stops typing
+		search.addTextChangedListener(new TextWatcher() {
+
+			public void afterTextChanged(Editable s) {
+				handler.removeCallbacks(liveSearch);
+				cancelRunningSearch();
+				handler.postDelayed(liveSearch, LIVE_SEARCH_DELAY);
+			}
+
+			public void beforeTextChanged(CharSequence s, int start,
+					int count, int after) {
+			}
+
+			public void onTextChanged(CharSequence s, int start, int before,
+					int count) {
+			}
+		});
+
+		// completions of the typed word, the chosen one is searched
+		search.setAdapter(new CompletionAdapter(getApplicationContext(),
+				android.R.layout.simple_dropdown_item_1line, dictionary
+						.getCode()));
+		search.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+
+			public void onItemClick(AdapterView<?> adapter, View v,
+					int position, long id) {
+				// close the keybord
+				InputMethodManager inputManager = (InputMethodManager) getSystemService(Context.INPUT_METHOD_SERVICE);
+				inputManager.hideSoftInputFromWindow(getCurrentFocus()
+						.getWindowToken(), InputMethodManager.HIDE_NOT_ALWAYS);
+				onSearchWord();
+			}
+		});
+
 		Button searchButton = (Button) findViewById(R.id.searchWordSearchButton);
 		searchButton.setOnClickListener(new View.OnClickListener() {
 
@@ -211,6 +360,27 @@ public class SearchWordActivity extends AopdsActivity {
 			}
 		});
 
+		Button browseButton = (Button) findViewById(R.id.searchButtonBrowse);
+		browseButton.setOnClickListener(new View.OnClickListener() {
+
+			public void onClick(View v) {
+				Intent browse = new Intent(getApplicationContext(),
+						BrowseDictionaryActivity.class);
+
+				browse.putExtra("com.aopds.dictionaryToBrowse", dictionary);
+
+				startActivity(browse);
+			}
+		});
+
+		Button searchAllButton = (Button) findViewById(R.id.searchButtonSearchAll);
+		searchAllButton.setOnClickListener(new View.OnClickListener() {
+
+			public void onClick(View v) {
+				launchFederatedSearch();
+			}
+		});
+
 		resultListView = (ListView) findViewById(R.id.searchResultsList);
 
 		resultListView.setAdapter(headwordListAdapter);
@@ -246,6 +416,48 @@ public class SearchWordActivity extends AopdsActivity {
 
 	}
 
+	/**
+	 * Tells the user that a word has not been found and proposes the close
+	 * words of the dictionary and the words sounding alike, if any : the
+	 * chosen one is searched.
+	 * 
+	 * @param wordNotFound
+	 *            The searched word.
+	 * @param corrections
+	 *            The words close to the searched one, may be null or empty.
+	 */
+	public void showNoMatchFoundDialog(String wordNotFound,
+			final ArrayList<String> corrections) {
+
+		if (corrections == null || corrections.size() == 0) {
+			showNoMatchFoundDialog(wordNotFound);
+			return;
+		}
+
+		AlertDialog.Builder builder = new AlertDialog.Builder(this);
+		builder.setTitle(getString(R.string.LABEL_DID_YOU_MEAN))
+				.setItems(corrections.toArray(new String[corrections.size()]),
+						new DialogInterface.OnClickListener() {
+							public void onClick(DialogInterface dialog,
+									int which) {
+								AutoCompleteTextView search = (AutoCompleteTextView) findViewById(R.id.wordToSearchEditText);
+								search.setText(corrections.get(which));
+								search.dismissDropDown();
+								onSearchWord();
+							}
+						})
+				.setNegativeButton(android.R.string.cancel,
+						new DialogInterface.OnClickListener() {
+							public void onClick(DialogInterface dialog, int id) {
+								dialog.cancel();
+							}
+						});
+
+		AlertDialog alert = builder.create();
+		alert.show();
+
+	}
+
 	public void showNoMatchFoundDialog(String wordNotFound) {
 
 		AlertDialog.Builder builder = new AlertDialog.Builder(this);
@@ -278,37 +490,299 @@ public class SearchWordActivity extends AopdsActivity {
 
 	public void onSearchWord() {
 
+		handler.removeCallbacks(liveSearch);
+
+		launchSearch(true);
+
+	}
+
+	/**
+	 * Cancels the search running in the background, its results will be
+	 * ignored.
+	 */
+	private void cancelRunningSearch() {
+
+		if (runningSearch != null) {
+			runningSearch.cancel();
+			runningSearch = null;
+		}
+
+	}
+
+	/**
+	 * Searches the typed word in a background thread, canceling the previous
+	 * search if it is still running.
+	 * 
+	 * @param explicit
+	 *            true if the search has been asked by the user (search
+	 *            button, keyboard), false for a live search.
+	 */
+	private void launchSearch(final boolean explicit) {
+
 		EditText wordToSearchEditText = (EditText) findViewById(R.id.wordToSearchEditText);
 
-		String text = wordToSearchEditText.getText().toString();
+		final String text = wordToSearchEditText.getText().toString();
 
-		if (text.length() > 0) {
+		cancelRunningSearch();
 
-			try {
-				ArrayList<AbstractWord> results = data.searchWord(
-						dictionary.getCode(), text, false, true);
+		if (text.length() <= 0) {
 
-				if (results == null) {
+			if (!explicit) {
+				headwordListAdapter.changeCursor(null);
+			}
 
-					showNoMatchFoundDialog(text);
+			showResults();
+			return;
+		}
 
-				} else {
+		final AopdsCancellationSignal cancellation = new AopdsCancellationSignal();
+		final int dictionaryId = dictionary.getCode();
 
-					headwordListAdapter.clear();
-					headwordListAdapter.addAll(results);
+		runningSearch = cancellation;
+		searchChangeCount = data.getChangeCount(dictionaryId);
 
-					headwordListAdapter.notifyDataSetChanged();
+		searchExecutor.execute(new Runnable() {
 
-					resultListView.setSelectionAfterHeaderView();
+			public void run() {
+
+				Cursor results = null;
+				ArrayList<String> corrections = null;
+				AopdsDatabaseException error = null;
+
+				try {
+					results = data.rankedSearchWordCursor(dictionaryId, text,
+							true, cancellation);
+
+					if (results != null && explicit) {
+						// the words looked up, to rank them first next time
+						for (AbstractWord word : data.lookupWord(dictionaryId,
+								text)) {
+							data.recordWordLookup(dictionaryId, word);
+						}
+					}
+				} catch (DataBaseQueryCanceledException e) {
+					return; // superseded by a newer search
+				} catch (AopdsDatabaseException e) {
+					error = e;
 				}
 
-			} catch (AopdsDatabaseException e) {
-				AopdsErrorHandler.handleError(e,
-						AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+				if (results == null && error == null && explicit) {
+					// the word may be misspelled
+					corrections = completionEngine.correct(dictionaryId,
+							text, MAX_CORRECTIONS);
+
+					// or written as it sounds
+					try {
+						ArrayList<AbstractWord> soundAlike = data
+								.searchSoundAlike(dictionaryId, text, true,
+										MAX_CORRECTIONS);
+
+						if (soundAlike != null) {
+							if (corrections == null) {
+								corrections = new ArrayList<String>();
+							}
+							for (AbstractWord word : soundAlike) {
+								if (!corrections.contains(word.getWord())) {
+									corrections.add(word.getWord());
+								}
+							}
+						}
+					} catch (AopdsDatabaseException e) {
+						// the spelling corrections are still valid
+						AopdsLogger.error(SearchWordActivity.class.getName(),
+								"Sound-alike search failed : " + e, e);
+					}
+				}
+
+				final Cursor foundWords = results;
+				final ArrayList<String> closeWords = corrections;
+				final AopdsDatabaseException searchError = error;
+
+				handler.post(new Runnable() {
+					public void run() {
+						publishResults(cancellation, text, foundWords,
+								closeWords, searchError, explicit);
+					}
+				});
+			}
+		});
+
+	}
+
+	/**
+	 * Searches the typed word in all the installed dictionaries, in a
+	 * background thread, canceling the previous search if it is still
+	 * running. The found words are proposed in a dialog.
+	 */
+	private void launchFederatedSearch() {
+
+		EditText wordToSearchEditText = (EditText) findViewById(R.id.wordToSearchEditText);
+
+		final String text = wordToSearchEditText.getText().toString();
+
+		handler.removeCallbacks(liveSearch);
+		cancelRunningSearch();
+
+		if (text.length() <= 0) {
+			return;
+		}
+
+		final AopdsCancellationSignal cancellation = new AopdsCancellationSignal();
+
+		runningSearch = cancellation;
+
+		searchExecutor.execute(new Runnable() {
+
+			public void run() {
+
+				FederatedSearchResult result = null;
+				AopdsDatabaseException error = null;
+
+				try {
+					result = federatedSearch.search(data.getAllDictionaries(),
+							text, true, MAX_WORDS_PER_DICTIONARY,
+							DICTIONARY_SEARCH_TIMEOUT, cancellation);
+				} catch (DataBaseQueryCanceledException e) {
+					return; // superseded by a newer search
+				} catch (AopdsDatabaseException e) {
+					error = e;
+				}
+
+				final FederatedSearchResult foundWords = result;
+				final AopdsDatabaseException searchError = error;
+
+				handler.post(new Runnable() {
+					public void run() {
+						publishFederatedResults(cancellation, text,
+								foundWords, searchError);
+					}
+				});
+			}
+		});
+
+	}
+
+	/**
+	 * Proposes the words found in all the dictionaries, in the UI thread, if
+	 * the search has not been superseded by a newer one.
+	 */
+	private void publishFederatedResults(AopdsCancellationSignal cancellation,
+			String text, FederatedSearchResult result,
+			AopdsDatabaseException error) {
+
+		if (cancellation != runningSearch || cancellation.isCanceled()) {
+			return; // stale results
+		}
+
+		runningSearch = null;
+
+		if (error != null) {
+			AopdsErrorHandler.handleError(error,
+					AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+			return;
+		}
+
+		final ArrayList<AbstractWord> words = result.getWords();
+
+		// the words of these dictionaries are missing
+		if (!result.getNotSearched().isEmpty()) {
+
+			StringBuilder notSearched = new StringBuilder(
+					getString(R.string.LABEL_NOT_SEARCHED));
+
+			String separator = " ";
+
+			for (Dictionary dictionary : result.getNotSearched()) {
+				notSearched.append(separator).append(dictionary.getName());
+				separator = ", ";
+			}
+
+			Toast.makeText(getApplicationContext(), notSearched,
+					Toast.LENGTH_LONG).show();
+		}
+
+		if (words.size() == 0) {
+			showNoMatchFoundDialog(text);
+			return;
+		}
+
+		String[] items = new String[words.size()];
+
+		for (int i = 0; i < items.length; i++) {
+			items[i] = words.get(i).getWord() + " ("
+					+ words.get(i).getDictionary().getName() + ")";
+		}
+
+		AlertDialog.Builder builder = new AlertDialog.Builder(this);
+		builder.setTitle(getString(R.string.LABEL_SEARCH_ALL_DICTIONARIES))
+				.setItems(items, new DialogInterface.OnClickListener() {
+					public void onClick(DialogInterface dialog, int which) {
+						Intent seeWord = new Intent(getApplicationContext(),
+								SeeWordActivity.class);
+
+						// the word keeps its own dictionary
+						seeWord.putExtra("com.aopds.wordToShow",
+								words.get(which));
+
+						startActivity(seeWord);
+					}
+				})
+				.setNegativeButton(android.R.string.cancel,
+						new DialogInterface.OnClickListener() {
+							public void onClick(DialogInterface dialog, int id) {
+								dialog.cancel();
+							}
+						});
+
+		AlertDialog alert = builder.create();
+		alert.show();
+
+	}
+
+	/**
+	 * Displays the results of a search, in the UI thread, if the search has
+	 * not been superseded by a newer one. The displayed cursor is closed when
+	 * it is replaced.
+	 */
+	private void publishResults(AopdsCancellationSignal cancellation,
+			String text, Cursor results, ArrayList<String> corrections,
+			AopdsDatabaseException error, boolean explicit) {
+
+		if (cancellation != runningSearch || cancellation.isCanceled()) {
+			if (results != null) {
+				results.close();
 			}
+			return; // stale results
+		}
+
+		runningSearch = null;
+
+		if (error != null) {
+
+			AopdsErrorHandler.handleError(error,
+					AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
 
+		} else if (results == null) {
+
+			if (explicit) {
+				showNoMatchFoundDialog(text, corrections);
+			} else {
+				headwordListAdapter.changeCursor(null);
+			}
+
+		} else {
+
+			headwordListAdapter.changeCursor(results);
+
+			resultListView.setSelectionAfterHeaderView();
 		}
 
+		showResults();
+
+	}
+
+	private void showResults() {
+
 		TextView searchWordResultsText = (TextView) findViewById(R.id.searchWordResultsText);
 		searchWordResultsText.setVisibility(TextView.VISIBLE);
 		registerForContextMenu(resultListView);//////////////////////////////////////////////////////////////a changer...
@@ -40,8 +40,22 @@ public class SeeWordActivity extends AopdsActivity {
 
 			if (displayedWord.getDictionary() != null) {
 
+				// the lists only read the beginning of the entries
+				try {
+					AopdsDatabase.getInstance(getApplicationContext())
+							.loadEntry(displayedWord);
+				} catch (AopdsDatabaseException e) {
+					AopdsErrorHandler.handleError(e,
+							AopdsErrorHandler.DATABASE_ERROR_DEFAULT, this);
+				}
+
 				initGui();
 
+				AopdsDatabase.getInstance(getApplicationContext())
+						.recordWordOpen(
+								displayedWord.getDictionary().getCode(),
+								displayedWord);
+
 			} else {
 				AopdsErrorHandler.handleError(new Exception(""), 0, this);
 				finish();
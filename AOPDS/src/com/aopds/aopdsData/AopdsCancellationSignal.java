@@ -0,0 +1,54 @@
+package com.aopds.aopdsData;
+
+/**
+ * 
+ * Cancellation of a running database query, set by another thread.<br>
+ * <br>
+ * 
+ * The android.os.CancellationSignal of the framework is only available from
+ * API 16 : the queries of the AopdsDatabase check this signal instead, before
+ * launching the SQL query, after the first rows have been read and between
+ * the rows mapped to objects. A canceled query stops at the next check and
+ * throws a DataBaseQueryCanceledException.
+ * 
+ */
+public final class AopdsCancellationSignal {
+
+	private volatile boolean canceled;
+
+	/**
+	 * Signal canceling this one too, may be null.
+	 */
+	private final AopdsCancellationSignal parent;
+
+	public AopdsCancellationSignal() {
+		this(null);
+	}
+
+	/**
+	 * Creates a signal canceled with another one : a part of a search (a
+	 * dictionary of a federated search ...) can be canceled alone, or with
+	 * the whole search.
+	 * 
+	 * @param parent
+	 *            The signal canceling this one too, may be null.
+	 */
+	public AopdsCancellationSignal(AopdsCancellationSignal parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Cancels the query using this signal. May be called from any thread.
+	 */
+	public void cancel() {
+		canceled = true;
+	}
+
+	/**
+	 * @return true if the query has been canceled.
+	 */
+	public boolean isCanceled() {
+		return canceled || (parent != null && parent.isCanceled());
+	}
+
+}
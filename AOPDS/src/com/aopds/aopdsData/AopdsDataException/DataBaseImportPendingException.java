@@ -0,0 +1,13 @@
+package com.aopds.aopdsData.AopdsDataException;
+
+public class DataBaseImportPendingException extends AopdsDatabaseException {
+
+	private static final long serialVersionUID = 1L;
+
+	public DataBaseImportPendingException(String databaseName,
+			int databaseVersion, String source, int dictionaryId) {
+		super(databaseName, databaseVersion, null, "The import of " + source
+				+ " into dictionary " + dictionaryId + " is not ended.");
+	}
+
+}
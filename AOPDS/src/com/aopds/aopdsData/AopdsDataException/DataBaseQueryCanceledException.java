@@ -0,0 +1,13 @@
+package com.aopds.aopdsData.AopdsDataException;
+
+public class DataBaseQueryCanceledException extends AopdsDatabaseException {
+
+	private static final long serialVersionUID = 1L;
+
+	public DataBaseQueryCanceledException(String databaseName,
+			int databaseVersion) {
+		super(databaseName, databaseVersion, null,
+				"The query has been canceled before its end.");
+	}
+
+}
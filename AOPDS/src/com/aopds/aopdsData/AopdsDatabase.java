@@ -1,31 +1,62 @@
 package com.aopds.aopdsData;
 
-import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.AopdsDataException.DataBaseImportPendingException;
+import com.aopds.aopdsData.AopdsDataException.DataBaseQueryCanceledException;
 import com.aopds.aopdsData.AopdsDataException.DataBaseRuntimeException;
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.analysis.AopdsAnalyzers;
+import com.aopds.aopdsData.analysis.EntryAnnotationParser;
 import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Annotation;
 import com.aopds.aopdsData.domain.Headword;
 import com.aopds.aopdsData.domain.Dictionary;
+import com.aopds.aopdsData.domain.EntryMatch;
 import com.aopds.aopdsData.domain.Language;
+import com.aopds.aopdsData.domain.LetterSection;
+import com.aopds.aopdsData.domain.SearchableWords;
 import com.aopds.aopdsData.domain.Suggestion;
+import com.aopds.aopdsData.domain.WordPage;
+import com.aopds.aopdsData.domain.WordPosition;
+import com.aopds.aopdsData.importer.DictionaryImporter;
+import com.aopds.aopdsData.importer.DictionaryImporters;
+import com.aopds.aopdsData.importer.DictionarySink;
 import com.aopds.tools.AopdsLogger;
 
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.MatrixCursor;
+import android.database.MergeCursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.database.sqlite.SQLiteQueryBuilder;
 import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.os.Environment;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -73,7 +104,58 @@ public final class AopdsDatabase {
 	/**
 	 * SQLite DB version
 	 */
-	private final static int DATABASE_VERSION = 1;
+	private final static int DATABASE_VERSION = 16;
+
+	/**
+	 * Asset of the prebuilt database (see compileDatabase), copied as the
+	 * database at the first launch. The file is gzipped : before Gingerbread
+	 * the assets compressed by the packaging cannot be read beyond 1 MB.
+	 */
+	public final static String PREBUILT_DATABASE_ASSET = "aopds.db.gz";
+
+	/**
+	 * Default memory budget of the cache of the word searches, in bytes (see
+	 * searchWord).
+	 */
+	private final static int SEARCH_CACHE_BUDGET = 256 * 1024;
+
+	/**
+	 * Maximum number of used words ranked before the other words by
+	 * rankedSearchWordCursor : the other used words keep their place in the
+	 * order of the search keys.
+	 */
+	private final static int RANKED_USED_WORDS = 20;
+
+	/**
+	 * Number of first rows of the ranked searches kept in their cache (see
+	 * rankedSearchWordCursor) : more than a screen of results.
+	 */
+	private final static int RANKED_WINDOW_ROWS = 64;
+
+	/**
+	 * Delay between the first usage count recorded and the write of the
+	 * counts, in ms (see recordWordLookup).
+	 */
+	private final static long USAGE_FLUSH_DELAY = 30 * 1000;
+
+	/**
+	 * Number of words written by each transaction of an import (see
+	 * importDictionary).
+	 */
+	private final static int IMPORT_TRANSACTION_SIZE = 20000;
+
+	/**
+	 * Held by the running import : the indexes of the imported tables are
+	 * dropped during its load.
+	 */
+	private final static Object IMPORT_LOCK = new Object();
+
+	/**
+	 * Maximum number of posting lists intersected by a pattern search (see
+	 * searchPattern) : the other trigrams of the pattern are only verified on
+	 * the candidates.
+	 */
+	private final static int MAX_PATTERN_TRIGRAMS = 8;
 
 	/*
 	 * SQLite DB tables and fields names.
@@ -96,6 +178,8 @@ public final class AopdsDatabase {
 	private final static String TF_HEADWORD_ENTRY = "ENTRY";
 	private final static String TF_HEADWORD_PHONETIC = "PHONETIC";
 	private final static String TF_HEADWORD_PRONUN_EXISTS = "PRONUNCIATION_EXISTS";
+	private final static String TF_HEADWORD_SEARCH_KEY = "SEARCH_KEY";
+	private final static String TF_HEADWORD_SOUND_KEY = "SOUND_KEY";
 
 	// table suggestion
 
@@ -111,6 +195,29 @@ public final class AopdsDatabase {
 	private final static String TF_SUGGESTION_SYNCH_STAT = "SYNCHRO_STATUS";
 	private final static String TF_SUGGESTION_CREATION_DATE = "CREATION_DATE";
 	private final static String TF_SUGGESTION_DICT_VERSION = "DICTIONARY_VERSION";
+	private final static String TF_SUGGESTION_SEARCH_KEY = "SEARCH_KEY";
+	private final static String TF_SUGGESTION_SOUND_KEY = "SOUND_KEY";
+
+	// full text indexes of the entries, the docid of a row is the id of the
+	// indexed word
+
+	private final static String TABLE_HEADWORD_FTS = "HEADWORD_FTS";
+	private final static String TABLE_SUGGESTION_FTS = "SUGGESTION_FTS";
+	private final static String TF_FTS_ENTRY = "ENTRY";
+
+	/**
+	 * Markup of the matching terms in the snippets of the full text search.
+	 */
+	private final static String SNIPPET_START = "<b>";
+	private final static String SNIPPET_END = "</b>";
+	private final static String SNIPPET_ELLIPSIS = "...";
+
+	/**
+	 * Number of terms of the snippets of the full text search, and of terms
+	 * kept before the first matching one.
+	 */
+	private final static int SNIPPET_TERMS = 15;
+	private final static int SNIPPET_LEAD_TERMS = 3;
 
 	public static final String ACTION_TYPE_ADDITION = "a";
 	public static final String ACTION_TYPE_MODIFICATION = "m";
@@ -125,11 +232,297 @@ public final class AopdsDatabase {
 	private final static String TF_ID_NAME = "NAME";
 	private final static String TF_ID_VERSION = "VERSION";
 
+	// table effective headword : the words found by the searches, as they are
+	// after the suggestions. One row per headword, with its last
+	// modification and deletion flag, and one row per suggestion which is not
+	// a modification. Refreshed on every write of a suggestion.
+
+	private final static String TABLE_EFFECTIVE_HEADWORD = "EFFECTIVE_HEADWORD";
+	private final static String TF_EH_TYPE = "WORD_TYPE";
+	private final static String TF_EH_WORD_ID = "WORD_ID";
+	private final static String TF_EH_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_EH_WORD = "WORD";
+	private final static String TF_EH_ENTRY = "ENTRY";
+	private final static String TF_EH_PHONETIC = "PHONETIC";
+	private final static String TF_EH_SYNCH_STAT = "SYNCHRO_STATUS";
+	private final static String TF_EH_ACT_TYPE = "ACTION_TYPE";
+	private final static String TF_EH_DELETED = "DELETED";
+	private final static String TF_EH_LM_ID = "LM_SUGGESTION_ID";
+	private final static String TF_EH_LM_WORD = "LM_WORD";
+	private final static String TF_EH_LM_ENTRY = "LM_ENTRY";
+	private final static String TF_EH_LM_PHONETIC = "LM_PHONETIC";
+	private final static String TF_EH_LM_SYNCH_STAT = "LM_SYNCHRO_STATUS";
+	private final static String TF_EH_LM_ACT_TYPE = "LM_ACTION_TYPE";
+	private final static String TF_EH_SEARCH_KEY = "SEARCH_KEY";
+
+	// table letter section : the number of effective headwords of each first
+	// letter of the search keys, kept up to date by triggers on the effective
+	// headwords. Gives the position of a letter in the ordered words.
+
+	private final static String TABLE_LETTER_SECTION = "LETTER_SECTION";
+	private final static String TF_LS_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_LS_LETTER = "LETTER";
+	private final static String TF_LS_WORD_COUNT = "WORD_COUNT";
+
+	// table word usage : how many times the effective headwords have been
+	// looked up and opened, to rank the searches. Written behind the
+	// lookups (see AopdsUsageRecorder).
+
+	private final static String TABLE_WORD_USAGE = "WORD_USAGE";
+	private final static String TF_WU_TYPE = "WORD_TYPE";
+	private final static String TF_WU_WORD_ID = "WORD_ID";
+	private final static String TF_WU_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_WU_LOOKUP_COUNT = "LOOKUP_COUNT";
+	private final static String TF_WU_OPEN_COUNT = "OPEN_COUNT";
+	private final static String TF_WU_USAGE_COUNT = "USAGE_COUNT";
+
+	// table word trigram : posting lists of the trigrams of the search keys
+	// of the effective headwords, for the pattern searches (see
+	// searchPattern and AopdsSearchKey.trigrams).
+
+	private final static String TABLE_WORD_TRIGRAM = "WORD_TRIGRAM";
+	private final static String TF_WT_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_WT_TRIGRAM = "TRIGRAM";
+	private final static String TF_WT_TYPE = "WORD_TYPE";
+	private final static String TF_WT_WORD_ID = "WORD_ID";
+
+	// table provisioning : the last provisioned stage of the database (see
+	// AopdsProvisioning), a single row
+
+	private final static String TABLE_PROVISIONING = "PROVISIONING";
+	private final static String TF_PROVISIONING_STAGE = "STAGE";
+
+	// table import job : the checkpoint of an import not finished, a row by
+	// dictionary (see importWords)
+
+	private final static String TABLE_IMPORT_JOB = "IMPORT_JOB";
+	private final static String TF_IJ_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_IJ_SOURCE = "SOURCE";
+	private final static String TF_IJ_ENTRIES = "ENTRIES";
+	private final static String TF_IJ_FIRST_ID = "FIRST_ID";
+	private final static String TF_IJ_LAST_ID = "LAST_ID";
+
+	// table annotation : grammar and sense notes of the entries of the
+	// headwords, parsed at import (see EntryAnnotationParser)
+
+	private final static String TABLE_ANNOTATION = "ANNOTATION";
+	private final static String TF_ANNOTATION_HEADWORD_ID = "HEADWORD_ID";
+	private final static String TF_ANNOTATION_DICT_ID = "DICTIONARY_ID";
+	private final static String TF_ANNOTATION_POS = "PART_OF_SPEECH";
+	private final static String TF_ANNOTATION_NOTE = "NOTE";
+
+	public final static String WORD_TYPE_HEADWORD = "h";
+	public final static String WORD_TYPE_SUGGESTION = "s";
+
+	/**
+	 * Shapes of the frequent queries (see registerStatements).
+	 */
+	private final static String STATEMENT_WORD_BY_ID = "wordById";
+	private final static String STATEMENT_DICTIONARY_BY_ID = "dictionaryById";
+	private final static String STATEMENT_LANGUAGE_BY_CODE = "languageByCode";
+	private final static String STATEMENT_SEARCH_HEADWORDS = "searchHeadwords";
+	private final static String STATEMENT_SEARCH_WORDS = "searchWords";
+	private final static String STATEMENT_EXACT_HEADWORDS = "exactHeadwords";
+	private final static String STATEMENT_EXACT_WORDS = "exactWords";
+	private final static String STATEMENT_RANKED_EXACT_HEADWORDS = "rankedExactHeadwords";
+	private final static String STATEMENT_RANKED_EXACT_WORDS = "rankedExactWords";
+	private final static String STATEMENT_RANKED_USED_HEADWORDS = "rankedUsedHeadwords";
+	private final static String STATEMENT_RANKED_USED_WORDS = "rankedUsedWords";
+	private final static String STATEMENT_RANKED_OTHER_HEADWORDS = "rankedOtherHeadwords";
+	private final static String STATEMENT_RANKED_OTHER_WORDS = "rankedOtherWords";
+	private final static String STATEMENT_RANKED_REST_HEADWORDS = "rankedRestHeadwords";
+	private final static String STATEMENT_RANKED_REST_WORDS = "rankedRestWords";
+	private final static String STATEMENT_HEADWORD_ENTRY = "headwordEntry";
+	private final static String STATEMENT_SUGGESTION_ENTRY = "suggestionEntry";
+
+	/**
+	 * Fields of the effective headwords, in the order of the word search
+	 * cursors (see mapSearchedWord).
+	 */
+	private final static String EFFECTIVE_HEADWORD_FIELDS = TF_EH_TYPE + " ,"
+			+ TF_EH_WORD_ID + " ," + TF_EH_DICT_ID + " ," + TF_EH_WORD + " ,"
+			+ TF_EH_ENTRY + " ," + TF_EH_PHONETIC + " ," + TF_EH_SYNCH_STAT
+			+ " ," + TF_EH_ACT_TYPE + " ," + TF_EH_DELETED + " ," + TF_EH_LM_ID
+			+ " ," + TF_EH_LM_WORD + " ," + TF_EH_LM_ENTRY + " ,"
+			+ TF_EH_LM_PHONETIC + " ," + TF_EH_LM_SYNCH_STAT + " ,"
+			+ TF_EH_LM_ACT_TYPE + " ," + TF_EH_SEARCH_KEY + " ";
+
+	/**
+	 * Positions of the fields of the word search cursors (see
+	 * searchWordCursor), for the adapters binding them.
+	 */
+	public final static int SEARCHED_WORD_TYPE = 0;
+	public final static int SEARCHED_WORD_ID = 1;
+	public final static int SEARCHED_WORD_WORD = 3;
+	public final static int SEARCHED_WORD_ENTRY = 4;
+	public final static int SEARCHED_WORD_SYNCH_STAT = 6;
+	public final static int SEARCHED_WORD_ACT_TYPE = 7;
+	public final static int SEARCHED_WORD_LM_ID = 9;
+	public final static int SEARCHED_WORD_LM_WORD = 10;
+	public final static int SEARCHED_WORD_LM_ENTRY = 11;
+	public final static int SEARCHED_WORD_LM_SYNCH_STAT = 13;
+	public final static int SEARCHED_WORD_LM_ACT_TYPE = 14;
+	public final static int SEARCHED_WORD_SEARCH_KEY = 15;
+
+	/**
+	 * Number of characters of the entries read by the list projection (see
+	 * mapListedWord) : about a line of a list.
+	 */
+	public final static int ENTRY_SNIPPET_LENGTH = 80;
+
+	/**
+	 * Computes the effective headword of the headwords (alias H) matching the
+	 * condition to append : the headword, the existence of a deletion
+	 * suggestion and its last modification suggestion.
+	 */
+	private final static String REFRESH_EFFECTIVE_HEADWORDS = "INSERT OR REPLACE INTO "
+			+ TABLE_EFFECTIVE_HEADWORD
+			+ " ( "
+			+ EFFECTIVE_HEADWORD_FIELDS
+			+ ") SELECT '"
+			+ WORD_TYPE_HEADWORD
+			+ "' , H."
+			+ TF_HEADWORD_ID
+			+ " , H."
+			+ TF_HEADWORD_DICT_ID
+			+ " , H."
+			+ TF_HEADWORD_WORD
+			+ " , H."
+			+ TF_HEADWORD_ENTRY
+			+ " , H."
+			+ TF_HEADWORD_PHONETIC
+			+ " , NULL , NULL , EXISTS ( SELECT D."
+			+ TF_SUGGESTION_ID
+			+ " FROM "
+			+ TABLE_SUGGESTION
+			+ " D WHERE D."
+			+ TF_SUGGESTION_HEADWORD_ID
+			+ " = H."
+			+ TF_HEADWORD_ID
+			+ " AND SUBSTR(D."
+			+ TF_SUGGESTION_ACT_TYPE
+			+ ", 1, 1) = '"
+			+ ACTION_TYPE_DELETION
+			+ "' ) , LM."
+			+ TF_SUGGESTION_ID
+			+ " , LM."
+			+ TF_SUGGESTION_WORD
+			+ " , LM."
+			+ TF_SUGGESTION_ENTRY
+			+ " , LM."
+			+ TF_SUGGESTION_PHONETIC
+			+ " , LM."
+			+ TF_SUGGESTION_SYNCH_STAT
+			+ " , LM."
+			+ TF_SUGGESTION_ACT_TYPE
+			+ " , H."
+			+ TF_HEADWORD_SEARCH_KEY
+			+ " FROM "
+			+ TABLE_HEADWORD
+			+ " H LEFT OUTER JOIN "
+			+ TABLE_SUGGESTION
+			+ " LM ON LM."
+			+ TF_SUGGESTION_ID
+			+ " = ( SELECT M."
+			+ TF_SUGGESTION_ID
+			+ " FROM "
+			+ TABLE_SUGGESTION
+			+ " M WHERE M."
+			+ TF_SUGGESTION_HEADWORD_ID
+			+ " = H."
+			+ TF_HEADWORD_ID
+			+ " AND SUBSTR(M."
+			+ TF_SUGGESTION_ACT_TYPE
+			+ ", 1, 1) = '"
+			+ ACTION_TYPE_MODIFICATION
+			+ "' ORDER BY M."
+			+ TF_SUGGESTION_CREATION_DATE + " DESC LIMIT 1 ) WHERE ";
+
+	/**
+	 * Computes the effective headword of the suggestions (alias S) which are
+	 * not modifications and match the condition to append.
+	 */
+	private final static String REFRESH_EFFECTIVE_SUGGESTIONS = "INSERT OR REPLACE INTO "
+			+ TABLE_EFFECTIVE_HEADWORD
+			+ " ( "
+			+ EFFECTIVE_HEADWORD_FIELDS
+			+ ") SELECT '"
+			+ WORD_TYPE_SUGGESTION
+			+ "' , S."
+			+ TF_SUGGESTION_ID
+			+ " , S."
+			+ TF_SUGGESTION_DICT_ID
+			+ " , S."
+			+ TF_SUGGESTION_WORD
+			+ " , S."
+			+ TF_SUGGESTION_ENTRY
+			+ " , S."
+			+ TF_SUGGESTION_PHONETIC
+			+ " , S."
+			+ TF_SUGGESTION_SYNCH_STAT
+			+ " , S."
+			+ TF_SUGGESTION_ACT_TYPE
+			+ " , NULL , NULL , NULL , NULL , NULL , NULL , NULL , S."
+			+ TF_SUGGESTION_SEARCH_KEY
+			+ " FROM "
+			+ TABLE_SUGGESTION
+			+ " S WHERE SUBSTR(S."
+			+ TF_SUGGESTION_ACT_TYPE
+			+ ", 1, 1) <> '" + ACTION_TYPE_MODIFICATION + "' AND ";
+
 	/**
 	 * SQLIte DB connector. Use this connector to access the SQLite DB.
 	 */
 	DictionaryOpenHelper db;
 
+	/**
+	 * Objects to notify of the changes of the searchable words.
+	 */
+	private final ArrayList<AopdsDatabaseListener> listeners;
+
+	/**
+	 * Analyzers of the installed dictionaries, by dictionary id.
+	 */
+	private final HashMap<Integer, AopdsAnalyzer> analyzers;
+
+	/**
+	 * Results of the last word searches. The results depending on a written
+	 * suggestion are removed after the write.
+	 */
+	private final AopdsLookupCache<CachedSearch, ArrayList<AbstractWord>> searchCache;
+
+	/**
+	 * First rows of the last ranked searches, the ones of the search screen.
+	 * Removed as the results of the word searches, and after the writes of
+	 * the usage counts which rank them.
+	 */
+	private final AopdsLookupCache<CachedSearch, RankedWindow> rankedCache;
+
+	/**
+	 * Number of writes of the searchable words of each dictionary, by
+	 * dictionary id.
+	 */
+	private final HashMap<Integer, Integer> changeCounts;
+
+	/**
+	 * Number of the last change of the searchable words by a suggestion, sent
+	 * with its notification (see getSearchableWords). Guarded by
+	 * wordChangeLock, held by the writes of the suggestions from their
+	 * transaction to their notification.
+	 */
+	private long wordChange;
+	private final Object wordChangeLock = new Object();
+
+	/**
+	 * Usage counts of the words not written yet.
+	 */
+	private final AopdsUsageRecorder usageRecorder;
+
+	/**
+	 * SQL of the frequent queries, built once (see registerStatements).
+	 */
+	private final AopdsStatementRegistry statements;
+
 	/* *************************************************************************
 	 * Constructor and singleton system
 	 */
@@ -142,6 +535,29 @@ public final class AopdsDatabase {
 	 */
 	private AopdsDatabase(Context context) {
 		db = new DictionaryOpenHelper(context);
+		listeners = new ArrayList<AopdsDatabaseListener>();
+		analyzers = new HashMap<Integer, AopdsAnalyzer>();
+		changeCounts = new HashMap<Integer, Integer>();
+		usageRecorder = new AopdsUsageRecorder(this, USAGE_FLUSH_DELAY);
+
+		statements = new AopdsStatementRegistry();
+		registerStatements();
+
+		searchCache = new AopdsLookupCache<CachedSearch, ArrayList<AbstractWord>>(
+				SEARCH_CACHE_BUDGET) {
+			@Override
+			protected int sizeOf(CachedSearch key, ArrayList<AbstractWord> words) {
+				return estimateSize(words);
+			}
+		};
+
+		rankedCache = new AopdsLookupCache<CachedSearch, RankedWindow>(
+				SEARCH_CACHE_BUDGET) {
+			@Override
+			protected int sizeOf(CachedSearch key, RankedWindow window) {
+				return window.estimateSize();
+			}
+		};
 	}
 
 	/**
@@ -160,6 +576,95 @@ public final class AopdsDatabase {
 		return instance;
 	}
 
+	/**
+	 * Builds the SQL of the frequent queries, run by shape (see
+	 * AopdsStatementRegistry) : each call runs the same text with its own
+	 * arguments.
+	 */
+	private void registerStatements() {
+
+		// a headword by id
+		statements.register(STATEMENT_WORD_BY_ID, SQLiteQueryBuilder
+				.buildQueryString(false, TABLE_HEADWORD, new String[] {
+						TF_HEADWORD_ID, TF_HEADWORD_DICT_ID, TF_HEADWORD_WORD,
+						TF_HEADWORD_ENTRY, TF_HEADWORD_PHONETIC,
+						TF_HEADWORD_PRONUN_EXISTS }, TF_HEADWORD_ID + " = ?",
+						null, null, TF_HEADWORD_WORD + " ASC", null));
+
+		// a dictionary and its languages by id
+		statements.register(STATEMENT_DICTIONARY_BY_ID, SQLiteQueryBuilder
+				.buildQueryString(false, TABLE_INSTALLED_DICTIONARY + ","
+						+ TABLE_LANGUAGE + " LANGUAGE_TO" + ","
+						+ TABLE_LANGUAGE + " LANGUAGE_FROM", new String[] {
+						// dictionary
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
+						// target language
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
+						"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+								+ " AS LANGUAGE_TO_ABREVIATION",
+						"LANGUAGE_TO." + TF_LANGUAGE_NAME
+								+ " AS LANGUAGE_TO_NAME",
+						"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+								+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+						// origin language
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
+						"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+								+ " AS LANGUAGE_FROM_ABREVIATION",
+						"LANGUAGE_FROM." + TF_LANGUAGE_NAME
+								+ " AS LANGUAGE_FROM_NAME",
+						"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+								+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" },
+						// joining languages and filtering by dictionary id
+						TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO
+								+ " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+								+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+								+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM."
+								+ TF_LANGUAGE_CODE + " AND " + TF_ID_ID
+								+ " = ?", null, null, null, null));
+
+		// a language by code
+		statements.register(STATEMENT_LANGUAGE_BY_CODE, SQLiteQueryBuilder
+				.buildQueryString(false, TABLE_LANGUAGE, new String[] {
+						TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
+						TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH },
+						TF_LANGUAGE_CODE + " = ?", null, null, null, null));
+
+		// the word searches
+		statements.register(STATEMENT_SEARCH_HEADWORDS, searchQuery(false,
+				false));
+		statements.register(STATEMENT_SEARCH_WORDS, searchQuery(false, true));
+		statements.register(STATEMENT_EXACT_HEADWORDS, searchQuery(true,
+				false));
+		statements.register(STATEMENT_EXACT_WORDS, searchQuery(true, true));
+		statements.register(STATEMENT_RANKED_EXACT_HEADWORDS,
+				rankedExactQuery(false));
+		statements.register(STATEMENT_RANKED_EXACT_WORDS,
+				rankedExactQuery(true));
+		statements.register(STATEMENT_RANKED_USED_HEADWORDS,
+				rankedUsedQuery(false, "E", "U") + " LIMIT ?");
+		statements.register(STATEMENT_RANKED_USED_WORDS, rankedUsedQuery(
+				true, "E", "U") + " LIMIT ?");
+		statements.register(STATEMENT_RANKED_OTHER_HEADWORDS,
+				rankedOtherQuery(false));
+		statements.register(STATEMENT_RANKED_OTHER_WORDS,
+				rankedOtherQuery(true));
+		statements.register(STATEMENT_RANKED_REST_HEADWORDS,
+				rankedOtherQuery(false) + " LIMIT -1 OFFSET ?");
+		statements.register(STATEMENT_RANKED_REST_WORDS,
+				rankedOtherQuery(true) + " LIMIT -1 OFFSET ?");
+
+		// the full entries of the listed words
+		statements.register(STATEMENT_HEADWORD_ENTRY, "SELECT "
+				+ TF_HEADWORD_ENTRY + " , " + TF_HEADWORD_PHONETIC + " FROM "
+				+ TABLE_HEADWORD + " WHERE " + TF_HEADWORD_ID + " = ?");
+		statements.register(STATEMENT_SUGGESTION_ENTRY, "SELECT "
+				+ TF_SUGGESTION_ENTRY + " , " + TF_SUGGESTION_PHONETIC
+				+ " FROM " + TABLE_SUGGESTION + " WHERE " + TF_SUGGESTION_ID
+				+ " = ?");
+	}
+
 	/* *************************************************************************
 	 * Data source management methods
 	 */
@@ -172,6 +677,14 @@ public final class AopdsDatabase {
 
 		AopdsLogger.info(LOG_TAG, "Closing data source.");
 
+		// the usage counts not written yet
+		usageRecorder.flush();
+
+		AopdsLogger.info(LOG_TAG, "Frequent queries : "
+				+ statements.getDistinctShapesRun() + " distinct shapes run, "
+				+ statements.getRepeatedShapeRuns()
+				+ " runs of a shape run before.");
+
 		// getting a connection
 		SQLiteDatabase connection = db.getReadableDatabase();
 
@@ -182,6 +695,173 @@ public final class AopdsDatabase {
 
 	}
 
+	/**
+	 * Builds the database of the first launch into a file, to ship as the
+	 * PREBUILT_DATABASE_ASSET asset : the languages and the dictionary of the
+	 * assets, analyzed and indexed as at the creation of the database, at the
+	 * current version. The first launch then copies the file instead of
+	 * parsing the dictionary. The analyzers being the ones of the
+	 * application, the file is built by the application itself, on an
+	 * emulator, by the release builds when the dictionary or the data layer
+	 * change (see the compile-database Ant target and the
+	 * AopdsDatabaseCompiler instrumentation of the test project).
+	 * 
+	 * @param context
+	 *            The android application context, to read the assets.
+	 * @param destination
+	 *            The gzipped database file to write.
+	 * @throws IOException
+	 *             If the dictionary cannot be read or the file written.
+	 * @throws AopdsDatabaseException
+	 *             If another source is being imported into the bundled
+	 *             dictionary.
+	 */
+	public static void compileDatabase(Context context, File destination)
+			throws IOException, AopdsDatabaseException {
+
+		File compiled = new File(destination.getPath() + ".db");
+		compiled.delete();
+
+		SQLiteDatabase connection = SQLiteDatabase.openOrCreateDatabase(
+				compiled, null);
+
+		try {
+
+			connection.beginTransaction();
+			try {
+				DictionaryOpenHelper helper = new DictionaryOpenHelper(context);
+
+				helper.onCreate(connection);
+				helper.provisionStage(connection,
+						AopdsProvisioning.STAGE_LANGUAGES, null);
+				helper.loadWords(connection, null);
+				helper.provisionStage(connection,
+						AopdsProvisioning.STAGE_DICTIONARY, null);
+
+				connection.setVersion(DATABASE_VERSION);
+				connection.setTransactionSuccessful();
+			} finally {
+				connection.endTransaction();
+			}
+
+			// the import logs the errors of the dictionary and goes on
+			if (DatabaseUtils.queryNumEntries(connection, TABLE_HEADWORD) == 0) {
+				throw new IOException("No word has been compiled.");
+			}
+
+			// the pages freed by the creation
+			connection.execSQL("VACUUM;");
+
+		} finally {
+			connection.close();
+		}
+
+		// written aside then renamed : the file appears once complete
+		File copy = new File(destination.getPath() + ".tmp");
+
+		try {
+			copy(new FileInputStream(compiled), new GZIPOutputStream(
+					new FileOutputStream(copy)));
+
+			if (!copy.renameTo(destination)) {
+				throw new IOException("Impossible to rename " + copy);
+			}
+		} finally {
+			compiled.delete();
+			copy.delete();
+		}
+
+		AopdsLogger.info(LOG_TAG, "Database compiled into " + destination);
+	}
+
+	/**
+	 * Copies the prebuilt database of the assets as the database if it does
+	 * not exist yet, in the provisioning thread (see
+	 * DictionaryOpenHelper.installPrebuiltDatabase).
+	 */
+	void installPrebuiltDatabase() {
+		db.installPrebuiltDatabase();
+	}
+
+	/**
+	 * Get the last provisioned stage of the database (see AopdsProvisioning).
+	 * Opening the database for the first time creates its schema.
+	 * 
+	 * @return The last provisioned stage.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	int getProvisionedStage() throws AopdsDatabaseException {
+
+		try {
+			SQLiteDatabase connection = db.getWritableDatabase();
+
+			return (int) DatabaseUtils.longForQuery(connection, "SELECT MAX("
+					+ TF_PROVISIONING_STAGE + ") FROM " + TABLE_PROVISIONING,
+					null);
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	/**
+	 * Provisions a stage of the database in a single transaction, recording
+	 * it with its data : the stage is either provisioned or not at all. The
+	 * words of the dictionary stage are imported before, in transactions of
+	 * their own : an interrupted import is resumed from its last transaction
+	 * (see importWords).
+	 * 
+	 * @param stage
+	 *            The stage to provision, after the last provisioned one.
+	 * @param provisioning
+	 *            The provisioning to notify of the progress, may be null.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be written.
+	 */
+	void provisionStage(int stage, AopdsProvisioning provisioning)
+			throws AopdsDatabaseException {
+
+		try {
+			SQLiteDatabase connection = db.getWritableDatabase();
+
+			if (stage == AopdsProvisioning.STAGE_DICTIONARY) {
+				db.loadWords(connection, provisioning);
+			}
+
+			connection.beginTransaction();
+			try {
+				db.provisionStage(connection, stage, provisioning);
+				connection.setTransactionSuccessful();
+			} finally {
+				connection.endTransaction();
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	/**
+	 * Copies a stream into another and closes them.
+	 */
+	private static void copy(InputStream in, OutputStream out)
+			throws IOException {
+
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+
+			while ((read = in.read(buffer)) > 0) {
+				out.write(buffer, 0, read);
+			}
+
+		} finally {
+			in.close();
+			out.close();
+		}
+	}
+
 	/* *************************************************************************
 	 * Data access helpers
 	 */
@@ -198,25 +878,6 @@ public final class AopdsDatabase {
 	 */
 	public Headword getWordById(long id) throws AopdsDatabaseException {
 
-		/*
-		 * Generating the SQL query
-		 * 
-		 * Getting all fields of the table HEADWORD for the specified id.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-
-		// the table to query
-		qb.setTables(TABLE_HEADWORD);
-
-		// the fields we ask
-		String[] fields = { TF_HEADWORD_ID, TF_HEADWORD_DICT_ID,
-				TF_HEADWORD_WORD, TF_HEADWORD_ENTRY, TF_HEADWORD_PHONETIC,
-				TF_HEADWORD_PRONUN_EXISTS };
-
-		// the condition on the id, the ? will be replaced on execution
-		// by the searchd value.
-		String whereClause = TF_HEADWORD_ID + " = ?";
-
 		// the values of the condition to replace the ?.
 		String[] selectArgs = { Long.toString(id) };
 
@@ -229,9 +890,8 @@ public final class AopdsDatabase {
 			SQLiteDatabase connection = db.getReadableDatabase();
 
 			// launching the query !!!
-			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
-					null, null, TF_HEADWORD_WORD + " ASC" // ascendant ordering
-			);
+			Cursor res = statements.query(connection, STATEMENT_WORD_BY_ID,
+					selectArgs);
 
 			// verifying the contained data
 			res = handleCursor(res);
@@ -268,6 +928,73 @@ public final class AopdsDatabase {
 
 	}
 
+	/**
+	 * Completes a word read by the list projection (see mapListedWord) : reads
+	 * the full entry and the phonetic of the word and of its last
+	 * modification. Nothing is read if the word is not a preview.
+	 * 
+	 * @param word
+	 *            The word to complete, no longer a preview after the call.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public void loadEntry(AbstractWord word) throws AopdsDatabaseException {
+
+		if (word instanceof Headword) {
+
+			loadEntry(word, STATEMENT_HEADWORD_ENTRY);
+
+			Suggestion lastModification = ((Headword) word)
+					.getLastModification();
+
+			if (lastModification != null) {
+				loadEntry(lastModification, STATEMENT_SUGGESTION_ENTRY);
+			}
+
+		} else {
+			loadEntry(word, STATEMENT_SUGGESTION_ENTRY);
+		}
+	}
+
+	/**
+	 * Reads the full entry and the phonetic of a preview.
+	 * 
+	 * @param shape
+	 *            The query of the table of the word.
+	 */
+	private void loadEntry(AbstractWord word, String shape)
+			throws AopdsDatabaseException {
+
+		if (!word.isPreview()) {
+			return;
+		}
+
+		try {
+			// getting a connector for reading only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			Cursor res = statements.query(connection, shape,
+					new String[] { Long.toString(word.getId()) });
+
+			// verifying the contained data
+			res = handleCursor(res);
+
+			if (res != null) {
+
+				word.setEntry(res.getString(0));
+				word.setPhonetic(res.getString(1));
+
+				res.close();
+			}
+
+			// a deleted word keeps its snippet
+			word.setPreview(false);
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
 	/**
 	 * Add a word in the database (just the word and its entry for the moment)
 	 */
@@ -281,6 +1008,12 @@ public final class AopdsDatabase {
 		ContentValues values = new ContentValues();
 
 		values.put(TF_SUGGESTION_WORD, s.getWord());
+		values.put(TF_SUGGESTION_SEARCH_KEY, getSearchKey(
+				s.getDictionary() == null ? -1 : s.getDictionary().getCode(),
+				s.getWord()));
+		values.put(TF_SUGGESTION_SOUND_KEY, getSoundKey(
+				s.getDictionary() == null ? -1 : s.getDictionary().getCode(),
+				s.getWord()));
 		values.put(TF_SUGGESTION_ENTRY, s.getEntry());
 		values.put(TF_SUGGESTION_PHONETIC, s.getPhonetic());
 		values.put(TF_SUGGESTION_PRONUN_REC, s.getPronunciationRecorded());
@@ -300,14 +1033,44 @@ public final class AopdsDatabase {
 			values.put(TF_SUGGESTION_HEADWORD_ID, s.getHeadword().getId());
 		}
 
-		// Launch the insert request
-		long res = conn.insert(table, nullColumnHack, values);
+		// the searchable word added by the suggestion, if any
+		String[] added;
 
-		if (res < 0) {
-			throw new DataBaseRuntimeException(DATABASE_NAME, DATABASE_VERSION,
-					null);
-		} else {
-			s.setId(res);
+		// the words whose searches depend on the suggestion
+		ArrayList<String[]> touched = new ArrayList<String[]>();
+
+		// the changes are notified in the order of their commits
+		synchronized (wordChangeLock) {
+
+			conn.beginTransaction();
+
+			try {
+				// Launch the insert request
+				long res = conn.insert(table, nullColumnHack, values);
+
+				if (res < 0) {
+					throw new DataBaseRuntimeException(DATABASE_NAME,
+							DATABASE_VERSION, null);
+				} else {
+					s.setId(res);
+				}
+
+				refreshEffectiveHeadwords(conn, res);
+
+				added = getSearchableSuggestion(conn, res);
+				addEffectiveKeys(conn, res, touched);
+
+				conn.setTransactionSuccessful();
+
+			} catch (SQLiteException e) {
+				throw handleError(e);
+			} finally {
+				conn.endTransaction();
+			}
+
+			invalidateSearches(touched);
+
+			notifyWordChanged(null, added, ++wordChange);
 		}
 
 	}
@@ -322,7 +1085,25 @@ public final class AopdsDatabase {
 		String table = TABLE_SUGGESTION;
 		ContentValues values = new ContentValues();
 
+		// the key is computed with the analyzer of the dictionary of the
+		// suggestion, the stored one if it is not given
+		int dictionaryId;
+
+		if (s.getDictionary() != null) {
+			dictionaryId = s.getDictionary().getCode();
+		} else {
+			try {
+				dictionaryId = getSuggestionDictionaryId(conn, s.getId());
+			} catch (SQLiteException e) {
+				throw handleError(e);
+			}
+		}
+
 		values.put(TF_SUGGESTION_WORD, s.getWord());
+		values.put(TF_SUGGESTION_SEARCH_KEY,
+				getSearchKey(dictionaryId, s.getWord()));
+		values.put(TF_SUGGESTION_SOUND_KEY,
+				getSoundKey(dictionaryId, s.getWord()));
 		values.put(TF_SUGGESTION_ENTRY, s.getEntry());
 		values.put(TF_SUGGESTION_PHONETIC, s.getPhonetic());
 		values.put(TF_SUGGESTION_PRONUN_REC, s.getPronunciationRecorded());
@@ -345,25 +1126,283 @@ public final class AopdsDatabase {
 
 		String[] whereValues = { Long.toString(s.getId()) };
 
-		// Launch the insert request
-		long res = conn.update(table, values, TF_SUGGESTION_ID + "= ?",
-				whereValues);
-	}
+		// the searchable word of the suggestion before and after the update
+		String[] removed;
+		String[] added;
 
-	/**
-	 * 
-	 * Search a word/a list of words matching a string in a dictionary. The
-	 * matching is done ignoring the case. The result is ordered
-	 * lexicographically. <br>
-	 * <br>
-	 * 
-	 * The dictionary of the headwords is not retrieved.
-	 * 
-	 * @param dictionaryId
-	 *            The dictionary to look up in.
-	 * @param wordToMatch
-	 *            [must not be empty] The word to match in the dictionary.
-	 * @param exactMatch
+		// the words whose searches depend on the suggestion, before and after
+		ArrayList<String[]> touched = new ArrayList<String[]>();
+
+		// the changes are notified in the order of their commits
+		synchronized (wordChangeLock) {
+
+			conn.beginTransaction();
+
+			try {
+				removed = getSearchableSuggestion(conn, s.getId());
+				addEffectiveKeys(conn, s.getId(), touched);
+
+				// Launch the update request
+				conn.update(table, values, TF_SUGGESTION_ID + "= ?",
+						whereValues);
+
+				refreshEffectiveHeadwords(conn, s.getId());
+
+				added = getSearchableSuggestion(conn, s.getId());
+				addEffectiveKeys(conn, s.getId(), touched);
+
+				conn.setTransactionSuccessful();
+
+			} catch (SQLiteException e) {
+				throw handleError(e);
+			} finally {
+				conn.endTransaction();
+			}
+
+			invalidateSearches(touched);
+
+			notifyWordChanged(removed, added, ++wordChange);
+		}
+	}
+
+	/**
+	 * Imports the words of a dictionary file into an installed dictionary.
+	 * The format of the file is found by its name (see DictionaryImporters) :
+	 * TSV, CSV, XDXF, TEI or StarDict (the .ifo file, beside its .idx and
+	 * .dict files). The file is read, analyzed and written at the same time
+	 * (see AopdsImportPipeline) : the memory used does not grow with the
+	 * size of the file.<br>
+	 * <br>
+	 * 
+	 * The words are written in transactions of IMPORT_TRANSACTION_SIZE
+	 * words, each recording the checkpoint of the import : an import
+	 * interrupted by the end of the process, or by a file which cannot be
+	 * read to its end, is resumed after its last transaction, by importing
+	 * the same file again or by resumeImports. The interrupted import of
+	 * another file into the dictionary is resumed first. The
+	 * searches of the other dictionaries keep their indexes during the load,
+	 * the imported entries are added to the full text index at its end (see
+	 * importWords). One import runs at a time.<br>
+	 * <br>
+	 * 
+	 * Long : not to be called in the UI thread. The listeners are notified of
+	 * the change of the dictionary at the end.
+	 * 
+	 * @param dictionary
+	 *            [must be installed] The dictionary receiving the words.
+	 * @param file
+	 *            The dictionary file.
+	 * @return The number of words imported by this call.
+	 * @throws IOException
+	 *             If the file cannot be read to its end, the words read
+	 *             before are imported at the resumption of the import. If
+	 *             the interrupted import of another file cannot be resumed,
+	 *             the file is not imported.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be written. The words of the committed
+	 *             transactions are kept, and imported at the resumption of
+	 *             the import.
+	 */
+	public int importDictionary(Dictionary dictionary, File file)
+			throws AopdsDatabaseException, IOException {
+
+		if (dictionary == null) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".importDictionary: the dictionary is null.");
+		}
+
+		if (DictionaryImporters.forFile(file.getName()) == null) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".importDictionary: unknown format of " + file.getName()
+					+ ".");
+		}
+
+		// the job read is the one the import goes on with
+		synchronized (IMPORT_LOCK) {
+
+			String pending;
+
+			try {
+				pending = readImportSource(db.getWritableDatabase(),
+						dictionary.getCode());
+			} catch (SQLiteException e) {
+				throw handleError(e);
+			}
+
+			// a dictionary has one import job
+			if (pending != null && !pending.equals(file.getPath())) {
+				resumeImport(dictionary.getCode(), new File(pending));
+			}
+
+			return importFile(dictionary.getCode(), file);
+		}
+	}
+
+	/**
+	 * Resumes the imports interrupted by the end of the process, from their
+	 * last committed transaction (see importDictionary). The import of a file
+	 * deleted ends with its committed words, the import of a file which
+	 * cannot be read (on a storage not mounted ...) is kept for the next
+	 * resumption.<br>
+	 * <br>
+	 * 
+	 * Long : not to be called in the UI thread.
+	 * 
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be written.
+	 */
+	public void resumeImports() throws AopdsDatabaseException {
+
+		HashMap<Integer, String> jobs = new HashMap<Integer, String>();
+
+		try {
+			SQLiteDatabase connection = db.getWritableDatabase();
+
+			Cursor res = connection.rawQuery("SELECT " + TF_IJ_DICT_ID + " , "
+					+ TF_IJ_SOURCE + " FROM " + TABLE_IMPORT_JOB, null);
+
+			try {
+				while (res.moveToNext()) {
+					jobs.put(res.getInt(0), res.getString(1));
+				}
+			} finally {
+				res.close();
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+		for (Map.Entry<Integer, String> job : jobs.entrySet()) {
+			try {
+				resumeImport(job.getKey(), new File(job.getValue()));
+			} catch (IOException e) {
+				AopdsLogger.error(LOG_TAG, "The import of " + job.getValue()
+						+ " is kept for the next start : " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Resumes the interrupted import of a file. A file deleted from a
+	 * mounted storage ends the import with its committed words.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be read to its end. The job is kept.
+	 */
+	private int resumeImport(int dictionaryId, File file)
+			throws AopdsDatabaseException, IOException {
+
+		AopdsLogger.info(LOG_TAG, "Resuming the import of " + file
+				+ " into dictionary " + dictionaryId + " ...");
+
+		if (file.exists() || !isStorageMounted(file)) {
+			return importFile(dictionaryId, file);
+		}
+
+		AopdsLogger.info(LOG_TAG, file + " has been deleted, its import ends.");
+
+		try {
+			return importWords(db.getWritableDatabase(), dictionaryId,
+					AopdsAnalyzers.getDefault(), file.getPath(), NO_ENTRIES,
+					false);
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		} finally {
+			invalidateDictionary(dictionaryId);
+			notifyDictionaryChanged(dictionaryId);
+		}
+	}
+
+	/**
+	 * @return false if the file is on the external storage and it is not
+	 *         mounted.
+	 */
+	private static boolean isStorageMounted(File file) {
+
+		if (!file.getAbsolutePath().startsWith(
+				Environment.getExternalStorageDirectory().getAbsolutePath())) {
+			return true;
+		}
+
+		String state = Environment.getExternalStorageState();
+
+		return Environment.MEDIA_MOUNTED.equals(state)
+				|| Environment.MEDIA_MOUNTED_READ_ONLY.equals(state);
+	}
+
+	/**
+	 * Imports a dictionary file, or resumes its import (see
+	 * importDictionary).
+	 */
+	private int importFile(int dictionaryId, final File file)
+			throws AopdsDatabaseException, IOException {
+
+		final DictionaryImporter importer = DictionaryImporters.forFile(file
+				.getName());
+
+		SQLiteDatabase connection;
+		AopdsAnalyzer analyzer;
+
+		try {
+			connection = db.getWritableDatabase();
+			analyzer = readAnalyzer(connection, dictionaryId);
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+		if (analyzer == null) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".importDictionary: the dictionary " + dictionaryId
+					+ " is not installed.");
+		}
+
+		AopdsLogger.info(LOG_TAG, "Importing " + file.getName()
+				+ " into dictionary " + dictionaryId + " ...");
+
+		int count;
+
+		try {
+			count = importWords(connection, dictionaryId, analyzer, file
+					.getPath(), new AopdsImportPipeline.Source() {
+				public void read(DictionarySink sink) throws IOException {
+					if (importer == null) {
+						throw new IOException("Unknown format : " + file);
+					}
+					importer.read(file, sink);
+				}
+			}, false);
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		} finally {
+			// the words of the committed transactions, even after a failure
+			invalidateDictionary(dictionaryId);
+			notifyDictionaryChanged(dictionaryId);
+		}
+
+		AopdsLogger.info(LOG_TAG, count + " words imported into dictionary "
+				+ dictionaryId + ".");
+
+		return count;
+	}
+
+	/**
+	 * 
+	 * Search a word/a list of words matching a string in a dictionary. The
+	 * matching is done on the search keys of the words, ignoring the case,
+	 * the diacritics and what the analyzer of the dictionary ignores (see
+	 * getAnalyzer). The result is ordered by search key.
+	 * <br>
+	 * <br>
+	 * 
+	 * The dictionary of the headwords is not retrieved.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param wordToMatch
+	 *            [must not be empty] The word to match in the dictionary.
+	 * @param exactMatch
 	 *            If true, only the words matching exactly the string
 	 *            'wordToMatch' will be retrieved. If false, all the words
 	 *            BEGINNING by the string 'wordToMatch' will be retrieved.
@@ -376,6 +1415,106 @@ public final class AopdsDatabase {
 	public ArrayList<AbstractWord> searchWord(int dictionaryId,
 			String wordToMatch, Boolean exactMatch, Boolean addSuggestions)
 			throws AopdsDatabaseException {
+		return searchWord(dictionaryId, wordToMatch, exactMatch,
+				addSuggestions, null);
+	}
+
+	/**
+	 * 
+	 * Cancelable version of searchWord, to be used from a background thread
+	 * when the search may be superseded by a newer one (search as you type).
+	 * <br>
+	 * <br>
+	 * 
+	 * The results of the last searches are kept in a cache whose memory is
+	 * bounded (see setSearchCacheBudget) : repeating a search costs nothing.
+	 * The results depending on a suggestion are removed from the cache when
+	 * the suggestion is written, they are never stale. The returned words are
+	 * copies of the cached ones (see copyWord) : the caller may modify them.
+	 * 
+	 * @param cancellation
+	 *            The signal canceling the search, or null if the search
+	 *            cannot be canceled.
+	 * @throws DataBaseQueryCanceledException
+	 *             If the search has been canceled before its end.
+	 * @see #searchWord(int, String, Boolean, Boolean)
+	 */
+	public ArrayList<AbstractWord> searchWord(int dictionaryId,
+			String wordToMatch, Boolean exactMatch, Boolean addSuggestions,
+			AopdsCancellationSignal cancellation)
+			throws AopdsDatabaseException {
+
+		CachedSearch search = new CachedSearch(dictionaryId, getAnalyzer(
+				dictionaryId).queryKey(wordToMatch), exactMatch, addSuggestions);
+
+		ArrayList<AbstractWord> cached = searchCache.get(search);
+
+		if (cached != null) {
+			return cached.isEmpty() ? null : copyWords(cached);
+		}
+
+		// taken before the query, a write during the query drops its results
+		int version = searchCache.getVersion();
+
+		Cursor res = searchWordCursor(dictionaryId, wordToMatch, exactMatch,
+				addSuggestions, cancellation);
+
+		if (res == null) { // no matching
+			searchCache.put(search, new ArrayList<AbstractWord>(), version);
+			return null;
+		}
+
+		try {
+			// to store what we're going to return
+			ArrayList<AbstractWord> returningRes = new ArrayList<AbstractWord>();
+
+			while (res.moveToNext()) {
+
+				checkCancellation(cancellation, res);
+
+				// mapping the word and adding it to final results list
+				returningRes.add(mapSearchedWord(res));
+			}
+
+			// closing cursor
+			res.close();
+
+			searchCache.put(search, returningRes, version);
+
+			return copyWords(returningRes);
+
+		} catch (SQLiteException e) {
+			res.close();
+			throw handleError(e);
+		}
+	}
+
+	/**
+	 * 
+	 * Windowed version of searchWord : the matching words are not mapped but
+	 * returned as a cursor, whose rows are read by windows of fixed size when
+	 * the cursor is moved. The memory used does not depend on the number of
+	 * matching words, and only the displayed rows need to be read. The rows
+	 * are mapped by mapSearchedWord, or bound directly with the
+	 * SEARCHED_WORD_* positions. The cursor has an _id field.<br>
+	 * <br>
+	 * 
+	 * The first window is read before returning, so that the cursor can be
+	 * used in the UI thread without running the query there.
+	 * 
+	 * @param cancellation
+	 *            The signal canceling the search, or null if the search
+	 *            cannot be canceled.
+	 * @return A cursor on the matching words, positioned before the first
+	 *         one, or null if there is no matching. The caller must close it.
+	 * @throws DataBaseQueryCanceledException
+	 *             If the search has been canceled before its end.
+	 * @see #searchWord(int, String, Boolean, Boolean)
+	 */
+	public Cursor searchWordCursor(int dictionaryId,
+			String wordToMatch, Boolean exactMatch, Boolean addSuggestions,
+			AopdsCancellationSignal cancellation)
+			throws AopdsDatabaseException {
 
 		// checking if the word to match is not an empty string
 		if (wordToMatch.length() <= 0) {
@@ -508,701 +1647,783 @@ public final class AopdsDatabase {
 		 * }
 		 */
 
-		String[] selectArgs = { ACTION_TYPE_DELETION, ACTION_TYPE_MODIFICATION,
-				Integer.toString(dictionaryId), wordToMatch + "%",
-				Integer.toString(dictionaryId), wordToMatch + "%",
-				ACTION_TYPE_MODIFICATION };
-
-		String query = "SELECT * FROM (" + "SELECT " + "'h' AS WORD_TYPE ,"
-				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID + " AS WORD_ID ,"
-				+ TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID
-				+ " AS WORD_DICT_ID ," + TABLE_HEADWORD + "."
-				+ TF_HEADWORD_WORD + " AS WORD_WORD ," + TABLE_HEADWORD + "."
-				+ TF_HEADWORD_ENTRY + " AS WORD_ENTRY ," + TABLE_HEADWORD + "."
-				+ TF_HEADWORD_PHONETIC + " AS WORD_PHONETIC ,"
-				+ "NULL AS WORD_SYNCH_STAT ," + "NULL AS WORD_ACTION_TYPE ,"
-				+ "EXISTS ( " + "SELECT " + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_ID + " FROM " + TABLE_SUGGESTION + " "
-				+ " WHERE " + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_HEADWORD_ID + " = " + TABLE_HEADWORD + "."
-				+ TF_HEADWORD_ID + " AND SUBSTR( " + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_ACT_TYPE + " , 1, 1) = ? "
-				+ ") AS WORD_DELETED ," +
-
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID
-				+ " AS WORD_LM_SUGG_ID ," + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_WORD + " AS WORD_LM_SUGG_WORD ,"
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY
-				+ " AS WORD_LM_SUGG_ENTRY ," + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_PHONETIC + " AS WORD_LM_SUGG_PHONETIC ,"
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT
-				+ " AS WORD_LM_SUGG_SYNCH_STAT ," + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_ACT_TYPE + " AS WORD_LM_SUGG_ACTION_TYPE " +
-
-				" FROM " + TABLE_HEADWORD + " " +
-
-				"LEFT OUTER JOIN " + TABLE_SUGGESTION + " ON "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID + " = "
-				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID + " AND " + "SUBSTR("
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE
-				+ ", 1, 1) = ? " +
-
-				" WHERE " + TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID
-				+ " = ? " + " AND " + TABLE_HEADWORD + "." + TF_HEADWORD_WORD
-				+ " LIKE ? " +
-
-				" GROUP BY " + TABLE_HEADWORD + "." + TF_HEADWORD_ID + " "
-				+ " HAVING " + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_CREATION_DATE + " = " + " MAX ("
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_CREATION_DATE
-				+ ") OR " + TABLE_SUGGESTION + "."
-				+ TF_SUGGESTION_CREATION_DATE + " IS NULL " +
-
-				" UNION ALL " +
-
-				"SELECT " + "'s' AS WORD_TYPE ," + TF_SUGGESTION_ID
-				+ " AS WORD_ID ," + TF_SUGGESTION_DICT_ID
-				+ " AS WORD_DICT_ID ," + TF_SUGGESTION_WORD + " AS WORD_WORD ,"
-				+ TF_SUGGESTION_ENTRY + " AS WORD_ENTRY ,"
-				+ TF_SUGGESTION_PHONETIC + " AS WORD_PHONETIC ,"
-				+ TF_SUGGESTION_SYNCH_STAT + " AS WORD_SYNCH_STAT ,"
-				+ TF_SUGGESTION_ACT_TYPE + " AS WORD_ACTION_TYPE ,"
-				+ "NULL AS WORD_DELETED ," +
-
-				"NULL AS WORD_LM_SUGG_ID ," + "NULL AS WORD_LM_SUGG_WORD ,"
-				+ "NULL AS WORD_LM_SUGG_ENTRY ,"
-				+ "NULL AS WORD_LM_SUGG_PHONETIC ,"
-				+ "NULL AS WORD_LM_SUGG_SYNCH_STAT ,"
-				+ "NULL AS WORD_LM_SUGG_ACTION_TYPE " +
-
-				"FROM " + TABLE_SUGGESTION + " " + " WHERE " + TABLE_SUGGESTION
-				+ "." + TF_SUGGESTION_DICT_ID + " = ? " + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD + " LIKE ? AND "
-				+ " SUBSTR(" + TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE
-				+ ", 1, 1) <> ? " +
-
-				") ORDER BY WORD_WORD ASC ";
+		// the words beginning by wordToMatch are the words whose search key
+		// is in the range [ key of wordToMatch , upper bound [ , so the
+		// search is a single index range scan of the effective headwords.
+		// The key is computed by the analyzer of the dictionary, the same
+		// way as the stored keys.
+		String keyFrom = getAnalyzer(dictionaryId).queryKey(wordToMatch);
+
+		String shape;
+		String[] selectArgs;
+
+		if (exactMatch) {
+			shape = addSuggestions ? STATEMENT_EXACT_WORDS
+					: STATEMENT_EXACT_HEADWORDS;
+			selectArgs = new String[] { Integer.toString(dictionaryId),
+					keyFrom };
+		} else {
+			shape = addSuggestions ? STATEMENT_SEARCH_WORDS
+					: STATEMENT_SEARCH_HEADWORDS;
+			selectArgs = new String[] { Integer.toString(dictionaryId),
+					keyFrom, AopdsSearchKey.prefixUpperBound(keyFrom) };
+		}
 
-		/*
-		 * Launching the query
-		 */
+		return openSearchCursor(shape, selectArgs, cancellation);
+	}
 
-		try {
+	/**
+	 * 
+	 * Ranked version of searchWordCursor, for the words beginning by a
+	 * string : the words matching exactly the string first, then the words
+	 * the most looked up and opened (see recordWordLookup), then the other
+	 * words in the order of the search keys. The cursor has the same fields
+	 * as the one of searchWordCursor, read by the list projection : the rows
+	 * are mapped by mapListedWord.<br>
+	 * <br>
+	 * 
+	 * Each group is a cursor of its own, the three being read one after the
+	 * other : the exact matches by a probe of the search key index, the
+	 * RANKED_USED_WORDS most used words from the usage count index of the
+	 * dictionary, and the other words straight from a range scan of the
+	 * search key index, without sorting them. Only the exact matches and the
+	 * used words, which are few, are sorted.<br>
+	 * <br>
+	 * 
+	 * The first RANKED_WINDOW_ROWS rows of the last searches are kept in a
+	 * cache, by dictionary, search key and suggestions : a search found there
+	 * reads them from memory, and only reads the other words after them from
+	 * the database. They are removed from the cache as the results of
+	 * searchWord, and by the writes of the usage counts.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param wordToMatch
+	 *            [must not be empty] The beginning of the words.
+	 * @param addSuggestions
+	 *            true to search the suggestions too.
+	 * @param cancellation
+	 *            The signal canceling the search, or null if the search
+	 *            cannot be canceled.
+	 * @return A cursor on the matching words, positioned before the first
+	 *         one, or null if there is no matching. The caller must close it.
+	 * @throws DataBaseQueryCanceledException
+	 *             If the search has been canceled before its end.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public Cursor rankedSearchWordCursor(int dictionaryId, String wordToMatch,
+			Boolean addSuggestions, AopdsCancellationSignal cancellation)
+			throws AopdsDatabaseException {
 
-			// getting the connector for read only.
-			SQLiteDatabase connection = db.getReadableDatabase();
+		if (wordToMatch.length() <= 0) {
+			throw new InvalidParameterException(
+					LOG_TAG
+							+ ".rankedSearchWordCursor: The 'wordToMatch' parameter MUST NOT BE EMPTY.");
+		}
 
-			Cursor res = connection.rawQuery(query, selectArgs);
+		String keyFrom = getAnalyzer(dictionaryId).queryKey(wordToMatch);
+		String keyTo = AopdsSearchKey.prefixUpperBound(keyFrom);
+		String dictionary = Integer.toString(dictionaryId);
+		String usedWords = Integer.toString(RANKED_USED_WORDS);
 
-			// verifying the cursor
-			res = handleCursor(res);
+		CachedSearch search = new CachedSearch(dictionaryId, keyFrom, false,
+				addSuggestions);
 
-			if (res != null) { // the cursor is containing data
+		RankedWindow cached = rankedCache.get(search);
 
-				// to store what we're going to return
-				ArrayList<AbstractWord> returningRes = new ArrayList<AbstractWord>();
+		if (cached != null) {
+			return openCachedWindow(cached, addSuggestions, new String[] {
+					dictionary, keyFrom, keyTo, dictionary, keyFrom, keyTo,
+					usedWords, Integer.toString(cached.otherRows) },
+					cancellation);
+		}
 
-				if (addSuggestions) {
+		// taken before the queries, a write during them drops their window
+		int version = rankedCache.getVersion();
 
-					do { // there is at least one headword in the cursor
+		Cursor[] groups = new Cursor[3];
+		int count = 0;
 
-						//
-						// mapping the word
-						//
+		// the rows of the exact matches and of the used words
+		int rankedRows = 0;
 
-						char type = res.getString(0).charAt(0);
+		try {
+			groups[count] = openSearchCursor(
+					addSuggestions ? STATEMENT_RANKED_EXACT_WORDS
+							: STATEMENT_RANKED_EXACT_HEADWORDS, new String[] {
+							dictionary, keyFrom }, cancellation);
+			if (groups[count] != null) {
+				rankedRows += groups[count++].getCount();
+			}
 
-						// pronunciation
-						Boolean pronuncExists = false;
+			groups[count] = openSearchCursor(
+					addSuggestions ? STATEMENT_RANKED_USED_WORDS
+							: STATEMENT_RANKED_USED_HEADWORDS, new String[] {
+							dictionary, keyFrom, keyTo, usedWords },
+					cancellation);
+			if (groups[count] != null) {
+				rankedRows += groups[count++].getCount();
+			}
 
-						AbstractWord word;
+			groups[count] = openSearchCursor(
+					addSuggestions ? STATEMENT_RANKED_OTHER_WORDS
+							: STATEMENT_RANKED_OTHER_HEADWORDS, new String[] {
+							dictionary, keyFrom, keyTo, dictionary, keyFrom,
+							keyTo, usedWords }, cancellation);
+			if (groups[count] != null) {
+				count++;
+			}
 
-						if (type == 's') {
+		} catch (AopdsDatabaseException e) {
+			for (int i = 0; i < count; i++) {
+				groups[i].close();
+			}
+			throw e;
+		}
 
-							Suggestion suggestion = new Suggestion(
-									res.getInt(1), // id
-									res.getString(3), // word
-									res.getString(4), // entry
-									res.getString(5), // phonetics
-									null, // dictionary id, not needed
-									pronuncExists);
+		Cursor res;
 
-							suggestion.setSynchroStatus(res.getString(6));
-							suggestion.setActionType(res.getString(7));
-							word = suggestion;
+		if (count == 0) {
+			res = null; // no matching
+		} else if (count == 1) {
+			res = groups[0];
+		} else {
+			Cursor[] found = new Cursor[count];
+			System.arraycopy(groups, 0, found, 0, count);
+			res = new MergeCursor(found);
+		}
 
-						} else {
+		RankedWindow window = readWindow(res, rankedRows);
 
-							Headword headword = new Headword(res.getInt(1), // id
-									res.getString(3), // word
-									res.getString(4), // entry
-									res.getString(5), // phonetics
-									null, // dictionary id, not needed
-									pronuncExists);
+		if (window != null) {
+			rankedCache.put(search, window, version);
+		}
 
-							if (res.getInt(8) == 1) {
-								headword.setHasDeletionBeenSuggested(true);
-							} else {
-								headword.setHasDeletionBeenSuggested(false);
-							}
+		return res;
+	}
 
-							if (!res.isNull(9)) {
-								Suggestion s = new Suggestion();
+	/**
+	 * Copies the first rows of a ranked search, to keep them in the cache.
+	 * The cursor is moved back before its first row.
+	 * 
+	 * @param res
+	 *            The cursor of the search, null if there is no matching.
+	 * @param rankedRows
+	 *            The number of exact matches and used words of the search.
+	 * @return The first window of the search, null if it ends before the
+	 *         other words : the next rows could not be read after it.
+	 */
+	private static RankedWindow readWindow(Cursor res, int rankedRows) {
 
-								s.setId(res.getInt(9));
-								s.setWord(res.getString(10));
-								s.setEntry(res.getString(11));
-								s.setPhonetic(res.getString(12));
-								s.setSynchroStatus(res.getString(13));
-								s.setActionType(res.getString(14));
+		if (res == null) {
+			return new RankedWindow(null, new ArrayList<String[]>(), -1);
+		}
 
-								s.setHeadword(headword);
-								headword.setLastModification(s);
+		int count = res.getCount();
+		int rows = Math.min(count, RANKED_WINDOW_ROWS);
 
-							}
+		if (rows < count && rows < rankedRows) {
+			return null;
+		}
 
-							word = headword;
+		String[] columns = res.getColumnNames();
+		ArrayList<String[]> window = new ArrayList<String[]>(rows);
 
-						}
+		while (window.size() < rows && res.moveToNext()) {
 
-						// adding to final results list
-						returningRes.add(word);
+			String[] row = new String[columns.length];
 
-					} while (res.moveToNext());
+			for (int i = 0; i < columns.length; i++) {
+				row[i] = res.getString(i);
+			}
+			window.add(row);
+		}
 
-					// closing cursor
-					res.close();
+		res.moveToPosition(-1);
 
-				} else {
+		return new RankedWindow(columns, window, rows < count ? rows
+				- rankedRows : -1);
+	}
 
-					do { // there is at least one headword in the cursor
+	/**
+	 * Opens the cursor of a ranked search from its window in the cache : the
+	 * rows of the window, followed by the other words after it if the window
+	 * is not the whole search.
+	 * 
+	 * @param restArgs
+	 *            The arguments of the other words, with the number of them
+	 *            in the window.
+	 * @return The cursor or null if there is no matching.
+	 */
+	private Cursor openCachedWindow(RankedWindow window,
+			boolean addSuggestions, String[] restArgs,
+			AopdsCancellationSignal cancellation) throws AopdsDatabaseException {
 
-						//
-						// mapping the word
-						//
+		if (window.rows.isEmpty()) {
+			return null;
+		}
 
-						// pronunciation
-						Boolean pronuncExists = false;
-						if (res.getInt(5) != 0) {
-							pronuncExists = true;
-						}
+		MatrixCursor rows = new MatrixCursor(window.columns, window.rows
+				.size());
 
-						Headword headword = new Headword(res.getInt(0), // id
-								res.getString(2), // word
-								res.getString(3), // entry
-								res.getString(4), // phonetics
-								null, // dictionary id, not needed
-								pronuncExists);
+		for (String[] row : window.rows) {
+			rows.addRow(row);
+		}
 
-						// adding to final results list
-						returningRes.add(headword);
+		if (window.otherRows < 0) {
+			return rows;
+		}
 
-					} while (res.moveToNext());
+		Cursor rest = openSearchCursor(addSuggestions ? STATEMENT_RANKED_REST_WORDS
+				: STATEMENT_RANKED_REST_HEADWORDS, restArgs, cancellation);
 
-					// closing cursor
-					res.close();
+		if (rest == null) {
+			return rows;
+		}
 
-				}
+		return new MergeCursor(new Cursor[] { rows, rest });
+	}
 
-				return returningRes;
+	/**
+	 * @return The SQL of searchWordCursor : dictionary id, search key, and
+	 *         upper bound of the search keys if not exactMatch.
+	 */
+	private static String searchQuery(boolean exactMatch,
+			boolean addSuggestions) {
 
-			} else { // the cursor is not containing data
-				return null;
-			}
+		String whereClause;
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+		if (exactMatch) {
+			whereClause = TF_EH_DICT_ID + " = ? AND " + TF_EH_SEARCH_KEY
+					+ " = ? ";
+		} else {
+			whereClause = TF_EH_DICT_ID + " = ? AND " + TF_EH_SEARCH_KEY
+					+ " >= ? AND " + TF_EH_SEARCH_KEY + " < ? ";
 		}
+
+		if (!addSuggestions) {
+			whereClause += " AND " + TF_EH_TYPE + " = '" + WORD_TYPE_HEADWORD
+					+ "' ";
+		}
+
+		return "SELECT " + EFFECTIVE_HEADWORD_FIELDS + " , rowid AS _id FROM "
+				+ TABLE_EFFECTIVE_HEADWORD + " WHERE " + whereClause
+				+ " ORDER BY " + TF_EH_SEARCH_KEY + " ASC, " + TF_EH_WORD
+				+ " ASC ";
 	}
 
 	/**
-	 * Get an ordered (lexicographically) word list specifying a dictionary.
-	 * This method allows to get all words of a dictionary but with a 'page per
-	 * page system', we mean specifying the position of the first word you want
-	 * and the number of those you want.
-	 * 
-	 * This method is useful to display the whole dictionary, as it gives you
-	 * the words in the order they would appear in a real dictionary book.
-	 * 
-	 * @param dictionaryId
-	 *            The dictionary to look up in.
-	 * @param from
-	 *            [must be positive]The position of the first word you want in
-	 *            the ordered list of all words.
-	 * @param howMany
-	 *            [must be positive]The number of words you want to retrieve.
-	 * @return A list of words ordered lexicographically corresponding to a part
-	 *         of the dictionary.
-	 * @throws AopdsDatabaseException
-	 *             If data cannot be accessed.
+	 * @return The SQL of the exact matches of rankedSearchWordCursor :
+	 *         dictionary id, search key. The most used first.
 	 */
-	public ArrayList<Headword> getOrderedWordList(int dictionaryId, long from,
-			int howMany) throws AopdsDatabaseException {
-
-		// verifying args
-		if ((from < 0) || (howMany < 0)) {
-			throw new InvalidParameterException(
-					"The parameters from and howMany must be like : from > 0 and howMany > 0 ..."
-							+ "from = " + from + " and howMany = " + howMany
-							+ " given.");
-		}
+	private static String rankedExactQuery(boolean addSuggestions) {
+
+		return "SELECT " + listFields("E") + " , E.rowid AS _id FROM "
+				+ TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_DICT_ID
+				+ " = ? AND E." + TF_EH_SEARCH_KEY + " = ?"
+				+ rankedTypeCondition(addSuggestions, "E")
+				+ " ORDER BY IFNULL(( SELECT U." + TF_WU_USAGE_COUNT
+				+ " FROM " + TABLE_WORD_USAGE + " U WHERE "
+				+ usageOfWord("E", "U") + " ), 0) DESC, E." + TF_EH_WORD
+				+ " ASC";
+	}
 
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all words from a dictionary with a LIMIT clause.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+	/**
+	 * @return The SQL of the used words of rankedSearchWordCursor, without
+	 *         its limit : dictionary id, search key, upper bound. The usage
+	 *         counts of the dictionary are read from their index, the most
+	 *         used first, then the words in the order of the search keys.
+	 */
+	private static String rankedUsedQuery(boolean addSuggestions,
+			String alias, String usageAlias) {
+
+		return "SELECT " + listFields(alias) + " , " + alias
+				+ ".rowid AS _id FROM " + TABLE_WORD_USAGE + " " + usageAlias
+				+ " CROSS JOIN " + TABLE_EFFECTIVE_HEADWORD + " " + alias
+				+ " ON " + usageOfWord(alias, usageAlias) + " WHERE "
+				+ usageAlias + "." + TF_WU_DICT_ID + " = ? AND " + alias + "."
+				+ TF_EH_SEARCH_KEY + " > ? AND " + alias + "."
+				+ TF_EH_SEARCH_KEY + " < ?"
+				+ rankedTypeCondition(addSuggestions, alias) + " ORDER BY "
+				+ usageAlias + "." + TF_WU_USAGE_COUNT + " DESC, " + alias
+				+ "." + TF_EH_SEARCH_KEY + " ASC, " + alias + "."
+				+ TF_EH_WORD + " ASC, " + alias + ".rowid ASC";
+	}
 
-		// setting the table
-		qb.setTables(TABLE_HEADWORD);
+	/**
+	 * @return The SQL of the other words of rankedSearchWordCursor :
+	 *         dictionary id, search key, upper bound, then the arguments of
+	 *         the used words and their limit. The words are read in the
+	 *         order of the search key index, the used words being excluded by
+	 *         their list, read once.
+	 */
+	private static String rankedOtherQuery(boolean addSuggestions) {
+
+		return "SELECT " + listFields("E") + " , E.rowid AS _id FROM "
+				+ TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_DICT_ID
+				+ " = ? AND E." + TF_EH_SEARCH_KEY + " > ? AND E."
+				+ TF_EH_SEARCH_KEY + " < ?"
+				+ rankedTypeCondition(addSuggestions, "E")
+				+ " AND E.rowid NOT IN ( SELECT _id FROM ( "
+				+ rankedUsedQuery(addSuggestions, "R", "U")
+				+ " LIMIT ? ) ) ORDER BY E." + TF_EH_SEARCH_KEY + " ASC, E."
+				+ TF_EH_WORD + " ASC";
+	}
 
-		// asked fields
-		String[] fields = { TF_HEADWORD_ID, TF_HEADWORD_DICT_ID,
-				TF_HEADWORD_WORD, TF_HEADWORD_ENTRY, TF_HEADWORD_PHONETIC,
-				TF_HEADWORD_PRONUN_EXISTS };
+	/**
+	 * @return The condition joining the usage count of an effective
+	 *         headword, by the primary keys of both tables.
+	 */
+	private static String usageOfWord(String alias, String usageAlias) {
+		return usageAlias + "." + TF_WU_TYPE + " = " + alias + "."
+				+ TF_EH_TYPE + " AND " + usageAlias + "." + TF_WU_WORD_ID
+				+ " = " + alias + "." + TF_EH_WORD_ID;
+	}
 
-		// generating where clause
-		// filtering by dictionary
-		String whereClause = TF_HEADWORD_DICT_ID + " = ?";
-		String[] selectArgs = { Integer.toString(dictionaryId) };
+	/**
+	 * @return The condition keeping the headwords only if the suggestions are
+	 *         not searched.
+	 */
+	private static String rankedTypeCondition(boolean addSuggestions,
+			String alias) {
+		return addSuggestions ? "" : " AND " + alias + "." + TF_EH_TYPE
+				+ " = '" + WORD_TYPE_HEADWORD + "'";
+	}
 
-		/*
-		 * Launching query
-		 */
+	/**
+	 * Runs a word search query and reads its first window.
+	 * 
+	 * @param shape
+	 *            The shape of the query (see registerStatements).
+	 * @return The cursor or null if there is no matching.
+	 */
+	private Cursor openSearchCursor(String shape, String[] selectArgs,
+			AopdsCancellationSignal cancellation) throws AopdsDatabaseException {
 
 		try {
-			// getting a connection for read only.
-			SQLiteDatabase connection = db.getReadableDatabase();
-
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
-					null, null, TF_HEADWORD_WORD + " ASC", // ordering ascendant
-					Long.toString(from) + ", " + Integer.toString(howMany) // LIMIT
-																			// clause
-			);
-
-			// verifying cursor
-			res = handleCursor(res);
-
-			if (res != null) { // cursor is containing data
-
-				// we'll put the results in it
-				ArrayList<Headword> returningRes = new ArrayList<Headword>();
 
-				do { // at least one word in the results
+			checkCancellation(cancellation, null);
 
-					//
-					// mapping the word
-					//
+			// getting the connector for read only.
+			SQLiteDatabase connection = db.getReadableDatabase();
 
-					// pronunciation
-					Boolean pronuncExists = false;
-					if (res.getInt(5) != 0) {
-						pronuncExists = true;
-					}
+			Cursor res = statements.query(connection, shape, selectArgs);
 
-					Headword headword = new Headword(res.getInt(0), // id
-							res.getString(2), // word
-							res.getString(3), // entry
-							res.getString(4), // phonetics
-							null, // dictionary id
-							pronuncExists);
+			// runs the query and reads the first window
+			if (res != null && res.getCount() > 0) {
 
-					returningRes.add(headword);
+				checkCancellation(cancellation, res);
 
-				} while (res.moveToNext());
+				return res;
+			}
 
-				// closing cursor
+			if (res != null) {
 				res.close();
-
-				return returningRes;
-
-			} else { // no data in cursor
-				return null;
 			}
 
+			return null; // no matching
+
 		} catch (SQLiteException e) {
 			throw handleError(e);
 		}
 	}
 
 	/**
-	 * Get the installed dictionary by its languages.
 	 * 
-	 * @param LanguageFromId
-	 *            The origin language of the searched dictionary.
-	 * @param LanguageToId
-	 *            The target language of the searched dictionary.
-	 * @return The dictionary whose languages are the arguments provided or null
-	 *         if it's not installed on the phone.
+	 * Get the words of a dictionary matching exactly a word : the headwords
+	 * and suggestions having the same search key, as searchWord with
+	 * exactMatch does. The lookup is a single equality probe of the search
+	 * key index, and the last lookups are kept in the cache of the searches :
+	 * this is the method to use to check if a word exists (duplicates, spell
+	 * checking). The dictionary of the words is not retrieved.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param word
+	 *            [must not be empty] The word to look up.
+	 * @return The matching words ordered by word, an empty list if there is
+	 *         none.
 	 * @throws AopdsDatabaseException
-	 *             If data cannot be accessed.
+	 *             If the data cannot be accessed.
 	 */
-	public Dictionary getDictionaryByLanguages(int LanguageFromId,
-			int LanguageToId) throws AopdsDatabaseException {
+	public ArrayList<AbstractWord> lookupWord(int dictionaryId, String word)
+			throws AopdsDatabaseException {
 
-		/*
-		 * Generating SQL query
-		 * 
-		 * Retrieving the searched dictionary and its languages.
-		 */
+		if (word.length() <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".lookupWord: The 'word' parameter MUST NOT BE EMPTY.");
+		}
 
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+		ArrayList<AbstractWord> words = searchWord(dictionaryId, word, true,
+				true);
 
-		// generating where clause
+		return words == null ? new ArrayList<AbstractWord>() : words;
+	}
 
-		// joining language table for the two languages (origin and target)
-		// and filtering by searched languages :
-		//
-		// dictionary.languageFrom = language.id AND dictionary.languageFrom =
-		// searchedLanguage ...
-		String whereClause = "LANGUAGE_TO." + TF_LANGUAGE_CODE + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO
-				+ " AND " + "LANGUAGE_FROM." + TF_LANGUAGE_CODE + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = ? AND " + TABLE_INSTALLED_DICTIONARY
-				+ "." + TF_ID_LANGUAGE_FROM + " = ?";
+	/**
+	 * Check if a word is in a dictionary (see lookupWord).
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param word
+	 *            [must not be empty] The word to look up.
+	 * @return true if a headword or a suggestion matches exactly the word.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public boolean containsWord(int dictionaryId, String word)
+			throws AopdsDatabaseException {
+		return !lookupWord(dictionaryId, word).isEmpty();
+	}
 
-		// setting tables, aliasing table languages to distinguish
-		// origin and target languages joins.
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM");
+	/**
+	 *
+	 * Search the words of a dictionary whose entry contains a text (reverse
+	 * lookup : finding the word from its translation). The search is done on
+	 * the full text indexes of the entries of the headwords and of the
+	 * suggestions, every term of the text must be found in the entry, the last
+	 * one being matched as a prefix.<br>
+	 * <br>
+	 *
+	 * The words are ranked by relevance : entries beginning by the searched
+	 * text first, then by number of matching terms relatively to the number
+	 * of terms of the entry (see fullTextScore). The ranking and the limit
+	 * are applied by the query : only the best matches are read, and their
+	 * snippets are computed from their entries (see buildSnippet). The
+	 * headwords and suggestions are mapped as in searchWord. The dictionary
+	 * of the words is not retrieved.
+	 *
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param text
+	 *            The text to search in the entries.
+	 * @param maxResults
+	 *            [must be positive] The maximum number of words to retrieve.
+	 * @return The best matches ordered by decreasing relevance or null if
+	 *         there is no matching.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<EntryMatch> searchEntries(int dictionaryId, String text,
+			int maxResults) throws AopdsDatabaseException {
 
-		// asked fields
-		// we have to alias the fields with the good table name (because there
-		// is two joins)
-		String[] fields = {
-				// dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+		// verifying args
+		if (maxResults <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchEntries: 'maxResults' MUST BE POSITIVE.");
+		}
 
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH", };
+		String matchQuery = buildFullTextQuery(text);
 
-		// where clause values (replacing the ?s)
-		String[] selectArgs = { Integer.toString(LanguageToId),
-				Integer.toString(LanguageFromId) };
+		if (matchQuery == null) { // nothing searchable in the text
+			return null;
+		}
+
+		String[] selectArgs = { matchQuery, Integer.toString(dictionaryId),
+				matchQuery, Integer.toString(dictionaryId),
+				Integer.toString(maxResults) };
+
+		// the full text indexes give the ids of the words and the offsets of
+		// their matches, the best ones are read in the effective headwords
+		String query = "SELECT " + effectiveHeadwordFields("E")
+				+ " , R.O , R.SCORE FROM ( SELECT T , I , K , O , "
+				+ fullTextScore("O", "W") + " AS SCORE FROM ( "
+				+ fullTextMatches(TABLE_HEADWORD_FTS, WORD_TYPE_HEADWORD)
+				+ " UNION ALL "
+				+ fullTextMatches(TABLE_SUGGESTION_FTS, WORD_TYPE_SUGGESTION)
+				// not flattened : the offsets are computed once per match
+				+ " LIMIT -1 OFFSET 0 ) ORDER BY SCORE DESC , K LIMIT ? ) R"
+				+ " INNER JOIN " + TABLE_EFFECTIVE_HEADWORD + " E ON E."
+				+ TF_EH_TYPE + " = R.T AND E." + TF_EH_WORD_ID
+				+ " = R.I ORDER BY R.SCORE DESC , R.K";
 
 		/*
-		 * Launching query
+		 * Launching the query
 		 */
 
 		try {
-			// getting connector for read only
+
+			// getting the connector for read only.
 			SQLiteDatabase connection = db.getReadableDatabase();
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
-					null, null, null // no order
-					);
+			Cursor res = connection.rawQuery(query, selectArgs);
 
-			// verifying cursor
+			// verifying the cursor
 			res = handleCursor(res);
 
-			if (res != null) { // cursor containing on dictionary
+			if (res != null) { // the cursor is containing data
 
-				//
-				// mapping dictionary
-				//
+				ArrayList<EntryMatch> returningRes = new ArrayList<EntryMatch>();
 
-				// target language
-				Language languageTo = new Language(res.getInt(3), // id
-						res.getString(4), // abbreviation ISO-639
-						res.getString(5), // name
-						res.getString(6) // name in English
-				);
+				do {
 
-				// origin language
-				Language languageFrom = new Language(res.getInt(7), // id
-						res.getString(8), // abbreviation ISO-639
-						res.getString(9), // name
-						res.getString(10) // name in english
-				);
+					AbstractWord word = mapSearchedWord(res);
 
-				// dictionary
-				Dictionary dictionary = new Dictionary(res.getInt(0), // id
-						languageTo, languageFrom, res.getString(1), // name
-						res.getInt(2));
+					returningRes.add(new EntryMatch(word, buildSnippet(res
+							.getString(4), res.getString(16)), res
+							.getDouble(17)));
+
+				} while (res.moveToNext());
 
 				// closing cursor
 				res.close();
 
-				return dictionary;
+				return returningRes;
 
-			} else { // no dictionary found
+			} else { // the cursor is not containing data
 				return null;
 			}
 
 		} catch (SQLiteException e) {
 			throw handleError(e);
 		}
-
 	}
 
 	/**
-	 * Get the Installed Dictionary on the application, according to the
-	 * dictionary id given in parameter.
 	 * 
-	 * @param id
-	 *            The id of the looked up dictionary.
-	 * @return InstalledDictionary The dictionary found or null if doesn't
-	 *         exist.
+	 * Get the headwords of a dictionary of a part of speech (see Annotation),
+	 * beginning by a string or not : "the verbs beginning by br". The parts of
+	 * speech are read in the annotations parsed from the entries at import,
+	 * the filter is an index join : the matching words are read in the search
+	 * key index and their annotations are probed in the annotation index, or,
+	 * without any beginning, the annotations of the part of speech are read
+	 * first. The suggested additions have no annotations and are never found.
+	 * <br>
+	 * <br>
+	 * 
+	 * The headwords are mapped as in searchWord, with their last
+	 * modification. The dictionary of the words is not retrieved.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param wordToMatch
+	 *            The beginning of the words, null or empty for all the words
+	 *            of the part of speech.
+	 * @param partOfSpeech
+	 *            The part of speech of the words, one of the constants of
+	 *            Annotation.
+	 * @param maxResults
+	 *            [must be positive] The maximum number of words to retrieve.
+	 * @return The matching headwords ordered by search key then word or null
+	 *         if there is no matching.
 	 * @throws AopdsDatabaseException
-	 *             Id data cannot be accessed.
+	 *             If the data cannot be accessed.
 	 */
-	public Dictionary getDictionaryById(int id) throws AopdsDatabaseException {
+	public ArrayList<AbstractWord> searchWordByPartOfSpeech(int dictionaryId,
+			String wordToMatch, String partOfSpeech, int maxResults)
+			throws AopdsDatabaseException {
 
-		/*
-		 * Generating query
-		 * 
-		 * Getting the dictionary and its languages.
-		 */
+		// verifying args
+		if (maxResults <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchWordByPartOfSpeech: 'maxResults' MUST BE POSITIVE.");
+		}
 
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+		String dictionary = Integer.toString(dictionaryId);
+		String query;
+		String[] selectArgs;
 
-		// generating where clause
+		if (wordToMatch != null && wordToMatch.length() > 0) {
 
-		// joining languages and filtering by dictionary id
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
-				+ " AND " + TF_ID_ID + " = ?";
+			String keyFrom = getAnalyzer(dictionaryId).queryKey(wordToMatch);
 
-		// dictionary and aliasing language table for joining
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM");
+			query = "SELECT " + effectiveHeadwordFields("E") + " FROM "
+					+ TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_DICT_ID
+					+ " = ? AND E." + TF_EH_SEARCH_KEY + " >= ? AND E."
+					+ TF_EH_SEARCH_KEY + " < ? AND E." + TF_EH_TYPE + " = '"
+					+ WORD_TYPE_HEADWORD + "' AND EXISTS ( SELECT A."
+					+ TF_ANNOTATION_POS + " FROM " + TABLE_ANNOTATION
+					+ " A WHERE A." + TF_ANNOTATION_HEADWORD_ID + " = E."
+					+ TF_EH_WORD_ID + " AND A." + TF_ANNOTATION_POS + " = ? )";
+			selectArgs = new String[] { dictionary, keyFrom,
+					AopdsSearchKey.prefixUpperBound(keyFrom), partOfSpeech };
 
-		// asked fields
-		String[] fields = {
-				// dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+		} else {
 
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH", };
+			query = "SELECT " + effectiveHeadwordFields("E") + " FROM "
+					+ TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_TYPE
+					+ " = '" + WORD_TYPE_HEADWORD + "' AND E."
+					+ TF_EH_WORD_ID + " IN ( SELECT " + TF_ANNOTATION_HEADWORD_ID
+					+ " FROM " + TABLE_ANNOTATION + " WHERE "
+					+ TF_ANNOTATION_DICT_ID + " = ? AND " + TF_ANNOTATION_POS
+					+ " = ? )";
+			selectArgs = new String[] { dictionary, partOfSpeech };
+		}
 
-		// where values
-		String[] selectArgs = { Integer.toString(id) };
+		query += " ORDER BY E." + TF_EH_SEARCH_KEY + " ASC, E." + TF_EH_WORD
+				+ " ASC LIMIT " + maxResults;
 
 		/*
-		 * Launching queries
+		 * Launching the query
 		 */
 
 		try {
-			// get connector for read only
+
+			// getting the connector for read only.
 			SQLiteDatabase connection = db.getReadableDatabase();
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
-					null, null, null // no order
-					);
+			Cursor res = connection.rawQuery(query, selectArgs);
 
-			// verifying cursor
+			// verifying the cursor
 			res = handleCursor(res);
 
-			if (res != null) { // cursor containing one dictionary
-
-				//
-				// mapping dictionary
-				//
-
-				// target language
-				Language languageTo = new Language(res.getInt(3), // id
-						res.getString(4), // abbreviation
-						res.getString(5), // name
-						res.getString(6) // name in English
-				);
+			if (res != null) { // the cursor is containing data
 
-				// origin language
-				Language languageFrom = new Language(res.getInt(7), // id
-						res.getString(8), // abbreviation
-						res.getString(9), // name
-						res.getString(10) // name in english
-				);
+				ArrayList<AbstractWord> returningRes = new ArrayList<AbstractWord>();
 
-				// dictionary
-				Dictionary dictionary = new Dictionary(res.getInt(0), // id
-						languageTo, languageFrom, res.getString(1), // name
-						res.getInt(2));
+				do {
+					returningRes.add(mapSearchedWord(res));
+				} while (res.moveToNext());
 
+				// closing cursor
 				res.close();
 
-				return dictionary;
+				return returningRes;
 
-			} else { // no dictionary found
+			} else { // the cursor is not containing data
 				return null;
 			}
 
 		} catch (SQLiteException e) {
 			throw handleError(e);
 		}
-
 	}
 
-	public ArrayList<Suggestion> getAllModifyDeleteSuggestions()
+	/**
+	 * Get the grammar and sense notes of the entry of a headword.
+	 * 
+	 * @param headwordId
+	 *            The id of the headword.
+	 * @return The notes of the entry in their order, an empty list if there
+	 *         is none.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<Annotation> getAnnotations(long headwordId)
 			throws AopdsDatabaseException {
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all suggestions.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-
-		// asked fields
-		String[] fields = {
-				// suggestion
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
-				// Headword
-				TABLE_HEADWORD + "." + TF_HEADWORD_ID, // 9
-				TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID, // 10
-				TABLE_HEADWORD + "." + TF_HEADWORD_WORD, // 11
-				TABLE_HEADWORD + "." + TF_HEADWORD_ENTRY, // 12
-				TABLE_HEADWORD + "." + TF_HEADWORD_PHONETIC, // 13
-				TABLE_HEADWORD + "." + TF_HEADWORD_PRONUN_EXISTS, // 14
-				// Dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 15
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 16
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 17
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 18
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 19
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 20
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION", // 21
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 22
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 23
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 24
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION", // 25
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 26
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 27
-		};
-
-		// joining with languages
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID + " = "
-				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID;
-
-		// tables suggestion
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
-				+ "," + TABLE_SUGGESTION + "," + TABLE_HEADWORD);
 
-		/* Launching SQL query */
+		ArrayList<Annotation> annotations = new ArrayList<Annotation>();
 
 		try {
-			// getting connector for read only
+
+			// getting the connector for read only.
 			SQLiteDatabase connection = db.getReadableDatabase();
-			/*
-			 * String query = SQLiteQueryBuilder.buildQueryString( true,
-			 * qb.getTables(), fields, whereClause, null, null, null, null );
-			 * 
-			 * AopdsLogger.info("QUERY", query);
-			 */
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+			Cursor res = connection.rawQuery("SELECT " + TF_ANNOTATION_POS
+					+ " , " + TF_ANNOTATION_NOTE + " FROM " + TABLE_ANNOTATION
+					+ " WHERE " + TF_ANNOTATION_HEADWORD_ID
+					+ " = ? ORDER BY rowid ASC",
+					new String[] { Long.toString(headwordId) });
 
-			// verifying cursor
+			// verifying the cursor
 			res = handleCursor(res);
 
-			if (res != null) { // cursor containing cursor
-
-				// result set
-				ArrayList<Suggestion> returningRes = new ArrayList<Suggestion>();
+			if (res != null) {
 
 				do {
-					// target language
-					Language languageTo = new Language(res.getInt(20), // id
-							res.getString(21), // abbreviation
-							res.getString(22), // name
-							res.getString(23) // name in English
-					);
+					annotations.add(new Annotation(headwordId, res
+							.getString(0), res.getString(1)));
+				} while (res.moveToNext());
 
-					// origin language
-					Language languageFrom = new Language(res.getInt(24), // id
-							res.getString(24), // abbreviation
-							res.getString(26), // name
-							res.getString(27) // name in English
-					);
+				res.close();
+			}
 
-					// dictionary
-					Dictionary dictionary = new Dictionary(res.getInt(15), // id
-							languageTo, languageFrom, res.getString(18), // name
-							res.getInt(19));
+			return annotations;
 
-					// Headword
-					Headword headword = new Headword(res.getInt(9), // id
-							res.getString(11),// word
-							res.getString(13), // entry
-							res.getString(13), // phonetic
-							dictionary, Boolean.valueOf(Integer.toString(res
-									.getInt(14))) // pronunciationExists
-					);
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
 
-					// Suggestion
-					Suggestion suggestion = new Suggestion();
-					suggestion.setId(res.getInt(0));
-					suggestion.setDictionary(dictionary);
-					suggestion.setHeadword(headword);
-					suggestion.setWord(res.getString(3));
-					suggestion.setPhonetic(res.getString(4));
-					suggestion.setEntry(res.getString(5));
-					suggestion.setActionType(res.getString(6));
-					suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
-							.toString(res.getInt(7))));
-					suggestion.setSynchroStatus(res.getString(8));
+	/**
+	 * 
+	 * Get the words of a dictionary sounding like a typed word : the words
+	 * having the same sound key (see AopdsAnalyzer.soundKey), for a learner
+	 * writing a word as it is heard. The candidates are read by a single
+	 * probe of the sound key indexes, nothing is scored at query time.<br>
+	 * <br>
+	 * 
+	 * The headwords and suggestions are mapped as in searchWord. The
+	 * dictionary of the words is not retrieved.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param word
+	 *            [must not be empty] The word as the user has written it.
+	 * @param addSuggestions
+	 *            true to search the suggestions too.
+	 * @param maxResults
+	 *            [must be positive] The maximum number of words to retrieve.
+	 * @return The words sounding like the typed one ordered by search key
+	 *         then word, or null if there is none.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<AbstractWord> searchSoundAlike(int dictionaryId,
+			String word, Boolean addSuggestions, int maxResults)
+			throws AopdsDatabaseException {
 
-					returningRes.add(suggestion);
+		// verifying args
+		if (word.length() <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchSoundAlike: The 'word' parameter MUST NOT BE EMPTY.");
+		}
+
+		if (maxResults <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchSoundAlike: 'maxResults' MUST BE POSITIVE.");
+		}
+
+		String dictionary = Integer.toString(dictionaryId);
+		String soundKey = getAnalyzer(dictionaryId).soundKey(word);
+
+		// the sound keys are stored with the words, the words are read in
+		// the effective headwords
+		String query = "SELECT " + effectiveHeadwordFields("E") + " FROM "
+				+ TABLE_HEADWORD + " H CROSS JOIN " + TABLE_EFFECTIVE_HEADWORD
+				+ " E ON E." + TF_EH_TYPE + " = '" + WORD_TYPE_HEADWORD
+				+ "' AND E." + TF_EH_WORD_ID + " = H." + TF_HEADWORD_ID
+				+ " WHERE H." + TF_HEADWORD_DICT_ID + " = ? AND H."
+				+ TF_HEADWORD_SOUND_KEY + " = ?";
+		String[] selectArgs = { dictionary, soundKey };
+
+		if (addSuggestions) {
+
+			query += " UNION ALL SELECT " + effectiveHeadwordFields("E")
+					+ " FROM " + TABLE_SUGGESTION + " S CROSS JOIN "
+					+ TABLE_EFFECTIVE_HEADWORD + " E ON E." + TF_EH_TYPE
+					+ " = '" + WORD_TYPE_SUGGESTION + "' AND E."
+					+ TF_EH_WORD_ID + " = S." + TF_SUGGESTION_ID + " WHERE S."
+					+ TF_SUGGESTION_DICT_ID + " = ? AND S."
+					+ TF_SUGGESTION_SOUND_KEY + " = ?";
+			selectArgs = new String[] { dictionary, soundKey, dictionary,
+					soundKey };
+		}
+
+		query += " ORDER BY E." + TF_EH_SEARCH_KEY + " ASC, E." + TF_EH_WORD
+				+ " ASC LIMIT " + maxResults;
+
+		/*
+		 * Launching the query
+		 */
+
+		try {
+
+			// getting the connector for read only.
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			Cursor res = connection.rawQuery(query, selectArgs);
+
+			// verifying the cursor
+			res = handleCursor(res);
+
+			if (res != null) { // the cursor is containing data
+
+				ArrayList<AbstractWord> returningRes = new ArrayList<AbstractWord>();
 
+				do {
+					returningRes.add(mapSearchedWord(res));
 				} while (res.moveToNext());
 
 				// closing cursor
@@ -1210,7 +2431,7 @@ public final class AopdsDatabase {
 
 				return returningRes;
 
-			} else { // no dictionary found
+			} else { // the cursor is not containing data
 				return null;
 			}
 
@@ -1219,125 +2440,137 @@ public final class AopdsDatabase {
 		}
 	}
 
-	public ArrayList<Suggestion> getAllAddSuggestions()
-			throws AopdsDatabaseException {
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all suggestions.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-
-		// asked fields
-		String[] fields = {
-				// suggestion
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+	/**
+	 * 
+	 * Get the words of a dictionary matching a pattern, in which '?' stands
+	 * for any character and '*' for any sequence of characters : "*acht*"
+	 * finds the words containing "acht", "ab?irt" the words of 6 letters
+	 * beginning by "ab" and ending by "irt". The pattern is matched on the
+	 * search keys, the letters of the pattern between the wildcards are
+	 * analyzed as the words (see compilePattern).<br>
+	 * <br>
+	 * 
+	 * The candidates are the words having every trigram of the pattern : the
+	 * posting lists of the trigrams (see AopdsSearchKey.trigrams) are
+	 * intersected in the database, then the candidates are verified with the
+	 * whole pattern. A pattern without any trigram ("a*", "?a?") is matched on
+	 * the range of its first letters, or on the whole dictionary if it begins
+	 * by a wildcard.<br>
+	 * <br>
+	 * 
+	 * The headwords and suggestions are mapped as in searchWord. The
+	 * dictionary of the words is not retrieved.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param pattern
+	 *            [must not be empty] The pattern of the words.
+	 * @param addSuggestions
+	 *            true to search the suggestions too.
+	 * @param maxResults
+	 *            [must be positive] The maximum number of words to retrieve.
+	 * @return The matching words ordered by search key then word or null if
+	 *         there is no matching.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<AbstractWord> searchPattern(int dictionaryId,
+			String pattern, Boolean addSuggestions, int maxResults)
+			throws AopdsDatabaseException {
 
-				// Dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 9
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 10
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 11
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 12
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 13
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 14
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION", // 15
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 16
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 17
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 18
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION", // 19
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 20
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 21
-		};
+		// verifying args
+		if (pattern.length() <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchPattern: The 'pattern' parameter MUST NOT BE EMPTY.");
+		}
 
-		// joining with languages
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID
-				+ " = " + TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE + " = '"
-				+ ACTION_TYPE_ADDITION + "'";
+		if (maxResults <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".searchPattern: 'maxResults' MUST BE POSITIVE.");
+		}
 
-		// tables suggestion
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
-				+ "," + TABLE_SUGGESTION);
+		WordPattern compiled = compilePattern(getAnalyzer(dictionaryId),
+				pattern);
+		ArrayList<String> trigrams = compiled.trigrams;
+		String firstLetters = compiled.firstLetters;
 
-		/* Launching SQL query */
+		String dictionary = Integer.toString(dictionaryId);
+		ArrayList<String> selectArgs = new ArrayList<String>();
+		String query = "SELECT " + effectiveHeadwordFields("E") + " FROM ";
 
-		try {
+		if (!trigrams.isEmpty()) {
 
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
-			/*
-			 * String query = SQLiteQueryBuilder.buildQueryString( true,
-			 * qb.getTables(), fields, whereClause, null, null, null, null );
-			 * 
-			 * AopdsLogger.info("QUERY", query);
-			 */
+			// intersection of the posting lists, read in the order of the
+			// words by the primary key index
+			StringBuilder candidates = new StringBuilder();
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+			for (String trigram : trigrams) {
+				if (candidates.length() > 0) {
+					candidates.append(" INTERSECT ");
+				}
+				candidates.append("SELECT " + TF_WT_TYPE + " , "
+						+ TF_WT_WORD_ID + " FROM " + TABLE_WORD_TRIGRAM
+						+ " WHERE " + TF_WT_DICT_ID + " = ? AND "
+						+ TF_WT_TRIGRAM + " = ?");
+				selectArgs.add(dictionary);
+				selectArgs.add(trigram);
+			}
 
-			// verifying cursor
-			res = handleCursor(res);
+			query += "( " + candidates + " ) C CROSS JOIN "
+					+ TABLE_EFFECTIVE_HEADWORD + " E ON E." + TF_EH_TYPE
+					+ " = C." + TF_WT_TYPE + " AND E." + TF_EH_WORD_ID
+					+ " = C." + TF_WT_WORD_ID + " WHERE ";
 
-			if (res != null) { // cursor containing cursor
+		} else if (firstLetters != null) {
 
-				// result set
-				ArrayList<Suggestion> returningRes = new ArrayList<Suggestion>();
+			query += TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_DICT_ID
+					+ " = ? AND E." + TF_EH_SEARCH_KEY + " >= ? AND E."
+					+ TF_EH_SEARCH_KEY + " < ? AND ";
+			selectArgs.add(dictionary);
+			selectArgs.add(firstLetters);
+			selectArgs.add(AopdsSearchKey.prefixUpperBound(firstLetters));
 
-				do {
-					// target language
-					Language languageTo = new Language(res.getInt(14), // id
-							res.getString(15), // abbreviation
-							res.getString(16), // name
-							res.getString(17) // name in English
-					);
+		} else {
 
-					// origin language
-					Language languageFrom = new Language(res.getInt(18), // id
-							res.getString(19), // abbreviation
-							res.getString(20), // name
-							res.getString(21) // name in English
-					);
+			query += TABLE_EFFECTIVE_HEADWORD + " E WHERE E." + TF_EH_DICT_ID
+					+ " = ? AND ";
+			selectArgs.add(dictionary);
+		}
 
-					// dictionary
-					Dictionary dictionary = new Dictionary(res.getInt(9), // id
-							languageTo, languageFrom, res.getString(12), // name
-							res.getInt(13));
+		// verifying the candidates
+		query += "E." + TF_EH_SEARCH_KEY + " GLOB ?";
+		selectArgs.add(compiled.glob);
 
-					// Suggestion
-					Suggestion suggestion = new Suggestion();
-					suggestion.setId(res.getInt(0));
-					suggestion.setDictionary(dictionary);
-					suggestion.setHeadword(null);
-					suggestion.setWord(res.getString(3));
-					suggestion.setPhonetic(res.getString(4));
-					suggestion.setEntry(res.getString(5));
-					suggestion.setActionType(res.getString(6));
-					suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
-							.toString(res.getInt(7))));
-					suggestion.setSynchroStatus(res.getString(8));
+		if (!addSuggestions) {
+			query += " AND E." + TF_EH_TYPE + " = '" + WORD_TYPE_HEADWORD
+					+ "'";
+		}
 
-					returningRes.add(suggestion);
+		query += " ORDER BY E." + TF_EH_SEARCH_KEY + " ASC, E." + TF_EH_WORD
+				+ " ASC LIMIT ?";
+		selectArgs.add(Integer.toString(maxResults));
+
+		/*
+		 * Launching the query
+		 */
+
+		try {
+
+			// getting the connector for read only.
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			Cursor res = connection.rawQuery(query,
+					selectArgs.toArray(new String[selectArgs.size()]));
+
+			// verifying the cursor
+			res = handleCursor(res);
+
+			if (res != null) { // the cursor is containing data
+
+				ArrayList<AbstractWord> returningRes = new ArrayList<AbstractWord>();
 
+				do {
+					returningRes.add(mapSearchedWord(res));
 				} while (res.moveToNext());
 
 				// closing cursor
@@ -1345,7 +2578,7 @@ public final class AopdsDatabase {
 
 				return returningRes;
 
-			} else { // no dictionary found
+			} else { // the cursor is not containing data
 				return null;
 			}
 
@@ -1354,717 +2587,3477 @@ public final class AopdsDatabase {
 		}
 	}
 
-	public Suggestion getModifyDeleteSuggestion(long idSuggestion)
-			throws AopdsDatabaseException {
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all suggestions.
+	/**
+	 * A pattern of searchPattern, on the search keys.
+	 */
+	static final class WordPattern {
+
+		/**
+		 * The pattern for the SQLite GLOB operator.
 		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+		final String glob;
 
-		// asked fields
-		String[] fields = {
-				// suggestion
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
-				// Headword
-				TABLE_HEADWORD + "." + TF_HEADWORD_ID, // 9
-				TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID, // 10
-				TABLE_HEADWORD + "." + TF_HEADWORD_WORD, // 11
-				TABLE_HEADWORD + "." + TF_HEADWORD_ENTRY, // 12
-				TABLE_HEADWORD + "." + TF_HEADWORD_PHONETIC, // 13
-				TABLE_HEADWORD + "." + TF_HEADWORD_PRONUN_EXISTS, // 14
-				// Dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 15
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 16
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 17
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 18
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 19
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 20
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION", // 21
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 22
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 23
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 24
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION", // 25
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 26
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 27
-		};
+		/**
+		 * The key of the letters before the first wildcard, null if the
+		 * pattern begins by a wildcard.
+		 */
+		final String firstLetters;
 
-		// joining with languages
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID + " = "
-				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID + " = "
-				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
-				+ idSuggestion;
+		/**
+		 * The trigrams of the keys matching the pattern, at most
+		 * MAX_PATTERN_TRIGRAMS.
+		 */
+		final ArrayList<String> trigrams;
 
-		// tables suggestion
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
-				+ "," + TABLE_SUGGESTION + "," + TABLE_HEADWORD);
+		WordPattern(String glob, String firstLetters, ArrayList<String> trigrams) {
+			this.glob = glob;
+			this.firstLetters = firstLetters;
+			this.trigrams = trigrams;
+		}
+	}
 
-		/* Launching SQL query */
+	/**
+	 * Translates a pattern of searchPattern to the search keys. Each part of
+	 * the pattern between the wildcards is analyzed as the words (see
+	 * AopdsAnalyzer.indexKey) : a part typed with its mutation finds the
+	 * words stored without it. The '[' of the keys is escaped for GLOB.
+	 * 
+	 * @param analyzer
+	 *            The analyzer of the dictionary.
+	 * @param pattern
+	 *            [must not be empty] The pattern of the words.
+	 * @return The pattern on the search keys.
+	 */
+	static WordPattern compilePattern(AopdsAnalyzer analyzer, String pattern) {
 
-		try {
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
-			/*
-			 * String query = SQLiteQueryBuilder.buildQueryString( true,
-			 * qb.getTables(), fields, whereClause, null, null, null, null );
-			 * AopdsLogger.info("requete", query);
-			 */
+		// the pattern on the search keys, for the SQLite GLOB operator, and
+		// the pattern on the keys marked by their beginning and end, to get
+		// its trigrams
+		StringBuilder glob = new StringBuilder();
+		StringBuilder marked = new StringBuilder();
+		String firstLetters = null;
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+		if (pattern.charAt(0) != '*') {
+			marked.append(AopdsSearchKey.KEY_START);
+		}
 
-			// verifying cursor
-			res = handleCursor(res);
+		int position = 0;
 
-			if (res != null) { // cursor containing cursor
+		while (position < pattern.length()) {
 
-				// result set
-				Suggestion returningRes = new Suggestion();
+			char c = pattern.charAt(position);
 
-				// target language
-				Language languageTo = new Language(res.getInt(20), // id
-						res.getString(21), // abbreviation
-						res.getString(22), // name
-						res.getString(23) // name in English
-				);
+			if (c == '?' || c == '*') {
+				glob.append(c);
+				marked.append(c);
+				position++;
+				continue;
+			}
 
-				// origin language
-				Language languageFrom = new Language(res.getInt(24), // id
-						res.getString(24), // abbreviation
-						res.getString(26), // name
-						res.getString(27) // name in English
-				);
+			int end = position;
+			while (end < pattern.length() && pattern.charAt(end) != '?'
+					&& pattern.charAt(end) != '*') {
+				end++;
+			}
 
-				// dictionary
-				Dictionary dictionary = new Dictionary(res.getInt(15), // id
-						languageTo, languageFrom, res.getString(18), // name
-						res.getInt(19));
+			// analyzed as the stored words : the words of "mb?d" are stored
+			// as "b?d"
+			String key = analyzer.indexKey(pattern.substring(position, end));
 
-				// Headword
-				Headword headword = new Headword(res.getInt(9), // id
-						res.getString(11),// word
-						res.getString(13), // entry
-						res.getString(13), // phonetic
-						dictionary, Boolean.valueOf(Integer.toString(res
-								.getInt(14))) // pronunciationExists
-				);
+			if (position == 0) {
+				firstLetters = key;
+			}
 
-				// Suggestion
-				Suggestion suggestion = new Suggestion();
-				suggestion.setId(res.getInt(0));
-				suggestion.setDictionary(dictionary);
-				suggestion.setHeadword(headword);
-				suggestion.setWord(res.getString(3));
-				suggestion.setPhonetic(res.getString(4));
-				suggestion.setEntry(res.getString(5));
-				suggestion.setActionType(res.getString(6));
-				suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
-						.toString(res.getInt(7))));
-				suggestion.setSynchroStatus(res.getString(8));
+			glob.append(key.replace("[", "[[]"));
+			marked.append(key);
+			position = end;
+		}
 
-				returningRes = suggestion;
+		if (pattern.charAt(pattern.length() - 1) != '*') {
+			marked.append(AopdsSearchKey.KEY_END);
+		}
 
-				// closing cursor
-				res.close();
+		// trigrams of the parts of the pattern between the wildcards
+		ArrayList<String> trigrams = new ArrayList<String>();
 
-				return returningRes;
+		for (String part : marked.toString().split("[?*]")) {
+			for (String trigram : AopdsSearchKey.trigrams(part)) {
+				if (trigrams.size() < MAX_PATTERN_TRIGRAMS
+						&& !trigrams.contains(trigram)) {
+					trigrams.add(trigram);
+				}
+			}
+		}
 
-			} else { // no dictionary found
-				return null;
+		return new WordPattern(glob.toString(), firstLetters, trigrams);
+	}
+
+	/**
+	 * Get the words of a dictionary found by the searches : its headwords and
+	 * the suggested additions, ordered by search key. Used to build the
+	 * completion indexes : the suggestions are not written during the
+	 * reading, the changes notified with a number up to the one of the
+	 * result are in the words, the following ones are not.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @return The words of the dictionary, an empty list if it has no words,
+	 *         and the number of the last change they include.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public SearchableWords getSearchableWords(int dictionaryId)
+			throws AopdsDatabaseException {
+
+		ArrayList<String> words = new ArrayList<String>();
+
+		synchronized (wordChangeLock) {
+
+			try {
+				SQLiteDatabase connection = db.getReadableDatabase();
+
+				Cursor res = connection.rawQuery("SELECT " + TF_EH_WORD
+						+ " FROM " + TABLE_EFFECTIVE_HEADWORD + " WHERE "
+						+ TF_EH_DICT_ID + " = ? ORDER BY " + TF_EH_SEARCH_KEY
+						+ " ASC, " + TF_EH_WORD + " ASC",
+						new String[] { Integer.toString(dictionaryId) });
+
+				res = handleCursor(res);
+
+				if (res != null) {
+					do {
+						words.add(res.getString(0));
+					} while (res.moveToNext());
+
+					res.close();
+				}
+
+			} catch (SQLiteException e) {
+				throw handleError(e);
 			}
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+			return new SearchableWords(words, wordChange);
 		}
-
 	}
 
-	public Suggestion getAddSuggestion(long idSuggestion)
+	/**
+	 * Get the analyzer computing the search keys of the words of a
+	 * dictionary : the analyzer of its source language.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary.
+	 * @return The analyzer of the dictionary, the default one if the
+	 *         dictionary is not installed.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public AopdsAnalyzer getAnalyzer(int dictionaryId)
 			throws AopdsDatabaseException {
+
+		synchronized (analyzers) {
+
+			AopdsAnalyzer analyzer = analyzers.get(dictionaryId);
+
+			if (analyzer == null) {
+
+				try {
+					analyzer = readAnalyzer(db.getReadableDatabase(),
+							dictionaryId);
+				} catch (SQLiteException e) {
+					throw handleError(e);
+				}
+
+				if (analyzer == null) {
+					return AopdsAnalyzers.getDefault();
+				}
+
+				analyzers.put(dictionaryId, analyzer);
+			}
+
+			return analyzer;
+		}
+	}
+
+	/**
+	 * Get an ordered (lexicographically) word list specifying a dictionary.
+	 * This method allows to get all words of a dictionary but with a 'page per
+	 * page system', we mean specifying the position of the first word you want
+	 * and the number of those you want.
+	 * 
+	 * This method is useful to display the whole dictionary, as it gives you
+	 * the words in the order they would appear in a real dictionary book.
+	 * 
+	 * @deprecated The words before the page are read and skipped, so the
+	 *             farther the page the slower : use browseWords.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param from
+	 *            [must be positive]The position of the first word you want in
+	 *            the ordered list of all words.
+	 * @param howMany
+	 *            [must be positive]The number of words you want to retrieve.
+	 * @return A list of words ordered lexicographically corresponding to a part
+	 *         of the dictionary.
+	 * @throws AopdsDatabaseException
+	 *             If data cannot be accessed.
+	 */
+	public ArrayList<Headword> getOrderedWordList(int dictionaryId, long from,
+			int howMany) throws AopdsDatabaseException {
+
+		// verifying args
+		if ((from < 0) || (howMany < 0)) {
+			throw new InvalidParameterException(
+					"The parameters from and howMany must be like : from > 0 and howMany > 0 ..."
+							+ "from = " + from + " and howMany = " + howMany
+							+ " given.");
+		}
+
 		/*
 		 * Generating SQL query
 		 * 
-		 * Getting all suggestions.
+		 * Getting all words from a dictionary with a LIMIT clause.
 		 */
 		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
 
-		// asked fields
-		String[] fields = {
-				// suggestion
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
-				// Dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 9
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 10
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 11
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 12
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 13
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 14
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION", // 15
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 16
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 17
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 18
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION", // 19
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 20
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 21
-		};
+		// setting the table
+		qb.setTables(TABLE_HEADWORD);
 
-		// joining with languages
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID
-				+ " = " + TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
-				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
-				+ idSuggestion;
+		// asked fields
+		String[] fields = { TF_HEADWORD_ID, TF_HEADWORD_DICT_ID,
+				TF_HEADWORD_WORD, TF_HEADWORD_ENTRY, TF_HEADWORD_PHONETIC,
+				TF_HEADWORD_PRONUN_EXISTS };
 
-		// tables suggestion
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
-				+ "," + TABLE_SUGGESTION);
+		// generating where clause
+		// filtering by dictionary
+		String whereClause = TF_HEADWORD_DICT_ID + " = ?";
+		String[] selectArgs = { Integer.toString(dictionaryId) };
 
-		/* Launching SQL query */
+		/*
+		 * Launching query
+		 */
 
 		try {
-			// getting connector for read only
+			// getting a connection for read only.
 			SQLiteDatabase connection = db.getReadableDatabase();
-			/*
-			 * String query = SQLiteQueryBuilder.buildQueryString( true,
-			 * qb.getTables(), fields, whereClause, null, null, null, null );
-			 */
 
 			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
+					null, null, TF_HEADWORD_WORD + " ASC", // ordering ascendant
+					Long.toString(from) + ", " + Integer.toString(howMany) // LIMIT
+																			// clause
+			);
 
 			// verifying cursor
 			res = handleCursor(res);
 
-			if (res != null) { // cursor containing cursor
+			if (res != null) { // cursor is containing data
 
-				// result set
-				Suggestion returningRes = new Suggestion();
+				// we'll put the results in it
+				ArrayList<Headword> returningRes = new ArrayList<Headword>();
 
-				// target language
-				Language languageTo = new Language(res.getInt(14), // id
-						res.getString(15), // abbreviation
-						res.getString(16), // name
-						res.getString(17) // name in English
-				);
+				do { // at least one word in the results
 
-				// origin language
-				Language languageFrom = new Language(res.getInt(18), // id
-						res.getString(19), // abbreviation
-						res.getString(20), // name
-						res.getString(21) // name in English
-				);
+					//
+					// mapping the word
+					//
 
-				// dictionary
-				Dictionary dictionary = new Dictionary(res.getInt(9), // id
-						languageTo, languageFrom, res.getString(12), // name
-						res.getInt(13));
+					// pronunciation
+					Boolean pronuncExists = false;
+					if (res.getInt(5) != 0) {
+						pronuncExists = true;
+					}
 
-				// Suggestion
-				Suggestion suggestion = new Suggestion();
-				suggestion.setId(res.getInt(0));
-				suggestion.setDictionary(dictionary);
-				suggestion.setHeadword(null);
-				suggestion.setWord(res.getString(3));
-				suggestion.setPhonetic(res.getString(4));
-				suggestion.setEntry(res.getString(5));
-				suggestion.setActionType(res.getString(6));
-				suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
-						.toString(res.getInt(7))));
-				suggestion.setSynchroStatus(res.getString(8));
+					Headword headword = new Headword(res.getInt(0), // id
+							res.getString(2), // word
+							res.getString(3), // entry
+							res.getString(4), // phonetics
+							null, // dictionary id
+							pronuncExists);
+
+					returningRes.add(headword);
+
+				} while (res.moveToNext());
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no data in cursor
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	/**
+	 * Get a page of the words of a dictionary, as they are found by the
+	 * searches (headwords and suggestions), in the order of the word search.
+	 * The page is read from a position, forward or backward : only the words
+	 * of the page are read through the search key index, whatever the
+	 * position of the page in the dictionary.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to browse.
+	 * @param from
+	 *            The position from which the page is read, excluded : the
+	 *            last word of the previous page, the first word of the next
+	 *            page or a key (see WordPosition.ofKey).
+	 * @param forward
+	 *            true to read the words after the position, false to read
+	 *            the words before it.
+	 * @param howMany
+	 *            [must be positive] The maximum number of words of the page.
+	 * @return The page, in the order of the dictionary in both directions.
+	 *         The page is empty if there is no word in this direction.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public WordPage browseWords(int dictionaryId, WordPosition from,
+			boolean forward, int howMany) throws AopdsDatabaseException {
+
+		if (howMany <= 0) {
+			throw new InvalidParameterException(LOG_TAG
+					+ ".browseWords: The 'howMany' parameter MUST BE POSITIVE.");
+		}
+
+		// one more word is read to know if the page is the last one
+		String query = "SELECT " + listFields(null) + " FROM "
+				+ TABLE_EFFECTIVE_HEADWORD + " WHERE " + TF_EH_DICT_ID
+				+ " = ? AND " + positionCondition(forward) + " ORDER BY "
+				+ browseOrder(forward ? "ASC" : "DESC")
+				+ " LIMIT " + (howMany + 1);
+
+		try {
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			Cursor res = connection.rawQuery(query,
+					positionArgs(dictionaryId, from));
+
+			ArrayList<AbstractWord> words = new ArrayList<AbstractWord>();
+			WordPosition first = null;
+			WordPosition last = null;
+			boolean more = false;
+
+			res = handleCursor(res);
+
+			if (res != null) {
+				do {
+					if (words.size() == howMany) {
+						more = true;
+						break;
+					}
+
+					words.add(mapListedWord(res));
+
+					WordPosition position = new WordPosition(
+							res.getString(SEARCHED_WORD_SEARCH_KEY),
+							res.getString(SEARCHED_WORD_WORD),
+							res.getString(SEARCHED_WORD_TYPE),
+							res.getLong(SEARCHED_WORD_ID));
+
+					if (first == null) {
+						first = position;
+					}
+					last = position;
+
+				} while (res.moveToNext());
+
+				res.close();
+			}
+
+			// the words of a backward page have been read from the last one
+			if (!forward) {
+				Collections.reverse(words);
+				WordPosition position = first;
+				first = last;
+				last = position;
+			}
+
+			// are there words on the other side of the page ?
+			boolean other = hasWords(connection, dictionaryId,
+					first == null ? from : (forward ? first : last), !forward);
+
+			return new WordPage(words, first, last, forward ? !other : !more,
+					forward ? !more : !other);
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	/**
+	 * Get the first letters of the search keys of the words of a dictionary,
+	 * to jump from a letter to another while browsing it : the words of a
+	 * letter begin after WordPosition.ofKey(letter).
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to browse.
+	 * @return The first letters, in the order of the search keys, an empty
+	 *         list if the dictionary has no words.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<String> getFirstLetters(int dictionaryId)
+			throws AopdsDatabaseException {
+
+		ArrayList<String> letters = new ArrayList<String>();
+
+		for (LetterSection section : getLetterSections(dictionaryId)) {
+			letters.add(section.getLetter());
+		}
+
+		return letters;
+	}
+
+	/**
+	 * Get the sections of the ordered words of a dictionary (see
+	 * browseWords), one per first letter of their search keys, with the
+	 * position of their first word. The sections are read from a table kept
+	 * up to date on every write of the words : the position of a letter is
+	 * known without counting or skipping the words before it.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to browse.
+	 * @return The sections, in the order of the search keys, an empty list if
+	 *         the dictionary has no words.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	public ArrayList<LetterSection> getLetterSections(int dictionaryId)
+			throws AopdsDatabaseException {
+
+		ArrayList<LetterSection> sections = new ArrayList<LetterSection>();
+
+		String query = "SELECT " + TF_LS_LETTER + " , " + TF_LS_WORD_COUNT
+				+ " FROM " + TABLE_LETTER_SECTION + " WHERE " + TF_LS_DICT_ID
+				+ " = ? AND " + TF_LS_WORD_COUNT + " > 0 ORDER BY "
+				+ TF_LS_LETTER + " ASC";
+
+		try {
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			Cursor res = connection.rawQuery(query,
+					new String[] { Integer.toString(dictionaryId) });
+
+			res = handleCursor(res);
+
+			if (res != null) {
+				int position = 0;
+
+				do {
+					int wordCount = res.getInt(1);
+
+					sections.add(new LetterSection(res.getString(0), position,
+							wordCount));
+					position += wordCount;
+
+				} while (res.moveToNext());
+
+				res.close();
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+		return sections;
+	}
+
+	/**
+	 * Get the installed dictionary by its languages.
+	 * 
+	 * @param LanguageFromId
+	 *            The origin language of the searched dictionary.
+	 * @param LanguageToId
+	 *            The target language of the searched dictionary.
+	 * @return The dictionary whose languages are the arguments provided or null
+	 *         if it's not installed on the phone.
+	 * @throws AopdsDatabaseException
+	 *             If data cannot be accessed.
+	 */
+	public Dictionary getDictionaryByLanguages(int LanguageFromId,
+			int LanguageToId) throws AopdsDatabaseException {
+
+		/*
+		 * Generating SQL query
+		 * 
+		 * Retrieving the searched dictionary and its languages.
+		 */
+
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// generating where clause
+
+		// joining language table for the two languages (origin and target)
+		// and filtering by searched languages :
+		//
+		// dictionary.languageFrom = language.id AND dictionary.languageFrom =
+		// searchedLanguage ...
+		String whereClause = "LANGUAGE_TO." + TF_LANGUAGE_CODE + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO
+				+ " AND " + "LANGUAGE_FROM." + TF_LANGUAGE_CODE + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = ? AND " + TABLE_INSTALLED_DICTIONARY
+				+ "." + TF_ID_LANGUAGE_FROM + " = ?";
+
+		// setting tables, aliasing table languages to distinguish
+		// origin and target languages joins.
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM");
+
+		// asked fields
+		// we have to alias the fields with the good table name (because there
+		// is two joins)
+		String[] fields = {
+				// dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION",
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME",
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION",
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME",
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH", };
+
+		// where clause values (replacing the ?s)
+		String[] selectArgs = { Integer.toString(LanguageToId),
+				Integer.toString(LanguageFromId) };
+
+		/*
+		 * Launching query
+		 */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, selectArgs,
+					null, null, null // no order
+					);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing on dictionary
+
+				//
+				// mapping dictionary
+				//
+
+				// target language
+				Language languageTo = new Language(res.getInt(3), // id
+						res.getString(4), // abbreviation ISO-639
+						res.getString(5), // name
+						res.getString(6) // name in English
+				);
+
+				// origin language
+				Language languageFrom = new Language(res.getInt(7), // id
+						res.getString(8), // abbreviation ISO-639
+						res.getString(9), // name
+						res.getString(10) // name in english
+				);
+
+				// dictionary
+				Dictionary dictionary = new Dictionary(res.getInt(0), // id
+						languageTo, languageFrom, res.getString(1), // name
+						res.getInt(2));
+
+				// closing cursor
+				res.close();
+
+				return dictionary;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	/**
+	 * Get the Installed Dictionary on the application, according to the
+	 * dictionary id given in parameter.
+	 * 
+	 * @param id
+	 *            The id of the looked up dictionary.
+	 * @return InstalledDictionary The dictionary found or null if doesn't
+	 *         exist.
+	 * @throws AopdsDatabaseException
+	 *             Id data cannot be accessed.
+	 */
+	public Dictionary getDictionaryById(int id) throws AopdsDatabaseException {
+
+		// where values
+		String[] selectArgs = { Integer.toString(id) };
+
+		/*
+		 * Launching queries
+		 */
+
+		try {
+			// get connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = statements.query(connection,
+					STATEMENT_DICTIONARY_BY_ID, selectArgs);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing one dictionary
+
+				//
+				// mapping dictionary
+				//
+
+				// target language
+				Language languageTo = new Language(res.getInt(3), // id
+						res.getString(4), // abbreviation
+						res.getString(5), // name
+						res.getString(6) // name in English
+				);
+
+				// origin language
+				Language languageFrom = new Language(res.getInt(7), // id
+						res.getString(8), // abbreviation
+						res.getString(9), // name
+						res.getString(10) // name in english
+				);
+
+				// dictionary
+				Dictionary dictionary = new Dictionary(res.getInt(0), // id
+						languageTo, languageFrom, res.getString(1), // name
+						res.getInt(2));
+
+				res.close();
+
+				return dictionary;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	public ArrayList<Suggestion> getAllModifyDeleteSuggestions()
+			throws AopdsDatabaseException {
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all suggestions.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// suggestion
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+				// Headword
+				TABLE_HEADWORD + "." + TF_HEADWORD_ID, // 9
+				TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID, // 10
+				TABLE_HEADWORD + "." + TF_HEADWORD_WORD, // 11
+				TABLE_HEADWORD + "." + TF_HEADWORD_ENTRY, // 12
+				TABLE_HEADWORD + "." + TF_HEADWORD_PHONETIC, // 13
+				TABLE_HEADWORD + "." + TF_HEADWORD_PRONUN_EXISTS, // 14
+				// Dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 15
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 16
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 17
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 18
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 19
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 20
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION", // 21
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 22
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 23
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 24
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION", // 25
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 26
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 27
+		};
+
+		// joining with languages
+		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID + " = "
+				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID;
+
+		// tables suggestion
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
+				+ "," + TABLE_SUGGESTION + "," + TABLE_HEADWORD);
+
+		/* Launching SQL query */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+			/*
+			 * String query = SQLiteQueryBuilder.buildQueryString( true,
+			 * qb.getTables(), fields, whereClause, null, null, null, null );
+			 * 
+			 * AopdsLogger.info("QUERY", query);
+			 */
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				ArrayList<Suggestion> returningRes = new ArrayList<Suggestion>();
+
+				do {
+					// target language
+					Language languageTo = new Language(res.getInt(20), // id
+							res.getString(21), // abbreviation
+							res.getString(22), // name
+							res.getString(23) // name in English
+					);
+
+					// origin language
+					Language languageFrom = new Language(res.getInt(24), // id
+							res.getString(24), // abbreviation
+							res.getString(26), // name
+							res.getString(27) // name in English
+					);
+
+					// dictionary
+					Dictionary dictionary = new Dictionary(res.getInt(15), // id
+							languageTo, languageFrom, res.getString(18), // name
+							res.getInt(19));
+
+					// Headword
+					Headword headword = new Headword(res.getInt(9), // id
+							res.getString(11),// word
+							res.getString(13), // entry
+							res.getString(13), // phonetic
+							dictionary, Boolean.valueOf(Integer.toString(res
+									.getInt(14))) // pronunciationExists
+					);
+
+					// Suggestion
+					Suggestion suggestion = new Suggestion();
+					suggestion.setId(res.getInt(0));
+					suggestion.setDictionary(dictionary);
+					suggestion.setHeadword(headword);
+					suggestion.setWord(res.getString(3));
+					suggestion.setPhonetic(res.getString(4));
+					suggestion.setEntry(res.getString(5));
+					suggestion.setActionType(res.getString(6));
+					suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
+							.toString(res.getInt(7))));
+					suggestion.setSynchroStatus(res.getString(8));
+
+					returningRes.add(suggestion);
+
+				} while (res.moveToNext());
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	public ArrayList<Suggestion> getAllAddSuggestions()
+			throws AopdsDatabaseException {
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all suggestions.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// suggestion
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+
+				// Dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 9
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 10
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 11
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 12
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 13
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 14
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION", // 15
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 16
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 17
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 18
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION", // 19
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 20
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 21
+		};
+
+		// joining with languages
+		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID
+				+ " = " + TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE + " = '"
+				+ ACTION_TYPE_ADDITION + "'";
+
+		// tables suggestion
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
+				+ "," + TABLE_SUGGESTION);
+
+		/* Launching SQL query */
+
+		try {
+
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+			/*
+			 * String query = SQLiteQueryBuilder.buildQueryString( true,
+			 * qb.getTables(), fields, whereClause, null, null, null, null );
+			 * 
+			 * AopdsLogger.info("QUERY", query);
+			 */
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				ArrayList<Suggestion> returningRes = new ArrayList<Suggestion>();
+
+				do {
+					// target language
+					Language languageTo = new Language(res.getInt(14), // id
+							res.getString(15), // abbreviation
+							res.getString(16), // name
+							res.getString(17) // name in English
+					);
+
+					// origin language
+					Language languageFrom = new Language(res.getInt(18), // id
+							res.getString(19), // abbreviation
+							res.getString(20), // name
+							res.getString(21) // name in English
+					);
+
+					// dictionary
+					Dictionary dictionary = new Dictionary(res.getInt(9), // id
+							languageTo, languageFrom, res.getString(12), // name
+							res.getInt(13));
+
+					// Suggestion
+					Suggestion suggestion = new Suggestion();
+					suggestion.setId(res.getInt(0));
+					suggestion.setDictionary(dictionary);
+					suggestion.setHeadword(null);
+					suggestion.setWord(res.getString(3));
+					suggestion.setPhonetic(res.getString(4));
+					suggestion.setEntry(res.getString(5));
+					suggestion.setActionType(res.getString(6));
+					suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
+							.toString(res.getInt(7))));
+					suggestion.setSynchroStatus(res.getString(8));
+
+					returningRes.add(suggestion);
+
+				} while (res.moveToNext());
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+	}
+
+	public Suggestion getModifyDeleteSuggestion(long idSuggestion)
+			throws AopdsDatabaseException {
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all suggestions.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// suggestion
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+				// Headword
+				TABLE_HEADWORD + "." + TF_HEADWORD_ID, // 9
+				TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID, // 10
+				TABLE_HEADWORD + "." + TF_HEADWORD_WORD, // 11
+				TABLE_HEADWORD + "." + TF_HEADWORD_ENTRY, // 12
+				TABLE_HEADWORD + "." + TF_HEADWORD_PHONETIC, // 13
+				TABLE_HEADWORD + "." + TF_HEADWORD_PRONUN_EXISTS, // 14
+				// Dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 15
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 16
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 17
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 18
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 19
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 20
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION", // 21
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 22
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 23
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 24
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION", // 25
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 26
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 27
+		};
+
+		// joining with languages
+		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_HEADWORD + "." + TF_HEADWORD_DICT_ID + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID + " = "
+				+ TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID + " = "
+				+ TABLE_HEADWORD + "." + TF_HEADWORD_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
+				+ idSuggestion;
+
+		// tables suggestion
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
+				+ "," + TABLE_SUGGESTION + "," + TABLE_HEADWORD);
+
+		/* Launching SQL query */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+			/*
+			 * String query = SQLiteQueryBuilder.buildQueryString( true,
+			 * qb.getTables(), fields, whereClause, null, null, null, null );
+			 * AopdsLogger.info("requete", query);
+			 */
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				Suggestion returningRes = new Suggestion();
+
+				// target language
+				Language languageTo = new Language(res.getInt(20), // id
+						res.getString(21), // abbreviation
+						res.getString(22), // name
+						res.getString(23) // name in English
+				);
+
+				// origin language
+				Language languageFrom = new Language(res.getInt(24), // id
+						res.getString(24), // abbreviation
+						res.getString(26), // name
+						res.getString(27) // name in English
+				);
+
+				// dictionary
+				Dictionary dictionary = new Dictionary(res.getInt(15), // id
+						languageTo, languageFrom, res.getString(18), // name
+						res.getInt(19));
+
+				// Headword
+				Headword headword = new Headword(res.getInt(9), // id
+						res.getString(11),// word
+						res.getString(13), // entry
+						res.getString(13), // phonetic
+						dictionary, Boolean.valueOf(Integer.toString(res
+								.getInt(14))) // pronunciationExists
+				);
+
+				// Suggestion
+				Suggestion suggestion = new Suggestion();
+				suggestion.setId(res.getInt(0));
+				suggestion.setDictionary(dictionary);
+				suggestion.setHeadword(headword);
+				suggestion.setWord(res.getString(3));
+				suggestion.setPhonetic(res.getString(4));
+				suggestion.setEntry(res.getString(5));
+				suggestion.setActionType(res.getString(6));
+				suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
+						.toString(res.getInt(7))));
+				suggestion.setSynchroStatus(res.getString(8));
+
+				returningRes = suggestion;
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	public Suggestion getAddSuggestion(long idSuggestion)
+			throws AopdsDatabaseException {
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all suggestions.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// suggestion
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+				// Dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID, // 9
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 10
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 11
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME, // 12
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION, // 13
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO, // 14
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION", // 15
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME", // 16
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH", // 17
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM, // 18
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION", // 19
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME", // 20
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH" // 21
+		};
+
+		// joining with languages
+		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID
+				+ " = " + TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID + " AND "
+				+ TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
+				+ idSuggestion;
+
+		// tables suggestion
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM"
+				+ "," + TABLE_SUGGESTION);
+
+		/* Launching SQL query */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+			/*
+			 * String query = SQLiteQueryBuilder.buildQueryString( true,
+			 * qb.getTables(), fields, whereClause, null, null, null, null );
+			 */
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				Suggestion returningRes = new Suggestion();
+
+				// target language
+				Language languageTo = new Language(res.getInt(14), // id
+						res.getString(15), // abbreviation
+						res.getString(16), // name
+						res.getString(17) // name in English
+				);
+
+				// origin language
+				Language languageFrom = new Language(res.getInt(18), // id
+						res.getString(19), // abbreviation
+						res.getString(20), // name
+						res.getString(21) // name in English
+				);
+
+				// dictionary
+				Dictionary dictionary = new Dictionary(res.getInt(9), // id
+						languageTo, languageFrom, res.getString(12), // name
+						res.getInt(13));
+
+				// Suggestion
+				Suggestion suggestion = new Suggestion();
+				suggestion.setId(res.getInt(0));
+				suggestion.setDictionary(dictionary);
+				suggestion.setHeadword(null);
+				suggestion.setWord(res.getString(3));
+				suggestion.setPhonetic(res.getString(4));
+				suggestion.setEntry(res.getString(5));
+				suggestion.setActionType(res.getString(6));
+				suggestion.setPronunciationRecorded(Boolean.valueOf(Integer
+						.toString(res.getInt(7))));
+				suggestion.setSynchroStatus(res.getString(8));
+
+				returningRes = suggestion;
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	public Suggestion getSuggestion(long idSuggestion)
+			throws AopdsDatabaseException {
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all suggestions.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// suggestion
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
+				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
+		};
+
+		// joining with languages
+		String whereClause = TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
+				+ idSuggestion;
+
+		// tables suggestion
+		qb.setTables(TABLE_SUGGESTION);
+
+		/* Launching SQL query */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+			/*
+			 * String query = SQLiteQueryBuilder.buildQueryString( true,
+			 * qb.getTables(), fields, whereClause, null, null, null, null );
+			 */
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				Suggestion returningRes = new Suggestion();
+
+				// Suggestion
+				Suggestion suggestion = new Suggestion();
+				suggestion.setId(res.getInt(0));
+				suggestion.setHeadword(null);
+				suggestion.setWord(res.getString(3));
+				suggestion.setPhonetic(res.getString(4));
+				suggestion.setEntry(res.getString(5));
+				suggestion.setActionType(res.getString(6));
+				// suggestion.setPronunciationRecorded(Boolean.valueOf(Integer.toString(res.getInt(7))));
+				suggestion.setSynchroStatus(res.getString(8));
+
+				returningRes = suggestion;
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	public int updateSuggestionSynchroStatus(Suggestion s) {
+		ContentValues updateSuggestion = new ContentValues();
+		updateSuggestion.put(TF_SUGGESTION_SYNCH_STAT, s.getSynchroStatus());
+		String whereClause = TF_SUGGESTION_ID + " = ?";
+		String[] whereValues = { Long.toString(s.getId()) };
+		SQLiteDatabase connection = db.getWritableDatabase();
+
+		// the words whose searches show the status
+		ArrayList<String[]> touched = new ArrayList<String[]>();
+
+		connection.beginTransaction();
+
+		try {
+			int nbRowAffected = connection.update(TABLE_SUGGESTION,
+					updateSuggestion, whereClause, whereValues);
+
+			refreshEffectiveHeadwords(connection, s.getId());
+
+			addEffectiveKeys(connection, s.getId(), touched);
+
+			connection.setTransactionSuccessful();
+
+			return nbRowAffected;
+
+		} finally {
+			connection.endTransaction();
+			invalidateSearches(touched);
+		}
+
+	}
+
+	/**
+	 * Retrieve all installed dictionaries.
+	 * 
+	 * @return All installed dictionaries or null if no dictionary is installed.
+	 * @throws AopdsDatabaseException
+	 *             Id data cannot be installed.
+	 */
+	public ArrayList<Dictionary> getAllDictionaries()
+			throws AopdsDatabaseException {
+
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting all dictionaries and their languages.
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		// asked fields
+		String[] fields = {
+				// dictionary
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
+				// target language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
+				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_TO_ABREVIATION",
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME",
+				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+
+				// origin language
+				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
+				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
+						+ " AS LANGUAGE_FROM_ABREVIATION",
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME",
+				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
+						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH", };
+
+		// joining with languages
+		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
+				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
+				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE;
+
+		// tables dictionary and the two languages
+		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
+				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM");
+
+		/*
+		 * Launching SQL query
+		 */
+
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = qb.query(connection, fields, whereClause, null, null,
+					null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing cursor
+
+				// result set
+				ArrayList<Dictionary> returningRes = new ArrayList<Dictionary>();
+
+				do { // at least one dictionary
+
+					//
+					// mapping dictionary
+					//
+
+					// target language
+					Language languageTo = new Language(res.getInt(3), // id
+							res.getString(4), // abbreviation
+							res.getString(5), // name
+							res.getString(6) // name in English
+					);
+
+					// origin language
+					Language languageFrom = new Language(res.getInt(7), // id
+							res.getString(8), // abbreviation
+							res.getString(9), // name
+							res.getString(10) // name in English
+					);
+
+					// dictionary
+					Dictionary dictionary = new Dictionary(res.getInt(0), // id
+							languageTo, languageFrom, res.getString(1), // name
+							res.getInt(2));
+
+					returningRes.add(dictionary);
+
+				} while (res.moveToNext());
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no dictionary found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	/**
+	 * Get a language by its abbreviation code ISO-639 ('en' for English, 'fr'
+	 * for French ...) or null if not found.
+	 * 
+	 * @param abreviation
+	 *            The abbreviation of the searched language.
+	 * @return The language with the specified abbreviation or null if not
+	 *         found.
+	 * @throws AopdsDatabaseException
+	 *             Id data cannot be accessed.
+	 */
+	public Language getLanguageByAbreviation(String abreviation)
+			throws AopdsDatabaseException {
+
+		/*
+		 * Generating SQL query
+		 * 
+		 * Getting a language filtering with the abbreviation
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		qb.setTables(TABLE_LANGUAGE);
+
+		// asked fields
+		String[] fields = { TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
+				TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH };
+
+		// where values replacing ?s
+		String[] selectArgs = { abreviation };
+
+		/*
+		 * Launching query
+		 */
+
+		try {
+
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = qb.query(connection, fields, TF_LANGUAGE_ABREVIATION
+					+ " = ?", selectArgs, null, null, null);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // one language found
+
+				// mapping language
+
+				Language temp = new Language(res.getInt(0), // id
+						res.getString(1), // abbreviation
+						res.getString(2), // name
+						res.getString(3) // name in English
+				);
+
+				res.close();
+
+				return temp;
+
+			} else { // no data found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	/**
+	 * Get a language by its internal code.
+	 * 
+	 * @param code
+	 *            The code of the language to search.
+	 * @return The language found from its code or null if doen't exist.
+	 * @throws AopdsDatabaseException
+	 *             If data cannot be accessed.
+	 */
+	public Language getLanguageByCode(int code) throws AopdsDatabaseException {
+
+		/*
+		 * Getting a language by its code.
+		 */
+
+		String[] selectArgs = { Integer.toString(code) };
+
+		/*
+		 * Launching query
+		 */
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = statements.query(connection,
+					STATEMENT_LANGUAGE_BY_CODE, selectArgs);
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // on language retrieved
+
+				// mapping language
+				Language temp = new Language(res.getInt(0), // id
+						res.getString(1), // abbreviation
+						res.getString(2), // name
+						res.getString(3) // name in English
+				);
+
+				// closing cursor
+				res.close();
+
+				return temp;
+
+			} else { // no language found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	/**
+	 * Get all languages.
+	 * 
+	 * @return All languages or null if no languages are installed.
+	 * @throws AopdsDatabaseException
+	 *             If data cannot be accessed.
+	 */
+	public ArrayList<Language> getAllLanguages() throws AopdsDatabaseException {
+
+		/*
+		 * Generating SQL query
+		 * 
+		 * getting all languages
+		 */
+		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+
+		qb.setTables(TABLE_LANGUAGE);
+
+		// asked fields
+		String[] fields = { TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
+				TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH };
+
+		/*
+		 * Launching query
+		 */
+		try {
+			// getting connector for read only
+			SQLiteDatabase connection = db.getReadableDatabase();
+
+			// performing query
+			Cursor res = qb.query(connection, fields, null, null, null, null,
+					TF_LANGUAGE_NAME_IN_ENGLISH + " ASC");
+
+			// verifying cursor
+			res = handleCursor(res);
+
+			if (res != null) { // cursor containing data
+
+				// result set
+				ArrayList<Language> returningRes = new ArrayList<Language>();
+
+				do { // at least one language
+
+					// mapping language
+
+					Language temp = new Language(res.getInt(0), // id
+							res.getString(1), // abbreviation
+							res.getString(2), // name
+							res.getString(3) // name in english
+					);
+
+					returningRes.add(temp);
+
+				} while (res.moveToNext());
+
+				// closing cursor
+				res.close();
+
+				return returningRes;
+
+			} else { // no language found
+				return null;
+			}
+
+		} catch (SQLiteException e) {
+			throw handleError(e);
+		}
+
+	}
+
+	/* *************************************************************************
+	 * Search cache
+	 */
+
+	/**
+	 * Changes the memory budget of each cache of the word searches (see
+	 * searchWord and rankedSearchWordCursor). The least recently used results
+	 * are removed if a cache uses more memory than the new budget.
+	 * 
+	 * @param bytes
+	 *            [must be positive] The memory budget in bytes, as estimated
+	 *            from the length of the words and entries.
+	 */
+	public void setSearchCacheBudget(int bytes) {
+
+		if (bytes <= 0) {
+			throw new InvalidParameterException(
+					LOG_TAG
+							+ ".setSearchCacheBudget: The 'bytes' parameter MUST BE POSITIVE.");
+		}
+
+		searchCache.setMaxSize(bytes);
+		rankedCache.setMaxSize(bytes);
+	}
+
+	/**
+	 * Get the number of writes of the searchable words of a dictionary since
+	 * the start of the application : results read when it had another value
+	 * may be stale and must be read again.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary.
+	 * @return The number of writes.
+	 */
+	public int getChangeCount(int dictionaryId) {
+
+		synchronized (changeCounts) {
+			Integer count = changeCounts.get(dictionaryId);
+			return count == null ? 0 : count;
+		}
+	}
+
+	/**
+	 * @return The number of distinct frequent queries run (see
+	 *         AopdsStatementRegistry).
+	 */
+	public int getDistinctQueryShapesRun() {
+		return statements.getDistinctShapesRun();
+	}
+
+	/**
+	 * @return The number of runs of a frequent query already run before. It
+	 *         does not tell if the connection has parsed the query again.
+	 */
+	public int getRepeatedQueryShapeRuns() {
+		return statements.getRepeatedShapeRuns();
+	}
+
+	/* *************************************************************************
+	 * Usage of the words
+	 */
+
+	/**
+	 * Counts a lookup of a word : the word has been found by a search of the
+	 * user, as it was typed. The count is written later with the others (see
+	 * AopdsUsageRecorder), it does not cost a write.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word.
+	 * @param word
+	 *            The word found, as returned by the searches.
+	 */
+	public void recordWordLookup(int dictionaryId, AbstractWord word) {
+		recordWordUsage(dictionaryId, word, 1, 0);
+	}
+
+	/**
+	 * Counts an open of a word : the user has displayed its entry. The count
+	 * is written later with the others (see AopdsUsageRecorder), it does not
+	 * cost a write.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word.
+	 * @param word
+	 *            The word opened, as returned by the searches.
+	 */
+	public void recordWordOpen(int dictionaryId, AbstractWord word) {
+		recordWordUsage(dictionaryId, word, 0, 1);
+	}
+
+	/**
+	 * Writes the usage counts not written yet, in a background thread, for
+	 * example when the application goes to background.
+	 */
+	public void flushWordUsage() {
+		usageRecorder.flushSoon();
+	}
+
+	/**
+	 * Counts a usage of the effective headword of a word : the headword
+	 * itself for its last modification.
+	 */
+	private void recordWordUsage(int dictionaryId, AbstractWord word,
+			int lookups, int opens) {
+
+		if (word instanceof Suggestion) {
+
+			Suggestion s = (Suggestion) word;
+
+			if (s.getHeadword() != null && s.isModifyActionType()) {
+				usageRecorder.record(WORD_TYPE_HEADWORD, s.getHeadword()
+						.getId(), dictionaryId, lookups, opens);
+			} else {
+				usageRecorder.record(WORD_TYPE_SUGGESTION, s.getId(),
+						dictionaryId, lookups, opens);
+			}
+
+		} else {
+			usageRecorder.record(WORD_TYPE_HEADWORD, word.getId(),
+					dictionaryId, lookups, opens);
+		}
+	}
+
+	/**
+	 * Adds usage counts to the database, in a single transaction. Called by
+	 * the usage recorder, in its thread. The counts are lost if they cannot
+	 * be written.
+	 * 
+	 * @param usages
+	 *            The counts to add.
+	 */
+	void writeWordUsage(Collection<AopdsUsageRecorder.Usage> usages) {
+
+		try {
+			SQLiteDatabase connection = db.getWritableDatabase();
+
+			SQLiteStatement insert = connection.compileStatement("INSERT OR IGNORE INTO "
+					+ TABLE_WORD_USAGE + " ( " + TF_WU_TYPE + " , "
+					+ TF_WU_WORD_ID + " , " + TF_WU_DICT_ID + " , "
+					+ TF_WU_LOOKUP_COUNT + " , " + TF_WU_OPEN_COUNT + " , "
+					+ TF_WU_USAGE_COUNT + " ) VALUES ( ? , ? , ? , 0 , 0 , 0 );");
+
+			SQLiteStatement update = connection.compileStatement("UPDATE "
+					+ TABLE_WORD_USAGE + " SET " + TF_WU_LOOKUP_COUNT + " = "
+					+ TF_WU_LOOKUP_COUNT + " + ? , " + TF_WU_OPEN_COUNT
+					+ " = " + TF_WU_OPEN_COUNT + " + ? , " + TF_WU_USAGE_COUNT
+					+ " = " + TF_WU_USAGE_COUNT + " + ? WHERE " + TF_WU_TYPE
+					+ " = ? AND " + TF_WU_WORD_ID + " = ?;");
+
+			connection.beginTransaction();
+
+			try {
+				for (AopdsUsageRecorder.Usage usage : usages) {
+
+					insert.bindString(1, usage.type);
+					insert.bindLong(2, usage.id);
+					insert.bindLong(3, usage.dictionaryId);
+					insert.execute();
+
+					update.bindLong(1, usage.lookups);
+					update.bindLong(2, usage.opens);
+					update.bindLong(3, usage.lookups + usage.opens);
+					update.bindString(4, usage.type);
+					update.bindLong(5, usage.id);
+					update.execute();
+				}
+
+				connection.setTransactionSuccessful();
+
+			} finally {
+				connection.endTransaction();
+				insert.close();
+				update.close();
+			}
+
+			// the ranks of the used words have changed
+			HashSet<Integer> dictionaryIds = new HashSet<Integer>();
+
+			for (AopdsUsageRecorder.Usage usage : usages) {
+				dictionaryIds.add(usage.dictionaryId);
+			}
+
+			rankedCache.remove(searchesOf(dictionaryIds));
+
+		} catch (SQLiteException e) {
+			AopdsLogger.error(LOG_TAG, "Impossible to write the usage counts : "
+					+ e.getMessage(), e);
+		}
+	}
+
+	/* *************************************************************************
+	 * Observable system
+	 */
+
+	/**
+	 * Register as a database listener. Any object registering will be notified
+	 * of the changes of the searchable words.
+	 * 
+	 * @param listener
+	 *            The instance which has to listen to the changes.
+	 */
+	public void registerDatabaseListener(AopdsDatabaseListener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Stop notifying a database listener.
+	 * 
+	 * @param listener
+	 *            The instance which doesn't have to listen anymore.
+	 */
+	public void unregisterDatabaseListener(AopdsDatabaseListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Notify all listeners that the searchable word of a suggestion has
+	 * changed.
+	 * 
+	 * @param removed
+	 *            The dictionary id and the word before the change, or null.
+	 * @param added
+	 *            The dictionary id and the word after the change, or null.
+	 * @param change
+	 *            The number of the change.
+	 */
+	private void notifyWordChanged(String[] removed, String[] added,
+			long change) {
+
+		if (removed != null && added != null && removed[0].equals(added[0])
+				&& removed[1].equals(added[1])) {
+			return; // nothing has changed for the searches
+		}
+
+		ArrayList<AopdsDatabaseListener> toNotify;
+
+		synchronized (listeners) {
+			toNotify = new ArrayList<AopdsDatabaseListener>(listeners);
+		}
+
+		for (AopdsDatabaseListener listener : toNotify) {
+			if (removed != null) {
+				listener.onWordRemoved(Integer.parseInt(removed[0]),
+						removed[1], change);
+			}
+			if (added != null) {
+				listener.onWordAdded(Integer.parseInt(added[0]), added[1],
+						change);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listeners that many words of a dictionary have changed.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary.
+	 */
+	private void notifyDictionaryChanged(int dictionaryId) {
+
+		ArrayList<AopdsDatabaseListener> toNotify;
+
+		synchronized (listeners) {
+			toNotify = new ArrayList<AopdsDatabaseListener>(listeners);
+		}
+
+		for (AopdsDatabaseListener listener : toNotify) {
+			listener.onDictionaryChanged(dictionaryId);
+		}
+	}
+
+	/* *************************************************************************
+	 * Private tools
+	 */
+
+	/**
+	 * Imports the entries of a source into a dictionary, through the import
+	 * pipeline : drops the indexes of the imported tables, writes the entries
+	 * in transactions of IMPORT_TRANSACTION_SIZE words, then builds the
+	 * indexes, the full text index and the effective headwords of the
+	 * imported words. In a transaction, the transactions of the import are
+	 * nested in it.<br>
+	 * <br>
+	 * 
+	 * The indexes searched by the dictionaries are dropped only if no other
+	 * dictionary has headwords (see DictionaryOpenHelper.dropImportIndexes) :
+	 * the other dictionaries are searched as usual during the load. The
+	 * words of the dictionary being imported are not found by the full text
+	 * search before the end of the import, and the trigrams of the removed
+	 * suggestions are deleted without index meanwhile.<br>
+	 * <br>
+	 * 
+	 * Each transaction records the checkpoint of the import in the import
+	 * job of the dictionary : the position in the source after the last
+	 * entry written and the ids of the written headwords. The import of the
+	 * same source skips the entries before its checkpoint and goes on after
+	 * them. The words of the import are indexed at its end and the job
+	 * removed. An import interrupted, or whose source cannot be read to its
+	 * end, keeps its job : the import of another source into the dictionary
+	 * is refused until the import of the job is resumed or ended (see
+	 * resumeImport).
+	 * 
+	 * @param connection
+	 *            A writable connector.
+	 * @param dictionaryId
+	 *            The dictionary receiving the words.
+	 * @param analyzer
+	 *            The analyzer of the dictionary.
+	 * @param sourceName
+	 *            The name of the source, identifying its import job.
+	 * @param source
+	 *            The entries to import.
+	 * @param idsByPosition
+	 *            true to give the headwords the positions of their entries
+	 *            in the source as ids (see HeadwordWriter), false to give
+	 *            them the ids following the ids of the table.
+	 * @return The number of words imported by this call.
+	 * @throws IOException
+	 *             If the source cannot be read to its end. The words read
+	 *             before are written with the checkpoint of the import.
+	 * @throws DataBaseImportPendingException
+	 *             If the import of another source into the dictionary is not
+	 *             ended.
+	 */
+	private static int importWords(SQLiteDatabase connection,
+			int dictionaryId, AopdsAnalyzer analyzer, String sourceName,
+			AopdsImportPipeline.Source source, boolean idsByPosition)
+			throws IOException, DataBaseImportPendingException {
+
+		synchronized (IMPORT_LOCK) {
+
+			HeadwordWriter writer = new HeadwordWriter(connection,
+					dictionaryId, sourceName, idsByPosition);
+
+			if (writer.getSkipped() > 0) {
+				AopdsLogger.info(LOG_TAG, "Resuming the import of "
+						+ sourceName + " after " + writer.getSkipped()
+						+ " entries.");
+			}
+
+			DictionaryOpenHelper.dropImportIndexes(connection,
+					!hasOtherHeadwords(connection, dictionaryId));
+
+			IOException readError = null;
+			boolean ended = false;
+
+			try {
+				try {
+					new AopdsImportPipeline(analyzer).run(source, writer
+							.getSkipped(), writer);
+				} catch (InterruptedIOException e) {
+					// resumed later
+					throw e;
+				} catch (IOException e) {
+					// the entries read before are written, resumed later
+					readError = e;
+				}
+
+				writer.commit();
+				ended = readError == null;
+
+			} finally {
+				// rolls back the words not committed after a failure
+				writer.close();
+
+				connection.beginTransaction();
+				try {
+					DictionaryOpenHelper.restoreImportIndexes(connection);
+					if (ended) {
+						writer.index();
+					}
+					connection.setTransactionSuccessful();
+				} finally {
+					connection.endTransaction();
+				}
+			}
+
+			if (readError != null) {
+				throw readError;
+			}
+
+			return writer.getCount();
+		}
+	}
+
+	/**
+	 * Source without entries, ending an interrupted import with its
+	 * committed words.
+	 */
+	private static final AopdsImportPipeline.Source NO_ENTRIES = new AopdsImportPipeline.Source() {
+		public void read(DictionarySink sink) {
+			// nothing more to read
+		}
+	};
+
+	/**
+	 * @param connection
+	 *            A connector.
+	 * @param dictionaryId
+	 *            A dictionary.
+	 * @return The source of the import job of the dictionary, null if it has
+	 *         none.
+	 */
+	private static String readImportSource(SQLiteDatabase connection,
+			int dictionaryId) {
+
+		Cursor res = handleCursor(connection.rawQuery("SELECT "
+				+ TF_IJ_SOURCE + " FROM " + TABLE_IMPORT_JOB + " WHERE "
+				+ TF_IJ_DICT_ID + " = ?", new String[] { Integer
+				.toString(dictionaryId) }));
+
+		if (res == null) {
+			return null;
+		}
+
+		String source = res.getString(0);
+		res.close();
+		return source;
+	}
+
+	/**
+	 * @param connection
+	 *            A connector.
+	 * @param dictionaryId
+	 *            A dictionary.
+	 * @return true if the dictionary has headwords.
+	 */
+	private static boolean hasHeadwords(SQLiteDatabase connection,
+			int dictionaryId) {
+
+		Cursor res = handleCursor(connection.rawQuery("SELECT 1 FROM "
+				+ TABLE_HEADWORD + " WHERE " + TF_HEADWORD_DICT_ID
+				+ " = ? LIMIT 1", new String[] { Integer
+				.toString(dictionaryId) }));
+
+		if (res == null) {
+			return false;
+		}
+
+		res.close();
+		return true;
+	}
+
+	/**
+	 * @param connection
+	 *            A connector.
+	 * @param dictionaryId
+	 *            A dictionary.
+	 * @return true if another installed dictionary has headwords.
+	 */
+	private static boolean hasOtherHeadwords(SQLiteDatabase connection,
+			int dictionaryId) {
+
+		Cursor res = handleCursor(connection.rawQuery("SELECT 1 FROM "
+				+ TABLE_HEADWORD + " WHERE " + TF_HEADWORD_DICT_ID
+				+ " IN ( SELECT " + TF_ID_ID + " FROM "
+				+ TABLE_INSTALLED_DICTIONARY + " WHERE " + TF_ID_ID
+				+ " <> ? ) LIMIT 1", new String[] { Integer
+				.toString(dictionaryId) }));
+
+		if (res == null) {
+			return false;
+		}
+
+		res.close();
+		return true;
+	}
+
+	/**
+	 * Writer of the import pipeline, writing the analyzed entries as the
+	 * headwords of a dictionary with their notes and trigrams, and the
+	 * checkpoint of the import with them. The headwords get the ids following
+	 * the ids of the table, or the positions of their entries in the source :
+	 * the ids of the bundled dictionary are the ids of its words on the
+	 * server, the lines of its file holding an entry counted from 0, and must
+	 * not depend on the order of the loads nor on the entries skipped.
+	 */
+	private static final class HeadwordWriter implements
+			AopdsImportPipeline.ChunkWriter {
+
+		private final SQLiteDatabase connection;
+		private final int dictionaryId;
+		private final String sourceName;
+		private final boolean idsByPosition;
+
+		private final SQLiteStatement insert;
+		private final SQLiteStatement annotations;
+		private final SQLiteStatement trigrams;
+
+		/**
+		 * Ids of the first and last written headwords of the job, -1 if there
+		 * is none.
+		 */
+		private long firstId = -1;
+		private long lastId = -1;
+
+		/**
+		 * Entries of the source committed by the interrupted import of the
+		 * source, skipped.
+		 */
+		private final int skipped;
+
+		/**
+		 * Position in the source after the last written entry.
+		 */
+		private int entries;
+
+		/**
+		 * Words committed, and written in the open transaction.
+		 */
+		private int count;
+		private int uncommitted;
+
+		private boolean transaction;
+
+		/**
+		 * Creates the writer of an import, going on with the import job of
+		 * the source if any.
+		 * 
+		 * @throws DataBaseImportPendingException
+		 *             If the dictionary has the import job of another source.
+		 */
+		HeadwordWriter(SQLiteDatabase connection, int dictionaryId,
+				String sourceName, boolean idsByPosition)
+				throws DataBaseImportPendingException {
+
+			this.connection = connection;
+			this.dictionaryId = dictionaryId;
+			this.sourceName = sourceName;
+
+			Cursor res = handleCursor(connection.rawQuery("SELECT "
+					+ TF_IJ_SOURCE + " , " + TF_IJ_ENTRIES + " , "
+					+ TF_IJ_FIRST_ID + " , " + TF_IJ_LAST_ID + " FROM "
+					+ TABLE_IMPORT_JOB + " WHERE " + TF_IJ_DICT_ID + " = ?",
+					new String[] { Integer.toString(dictionaryId) }));
+
+			if (res == null) {
+				skipped = 0;
+			} else {
+				String jobSource = res.getString(0);
+				skipped = res.getInt(1);
+				firstId = res.getLong(2);
+				lastId = res.getLong(3);
+				res.close();
+
+				if (!sourceName.equals(jobSource)) {
+					throw new DataBaseImportPendingException(DATABASE_NAME,
+							DATABASE_VERSION, jobSource, dictionaryId);
+				}
+			}
+
+			entries = skipped;
+
+			// the id is bound last, or given by the table
+			insert = connection.compileStatement("INSERT INTO "
+					+ TABLE_HEADWORD + " ( " + TF_HEADWORD_DICT_ID + " , "
+					+ TF_HEADWORD_WORD + " , " + TF_HEADWORD_ENTRY + " , "
+					+ TF_HEADWORD_PHONETIC + " , " + TF_HEADWORD_PRONUN_EXISTS
+					+ " , " + TF_HEADWORD_SEARCH_KEY + " , "
+					+ TF_HEADWORD_SOUND_KEY
+					+ (idsByPosition ? " , " + TF_HEADWORD_ID : "")
+					+ " ) VALUES ( ? , ? , ? , ? , 0 , ? , ?"
+					+ (idsByPosition ? " , ?" : "") + " );");
+
+			this.idsByPosition = idsByPosition;
+
+			annotations = compileAnnotationInsert(connection);
+			trigrams = compileTrigramInsert(connection);
+		}
+
+		public void write(ArrayList<AopdsImportPipeline.ImportedWord> words) {
+
+			if (!transaction) {
+				connection.beginTransaction();
+				transaction = true;
+
+				// the job keeps the words out of the full text index
+				writeCheckpoint();
+			}
+
+			for (AopdsImportPipeline.ImportedWord word : words) {
+
+				insert.bindLong(1, dictionaryId);
+				insert.bindString(2, word.word);
+				if (word.entry == null) {
+					insert.bindNull(3);
+				} else {
+					insert.bindString(3, word.entry);
+				}
+				insert.bindString(4, word.phonetic == null ? ""
+						: word.phonetic);
+				insert.bindString(5, word.searchKey);
+				insert.bindString(6, word.soundKey);
+				if (idsByPosition) {
+					insert.bindLong(7, word.position);
+				}
+
+				long id = insert.executeInsert();
+				insert.clearBindings();
+
+				entries = word.position + 1;
+
+				if (firstId < 0) {
+					firstId = id;
+				}
+				lastId = id;
+
+				insertAnnotations(annotations, id, dictionaryId,
+						word.annotations);
+				insertTrigrams(trigrams, dictionaryId, WORD_TYPE_HEADWORD, id,
+						word.trigrams);
+			}
+
+			uncommitted += words.size();
+
+			if (uncommitted >= IMPORT_TRANSACTION_SIZE) {
+				commit();
+			}
+		}
+
+		/**
+		 * Commits the words written, with the checkpoint of the import.
+		 */
+		void commit() {
+
+			if (transaction) {
+				writeCheckpoint();
+
+				connection.setTransactionSuccessful();
+				connection.endTransaction();
+				transaction = false;
+
+				count += uncommitted;
+				uncommitted = 0;
+			}
+		}
+
+		/**
+		 * Writes the checkpoint of the import in its job.
+		 */
+		private void writeCheckpoint() {
+
+			connection.execSQL("INSERT OR REPLACE INTO " + TABLE_IMPORT_JOB
+					+ " ( " + TF_IJ_DICT_ID + " , " + TF_IJ_SOURCE + " , "
+					+ TF_IJ_ENTRIES + " , " + TF_IJ_FIRST_ID + " , "
+					+ TF_IJ_LAST_ID + " ) VALUES ( ? , ? , ? , ? , ? );",
+					new Object[] { dictionaryId, sourceName, entries, firstId,
+							lastId });
+		}
+
+		/**
+		 * Rolls back the words not committed and releases the statements.
+		 */
+		void close() {
+
+			if (transaction) {
+				connection.endTransaction();
+				transaction = false;
+				uncommitted = 0;
+			}
+
+			insert.close();
+			annotations.close();
+			trigrams.close();
+		}
+
+		/**
+		 * Fills the full text index and computes the effective headwords of
+		 * the headwords of the job, and ends the job. Their letter sections
+		 * are kept by the triggers.
+		 */
+		void index() {
+
+			connection.execSQL("DELETE FROM " + TABLE_IMPORT_JOB + " WHERE "
+					+ TF_IJ_DICT_ID + " = " + dictionaryId + ";");
+
+			if (firstId < 0) {
+				return;
+			}
+
+			String written = " WHERE " + TF_HEADWORD_DICT_ID + " = "
+					+ dictionaryId + " AND " + TF_HEADWORD_ID + " >= "
+					+ firstId;
+
+			connection.execSQL("INSERT INTO " + TABLE_HEADWORD_FTS
+					+ " (docid, " + TF_FTS_ENTRY + ") SELECT "
+					+ TF_HEADWORD_ID + " , " + TF_HEADWORD_ENTRY + " FROM "
+					+ TABLE_HEADWORD + written + ";");
+
+			connection.execSQL(REFRESH_EFFECTIVE_HEADWORDS + "H."
+					+ TF_HEADWORD_DICT_ID + " = " + dictionaryId + " AND H."
+					+ TF_HEADWORD_ID + " >= " + firstId + ";");
+		}
+
+		/**
+		 * @return The number of committed words.
+		 */
+		int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return The number of entries of the source to skip, committed by
+		 *         its interrupted import.
+		 */
+		int getSkipped() {
+			return skipped;
+		}
+	}
+
+	/**
+	 * Key of the results of a word search in the cache.
+	 */
+	static final class CachedSearch {
+
+		final int dictionaryId;
+		final String key;
+		final boolean exactMatch;
+		final boolean addSuggestions;
+
+		CachedSearch(int dictionaryId, String key, boolean exactMatch,
+				boolean addSuggestions) {
+			this.dictionaryId = dictionaryId;
+			this.key = key;
+			this.exactMatch = exactMatch;
+			this.addSuggestions = addSuggestions;
+		}
+
+		/**
+		 * @return true if the results of the search may contain a word of a
+		 *         dictionary and a search key.
+		 */
+		boolean mayFind(int wordDictionaryId, String wordKey) {
+			return dictionaryId == wordDictionaryId
+					&& (exactMatch ? wordKey.equals(key) : wordKey
+							.startsWith(key));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (!(o instanceof CachedSearch)) {
+				return false;
+			}
+
+			CachedSearch other = (CachedSearch) o;
+
+			return dictionaryId == other.dictionaryId
+					&& key.equals(other.key)
+					&& exactMatch == other.exactMatch
+					&& addSuggestions == other.addSuggestions;
+		}
+
+		@Override
+		public int hashCode() {
+			return ((dictionaryId * 31 + key.hashCode()) * 2 + (exactMatch ? 1
+					: 0)) * 2 + (addSuggestions ? 1 : 0);
+		}
+	}
+
+	/**
+	 * First rows of a ranked search in the cache, read by the list
+	 * projection.
+	 */
+	static final class RankedWindow {
+
+		final String[] columns;
+		final ArrayList<String[]> rows;
+
+		/**
+		 * Number of other words (the last group) in the rows, -1 if the rows
+		 * are the whole search.
+		 */
+		final int otherRows;
+
+		RankedWindow(String[] columns, ArrayList<String[]> rows, int otherRows) {
+			this.columns = columns;
+			this.rows = rows;
+			this.otherRows = otherRows;
+		}
+
+		/**
+		 * @return An estimation of the memory used by the rows, in bytes.
+		 */
+		int estimateSize() {
+
+			int size = 48 + 4 * rows.size();
+
+			for (String[] row : rows) {
+				size += 16 + 4 * row.length;
+
+				for (String field : row) {
+					if (field != null) {
+						size += 40 + 2 * field.length();
+					}
+				}
+			}
+
+			return size;
+		}
+	}
+
+	/**
+	 * @return An estimation of the memory used by words, in bytes.
+	 */
+	private static int estimateSize(ArrayList<AbstractWord> words) {
+
+		// the list and its array
+		int size = 32 + 4 * words.size();
+
+		for (AbstractWord word : words) {
+			size += estimateSize(word);
+
+			if (word instanceof Headword
+					&& ((Headword) word).getLastModification() != null) {
+				size += estimateSize(((Headword) word).getLastModification());
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return An estimation of the memory used by a word and its strings, in
+	 *         bytes.
+	 */
+	private static int estimateSize(AbstractWord word) {
+
+		int size = 96;
+
+		String[] strings = { word.getWord(), word.getEntry(),
+				word.getPhonetic() };
+
+		for (String string : strings) {
+			if (string != null) {
+				size += 40 + 2 * string.length();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Adds the dictionary ids and the search keys of the effective headwords
+	 * depending on a suggestion to a list : the suggestion itself and the
+	 * headword it modifies or deletes. The searches finding them depend on
+	 * the suggestion.
+	 * 
+	 * @param connection
+	 *            A connector.
+	 * @param suggestionId
+	 *            The id of the suggestion.
+	 * @param keys
+	 *            The list of the dictionary ids and search keys to complete.
+	 */
+	private static void addEffectiveKeys(SQLiteDatabase connection,
+			long suggestionId, ArrayList<String[]> keys) {
+
+		String id = Long.toString(suggestionId);
+
+		Cursor res = connection.rawQuery("SELECT " + TF_EH_DICT_ID + " , "
+				+ TF_EH_SEARCH_KEY + " FROM " + TABLE_EFFECTIVE_HEADWORD
+				+ " WHERE ( " + TF_EH_TYPE + " = '" + WORD_TYPE_SUGGESTION
+				+ "' AND " + TF_EH_WORD_ID + " = ? ) OR ( " + TF_EH_TYPE
+				+ " = '" + WORD_TYPE_HEADWORD + "' AND " + TF_EH_WORD_ID
+				+ " = ( SELECT " + TF_SUGGESTION_HEADWORD_ID + " FROM "
+				+ TABLE_SUGGESTION + " WHERE " + TF_SUGGESTION_ID
+				+ " = ? ) )", new String[] { id, id });
+
+		res = handleCursor(res);
+
+		if (res == null) {
+			return;
+		}
+
+		do {
+			if (!res.isNull(0) && !res.isNull(1)) {
+				keys.add(new String[] { res.getString(0), res.getString(1) });
+			}
+		} while (res.moveToNext());
+
+		res.close();
+	}
+
+	/**
+	 * Removes from the cache the results of all the searches of a dictionary,
+	 * after the commit of a write of many of its words.
+	 * 
+	 * @param dictionaryId
+	 *            The written dictionary.
+	 */
+	private void invalidateDictionary(final int dictionaryId) {
+
+		synchronized (changeCounts) {
+			changeCounts.put(dictionaryId, getChangeCount(dictionaryId) + 1);
+		}
+
+		AopdsLookupCache.KeyFilter<CachedSearch> filter = searchesOf(Collections
+				.singleton(dictionaryId));
+
+		searchCache.remove(filter);
+		rankedCache.remove(filter);
+	}
+
+	/**
+	 * Removes from the cache the results of the searches which may find
+	 * written words, after the commit of the write.
+	 * 
+	 * @param keys
+	 *            The dictionary ids and search keys of the written words.
+	 */
+	private void invalidateSearches(final ArrayList<String[]> keys) {
+
+		if (keys.isEmpty()) {
+			return;
+		}
+
+		synchronized (changeCounts) {
+			for (String[] key : keys) {
+				int dictionaryId = Integer.parseInt(key[0]);
+				changeCounts.put(dictionaryId,
+						getChangeCount(dictionaryId) + 1);
+			}
+		}
+
+		AopdsLookupCache.KeyFilter<CachedSearch> filter = searchesFinding(keys);
+
+		searchCache.remove(filter);
+		rankedCache.remove(filter);
+	}
+
+	/**
+	 * @return The selection of the searches of some dictionaries.
+	 */
+	static AopdsLookupCache.KeyFilter<CachedSearch> searchesOf(
+			final Collection<Integer> dictionaryIds) {
+
+		return new AopdsLookupCache.KeyFilter<CachedSearch>() {
+
+			public boolean matches(CachedSearch search) {
+				return dictionaryIds.contains(search.dictionaryId);
+			}
+		};
+	}
+
+	/**
+	 * @return The selection of the searches which may find words.
+	 * @param keys
+	 *            The dictionary ids and search keys of the words.
+	 */
+	static AopdsLookupCache.KeyFilter<CachedSearch> searchesFinding(
+			final ArrayList<String[]> keys) {
+
+		return new AopdsLookupCache.KeyFilter<CachedSearch>() {
+
+			public boolean matches(CachedSearch search) {
+
+				for (String[] key : keys) {
+					if (search.mayFind(Integer.parseInt(key[0]), key[1])) {
+						return true;
+					}
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Handles a SQLite cursor and verifiy if it contains data.
+	 * 
+	 * @param c
+	 *            The cursor to verify.
+	 * @return The cursor provided as an argument or null if the argument is not
+	 *         containing data.
+	 */
+	private static Cursor handleCursor(Cursor c) {
+
+		if (c == null) {
+			return null;
+		} else {
+			if (!c.moveToFirst()) { // if true , c is containing data
+				c.close();
+				return null;
+			} else
+				return c;
+		}
+
+	}
+
+	/**
+	 * Refreshes the effective headwords depending on a suggestion after it has
+	 * been written : the suggestion itself and the headword it modifies or
+	 * deletes. Must be called in the transaction of the write.
+	 * 
+	 * @param connection
+	 *            A writable connector.
+	 * @param suggestionId
+	 *            The id of the written suggestion.
+	 */
+	private static void refreshEffectiveHeadwords(SQLiteDatabase connection,
+			long suggestionId) {
+
+		Object[] args = { suggestionId };
+
+		// the suggestion may have become a modification
+		connection.execSQL("DELETE FROM " + TABLE_EFFECTIVE_HEADWORD
+				+ " WHERE " + TF_EH_TYPE + " = '" + WORD_TYPE_SUGGESTION
+				+ "' AND " + TF_EH_WORD_ID + " = ?", args);
+
+		connection.execSQL(REFRESH_EFFECTIVE_SUGGESTIONS + "S."
+				+ TF_SUGGESTION_ID + " = ?", args);
+
+		connection.execSQL(REFRESH_EFFECTIVE_HEADWORDS + "H." + TF_HEADWORD_ID
+				+ " = ( SELECT " + TF_SUGGESTION_HEADWORD_ID + " FROM "
+				+ TABLE_SUGGESTION + " WHERE " + TF_SUGGESTION_ID + " = ? )",
+				args);
+
+		// the search key of the headword does not depend on its suggestions,
+		// only the trigrams of the suggestion may change
+		connection.execSQL("DELETE FROM " + TABLE_WORD_TRIGRAM + " WHERE "
+				+ TF_WT_TYPE + " = '" + WORD_TYPE_SUGGESTION + "' AND "
+				+ TF_WT_WORD_ID + " = ?", args);
+
+		Cursor res = connection.rawQuery("SELECT " + TF_EH_DICT_ID + " , "
+				+ TF_EH_SEARCH_KEY + " FROM " + TABLE_EFFECTIVE_HEADWORD
+				+ " WHERE " + TF_EH_TYPE + " = '" + WORD_TYPE_SUGGESTION
+				+ "' AND " + TF_EH_WORD_ID + " = ?",
+				new String[] { Long.toString(suggestionId) });
+
+		res = handleCursor(res);
+
+		if (res == null) {
+			return; // the suggestion is not searchable
+		}
+
+		SQLiteStatement insert = compileTrigramInsert(connection);
+
+		try {
+			if (!res.isNull(1)) {
+				insertTrigrams(insert, res.getInt(0), WORD_TYPE_SUGGESTION,
+						suggestionId, res.getString(1));
+			}
+		} finally {
+			res.close();
+			insert.close();
+		}
+	}
+
+	/**
+	 * @param connection
+	 *            A writable connector.
+	 * @return The statement adding a word to the posting list of a trigram
+	 *         (see insertTrigrams).
+	 */
+	private static SQLiteStatement compileTrigramInsert(
+			SQLiteDatabase connection) {
+
+		return connection.compileStatement("INSERT OR IGNORE INTO "
+				+ TABLE_WORD_TRIGRAM + " ( " + TF_WT_DICT_ID + " , "
+				+ TF_WT_TRIGRAM + " , " + TF_WT_TYPE + " , " + TF_WT_WORD_ID
+				+ " ) VALUES ( ? , ? , ? , ? );");
+	}
+
+	/**
+	 * @param connection
+	 *            A writable connector.
+	 * @return The statement adding a note to the annotations (see
+	 *         insertAnnotations).
+	 */
+	private static SQLiteStatement compileAnnotationInsert(
+			SQLiteDatabase connection) {
+
+		return connection.compileStatement("INSERT INTO " + TABLE_ANNOTATION
+				+ " ( " + TF_ANNOTATION_HEADWORD_ID + " , "
+				+ TF_ANNOTATION_DICT_ID + " , " + TF_ANNOTATION_POS + " , "
+				+ TF_ANNOTATION_NOTE + " ) VALUES ( ? , ? , ? , ? );");
+	}
+
+	/**
+	 * Parses the notes of the entry of a headword and adds them to the
+	 * annotations.
+	 * 
+	 * @param insert
+	 *            The statement of compileAnnotationInsert.
+	 */
+	private static void insertAnnotations(SQLiteStatement insert,
+			long headwordId, int dictionaryId, String entry) {
+
+		insertAnnotations(insert, headwordId, dictionaryId,
+				EntryAnnotationParser.parse(entry));
+	}
+
+	/**
+	 * Adds the parsed notes of the entry of a headword to the annotations.
+	 * 
+	 * @param insert
+	 *            The statement of compileAnnotationInsert.
+	 */
+	private static void insertAnnotations(SQLiteStatement insert,
+			long headwordId, int dictionaryId,
+			ArrayList<Annotation> annotations) {
+
+		for (Annotation annotation : annotations) {
+
+			insert.bindLong(1, headwordId);
+			insert.bindLong(2, dictionaryId);
+			if (annotation.getPartOfSpeech() == null) {
+				insert.bindNull(3);
+			} else {
+				insert.bindString(3, annotation.getPartOfSpeech());
+			}
+			insert.bindString(4, annotation.getNote());
+			insert.executeInsert();
+		}
+	}
+
+	/**
+	 * Adds an effective headword to the posting lists of the trigrams of its
+	 * search key.
+	 * 
+	 * @param insert
+	 *            The statement of compileTrigramInsert.
+	 */
+	private static void insertTrigrams(SQLiteStatement insert,
+			int dictionaryId, String type, long id, String searchKey) {
+
+		insertTrigrams(insert, dictionaryId, type, id, AopdsSearchKey
+				.trigrams(AopdsSearchKey.KEY_START + searchKey
+						+ AopdsSearchKey.KEY_END));
+	}
+
+	/**
+	 * Adds an effective headword to the posting lists of its trigrams.
+	 * 
+	 * @param insert
+	 *            The statement of compileTrigramInsert.
+	 */
+	private static void insertTrigrams(SQLiteStatement insert,
+			int dictionaryId, String type, long id, ArrayList<String> trigrams) {
+
+		for (String trigram : trigrams) {
+
+			insert.bindLong(1, dictionaryId);
+			insert.bindString(2, trigram);
+			insert.bindString(3, type);
+			insert.bindLong(4, id);
+			insert.execute();
+		}
+	}
+
+	/**
+	 * Get the searchable word of a suggestion, if the suggestion is neither a
+	 * modification nor a deletion.
+	 * 
+	 * @param connection
+	 *            A connector.
+	 * @param suggestionId
+	 *            The id of the suggestion.
+	 * @return The dictionary id and the word of the suggestion or null if the
+	 *         suggestion cannot be found by the searches.
+	 */
+	private static String[] getSearchableSuggestion(SQLiteDatabase connection,
+			long suggestionId) {
+
+		Cursor res = connection.rawQuery("SELECT " + TF_EH_DICT_ID + " , "
+				+ TF_EH_WORD + " FROM " + TABLE_EFFECTIVE_HEADWORD + " WHERE "
+				+ TF_EH_TYPE + " = '" + WORD_TYPE_SUGGESTION + "' AND "
+				+ TF_EH_WORD_ID + " = ? AND SUBSTR(" + TF_EH_ACT_TYPE
+				+ ", 1, 1) <> '" + ACTION_TYPE_DELETION + "'",
+				new String[] { Long.toString(suggestionId) });
 
-				returningRes = suggestion;
+		res = handleCursor(res);
 
-				// closing cursor
+		if (res == null || res.isNull(0)) {
+			if (res != null) {
 				res.close();
+			}
+			return null;
+		}
 
-				return returningRes;
+		String[] word = { res.getString(0), res.getString(1) };
 
-			} else { // no dictionary found
-				return null;
-			}
+		res.close();
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
-		}
+		return word;
+	}
+
+	/**
+	 * Computes the search key of a word of a dictionary.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word, -1 if unknown.
+	 * @param word
+	 *            The word.
+	 * @return The index key of the word computed by the analyzer of the
+	 *         dictionary.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	private String getSearchKey(int dictionaryId, String word)
+			throws AopdsDatabaseException {
+
+		AopdsAnalyzer analyzer = dictionaryId < 0 ? AopdsAnalyzers
+				.getDefault() : getAnalyzer(dictionaryId);
 
+		return analyzer.indexKey(word);
 	}
 
-	public Suggestion getSuggestion(long idSuggestion)
+	/**
+	 * Computes the sound key of a word of a dictionary (see searchSoundAlike).
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word, -1 if unknown.
+	 * @param word
+	 *            The word.
+	 * @return The sound key of the word computed by the analyzer of the
+	 *         dictionary.
+	 * @throws AopdsDatabaseException
+	 *             If the data cannot be accessed.
+	 */
+	private String getSoundKey(int dictionaryId, String word)
 			throws AopdsDatabaseException {
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all suggestions.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
 
-		// asked fields
-		String[] fields = {
-				// suggestion
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ID, // 0
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_HEADWORD_ID, // 1
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_DICT_ID, // 2
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_WORD, // 3
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PHONETIC, // 4
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ENTRY, // 5
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_ACT_TYPE, // 6
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_PRONUN_REC, // 7
-				TABLE_SUGGESTION + "." + TF_SUGGESTION_SYNCH_STAT, // 8
-		};
+		AopdsAnalyzer analyzer = dictionaryId < 0 ? AopdsAnalyzers
+				.getDefault() : getAnalyzer(dictionaryId);
 
-		// joining with languages
-		String whereClause = TABLE_SUGGESTION + "." + TF_SUGGESTION_ID + " = "
-				+ idSuggestion;
+		return analyzer.soundKey(word);
+	}
 
-		// tables suggestion
-		qb.setTables(TABLE_SUGGESTION);
+	/**
+	 * Get the dictionary of a stored suggestion.
+	 * 
+	 * @param connection
+	 *            A connector.
+	 * @param suggestionId
+	 *            The id of the suggestion.
+	 * @return The dictionary id of the suggestion, -1 if it cannot be found.
+	 */
+	private static int getSuggestionDictionaryId(SQLiteDatabase connection,
+			long suggestionId) {
 
-		/* Launching SQL query */
+		Cursor res = connection.rawQuery("SELECT " + TF_SUGGESTION_DICT_ID
+				+ " FROM " + TABLE_SUGGESTION + " WHERE " + TF_SUGGESTION_ID
+				+ " = ?", new String[] { Long.toString(suggestionId) });
 
-		try {
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
-			/*
-			 * String query = SQLiteQueryBuilder.buildQueryString( true,
-			 * qb.getTables(), fields, whereClause, null, null, null, null );
-			 */
+		res = handleCursor(res);
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+		if (res == null || res.isNull(0)) {
+			if (res != null) {
+				res.close();
+			}
+			return -1;
+		}
 
-			// verifying cursor
-			res = handleCursor(res);
+		int dictionaryId = res.getInt(0);
 
-			if (res != null) { // cursor containing cursor
+		res.close();
 
-				// result set
-				Suggestion returningRes = new Suggestion();
+		return dictionaryId;
+	}
 
-				// Suggestion
-				Suggestion suggestion = new Suggestion();
-				suggestion.setId(res.getInt(0));
-				suggestion.setHeadword(null);
-				suggestion.setWord(res.getString(3));
-				suggestion.setPhonetic(res.getString(4));
-				suggestion.setEntry(res.getString(5));
-				suggestion.setActionType(res.getString(6));
-				// suggestion.setPronunciationRecorded(Boolean.valueOf(Integer.toString(res.getInt(7))));
-				suggestion.setSynchroStatus(res.getString(8));
+	/**
+	 * Condition on the effective headwords after or before a position, in
+	 * the browse order. The redundant bound on the search key lets the range
+	 * of the index be used. Its arguments are given by positionArgs.
+	 * 
+	 * @param after
+	 *            true for the words after the position, false for the words
+	 *            before it.
+	 */
+	private static String positionCondition(boolean after) {
 
-				returningRes = suggestion;
+		String strict = after ? " > ? " : " < ? ";
 
-				// closing cursor
-				res.close();
+		return TF_EH_SEARCH_KEY + (after ? " >= ? " : " <= ? ") + " AND ( "
+				+ TF_EH_SEARCH_KEY + strict + " OR ( " + TF_EH_SEARCH_KEY
+				+ " = ? AND ( " + TF_EH_WORD + strict + " OR ( " + TF_EH_WORD
+				+ " = ? AND ( " + TF_EH_TYPE + strict + " OR ( " + TF_EH_TYPE
+				+ " = ? AND " + TF_EH_WORD_ID + strict + " ) ) ) ) ) )";
+	}
 
-				return returningRes;
+	/**
+	 * Order of the browsed words, each word having its own position : the
+	 * order of the search key index.
+	 * 
+	 * @param direction
+	 *            ASC or DESC.
+	 */
+	private static String browseOrder(String direction) {
 
-			} else { // no dictionary found
-				return null;
-			}
+		return TF_EH_SEARCH_KEY + " " + direction + ", " + TF_EH_WORD + " "
+				+ direction + ", " + TF_EH_TYPE + " " + direction + ", "
+				+ TF_EH_WORD_ID + " " + direction;
+	}
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
-		}
+	/**
+	 * @return The arguments of a dictionary id condition followed by a
+	 *         positionCondition.
+	 */
+	private static String[] positionArgs(int dictionaryId,
+			WordPosition position) {
+
+		String key = position.getSearchKey();
+		String word = position.getWord();
+		String type = position.getType();
 
+		return new String[] { Integer.toString(dictionaryId), key, key, key,
+				word, word, type, type, Long.toString(position.getId()) };
 	}
 
-	public int updateSuggestionSynchroStatus(Suggestion s) {
-		ContentValues updateSuggestion = new ContentValues();
-		updateSuggestion.put(TF_SUGGESTION_SYNCH_STAT, s.getSynchroStatus());
-		String whereClause = TF_SUGGESTION_ID + " = ?";
-		String[] whereValues = { Long.toString(s.getId()) };
-		SQLiteDatabase connection = db.getWritableDatabase();
-		int nbRowAffected = connection.update(TABLE_SUGGESTION,
-				updateSuggestion, whereClause, whereValues);
+	/**
+	 * @return true if a dictionary has words after or before a position.
+	 */
+	private static boolean hasWords(SQLiteDatabase connection,
+			int dictionaryId, WordPosition position, boolean after) {
+
+		Cursor res = connection.rawQuery("SELECT 1 FROM "
+				+ TABLE_EFFECTIVE_HEADWORD + " WHERE " + TF_EH_DICT_ID
+				+ " = ? AND " + positionCondition(after) + " LIMIT 1",
+				positionArgs(dictionaryId, position));
+
+		res = handleCursor(res);
+
+		if (res == null) {
+			return false;
+		}
 
-		return nbRowAffected;
+		res.close();
 
+		return true;
 	}
 
 	/**
-	 * Retrieve all installed dictionaries.
+	 * Reads the analyzer of a dictionary : the analyzer of its source
+	 * language (see AopdsAnalyzers).
 	 * 
-	 * @return All installed dictionaries or null if no dictionary is installed.
-	 * @throws AopdsDatabaseException
-	 *             Id data cannot be installed.
+	 * @param connection
+	 *            A connector.
+	 * @param dictionaryId
+	 *            The dictionary.
+	 * @return The analyzer of the dictionary or null if the dictionary is not
+	 *         installed.
 	 */
-	public ArrayList<Dictionary> getAllDictionaries()
-			throws AopdsDatabaseException {
+	private static AopdsAnalyzer readAnalyzer(SQLiteDatabase connection,
+			int dictionaryId) {
 
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting all dictionaries and their languages.
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+		Cursor res = connection.rawQuery("SELECT L." + TF_LANGUAGE_ABREVIATION
+				+ " FROM " + TABLE_INSTALLED_DICTIONARY + " D , "
+				+ TABLE_LANGUAGE + " L WHERE D." + TF_ID_ID + " = ? AND L."
+				+ TF_LANGUAGE_CODE + " = D." + TF_ID_LANGUAGE_FROM,
+				new String[] { Integer.toString(dictionaryId) });
 
-		// asked fields
-		String[] fields = {
-				// dictionary
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_ID,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_NAME,
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_VERSION,
-				// target language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_TO,
-				"LANGUAGE_TO." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_TO_ABREVIATION",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME + " AS LANGUAGE_TO_NAME",
-				"LANGUAGE_TO." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_TO_NAME_IN_ENGLISH",
+		res = handleCursor(res);
 
-				// origin language
-				TABLE_INSTALLED_DICTIONARY + "." + TF_ID_LANGUAGE_FROM,
-				"LANGUAGE_FROM." + TF_LANGUAGE_ABREVIATION
-						+ " AS LANGUAGE_FROM_ABREVIATION",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME + " AS LANGUAGE_FROM_NAME",
-				"LANGUAGE_FROM." + TF_LANGUAGE_NAME_IN_ENGLISH
-						+ " AS LANGUAGE_FROM_NAME_IN_ENGLISH", };
+		if (res == null) {
+			return null;
+		}
 
-		// joining with languages
-		String whereClause = TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_TO + " = LANGUAGE_TO." + TF_LANGUAGE_CODE
-				+ " AND " + TABLE_INSTALLED_DICTIONARY + "."
-				+ TF_ID_LANGUAGE_FROM + " = LANGUAGE_FROM." + TF_LANGUAGE_CODE;
+		AopdsAnalyzer analyzer = AopdsAnalyzers.forLanguage(res.getString(0));
 
-		// tables dictionary and the two languages
-		qb.setTables(TABLE_INSTALLED_DICTIONARY + "," + TABLE_LANGUAGE
-				+ " LANGUAGE_TO" + "," + TABLE_LANGUAGE + " LANGUAGE_FROM");
+		res.close();
 
-		/*
-		 * Launching SQL query
-		 */
+		return analyzer;
+	}
 
-		try {
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
+	/**
+	 * Maps the current row of a word search cursor (see searchWordCursor) to a
+	 * headword, with its last modification, or to a suggestion.
+	 * 
+	 * @param res
+	 *            The cursor, positioned on the row to map.
+	 * @return The word of the row, without its dictionary.
+	 */
+	public static AbstractWord mapSearchedWord(Cursor res) {
 
-			// performing query
-			Cursor res = qb.query(connection, fields, whereClause, null, null,
-					null, null);
+		char type = res.getString(0).charAt(0);
 
-			// verifying cursor
-			res = handleCursor(res);
+		// pronunciation
+		Boolean pronuncExists = false;
 
-			if (res != null) { // cursor containing cursor
+		if (type == 's') {
 
-				// result set
-				ArrayList<Dictionary> returningRes = new ArrayList<Dictionary>();
+			Suggestion suggestion = new Suggestion(res.getInt(1), // id
+					res.getString(3), // word
+					res.getString(4), // entry
+					res.getString(5), // phonetics
+					null, // dictionary id, not needed
+					pronuncExists);
 
-				do { // at least one dictionary
+			suggestion.setSynchroStatus(res.getString(6));
+			suggestion.setActionType(res.getString(7));
 
-					//
-					// mapping dictionary
-					//
+			return suggestion;
 
-					// target language
-					Language languageTo = new Language(res.getInt(3), // id
-							res.getString(4), // abbreviation
-							res.getString(5), // name
-							res.getString(6) // name in English
-					);
+		} else {
 
-					// origin language
-					Language languageFrom = new Language(res.getInt(7), // id
-							res.getString(8), // abbreviation
-							res.getString(9), // name
-							res.getString(10) // name in English
-					);
+			Headword headword = new Headword(res.getInt(1), // id
+					res.getString(3), // word
+					res.getString(4), // entry
+					res.getString(5), // phonetics
+					null, // dictionary id, not needed
+					pronuncExists);
+
+			if (res.getInt(8) == 1) {
+				headword.setHasDeletionBeenSuggested(true);
+			} else {
+				headword.setHasDeletionBeenSuggested(false);
+			}
 
-					// dictionary
-					Dictionary dictionary = new Dictionary(res.getInt(0), // id
-							languageTo, languageFrom, res.getString(1), // name
-							res.getInt(2));
+			if (!res.isNull(9)) {
+				Suggestion s = new Suggestion();
 
-					returningRes.add(dictionary);
+				s.setId(res.getInt(9));
+				s.setWord(res.getString(10));
+				s.setEntry(res.getString(11));
+				s.setPhonetic(res.getString(12));
+				s.setSynchroStatus(res.getString(13));
+				s.setActionType(res.getString(14));
 
-				} while (res.moveToNext());
+				s.setHeadword(headword);
+				headword.setLastModification(s);
 
-				// closing cursor
-				res.close();
+			}
 
-				return returningRes;
+			return headword;
+		}
+	}
 
-			} else { // no dictionary found
-				return null;
-			}
+	/**
+	 * Copies the words read by mapSearchedWord, with their last modification
+	 * or their headword : the copies can be modified without changing the
+	 * words kept in the cache of the searches.
+	 * 
+	 * @param words
+	 *            The words to copy.
+	 * @return The copies, in the same order.
+	 */
+	private static ArrayList<AbstractWord> copyWords(List<AbstractWord> words) {
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+		ArrayList<AbstractWord> copies = new ArrayList<AbstractWord>(
+				words.size());
+
+		for (AbstractWord word : words) {
+			copies.add(copyWord(word));
 		}
 
+		return copies;
 	}
 
 	/**
-	 * Get a language by its abbreviation code ISO-639 ('en' for English, 'fr'
-	 * for French ...) or null if not found.
-	 * 
-	 * @param abreviation
-	 *            The abbreviation of the searched language.
-	 * @return The language with the specified abbreviation or null if not
-	 *         found.
-	 * @throws AopdsDatabaseException
-	 *             Id data cannot be accessed.
+	 * @return A copy of a headword or a suggestion (see copyWords).
 	 */
-	public Language getLanguageByAbreviation(String abreviation)
-			throws AopdsDatabaseException {
+	private static AbstractWord copyWord(AbstractWord word) {
 
-		/*
-		 * Generating SQL query
-		 * 
-		 * Getting a language filtering with the abbreviation
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
+		if (word instanceof Headword) {
+			return copyHeadword((Headword) word);
+		}
 
-		qb.setTables(TABLE_LANGUAGE);
+		Suggestion suggestion = (Suggestion) word;
+
+		if (suggestion.getHeadword() == null) {
+			return copySuggestion(suggestion, null);
+		}
+
+		Headword headword = copyHeadword(suggestion.getHeadword());
+
+		// the suggestion is the last modification of its headword
+		if (suggestion.getHeadword().getLastModification() == suggestion) {
+			return headword.getLastModification();
+		}
+
+		return copySuggestion(suggestion, headword);
+	}
+
+	private static Headword copyHeadword(Headword headword) {
+
+		Headword copy = new Headword(headword.getId(), headword.getWord(),
+				headword.getEntry(), headword.getPhonetic(),
+				headword.getDictionary(), headword.pronunciationExists());
+
+		copy.setDictionary(headword.getDictionary());
+		copy.setPreview(headword.isPreview());
+		copy.setHasDeletionBeenSuggested(headword.isHasDeletionBeenSuggested());
+
+		if (headword.getLastModification() != null) {
+			copy.setLastModification(copySuggestion(
+					headword.getLastModification(), copy));
+		}
+
+		return copy;
+	}
+
+	private static Suggestion copySuggestion(Suggestion suggestion,
+			Headword headword) {
+
+		Suggestion copy = new Suggestion(suggestion.getId(),
+				suggestion.getWord(), suggestion.getEntry(),
+				suggestion.getPhonetic(), suggestion.getDictionary(),
+				suggestion.getPronunciationRecorded());
+
+		copy.setDictionary(suggestion.getDictionary());
+		copy.setPreview(suggestion.isPreview());
+		copy.setActionType(suggestion.getActionType());
+		copy.setSynchroStatus(suggestion.getSynchroStatus());
+		copy.setDictionaryVersion(suggestion.getDictionaryVersion());
+		copy.setHeadword(headword);
 
-		// asked fields
-		String[] fields = { TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
-				TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH };
+		if (suggestion.getCreationDate() != null) {
+			copy.setCreationDate(new Date(suggestion.getCreationDate()
+					.getTime()));
+		}
 
-		// where values replacing ?s
-		String[] selectArgs = { abreviation };
+		return copy;
+	}
 
-		/*
-		 * Launching query
-		 */
+	/**
+	 * Maps the current row of a cursor read by the list projection (see
+	 * listFields) : as mapSearchedWord, but the entries of the word and of
+	 * its last modification are snippets and their phonetics are not read.
+	 * The words are previews, completed by loadEntry.
+	 * 
+	 * @param res
+	 *            The cursor, on the row to map.
+	 * @return The preview of the word.
+	 */
+	public static AbstractWord mapListedWord(Cursor res) {
 
-		try {
+		AbstractWord word = mapSearchedWord(res);
 
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
+		word.setPreview(true);
 
-			// performing query
-			Cursor res = qb.query(connection, fields, TF_LANGUAGE_ABREVIATION
-					+ " = ?", selectArgs, null, null, null);
+		if (word instanceof Headword
+				&& ((Headword) word).getLastModification() != null) {
+			((Headword) word).getLastModification().setPreview(true);
+		}
 
-			// verifying cursor
-			res = handleCursor(res);
+		return word;
+	}
 
-			if (res != null) { // one language found
+	/**
+	 * @param alias
+	 *            The alias of the effective headwords, null if none.
+	 * @return The fields of the list projection, in the order of the word
+	 *         search cursors : the entries are cut to ENTRY_SNIPPET_LENGTH
+	 *         characters and the phonetics are null.
+	 */
+	private static String listFields(String alias) {
 
-				// mapping language
+		String table = alias == null ? "" : alias + ".";
 
-				Language temp = new Language(res.getInt(0), // id
-						res.getString(1), // abbreviation
-						res.getString(2), // name
-						res.getString(3) // name in English
-				);
+		StringBuilder fields = new StringBuilder();
 
-				res.close();
+		for (String field : TextUtils.split(EFFECTIVE_HEADWORD_FIELDS, ",")) {
 
-				return temp;
+			field = field.trim();
 
-			} else { // no data found
-				return null;
+			if (fields.length() > 0) {
+				fields.append(" ,");
 			}
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+			if (field.equals(TF_EH_ENTRY) || field.equals(TF_EH_LM_ENTRY)) {
+				fields.append("SUBSTR(").append(table).append(field)
+						.append(", 1, ").append(ENTRY_SNIPPET_LENGTH)
+						.append(") AS ").append(field);
+			} else if (field.equals(TF_EH_PHONETIC)
+					|| field.equals(TF_EH_LM_PHONETIC)) {
+				fields.append("NULL AS ").append(field);
+			} else {
+				fields.append(table).append(field);
+			}
 		}
 
+		return fields.toString();
 	}
 
 	/**
-	 * Get a language by its internal code.
-	 * 
-	 * @param code
-	 *            The code of the language to search.
-	 * @return The language found from its code or null if doen't exist.
-	 * @throws AopdsDatabaseException
-	 *             If data cannot be accessed.
+	 * @return The fields of the effective headwords of an alias, in the order
+	 *         of the word search cursors.
 	 */
-	public Language getLanguageByCode(int code) throws AopdsDatabaseException {
-
-		/*
-		 * Getting a language by its code.
-		 */
+	private static String effectiveHeadwordFields(String alias) {
 
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-		qb.setTables(TABLE_LANGUAGE);
+		StringBuilder fields = new StringBuilder();
 
-		// asked fields
-		String[] fields = { TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
-				TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH };
+		for (String field : TextUtils.split(EFFECTIVE_HEADWORD_FIELDS, ",")) {
+			if (fields.length() > 0) {
+				fields.append(" ,");
+			}
+			fields.append(alias).append(".").append(field.trim());
+		}
 
-		String[] selectArgs = { Integer.toString(code) };
+		return fields.toString();
+	}
 
-		/*
-		 * Launching query
-		 */
-		try {
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
+	/**
+	 * Query of the matches of a full text index in a dictionary : the type
+	 * (T), id (I) and search key (K) of the matching words, the number of
+	 * terms of their entries (W) and the offsets of their matching terms (O).
+	 * The parameters are the MATCH expression and the dictionary.
+	 * 
+	 * @param ftsTable
+	 *            The full text index searched.
+	 * @param wordType
+	 *            The type of the effective headwords of the index.
+	 * @return The query.
+	 */
+	private static String fullTextMatches(String ftsTable, String wordType) {
+
+		return "SELECT E." + TF_EH_TYPE + " AS T , E." + TF_EH_WORD_ID
+				+ " AS I , E." + TF_EH_SEARCH_KEY + " AS K , length(E."
+				+ TF_EH_ENTRY + ") - length(replace(E." + TF_EH_ENTRY
+				+ ", ' ', '')) + 1 AS W , offsets(" + ftsTable + ") AS O FROM "
+				+ ftsTable + " INNER JOIN " + TABLE_EFFECTIVE_HEADWORD
+				+ " E ON E." + TF_EH_TYPE + " = '" + wordType + "' AND E."
+				+ TF_EH_WORD_ID + " = " + ftsTable + ".docid WHERE "
+				+ ftsTable + " MATCH ? AND E." + TF_EH_DICT_ID + " = ?";
+	}
 
-			// performing query
-			Cursor res = qb.query(connection, fields,
-					TF_LANGUAGE_CODE + " = ?", selectArgs, null, null, null);
+	/**
+	 * Expression of the relevance of an entry matched by a full text search,
+	 * computed by the query so that only the best matches are read (the SQLite
+	 * FTS3 of the older androids cannot rank) : the number of matching terms
+	 * divided by the number of terms of the entry, at most 1, plus 1 if the
+	 * entry begins by a matching term.<br>
+	 * <br>
+	 * 
+	 * The offsets are groups of 4 integers (column, term, byte offset, byte
+	 * size), one per matching term occurrence, in the order of the entry :
+	 * the entry begins by a match when the byte offset of the first group is
+	 * 0. The terms of the entry are counted by its spaces.
+	 * 
+	 * @param offsets
+	 *            The column of the result of the FTS3 offsets() function.
+	 * @param terms
+	 *            The column of the number of terms of the entry.
+	 * @return The expression of the score, the higher the better.
+	 */
+	private static String fullTextScore(String offsets, String terms) {
 
-			// verifying cursor
-			res = handleCursor(res);
+		return "( ltrim(substr(" + offsets + ", 3), '0123456789') LIKE ' 0 %' )"
+				+ " + min(( length(" + offsets + ") - length(replace("
+				+ offsets + ", ' ', '')) + 1 ) / 4.0 / max(" + terms
+				+ ", 1), 1)";
+	}
 
-			if (res != null) { // on language retrieved
+	/**
+	 * Transforms a text typed by the user into a FTS3 MATCH expression : the
+	 * terms of the text, all required, the last one matched as a prefix. The
+	 * FTS3 syntax characters of the text are dropped and the terms are lower
+	 * cased so that they cannot be read as operators (OR, NEAR ...).
+	 * 
+	 * @param text
+	 *            The text to search.
+	 * @return The MATCH expression or null if the text contains no term.
+	 */
+	private static String buildFullTextQuery(String text) {
 
-				// mapping language
-				Language temp = new Language(res.getInt(0), // id
-						res.getString(1), // abbreviation
-						res.getString(2), // name
-						res.getString(3) // name in English
-				);
+		StringBuilder query = new StringBuilder();
+		boolean inTerm = false;
 
-				// closing cursor
-				res.close();
+		for (int i = 0; i < text.length(); i++) {
 
-				return temp;
+			char c = text.charAt(i);
 
-			} else { // no language found
-				return null;
+			if (Character.isLetterOrDigit(c)) {
+				if (!inTerm && query.length() > 0) {
+					query.append(' ');
+				}
+				query.append(Character.toLowerCase(c));
+				inTerm = true;
+			} else {
+				inTerm = false;
 			}
+		}
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+		if (query.length() == 0) {
+			return null;
 		}
 
+		return query.append('*').toString();
 	}
 
 	/**
-	 * Get all languages.
+	 * Computes the snippet of an entry matched by a full text search, as the
+	 * FTS3 snippet() function : SNIPPET_TERMS terms of the entry from a few
+	 * terms before the first match, the matching terms surrounded by
+	 * SNIPPET_START and SNIPPET_END and the cuts marked by SNIPPET_ELLIPSIS.
 	 * 
-	 * @return All languages or null if no languages are installed.
-	 * @throws AopdsDatabaseException
-	 *             If data cannot be accessed.
+	 * @param entry
+	 *            The matched entry, may be null.
+	 * @param offsets
+	 *            The result of the FTS3 offsets() function for the entry (see
+	 *            fullTextScore).
+	 * @return The snippet, null if there is no entry.
 	 */
-	public ArrayList<Language> getAllLanguages() throws AopdsDatabaseException {
-
-		/*
-		 * Generating SQL query
-		 * 
-		 * getting all languages
-		 */
-		SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
-
-		qb.setTables(TABLE_LANGUAGE);
-
-		// asked fields
-		String[] fields = { TF_LANGUAGE_CODE, TF_LANGUAGE_ABREVIATION,
-				TF_LANGUAGE_NAME, TF_LANGUAGE_NAME_IN_ENGLISH };
+	private static String buildSnippet(String entry, String offsets) {
 
-		/*
-		 * Launching query
-		 */
-		try {
-			// getting connector for read only
-			SQLiteDatabase connection = db.getReadableDatabase();
+		if (entry == null) {
+			return null;
+		}
 
-			// performing query
-			Cursor res = qb.query(connection, fields, null, null, null, null,
-					TF_LANGUAGE_NAME_IN_ENGLISH + " ASC");
+		// the offsets are in bytes of the UTF-8 entry : char of each byte
+		int[] charOfByte = new int[entry.length() * 4 + 1];
+		int bytes = 0;
+
+		for (int i = 0; i < entry.length(); i++) {
+			char c = entry.charAt(i);
+			int size = c < 0x80 ? 1 : c < 0x800 ? 2
+					: Character.isHighSurrogate(c) ? 4
+							: Character.isLowSurrogate(c) ? 0 : 3;
+			for (int b = 0; b < size; b++) {
+				charOfByte[bytes++] = i;
+			}
+		}
+		charOfByte[bytes] = entry.length();
 
-			// verifying cursor
-			res = handleCursor(res);
+		// the matching terms, as char ranges
+		boolean[] matching = new boolean[entry.length()];
+		int firstMatch = entry.length();
 
-			if (res != null) { // cursor containing data
+		String[] values = TextUtils.split(offsets.trim(), " ");
 
-				// result set
-				ArrayList<Language> returningRes = new ArrayList<Language>();
+		for (int i = 0; i + 3 < values.length; i += 4) {
+			int from = Math.min(Integer.parseInt(values[i + 2]), bytes);
+			int to = Math.min(from + Integer.parseInt(values[i + 3]), bytes);
+			for (int c = charOfByte[from]; c < charOfByte[to]; c++) {
+				matching[c] = true;
+			}
+			firstMatch = Math.min(firstMatch, charOfByte[from]);
+		}
 
-				do { // at least one language
+		// the terms of the entry
+		ArrayList<int[]> terms = new ArrayList<int[]>();
+		int first = 0;
 
-					// mapping language
+		for (int i = 0; i < entry.length();) {
+			if (!Character.isLetterOrDigit(entry.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < entry.length()
+					&& Character.isLetterOrDigit(entry.charAt(i))) {
+				i++;
+			}
+			if (start <= firstMatch) {
+				first = terms.size();
+			}
+			terms.add(new int[] { start, i });
+		}
 
-					Language temp = new Language(res.getInt(0), // id
-							res.getString(1), // abbreviation
-							res.getString(2), // name
-							res.getString(3) // name in english
-					);
+		if (terms.isEmpty()) {
+			return entry;
+		}
 
-					returningRes.add(temp);
+		first = Math.max(0, first - SNIPPET_LEAD_TERMS);
+		int last = Math.min(terms.size(), first + SNIPPET_TERMS) - 1;
 
-				} while (res.moveToNext());
+		// the whole entry from the first term, up to the last one
+		int from = first == 0 ? 0 : terms.get(first)[0];
+		int to = last == terms.size() - 1 ? entry.length()
+				: terms.get(last)[1];
 
-				// closing cursor
-				res.close();
+		StringBuilder snippet = new StringBuilder();
 
-				return returningRes;
+		if (first > 0) {
+			snippet.append(SNIPPET_ELLIPSIS);
+		}
 
-			} else { // no language found
-				return null;
+		for (int i = from; i < to; i++) {
+			if (matching[i] && (i == from || !matching[i - 1])) {
+				snippet.append(SNIPPET_START);
+			}
+			snippet.append(entry.charAt(i));
+			if (matching[i] && (i + 1 == to || !matching[i + 1])) {
+				snippet.append(SNIPPET_END);
 			}
+		}
 
-		} catch (SQLiteException e) {
-			throw handleError(e);
+		if (to < entry.length()) {
+			snippet.append(SNIPPET_ELLIPSIS);
 		}
 
+		return snippet.toString();
 	}
 
-	/* *************************************************************************
-	 * Private tools
-	 */
-
 	/**
-	 * Handles a SQLite cursor and verifiy if it contains data.
+	 * Stops a query if it has been canceled.
 	 * 
+	 * @param cancellation
+	 *            The signal of the query, may be null.
 	 * @param c
-	 *            The cursor to verify.
-	 * @return The cursor provided as an argument or null if the argument is not
-	 *         containing data.
+	 *            The cursor of the query to close, may be null.
+	 * @throws DataBaseQueryCanceledException
+	 *             If the query has been canceled.
 	 */
-	private static Cursor handleCursor(Cursor c) {
+	static void checkCancellation(AopdsCancellationSignal cancellation,
+			Cursor c) throws DataBaseQueryCanceledException {
 
-		if (c == null) {
-			return null;
-		} else {
-			if (!c.moveToFirst()) { // if true , c is containing data
+		if (cancellation != null && cancellation.isCanceled()) {
+			if (c != null) {
 				c.close();
-				return null;
-			} else
-				return c;
+			}
+			throw new DataBaseQueryCanceledException(DATABASE_NAME,
+					DATABASE_VERSION);
 		}
-
 	}
 
 	/**
@@ -2076,7 +6069,7 @@ public final class AopdsDatabase {
 	 *            The exception to transform.
 	 * @return An AopdsDatabaseException describing the problem.
 	 */
-	private AopdsDatabaseException handleError(Exception e) {
+	AopdsDatabaseException handleError(Exception e) {
 
 		return new DataBaseRuntimeException(DATABASE_NAME, DATABASE_VERSION, e);
 
@@ -2094,9 +6087,365 @@ public final class AopdsDatabase {
 	private static class DictionaryOpenHelper extends SQLiteOpenHelper {
 
 		/**
-		 * Android application context.
+		 * Android application context.
+		 */
+		private final Context dictionaryContext;
+
+		/**
+		 * Id of the dictionary of the assets (see DATABASE_INSERTS).
+		 */
+		private final static int BUNDLED_DICTIONARY_ID = 3;
+
+		/**
+		 * Asset of the words of the bundled dictionary, naming its import
+		 * job.
+		 */
+		private final static String BUNDLED_ASSET = "irish_english_dictionary_test.txt";
+
+		/**
+		 * Index of the headwords of a dictionary.
+		 */
+		private final static String CREATE_INDEX_HEADWORD_DICTIONARY = "CREATE INDEX I_FK_HEADWORD_INSTALLED_DICTIONARY ON "
+				+ TABLE_HEADWORD + " (" + TF_HEADWORD_DICT_ID + " ASC);";
+
+		/**
+		 * Index of the headwords by word.
+		 */
+		private final static String CREATE_INDEX_HEADWORD_WORD = "CREATE INDEX I_HEADWORD_WORD ON "
+				+ TABLE_HEADWORD + " (" + TF_HEADWORD_WORD + " ASC);";
+
+		/**
+		 * Index of the prefix search on the headwords : dictionary then search
+		 * key.
+		 */
+		private final static String CREATE_INDEX_HEADWORD_SEARCH_KEY = "CREATE INDEX I_HEADWORD_SEARCH_KEY ON "
+				+ TABLE_HEADWORD
+				+ " ("
+				+ TF_HEADWORD_DICT_ID
+				+ " ASC, "
+				+ TF_HEADWORD_SEARCH_KEY + " ASC);";
+
+		/**
+		 * Index of the prefix search on the suggestions : dictionary then
+		 * search key.
+		 */
+		private final static String CREATE_INDEX_SUGGESTION_SEARCH_KEY = "CREATE INDEX I_SUGGESTION_SEARCH_KEY ON "
+				+ TABLE_SUGGESTION
+				+ " ("
+				+ TF_SUGGESTION_DICT_ID
+				+ " ASC, "
+				+ TF_SUGGESTION_SEARCH_KEY + " ASC);";
+
+		/**
+		 * Index of the sound-alike search on the headwords : dictionary then
+		 * sound key.
+		 */
+		private final static String CREATE_INDEX_HEADWORD_SOUND_KEY = "CREATE INDEX I_HEADWORD_SOUND_KEY ON "
+				+ TABLE_HEADWORD
+				+ " ("
+				+ TF_HEADWORD_DICT_ID
+				+ " ASC, "
+				+ TF_HEADWORD_SOUND_KEY + " ASC);";
+
+		/**
+		 * Index of the sound-alike search on the suggestions : dictionary then
+		 * sound key.
+		 */
+		private final static String CREATE_INDEX_SUGGESTION_SOUND_KEY = "CREATE INDEX I_SUGGESTION_SOUND_KEY ON "
+				+ TABLE_SUGGESTION
+				+ " ("
+				+ TF_SUGGESTION_DICT_ID
+				+ " ASC, "
+				+ TF_SUGGESTION_SOUND_KEY + " ASC);";
+
+		/**
+		 * Table of the effective headwords.
+		 */
+		private final static String CREATE_TABLE_EFFECTIVE_HEADWORD = "CREATE TABLE "
+				+ TABLE_EFFECTIVE_HEADWORD
+				+ " ("
+				+ " "
+				+ TF_EH_TYPE
+				+ " TEXT NOT NULL ,"
+				+ " "
+				+ TF_EH_WORD_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_EH_DICT_ID
+				+ " INTEGER ,"
+				+ " "
+				+ TF_EH_WORD
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_ENTRY
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_PHONETIC
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_SYNCH_STAT
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_ACT_TYPE
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_DELETED
+				+ " INTEGER ,"
+				+ " "
+				+ TF_EH_LM_ID
+				+ " INTEGER ,"
+				+ " "
+				+ TF_EH_LM_WORD
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_LM_ENTRY
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_LM_PHONETIC
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_LM_SYNCH_STAT
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_LM_ACT_TYPE
+				+ " TEXT ,"
+				+ " "
+				+ TF_EH_SEARCH_KEY
+				+ " TEXT ,"
+				+ " PRIMARY KEY ("
+				+ TF_EH_TYPE
+				+ ", "
+				+ TF_EH_WORD_ID + ") );";
+
+		/**
+		 * Index of the word search on the effective headwords, also giving
+		 * their order.
+		 */
+		private final static String CREATE_INDEX_EFFECTIVE_HEADWORD_SEARCH_KEY = "CREATE INDEX I_EFFECTIVE_HEADWORD_SEARCH_KEY ON "
+				+ TABLE_EFFECTIVE_HEADWORD
+				+ " ("
+				+ TF_EH_DICT_ID
+				+ " ASC, "
+				+ TF_EH_SEARCH_KEY
+				+ " ASC, "
+				+ TF_EH_WORD
+				+ " ASC, "
+				+ TF_EH_TYPE + " ASC, " + TF_EH_WORD_ID + " ASC);";
+
+		/**
+		 * Table of the letter sections.
+		 */
+		private final static String CREATE_TABLE_LETTER_SECTION = "CREATE TABLE "
+				+ TABLE_LETTER_SECTION
+				+ " ("
+				+ " "
+				+ TF_LS_DICT_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_LS_LETTER
+				+ " TEXT NOT NULL ,"
+				+ " "
+				+ TF_LS_WORD_COUNT
+				+ " INTEGER NOT NULL ,"
+				+ " PRIMARY KEY ("
+				+ TF_LS_DICT_ID
+				+ ", "
+				+ TF_LS_LETTER + ") );";
+
+		/**
+		 * Table of the usage counts of the words.
+		 */
+		private final static String CREATE_TABLE_WORD_USAGE = "CREATE TABLE "
+				+ TABLE_WORD_USAGE
+				+ " ("
+				+ " "
+				+ TF_WU_TYPE
+				+ " TEXT NOT NULL ,"
+				+ " "
+				+ TF_WU_WORD_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_WU_DICT_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_WU_LOOKUP_COUNT
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_WU_OPEN_COUNT
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_WU_USAGE_COUNT
+				+ " INTEGER NOT NULL DEFAULT 0 ,"
+				+ " PRIMARY KEY ("
+				+ TF_WU_TYPE
+				+ ", "
+				+ TF_WU_WORD_ID + ") );";
+
+		/**
+		 * Index of the used words of a dictionary, read first by the ranked
+		 * searches, the most used first. The usage count of a word is read by
+		 * the primary key index (type, word id).
+		 */
+		private final static String CREATE_INDEX_WORD_USAGE_COUNT = "CREATE INDEX I_WORD_USAGE_COUNT ON "
+				+ TABLE_WORD_USAGE
+				+ " ("
+				+ TF_WU_DICT_ID
+				+ " ASC, "
+				+ TF_WU_USAGE_COUNT + " ASC);";
+
+		/**
+		 * Posting lists of the trigrams : the words having a trigram are read
+		 * in order by the primary key index.
+		 */
+		private final static String CREATE_TABLE_WORD_TRIGRAM = "CREATE TABLE "
+				+ TABLE_WORD_TRIGRAM
+				+ " ("
+				+ " "
+				+ TF_WT_DICT_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_WT_TRIGRAM
+				+ " TEXT NOT NULL ,"
+				+ " "
+				+ TF_WT_TYPE
+				+ " TEXT NOT NULL ,"
+				+ " "
+				+ TF_WT_WORD_ID
+				+ " INTEGER NOT NULL ,"
+				+ " PRIMARY KEY ("
+				+ TF_WT_DICT_ID
+				+ ", "
+				+ TF_WT_TRIGRAM
+				+ ", "
+				+ TF_WT_TYPE
+				+ ", "
+				+ TF_WT_WORD_ID + ") );";
+
+		/**
+		 * Index of the trigrams of a word, to replace them.
+		 */
+		private final static String CREATE_INDEX_WORD_TRIGRAM_WORD = "CREATE INDEX I_WORD_TRIGRAM_WORD ON "
+				+ TABLE_WORD_TRIGRAM
+				+ " ("
+				+ TF_WT_TYPE
+				+ " ASC, "
+				+ TF_WT_WORD_ID + " ASC);";
+
+		/**
+		 * Checkpoints of the imports not finished.
+		 */
+		private final static String CREATE_TABLE_IMPORT_JOB = "CREATE TABLE "
+				+ TABLE_IMPORT_JOB + " ( " + TF_IJ_DICT_ID
+				+ " INTEGER NOT NULL , " + TF_IJ_SOURCE + " TEXT NOT NULL , "
+				+ TF_IJ_ENTRIES + " INTEGER NOT NULL , " + TF_IJ_FIRST_ID
+				+ " INTEGER , " + TF_IJ_LAST_ID + " INTEGER , PRIMARY KEY ("
+				+ TF_IJ_DICT_ID + ") );";
+
+		/**
+		 * Last provisioned stage.
+		 */
+		private final static String CREATE_TABLE_PROVISIONING = "CREATE TABLE "
+				+ TABLE_PROVISIONING
+				+ " ("
+				+ " "
+				+ TF_PROVISIONING_STAGE + " INTEGER NOT NULL );";
+
+		/**
+		 * Notes of the entries of the headwords.
+		 */
+		private final static String CREATE_TABLE_ANNOTATION = "CREATE TABLE "
+				+ TABLE_ANNOTATION
+				+ " ("
+				+ " "
+				+ TF_ANNOTATION_HEADWORD_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_ANNOTATION_DICT_ID
+				+ " INTEGER NOT NULL ,"
+				+ " "
+				+ TF_ANNOTATION_POS
+				+ " TEXT ,"
+				+ " "
+				+ TF_ANNOTATION_NOTE
+				+ " TEXT NOT NULL ,"
+				+ " FOREIGN KEY ("
+				+ TF_ANNOTATION_HEADWORD_ID
+				+ ") REFERENCES "
+				+ TABLE_HEADWORD
+				+ " ("
+				+ TF_HEADWORD_ID + ") );";
+
+		/**
+		 * Index of the parts of speech of a headword, probed by the filtered
+		 * searches.
+		 */
+		private final static String CREATE_INDEX_ANNOTATION_HEADWORD = "CREATE INDEX I_ANNOTATION_HEADWORD ON "
+				+ TABLE_ANNOTATION
+				+ " ("
+				+ TF_ANNOTATION_HEADWORD_ID
+				+ " ASC, "
+				+ TF_ANNOTATION_POS + " ASC);";
+
+		/**
+		 * Index of the headwords of a part of speech in a dictionary.
+		 */
+		private final static String CREATE_INDEX_ANNOTATION_POS = "CREATE INDEX I_ANNOTATION_PART_OF_SPEECH ON "
+				+ TABLE_ANNOTATION
+				+ " ("
+				+ TF_ANNOTATION_DICT_ID
+				+ " ASC, "
+				+ TF_ANNOTATION_POS
+				+ " ASC, "
+				+ TF_ANNOTATION_HEADWORD_ID + " ASC);";
+
+		/**
+		 * Index of the suggestions of a headword.
+		 */
+		private final static String CREATE_INDEX_SUGGESTION_HEADWORD = "CREATE INDEX I_FK_SUGGESTION_HEADWORD ON "
+				+ TABLE_SUGGESTION
+				+ " ("
+				+ TF_SUGGESTION_HEADWORD_ID
+				+ " ASC);";
+
+		/**
+		 * Indexes of the tables filled by the imports which the searches do
+		 * not use, with their names : dropped during the load of an import
+		 * and built after it (see dropImportIndexes). The dictionary of the
+		 * headwords is the first column of their search indexes.
+		 */
+		private final static String[][] IMPORT_INDEXES = {
+				{ "I_FK_HEADWORD_INSTALLED_DICTIONARY",
+						CREATE_INDEX_HEADWORD_DICTIONARY },
+				{ "I_WORD_TRIGRAM_WORD", CREATE_INDEX_WORD_TRIGRAM_WORD } };
+
+		/**
+		 * Indexes of the tables filled by the imports used by the searches,
+		 * with their names : dropped during the load of an import when no
+		 * other dictionary is searched.
+		 */
+		private final static String[][] SEARCH_INDEXES = {
+				{ "I_HEADWORD_WORD", CREATE_INDEX_HEADWORD_WORD },
+				{ "I_HEADWORD_SEARCH_KEY", CREATE_INDEX_HEADWORD_SEARCH_KEY },
+				{ "I_HEADWORD_SOUND_KEY", CREATE_INDEX_HEADWORD_SOUND_KEY },
+				{ "I_ANNOTATION_HEADWORD", CREATE_INDEX_ANNOTATION_HEADWORD },
+				{ "I_ANNOTATION_PART_OF_SPEECH", CREATE_INDEX_ANNOTATION_POS } };
+
+		/**
+		 * Trigger filling the full text index of the headwords.
+		 */
+		private final static String TRIGGER_HEADWORD_FTS_INSERT = "T_"
+				+ TABLE_HEADWORD_FTS + "_INSERT";
+
+		/**
+		 * Condition of the trigger filling the full text index of the
+		 * headwords : the headwords of a dictionary being imported are
+		 * indexed at the end of the import (see HeadwordWriter.index).
 		 */
-		private final Context dictionaryContext;
+		private final static String HEADWORD_FTS_INSERT_CONDITION = "NOT EXISTS ( SELECT 1 FROM "
+				+ TABLE_IMPORT_JOB
+				+ " WHERE "
+				+ TF_IJ_DICT_ID
+				+ " = new." + TF_HEADWORD_DICT_ID + " )";
 
 		/**
 		 * Script of the database.
@@ -2126,6 +6475,8 @@ public final class AopdsDatabase {
 						+ " TEXT NOT NULL  ," + " " + TF_HEADWORD_ENTRY
 						+ " TEXT ," + " " + TF_HEADWORD_PHONETIC + " TEXT ,"
 						+ " " + TF_HEADWORD_PRONUN_EXISTS + " INTEGER,"
+						+ " " + TF_HEADWORD_SEARCH_KEY + " TEXT ,"
+						+ " " + TF_HEADWORD_SOUND_KEY + " TEXT ,"
 						+ " PRIMARY KEY (" + TF_HEADWORD_ID + "),"
 						+ " FOREIGN KEY(" + TF_HEADWORD_DICT_ID
 						+ ") REFERENCES " + TABLE_INSTALLED_DICTIONARY + " ("
@@ -2142,27 +6493,36 @@ public final class AopdsDatabase {
 						+ TF_SUGGESTION_SYNCH_STAT + " TEXT , " + " "
 						+ TF_SUGGESTION_CREATION_DATE + " INTEGER , " + " "
 						+ TF_SUGGESTION_DICT_VERSION + " INTEGER , "
+						+ TF_SUGGESTION_SEARCH_KEY + " TEXT , "
+						+ TF_SUGGESTION_SOUND_KEY + " TEXT , "
 						+ " PRIMARY KEY (" + TF_SUGGESTION_ID + "),"
 						+ " FOREIGN KEY (" + TF_SUGGESTION_HEADWORD_ID
 						+ ") REFERENCES " + TABLE_HEADWORD + " ("
 						+ TF_HEADWORD_ID + ")" + " FOREIGN KEY ("
 						+ TF_SUGGESTION_DICT_ID + ") REFERENCES "
 						+ TABLE_INSTALLED_DICTIONARY + " (" + TF_ID_ID + ") );",
-				"CREATE INDEX I_FK_SUGGESTION_HEADWORD ON " + TABLE_SUGGESTION
-						+ " (" + TF_HEADWORD_ID + " ASC);",
+				CREATE_INDEX_SUGGESTION_HEADWORD,
 				"CREATE INDEX I_FK_INSTALLED_DICTIONARY_LANGUAGE_TO ON "
 						+ TABLE_INSTALLED_DICTIONARY + " (" + TF_ID_LANGUAGE_TO
 						+ " ASC);",
 				"CREATE INDEX I_FK_INSTALLED_DICTIONARY_LANGUAGE_FROM ON "
 						+ TABLE_INSTALLED_DICTIONARY + " ("
 						+ TF_ID_LANGUAGE_FROM + " ASC);",
-				"CREATE INDEX I_FK_HEADWORD_INSTALLED_DICTIONARY ON "
-						+ TABLE_HEADWORD + " (" + TF_HEADWORD_DICT_ID
-						+ " ASC);",
-				"CREATE INDEX I_HEADWORD_WORD ON " + TABLE_HEADWORD + " ("
-						+ TF_HEADWORD_WORD + " ASC);",
+				CREATE_INDEX_HEADWORD_DICTIONARY, CREATE_INDEX_HEADWORD_WORD,
 				"CREATE INDEX I_SUGGESTION_WORD ON " + TABLE_SUGGESTION + " ("
-						+ TF_SUGGESTION_WORD + " ASC);" };
+						+ TF_SUGGESTION_WORD + " ASC);",
+				CREATE_INDEX_HEADWORD_SEARCH_KEY,
+				CREATE_INDEX_SUGGESTION_SEARCH_KEY,
+				CREATE_INDEX_HEADWORD_SOUND_KEY,
+				CREATE_INDEX_SUGGESTION_SOUND_KEY,
+				CREATE_TABLE_EFFECTIVE_HEADWORD,
+				CREATE_INDEX_EFFECTIVE_HEADWORD_SEARCH_KEY,
+				CREATE_TABLE_LETTER_SECTION,
+				CREATE_TABLE_WORD_USAGE,
+				CREATE_INDEX_WORD_USAGE_COUNT, CREATE_TABLE_WORD_TRIGRAM,
+				CREATE_INDEX_WORD_TRIGRAM_WORD, CREATE_TABLE_ANNOTATION,
+				CREATE_INDEX_ANNOTATION_HEADWORD, CREATE_INDEX_ANNOTATION_POS,
+				CREATE_TABLE_PROVISIONING, CREATE_TABLE_IMPORT_JOB };
 
 		/**
 		 * First inserts
@@ -2371,49 +6731,184 @@ public final class AopdsDatabase {
 		}
 
 		/**
-		 * Loads first test data. Gaelic dictionary.
+		 * Copies the prebuilt database of the assets (see compileDatabase) as
+		 * the database if it does not exist yet : the first launch copies a
+		 * file instead of creating the database and loading the dictionary.
+		 * The database is created by onCreate if there is no prebuilt
+		 * database or if it cannot be copied, and upgraded by onUpgrade if
+		 * it is older than the application.<br>
+		 * <br>
+		 * 
+		 * Run by the provisioning thread before it opens the database (see
+		 * AopdsProvisioning). Synchronized with the opening of the database
+		 * by SQLiteOpenHelper : the file is never replaced under an open
+		 * connection, and a database opened first is not replaced.
+		 */
+		synchronized void installPrebuiltDatabase() {
+
+			Context context = dictionaryContext;
+			File database = context.getDatabasePath(DATABASE_NAME);
+
+			if (database.exists()) {
+				return;
+			}
+
+			InputStream asset;
+
+			try {
+				asset = context.getAssets().open(PREBUILT_DATABASE_ASSET);
+			} catch (FileNotFoundException e) {
+				return; // not compiled
+			} catch (IOException e) {
+				AopdsLogger.error(LOG_TAG, "Impossible to open the prebuilt database : "
+						+ e.getMessage(), e);
+				return;
+			}
+
+			// copied aside then renamed : never a half copied database
+			File copy = new File(database.getPath() + ".tmp");
+
+			try {
+				database.getParentFile().mkdirs();
+
+				copy(new GZIPInputStream(asset), new FileOutputStream(copy));
+
+				if (!copy.renameTo(database)) {
+					throw new IOException("Impossible to rename " + copy);
+				}
+
+				AopdsLogger.info(LOG_TAG, "Prebuilt database installed.");
+
+			} catch (IOException e) {
+
+				AopdsLogger.error(LOG_TAG,
+						"Impossible to install the prebuilt database, it will be created : "
+								+ e.getMessage(), e);
+
+				copy.delete();
+
+				try {
+					asset.close();
+				} catch (IOException ignored) {
+					// nothing more to do
+				}
+			}
+		}
+
+		/**
+		 * Loads first test data. Gaelic dictionary. Resumes its interrupted
+		 * load (see importWords), or does nothing if it has been loaded
+		 * before its stage was written. Logs the errors : the load of an
+		 * asset which cannot be read ends with the words read.
 		 * 
 		 * @param db
 		 *            the db connector.
+		 * @param provisioning
+		 *            The provisioning to notify of the progress, may be null.
+		 * @throws DataBaseImportPendingException
+		 *             If another source is being imported into the bundled
+		 *             dictionary.
+		 */
+		private void loadWords(SQLiteDatabase db,
+				AopdsProvisioning provisioning)
+				throws DataBaseImportPendingException {
+
+			// the end of the load and the stage are written one after the other
+			if (readImportSource(db, BUNDLED_DICTIONARY_ID) == null
+					&& hasHeadwords(db, BUNDLED_DICTIONARY_ID)) {
+				AopdsLogger.info(LOG_TAG, "Gaelic dictionary already loaded.");
+				return;
+			}
+
+			try {
+				readWords(db, provisioning);
+			} catch (IOException e) {
+				AopdsLogger.error(LOG_TAG,
+						"Impossible to load test data !!! cause : "
+								+ e.getMessage(), e);
+
+				// the asset would not be read better by the next start
+				try {
+					importWords(db, BUNDLED_DICTIONARY_ID, AopdsAnalyzers
+							.getDefault(), BUNDLED_ASSET, NO_ENTRIES, true);
+				} catch (IOException ignored) {
+					// nothing to read
+				}
+			}
+		}
+
+		/**
+		 * Imports the words of the asset of the bundled dictionary.
+		 * 
 		 * @throws IOException
 		 *             If any problem.
 		 */
-		private void loadWords(SQLiteDatabase db) throws IOException {
+		private void readWords(SQLiteDatabase db,
+				final AopdsProvisioning provisioning) throws IOException,
+				DataBaseImportPendingException {
 
 			AopdsLogger.info(LOG_TAG,
 					"Loading Gaelic dictionary for tests ! ...");
 
-			InputStream inputStream = dictionaryContext.getAssets().open(
-					"irish_english_dictionary_test.txt");
+			InputStream asset = dictionaryContext.getAssets().open(
+					BUNDLED_ASSET);
 
-			BufferedReader reader = new BufferedReader(new InputStreamReader(
-					inputStream, "UTF-8"));
-
-			try {
-				String line;
-				int id = -1;
+			// the progress is the part of the file read, about 100 steps
+			final int total = Math.max(1, asset.available());
+			final int step = Math.max(1, total / 100);
 
-				SQLiteStatement s = db
-						.compileStatement("INSERT INTO HEADWORD VALUES ( ? , 3, ? , ? , '', 0 );");
+			final InputStream inputStream = new FilterInputStream(asset) {
 
-				while ((line = reader.readLine()) != null) {
-					String[] strings = TextUtils.split(line, "#");
-					if (strings.length < 2)
-						continue;
+				private int read;
+				private int reported;
 
-					id++;
+				@Override
+				public int read() throws IOException {
+					int b = super.read();
+					count(b < 0 ? 0 : 1);
+					return b;
+				}
 
-					s.bindLong(1, id);
-					s.bindString(2, strings[1]);
-					s.bindString(3, strings[0]);
+				@Override
+				public int read(byte[] buffer, int offset, int length)
+						throws IOException {
+					int count = super.read(buffer, offset, length);
+					count(count);
+					return count;
+				}
 
-					s.executeInsert();
-					s.clearBindings();
+				private void count(int count) {
+					if (count <= 0 || provisioning == null) {
+						return;
+					}
+					read += count;
+					if (read - reported >= step) {
+						reported = read;
+						provisioning.progress(
+								AopdsProvisioning.STAGE_DICTIONARY,
+								Math.min(read, total), total);
+					}
 				}
+			};
+
+			AopdsAnalyzer analyzer = readAnalyzer(db, BUNDLED_DICTIONARY_ID);
+			if (analyzer == null) {
+				analyzer = AopdsAnalyzers.getDefault();
+			}
+
+			try {
+				importWords(db, BUNDLED_DICTIONARY_ID, analyzer, BUNDLED_ASSET,
+						new AopdsImportPipeline.Source() {
+							public void read(DictionarySink sink)
+									throws IOException {
+								DictionaryImporters.LINES.read(inputStream,
+										sink);
+							}
+						}, true);
 				AopdsLogger.info(LOG_TAG, "Test data loading finished !");
 
 			} finally {
-				reader.close();
+				inputStream.close();
 			}
 
 		}
@@ -2432,27 +6927,634 @@ public final class AopdsDatabase {
 				db.execSQL(statement);
 			}
 
-			// performing first inserts
-			for (String statement : DATABASE_INSERTS) {
-				db.execSQL(statement);
-			}
+			// full text indexes, filled by their triggers
+			createFullTextIndex(db, TABLE_HEADWORD, TABLE_HEADWORD_FTS,
+					TF_HEADWORD_ID, TF_HEADWORD_ENTRY,
+					HEADWORD_FTS_INSERT_CONDITION, false);
+			createFullTextIndex(db, TABLE_SUGGESTION, TABLE_SUGGESTION_FTS,
+					TF_SUGGESTION_ID, TF_SUGGESTION_ENTRY, null, false);
 
-			// test data
-			try {
-				loadWords(db);
-			} catch (Exception e) {
-				AopdsLogger.error(
-						LOG_TAG,
-						"Impossible to load test data !!! cause : "
-								+ e.getMessage(), e);
-			}
+			createWordUsageTriggers(db);
+
+			// the next stages are provisioned by AopdsProvisioning
+			writeStage(db, AopdsProvisioning.STAGE_SCHEMA);
 
 			AopdsLogger.info(LOG_TAG, "Database created ...");
 
 		}
 
+		/**
+		 * Provisions a stage of the database after the creation of its
+		 * schema : the languages and the installed dictionaries, or the end
+		 * of the import of the words of the dictionaries, loaded before (see
+		 * loadWords). To run in a transaction.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 * @param stage
+		 *            The stage to provision.
+		 * @param provisioning
+		 *            The provisioning to notify of the progress, may be null.
+		 */
+		private void provisionStage(SQLiteDatabase db, int stage,
+				AopdsProvisioning provisioning) {
+
+			if (stage == AopdsProvisioning.STAGE_LANGUAGES) {
+
+				// performing first inserts
+				for (String statement : DATABASE_INSERTS) {
+					db.execSQL(statement);
+				}
+
+			} else if (stage == AopdsProvisioning.STAGE_DICTIONARY) {
+
+				// letter sections, filled from the effective headwords
+				createLetterSectionTriggers(db, true);
+			}
+
+			writeStage(db, stage);
+		}
+
+		/**
+		 * Records the last provisioned stage.
+		 */
+		private static void writeStage(SQLiteDatabase db, int stage) {
+
+			db.execSQL("DELETE FROM " + TABLE_PROVISIONING + ";");
+			db.execSQL("INSERT INTO " + TABLE_PROVISIONING + " ( "
+					+ TF_PROVISIONING_STAGE + " ) VALUES ( " + stage + " );");
+		}
+
+		/**
+		 * Upgrades the database from an older version, keeping its data. Each
+		 * step upgrades the database of one version.
+		 */
 		@Override
 		public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+
+			AopdsLogger.info(LOG_TAG, "Upgrading Database from version "
+					+ oldVersion + " to " + newVersion + " ...");
+
+			if (oldVersion < 2) {
+				// search keys of the words
+				db.execSQL("ALTER TABLE " + TABLE_HEADWORD + " ADD COLUMN "
+						+ TF_HEADWORD_SEARCH_KEY + " TEXT;");
+				db.execSQL("ALTER TABLE " + TABLE_SUGGESTION + " ADD COLUMN "
+						+ TF_SUGGESTION_SEARCH_KEY + " TEXT;");
+
+				fillSearchKeys(db, TABLE_HEADWORD, TF_HEADWORD_ID,
+						TF_HEADWORD_DICT_ID, TF_HEADWORD_WORD,
+						TF_HEADWORD_SEARCH_KEY, false);
+				fillSearchKeys(db, TABLE_SUGGESTION, TF_SUGGESTION_ID,
+						TF_SUGGESTION_DICT_ID, TF_SUGGESTION_WORD,
+						TF_SUGGESTION_SEARCH_KEY, false);
+
+				db.execSQL(CREATE_INDEX_HEADWORD_SEARCH_KEY);
+				db.execSQL(CREATE_INDEX_SUGGESTION_SEARCH_KEY);
+			}
+
+			if (oldVersion < 3) {
+				// full text indexes of the entries
+				createFullTextIndex(db, TABLE_HEADWORD, TABLE_HEADWORD_FTS,
+						TF_HEADWORD_ID, TF_HEADWORD_ENTRY, null, true);
+				createFullTextIndex(db, TABLE_SUGGESTION, TABLE_SUGGESTION_FTS,
+						TF_SUGGESTION_ID, TF_SUGGESTION_ENTRY, null, true);
+			}
+
+			if (oldVersion < 4) {
+				// the index of the suggestions of a headword was on their id
+				db.execSQL("DROP INDEX I_FK_SUGGESTION_HEADWORD;");
+				db.execSQL(CREATE_INDEX_SUGGESTION_HEADWORD);
+
+				// effective headwords
+				db.execSQL(CREATE_TABLE_EFFECTIVE_HEADWORD);
+				db.execSQL(CREATE_INDEX_EFFECTIVE_HEADWORD_SEARCH_KEY);
+				rebuildEffectiveHeadwords(db);
+			}
+
+			if (oldVersion < 5) {
+				// search keys computed by the analyzers of the languages
+				if (oldVersion >= 2) {
+					fillSearchKeys(db, TABLE_HEADWORD, TF_HEADWORD_ID,
+							TF_HEADWORD_DICT_ID, TF_HEADWORD_WORD,
+							TF_HEADWORD_SEARCH_KEY, false);
+					fillSearchKeys(db, TABLE_SUGGESTION, TF_SUGGESTION_ID,
+							TF_SUGGESTION_DICT_ID, TF_SUGGESTION_WORD,
+							TF_SUGGESTION_SEARCH_KEY, false);
+				}
+				if (oldVersion >= 4) {
+					rebuildEffectiveHeadwords(db);
+				}
+			}
+
+			if (oldVersion < 6 && oldVersion >= 4) {
+				// the browse order is the order of the search key index
+				db.execSQL("DROP INDEX I_EFFECTIVE_HEADWORD_SEARCH_KEY;");
+				db.execSQL(CREATE_INDEX_EFFECTIVE_HEADWORD_SEARCH_KEY);
+			}
+
+			if (oldVersion < 7) {
+				// letter sections of the ordered words
+				db.execSQL(CREATE_TABLE_LETTER_SECTION);
+				createLetterSectionTriggers(db, true);
+			}
+
+			if (oldVersion < 8) {
+				// usage counts of the words
+				db.execSQL(CREATE_TABLE_WORD_USAGE);
+			}
+
+			if (oldVersion < 9) {
+				// trigrams of the words, for the pattern searches
+				db.execSQL(CREATE_TABLE_WORD_TRIGRAM);
+				db.execSQL(CREATE_INDEX_WORD_TRIGRAM_WORD);
+				rebuildTrigrams(db);
+			}
+
+			if (oldVersion < 10) {
+				// sound keys of the words, for the sound-alike searches
+				db.execSQL("ALTER TABLE " + TABLE_HEADWORD + " ADD COLUMN "
+						+ TF_HEADWORD_SOUND_KEY + " TEXT;");
+				db.execSQL("ALTER TABLE " + TABLE_SUGGESTION + " ADD COLUMN "
+						+ TF_SUGGESTION_SOUND_KEY + " TEXT;");
+
+				fillSearchKeys(db, TABLE_HEADWORD, TF_HEADWORD_ID,
+						TF_HEADWORD_DICT_ID, TF_HEADWORD_WORD,
+						TF_HEADWORD_SOUND_KEY, true);
+				fillSearchKeys(db, TABLE_SUGGESTION, TF_SUGGESTION_ID,
+						TF_SUGGESTION_DICT_ID, TF_SUGGESTION_WORD,
+						TF_SUGGESTION_SOUND_KEY, true);
+
+				db.execSQL(CREATE_INDEX_HEADWORD_SOUND_KEY);
+				db.execSQL(CREATE_INDEX_SUGGESTION_SOUND_KEY);
+			}
+
+			if (oldVersion < 11) {
+				// grammar notes of the entries
+				db.execSQL(CREATE_TABLE_ANNOTATION);
+				db.execSQL(CREATE_INDEX_ANNOTATION_HEADWORD);
+				db.execSQL(CREATE_INDEX_ANNOTATION_POS);
+				fillAnnotations(db);
+			}
+
+			if (oldVersion < 12) {
+				// the older databases were provisioned at their creation
+				db.execSQL(CREATE_TABLE_PROVISIONING);
+				writeStage(db, AopdsProvisioning.STAGE_DICTIONARY);
+			}
+
+			if (oldVersion < 13) {
+				// checkpoints of the imports
+				db.execSQL(CREATE_TABLE_IMPORT_JOB);
+			}
+
+			if (oldVersion < 14) {
+				// usage counts deleted with their words
+				db.execSQL("DELETE FROM " + TABLE_WORD_USAGE + " WHERE NOT "
+						+ "EXISTS ( SELECT 1 FROM " + TABLE_HEADWORD
+						+ " WHERE " + TF_WU_TYPE + " = '" + WORD_TYPE_HEADWORD
+						+ "' AND " + TF_HEADWORD_ID + " = " + TF_WU_WORD_ID
+						+ " ) AND NOT EXISTS ( SELECT 1 FROM "
+						+ TABLE_SUGGESTION + " WHERE " + TF_WU_TYPE + " = '"
+						+ WORD_TYPE_SUGGESTION + "' AND " + TF_SUGGESTION_ID
+						+ " = " + TF_WU_WORD_ID + " );");
+				createWordUsageTriggers(db);
+			}
+
+			if (oldVersion < 15) {
+				// the headwords being imported are indexed at the end
+				db.execSQL("DROP TRIGGER IF EXISTS "
+						+ TRIGGER_HEADWORD_FTS_INSERT + ";");
+				db.execSQL(createFullTextInsertTrigger(TABLE_HEADWORD,
+						TABLE_HEADWORD_FTS, TF_HEADWORD_ID, TF_HEADWORD_ENTRY,
+						HEADWORD_FTS_INSERT_CONDITION));
+			}
+
+			if (oldVersion < 16) {
+				// the used words read in the order of their usage
+				if (oldVersion >= 8) {
+					db.execSQL("ALTER TABLE " + TABLE_WORD_USAGE
+							+ " ADD COLUMN " + TF_WU_USAGE_COUNT
+							+ " INTEGER NOT NULL DEFAULT 0;");
+					db.execSQL("UPDATE " + TABLE_WORD_USAGE + " SET "
+							+ TF_WU_USAGE_COUNT + " = " + TF_WU_LOOKUP_COUNT
+							+ " + " + TF_WU_OPEN_COUNT + ";");
+				}
+				db.execSQL("DROP INDEX IF EXISTS I_WORD_USAGE_DICTIONARY;");
+				db.execSQL(CREATE_INDEX_WORD_USAGE_COUNT);
+			}
+
+			AopdsLogger.info(LOG_TAG, "Database upgraded ...");
+		}
+
+		/**
+		 * Enables the write-ahead logging when available (Honeycomb) : the
+		 * readers do not wait for the writer nor for each other, the
+		 * dictionaries of a federated search are read at the same time.
+		 * The statement cache of the connection is sized for the frequent
+		 * queries (see AopdsStatementRegistry) : setMaxSqlCacheSize is only
+		 * available from Honeycomb, the size is fixed before.
+		 */
+		@Override
+		public void onOpen(SQLiteDatabase db) {
+			super.onOpen(db);
+
+			if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+				db.setMaxSqlCacheSize(AopdsStatementRegistry.MAX_SQL_CACHE_SIZE);
+
+				if (!db.isReadOnly()) {
+					db.enableWriteAheadLogging();
+				}
+			}
+
+			if (!db.isReadOnly()) {
+				// the indexes dropped by an interrupted import
+				restoreImportIndexes(db);
+			}
+		}
+
+		/**
+		 * Computes the effective headwords of all the headwords and
+		 * suggestions.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 */
+		private static void rebuildEffectiveHeadwords(SQLiteDatabase db) {
+
+			AopdsLogger.info(LOG_TAG, "Computing effective headwords ...");
+
+			db.execSQL("DELETE FROM " + TABLE_EFFECTIVE_HEADWORD + ";");
+			db.execSQL(REFRESH_EFFECTIVE_HEADWORDS + "1;");
+			db.execSQL(REFRESH_EFFECTIVE_SUGGESTIONS + "1;");
+		}
+
+		/**
+		 * Parses the notes of the entries of all the headwords.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 */
+		private static void fillAnnotations(SQLiteDatabase db) {
+
+			AopdsLogger.info(LOG_TAG, "Parsing the notes of the entries ...");
+
+			SQLiteStatement insert = compileAnnotationInsert(db);
+
+			Cursor words = db.rawQuery("SELECT " + TF_HEADWORD_ID + " , "
+					+ TF_HEADWORD_DICT_ID + " , " + TF_HEADWORD_ENTRY + " FROM "
+					+ TABLE_HEADWORD, null);
+
+			try {
+				while (words.moveToNext()) {
+					insertAnnotations(insert, words.getLong(0),
+							words.getInt(1), words.getString(2));
+				}
+			} finally {
+				words.close();
+				insert.close();
+			}
+		}
+
+		/**
+		 * Computes the posting lists of the trigrams of all the effective
+		 * headwords.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 */
+		private static void rebuildTrigrams(SQLiteDatabase db) {
+
+			AopdsLogger.info(LOG_TAG, "Computing trigrams ...");
+
+			db.execSQL("DELETE FROM " + TABLE_WORD_TRIGRAM + ";");
+
+			SQLiteStatement insert = compileTrigramInsert(db);
+
+			Cursor words = db.rawQuery("SELECT " + TF_EH_DICT_ID + " , "
+					+ TF_EH_TYPE + " , " + TF_EH_WORD_ID + " , "
+					+ TF_EH_SEARCH_KEY + " FROM " + TABLE_EFFECTIVE_HEADWORD
+					+ " WHERE " + TF_EH_SEARCH_KEY + " IS NOT NULL", null);
+
+			try {
+				while (words.moveToNext()) {
+					insertTrigrams(insert, words.getInt(0), words.getString(1),
+							words.getLong(2), words.getString(3));
+				}
+			} finally {
+				words.close();
+				insert.close();
+			}
+		}
+
+		/**
+		 * Creates the triggers counting the effective headwords of each letter
+		 * section. The replaced effective headwords are uncounted before their
+		 * replacement : the delete triggers are not fired by the "INSERT OR
+		 * REPLACE" of the refreshes.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 * @param fill
+		 *            true to count the effective headwords already in the
+		 *            table.
+		 */
+		private static void createLetterSectionTriggers(SQLiteDatabase db,
+				boolean fill) {
+
+			String letter = "SUBSTR(" + TF_EH_SEARCH_KEY + ", 1, 1)";
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_LETTER_SECTION
+					+ "_REPLACE BEFORE INSERT ON " + TABLE_EFFECTIVE_HEADWORD
+					+ " BEGIN " + uncountWord("( SELECT " + TF_EH_DICT_ID
+					+ " FROM " + TABLE_EFFECTIVE_HEADWORD + " WHERE "
+					+ TF_EH_TYPE + " = new." + TF_EH_TYPE + " AND "
+					+ TF_EH_WORD_ID + " = new." + TF_EH_WORD_ID + " )",
+					"( SELECT " + letter + " FROM " + TABLE_EFFECTIVE_HEADWORD
+							+ " WHERE " + TF_EH_TYPE + " = new." + TF_EH_TYPE
+							+ " AND " + TF_EH_WORD_ID + " = new."
+							+ TF_EH_WORD_ID + " )") + " END;");
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_LETTER_SECTION
+					+ "_INSERT AFTER INSERT ON " + TABLE_EFFECTIVE_HEADWORD
+					+ " BEGIN " + countWord("new") + " END;");
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_LETTER_SECTION
+					+ "_UPDATE AFTER UPDATE OF " + TF_EH_DICT_ID + " , "
+					+ TF_EH_SEARCH_KEY + " ON " + TABLE_EFFECTIVE_HEADWORD
+					+ " BEGIN " + uncountWord("old." + TF_EH_DICT_ID,
+					"SUBSTR(old." + TF_EH_SEARCH_KEY + ", 1, 1)")
+					+ countWord("new") + " END;");
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_LETTER_SECTION
+					+ "_DELETE AFTER DELETE ON " + TABLE_EFFECTIVE_HEADWORD
+					+ " BEGIN " + uncountWord("old." + TF_EH_DICT_ID,
+					"SUBSTR(old." + TF_EH_SEARCH_KEY + ", 1, 1)") + " END;");
+
+			if (fill) {
+				db.execSQL("DELETE FROM " + TABLE_LETTER_SECTION + ";");
+				db.execSQL("INSERT INTO " + TABLE_LETTER_SECTION + " ( "
+						+ TF_LS_DICT_ID + " , " + TF_LS_LETTER + " , "
+						+ TF_LS_WORD_COUNT + " ) SELECT " + TF_EH_DICT_ID
+						+ " , " + letter + " , COUNT(*) FROM "
+						+ TABLE_EFFECTIVE_HEADWORD + " WHERE " + TF_EH_DICT_ID
+						+ " IS NOT NULL AND " + TF_EH_SEARCH_KEY
+						+ " IS NOT NULL GROUP BY " + TF_EH_DICT_ID + " , "
+						+ letter + ";");
+			}
+		}
+
+		/**
+		 * @return The statements of a trigger counting the effective headword
+		 *         of a row (new or old) in its letter section. The section is
+		 *         not created by an "INSERT OR IGNORE" : the conflict clause of
+		 *         the statement firing the trigger would replace the ignore.
+		 */
+		private static String countWord(String row) {
+
+			String dictionary = row + "." + TF_EH_DICT_ID;
+			String letter = "SUBSTR(" + row + "." + TF_EH_SEARCH_KEY + ", 1, 1)";
+			String section = TF_LS_DICT_ID + " = " + dictionary + " AND "
+					+ TF_LS_LETTER + " = " + letter;
+
+			return "UPDATE " + TABLE_LETTER_SECTION + " SET "
+					+ TF_LS_WORD_COUNT + " = " + TF_LS_WORD_COUNT
+					+ " + 1 WHERE " + section + "; INSERT INTO "
+					+ TABLE_LETTER_SECTION + " ( " + TF_LS_DICT_ID + " , "
+					+ TF_LS_LETTER + " , " + TF_LS_WORD_COUNT + " ) SELECT "
+					+ dictionary + " , " + letter + " , 1 WHERE " + dictionary
+					+ " IS NOT NULL AND " + letter
+					+ " IS NOT NULL AND NOT EXISTS ( SELECT "
+					+ TF_LS_WORD_COUNT + " FROM " + TABLE_LETTER_SECTION
+					+ " WHERE " + section + " );";
+		}
+
+		/**
+		 * @return The statements of a trigger uncounting an effective headword
+		 *         from the letter section of a dictionary and a letter, the
+		 *         empty section being removed.
+		 */
+		private static String uncountWord(String dictionary, String letter) {
+
+			return "UPDATE " + TABLE_LETTER_SECTION + " SET "
+					+ TF_LS_WORD_COUNT + " = " + TF_LS_WORD_COUNT
+					+ " - 1 WHERE " + TF_LS_DICT_ID + " = " + dictionary
+					+ " AND " + TF_LS_LETTER + " = " + letter + "; DELETE FROM "
+					+ TABLE_LETTER_SECTION + " WHERE " + TF_LS_WORD_COUNT
+					+ " <= 0; ";
+		}
+
+		/**
+		 * Creates the triggers deleting the usage counts of the headwords and
+		 * of the suggestions deleted.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 */
+		private static void createWordUsageTriggers(SQLiteDatabase db) {
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_WORD_USAGE + "_"
+					+ TABLE_HEADWORD + "_DELETE AFTER DELETE ON "
+					+ TABLE_HEADWORD + " BEGIN DELETE FROM " + TABLE_WORD_USAGE
+					+ " WHERE " + TF_WU_TYPE + " = '" + WORD_TYPE_HEADWORD
+					+ "' AND " + TF_WU_WORD_ID + " = old." + TF_HEADWORD_ID
+					+ "; END;");
+
+			db.execSQL("CREATE TRIGGER T_" + TABLE_WORD_USAGE + "_"
+					+ TABLE_SUGGESTION + "_DELETE AFTER DELETE ON "
+					+ TABLE_SUGGESTION + " BEGIN DELETE FROM "
+					+ TABLE_WORD_USAGE + " WHERE " + TF_WU_TYPE + " = '"
+					+ WORD_TYPE_SUGGESTION + "' AND " + TF_WU_WORD_ID
+					+ " = old." + TF_SUGGESTION_ID + "; END;");
+		}
+
+		/**
+		 * Creates the full text index of the entries of a table : a FTS3
+		 * virtual table whose docids are the ids of the words, kept up to date
+		 * by triggers on the table.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 * @param table
+		 *            The table containing the entries.
+		 * @param ftsTable
+		 *            The full text index to create.
+		 * @param idField
+		 *            The id field of the table.
+		 * @param entryField
+		 *            The entry field of the table.
+		 * @param insertCondition
+		 *            The condition of the indexing of the inserted entries,
+		 *            null to index all of them.
+		 * @param fill
+		 *            true to index the entries already in the table.
+		 */
+		private static void createFullTextIndex(SQLiteDatabase db,
+				String table, String ftsTable, String idField,
+				String entryField, String insertCondition, boolean fill) {
+
+			db.execSQL("CREATE VIRTUAL TABLE " + ftsTable + " USING fts3("
+					+ TF_FTS_ENTRY + ");");
+
+			db.execSQL(createFullTextInsertTrigger(table, ftsTable, idField,
+					entryField, insertCondition));
+
+			db.execSQL("CREATE TRIGGER T_" + ftsTable + "_UPDATE AFTER UPDATE OF "
+					+ entryField + " ON " + table + " BEGIN DELETE FROM "
+					+ ftsTable + " WHERE docid = old." + idField
+					+ "; INSERT INTO " + ftsTable + " (docid, " + TF_FTS_ENTRY
+					+ ") VALUES (new." + idField + ", new." + entryField
+					+ "); END;");
+
+			db.execSQL("CREATE TRIGGER T_" + ftsTable + "_DELETE AFTER DELETE ON "
+					+ table + " BEGIN DELETE FROM " + ftsTable
+					+ " WHERE docid = old." + idField + "; END;");
+
+			if (fill) {
+				db.execSQL("INSERT INTO " + ftsTable + " (docid, "
+						+ TF_FTS_ENTRY + ") SELECT " + idField + " , "
+						+ entryField + " FROM " + table + ";");
+			}
+		}
+
+		/**
+		 * @return The statement creating the trigger adding the entries
+		 *         inserted in a table to its full text index, if the
+		 *         condition (or null) holds.
+		 */
+		private static String createFullTextInsertTrigger(String table,
+				String ftsTable, String idField, String entryField,
+				String condition) {
+
+			return "CREATE TRIGGER T_" + ftsTable + "_INSERT AFTER INSERT ON "
+					+ table + (condition == null ? "" : " WHEN " + condition)
+					+ " BEGIN INSERT INTO " + ftsTable + " (docid, "
+					+ TF_FTS_ENTRY + ") VALUES (new." + idField + ", new."
+					+ entryField + "); END;";
+		}
+
+		/**
+		 * Drops the indexes maintained row by row on the tables filled by the
+		 * imports, before the load of an import (see restoreImportIndexes).
+		 * The full text index of the headwords is kept by its trigger for the
+		 * dictionaries not imported.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 * @param searchIndexes
+		 *            true to drop the indexes used by the searches too, when
+		 *            no other dictionary is searched.
+		 */
+		private static void dropImportIndexes(SQLiteDatabase db,
+				boolean searchIndexes) {
+
+			for (String[] index : IMPORT_INDEXES) {
+				db.execSQL("DROP INDEX IF EXISTS " + index[0] + ";");
+			}
+
+			if (searchIndexes) {
+				for (String[] index : SEARCH_INDEXES) {
+					db.execSQL("DROP INDEX IF EXISTS " + index[0] + ";");
+				}
+			}
+		}
+
+		/**
+		 * Creates the indexes and the triggers of the tables filled by the
+		 * imports which are missing : after the load of an import, or at the
+		 * opening of the database after an interrupted import.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 */
+		private static void restoreImportIndexes(SQLiteDatabase db) {
+
+			HashSet<String> existing = new HashSet<String>();
+
+			Cursor res = db.rawQuery("SELECT name FROM sqlite_master WHERE"
+					+ " type IN ( 'index' , 'trigger' )", null);
+
+			try {
+				while (res.moveToNext()) {
+					existing.add(res.getString(0));
+				}
+			} finally {
+				res.close();
+			}
+
+			for (String[][] indexes : new String[][][] { IMPORT_INDEXES,
+					SEARCH_INDEXES }) {
+				for (String[] index : indexes) {
+					if (!existing.contains(index[0])) {
+						db.execSQL(index[1]);
+					}
+				}
+			}
+
+			// dropped by the imports of the older versions
+			if (!existing.contains(TRIGGER_HEADWORD_FTS_INSERT)) {
+				db.execSQL(createFullTextInsertTrigger(TABLE_HEADWORD,
+						TABLE_HEADWORD_FTS, TF_HEADWORD_ID, TF_HEADWORD_ENTRY,
+						HEADWORD_FTS_INSERT_CONDITION));
+			}
+		}
+
+		/**
+		 * Computes the search key of every word of a table, with the analyzer
+		 * of its dictionary.
+		 * 
+		 * @param db
+		 *            the db connector.
+		 * @param table
+		 *            The table containing the words.
+		 * @param idField
+		 *            The id field of the table.
+		 * @param dictionaryField
+		 *            The dictionary id field of the table.
+		 * @param wordField
+		 *            The word field of the table.
+		 * @param keyField
+		 *            The search key field to fill.
+		 * @param sound
+		 *            true to compute the sound keys of the words instead.
+		 */
+		private static void fillSearchKeys(SQLiteDatabase db, String table,
+				String idField, String dictionaryField, String wordField,
+				String keyField, boolean sound) {
+
+			HashMap<Integer, AopdsAnalyzer> analyzers = new HashMap<Integer, AopdsAnalyzer>();
+
+			SQLiteStatement update = db.compileStatement("UPDATE " + table
+					+ " SET " + keyField + " = ? WHERE " + idField + " = ?;");
+
+			Cursor words = db.rawQuery("SELECT " + idField + " , " + wordField
+					+ " , " + dictionaryField + " FROM " + table, null);
+
+			try {
+				while (words.moveToNext()) {
+
+					int dictionaryId = words.getInt(2);
+					AopdsAnalyzer analyzer = analyzers.get(dictionaryId);
+
+					if (analyzer == null) {
+						analyzer = readAnalyzer(db, dictionaryId);
+						if (analyzer == null) {
+							analyzer = AopdsAnalyzers.getDefault();
+						}
+						analyzers.put(dictionaryId, analyzer);
+					}
+
+					String word = words.getString(1);
+
+					update.bindString(1, sound ? analyzer.soundKey(word)
+							: analyzer.indexKey(word));
+					update.bindLong(2, words.getLong(0));
+					update.execute();
+				}
+			} finally {
+				words.close();
+				update.close();
+			}
 		}
 
 	}
@@ -0,0 +1,55 @@
+package com.aopds.aopdsData;
+
+/**
+ * A listener for the changes of the words found by the searches. Any class
+ * implementing this interface can be notified by the AopdsDatabase that
+ * words have been added to or removed from a dictionary, by the writing of
+ * a suggestion or the import of a dictionary.<br>
+ * <br>
+ * 
+ * The notifications are sent after the commit of the changes, in the thread
+ * which wrote the suggestion. The changes of the words are numbered, the
+ * numbers increasing in the order of the notifications : the ones up to the
+ * number given by AopdsDatabase.getSearchableWords are already in the words
+ * it has read.
+ * 
+ */
+public interface AopdsDatabaseListener {
+
+	/**
+	 * Called when a word can be found in a dictionary, for example when an
+	 * addition is suggested.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word.
+	 * @param word
+	 *            The word added.
+	 * @param change
+	 *            The number of the change.
+	 */
+	public void onWordAdded(int dictionaryId, String word, long change);
+
+	/**
+	 * Called when a word cannot be found in a dictionary anymore, for example
+	 * when the word of a suggested addition is modified.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary of the word.
+	 * @param word
+	 *            The word removed.
+	 * @param change
+	 *            The number of the change.
+	 */
+	public void onWordRemoved(int dictionaryId, String word, long change);
+
+	/**
+	 * Called when many words of a dictionary have changed at once, for
+	 * example by the import of a dictionary file : the words kept from the
+	 * dictionary must be read again.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary.
+	 */
+	public void onDictionaryChanged(int dictionaryId);
+
+}
@@ -0,0 +1,424 @@
+package com.aopds.aopdsData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.AopdsDataException.DataBaseQueryCanceledException;
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.analysis.AopdsAnalyzers;
+import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Dictionary;
+import com.aopds.aopdsData.domain.FederatedSearchResult;
+import com.aopds.tools.AopdsLogger;
+
+import android.database.Cursor;
+import android.os.SystemClock;
+
+/**
+ *
+ * Search of a word in several dictionaries at once.<br>
+ * <br>
+ *
+ * The dictionaries are searched at the same time by a small pool of threads,
+ * each of them keeping the first matching words of a dictionary. The search
+ * keys of the dictionaries depend on their analyzers and cannot be compared :
+ * the words are ordered by a common merge key, their word folded by the
+ * default analyzer, then the ordered lists are merged (k-way merge) into a
+ * single ordered list, each word keeping its dictionary. The search takes the
+ * time of the slowest dictionary, not the sum of the times of the
+ * dictionaries.<br>
+ * <br>
+ *
+ * The first words of a dictionary are the first ones in the order of the
+ * merge, not of its search : the search of a dictionary using the default
+ * analyzer is in the order of the merge and is read until it passes the last
+ * word kept, the search of another dictionary is read to its end.<br>
+ * <br>
+ *
+ * A dictionary not searched before the timeout is left out of the result :
+ * its query is canceled and its task interrupted, or never started, so that
+ * a big or busy dictionary does not delay the others.<br>
+ * <br>
+ *
+ * The reads only run at the same time if the database allows concurrent
+ * readers (write-ahead logging, see AopdsDatabase), they are serialized by
+ * the connection otherwise.
+ *
+ */
+public final class AopdsFederatedSearch {
+
+	/**
+	 * Tag for logging/debugging system
+	 */
+	private final static String LOG_TAG = "AopdsFederatedSearch";
+
+	/**
+	 * Number of dictionaries searched at the same time.
+	 */
+	public static final int POOL_SIZE = 3;
+
+	/**
+	 * Analyzer computing the merge keys, the same for every dictionary.
+	 */
+	private static final AopdsAnalyzer MERGE_ANALYZER = AopdsAnalyzers
+			.getDefault();
+
+	/**
+	 * A word read in a dictionary, with its merge key.
+	 */
+	static final class MergedWord {
+
+		final String key;
+		final AbstractWord word;
+
+		MergedWord(AbstractWord word) {
+			this.key = MERGE_ANALYZER.indexKey(word.getWord());
+			this.word = word;
+		}
+	}
+
+	/**
+	 * The first words of a dictionary matching the search, in the order of
+	 * the merge, and the position of the next word to merge.
+	 */
+	static final class Stream {
+
+		final int dictionaryPosition;
+		final ArrayList<MergedWord> words = new ArrayList<MergedWord>();
+		int position;
+
+		/**
+		 * The words kept while reading, the last one in the order of the
+		 * merge first.
+		 */
+		private final PriorityQueue<MergedWord> first;
+		private final int max;
+
+		/**
+		 * @param max
+		 *            [must be positive] The number of words to keep.
+		 */
+		Stream(int dictionaryPosition, int max) {
+			this.dictionaryPosition = dictionaryPosition;
+			this.max = max;
+			first = new PriorityQueue<MergedWord>(Math.max(1, max),
+					Collections.reverseOrder(WORD_ORDER));
+		}
+
+		/**
+		 * Keeps a word read if it is one of the max first ones read.
+		 */
+		void offer(MergedWord word) {
+
+			if (first.size() < max) {
+				first.add(word);
+			} else if (WORD_ORDER.compare(word, first.peek()) < 0) {
+				first.poll();
+				first.add(word);
+			}
+		}
+
+		/**
+		 * @return true if the max first words have been read when the words
+		 *         are read in the order of their merge keys : the next ones
+		 *         come after the word read.
+		 */
+		boolean isPast(MergedWord word) {
+			return first.size() == max
+					&& word.key.compareTo(first.peek().key) > 0;
+		}
+
+		/**
+		 * Orders the words kept, after the reading.
+		 */
+		void finish() {
+			words.addAll(first);
+			first.clear();
+			Collections.sort(words, WORD_ORDER);
+		}
+
+		boolean hasNext() {
+			return position < words.size();
+		}
+
+		MergedWord next() {
+			return words.get(position);
+		}
+	}
+
+	/**
+	 * Order of the merge : merge key, then word.
+	 */
+	private static final Comparator<MergedWord> WORD_ORDER = new Comparator<MergedWord>() {
+		public int compare(MergedWord a, MergedWord b) {
+
+			int comparison = a.key.compareTo(b.key);
+
+			if (comparison == 0) {
+				comparison = a.word.getWord().compareTo(b.word.getWord());
+			}
+
+			return comparison;
+		}
+	};
+
+	/**
+	 * Order of the merge, then order of the dictionaries.
+	 */
+	private static final Comparator<Stream> STREAM_ORDER = new Comparator<Stream>() {
+		public int compare(Stream a, Stream b) {
+
+			int comparison = WORD_ORDER.compare(a.next(), b.next());
+
+			if (comparison == 0) {
+				comparison = a.dictionaryPosition - b.dictionaryPosition;
+			}
+
+			return comparison;
+		}
+	};
+
+	private final AopdsDatabase database;
+
+	private final ExecutorService pool;
+
+	/**
+	 * Creates the federated search and its threads. shutdown must be called
+	 * when it is not used anymore.
+	 *
+	 * @param database
+	 *            The database of the dictionaries.
+	 */
+	public AopdsFederatedSearch(AopdsDatabase database) {
+		this.database = database;
+		pool = Executors.newFixedThreadPool(POOL_SIZE);
+	}
+
+	/**
+	 *
+	 * Searches the words beginning by a string in several dictionaries. Blocks
+	 * until every dictionary has been searched or the timeout : to call in a
+	 * background thread.
+	 *
+	 * @param dictionaries
+	 *            The dictionaries to search in.
+	 * @param wordToMatch
+	 *            [must not be empty] The beginning of the words.
+	 * @param addSuggestions
+	 *            true to search the suggestions too.
+	 * @param maxPerDictionary
+	 *            The maximum number of words read in each dictionary.
+	 * @param timeout
+	 *            The time given to the dictionaries, in ms.
+	 * @param cancellation
+	 *            The signal canceling the search, or null if the search
+	 *            cannot be canceled.
+	 * @return The words found, with their dictionary, and the dictionaries
+	 *         not searched.
+	 * @throws DataBaseQueryCanceledException
+	 *             If the search has been canceled before its end.
+	 * @throws AopdsDatabaseException
+	 *             If no dictionary could be searched.
+	 */
+	public FederatedSearchResult search(ArrayList<Dictionary> dictionaries,
+			final String wordToMatch, final Boolean addSuggestions,
+			final int maxPerDictionary, long timeout,
+			AopdsCancellationSignal cancellation)
+			throws AopdsDatabaseException {
+
+		int count = dictionaries.size();
+
+		ArrayList<AopdsCancellationSignal> signals = new ArrayList<AopdsCancellationSignal>(
+				count);
+		ArrayList<Future<Stream>> searches = new ArrayList<Future<Stream>>(
+				count);
+
+		for (int i = 0; i < count; i++) {
+
+			final int dictionaryPosition = i;
+			final Dictionary dictionary = dictionaries.get(i);
+			final AopdsCancellationSignal signal = new AopdsCancellationSignal(
+					cancellation);
+
+			signals.add(signal);
+			searches.add(pool.submit(new Callable<Stream>() {
+				public Stream call() throws AopdsDatabaseException {
+					return searchDictionary(dictionaryPosition, dictionary,
+							wordToMatch, addSuggestions, maxPerDictionary,
+							signal);
+				}
+			}));
+		}
+
+		// the dictionaries are searched at the same time : they all have the
+		// same deadline
+		long deadline = SystemClock.uptimeMillis() + timeout;
+
+		ArrayList<Stream> streams = new ArrayList<Stream>(count);
+		ArrayList<Dictionary> notSearched = new ArrayList<Dictionary>();
+		AopdsDatabaseException error = null;
+
+		for (int i = 0; i < count; i++) {
+
+			try {
+
+				Stream stream = searches.get(i).get(
+						Math.max(0, deadline - SystemClock.uptimeMillis()),
+						TimeUnit.MILLISECONDS);
+
+				streams.add(stream);
+
+			} catch (TimeoutException e) {
+
+				AopdsLogger.info(LOG_TAG, "Search timed out in the dictionary "
+						+ dictionaries.get(i).getCode() + ".");
+
+				// the reading stops at its next check and closes its cursor
+				signals.get(i).cancel();
+				searches.get(i).cancel(true);
+				notSearched.add(dictionaries.get(i));
+
+			} catch (ExecutionException e) {
+
+				if (e.getCause() instanceof DataBaseQueryCanceledException
+						&& cancellation != null && cancellation.isCanceled()) {
+					throw (DataBaseQueryCanceledException) e.getCause();
+				}
+
+				AopdsLogger.error(LOG_TAG, "Search failed in the dictionary "
+						+ dictionaries.get(i).getCode() + " : "
+						+ e.getCause(), e.getCause());
+
+				if (e.getCause() instanceof AopdsDatabaseException) {
+					error = (AopdsDatabaseException) e.getCause();
+				}
+				notSearched.add(dictionaries.get(i));
+
+			} catch (InterruptedException e) {
+
+				for (int j = 0; j < count; j++) {
+					signals.get(j).cancel();
+					searches.get(j).cancel(true);
+				}
+
+				Thread.currentThread().interrupt();
+				AopdsDatabase.checkCancellation(signals.get(i), null);
+			}
+		}
+
+		if (error != null && notSearched.size() == count) {
+			throw error;
+		}
+
+		return new FederatedSearchResult(merge(streams), notSearched);
+	}
+
+	/**
+	 * Stops the threads of the search. The running searches are interrupted.
+	 */
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * Merges the words of the dictionaries (k-way merge) in the order of the
+	 * merge.
+	 * 
+	 * @param searched
+	 *            The words of the dictionaries, each in the order of the
+	 *            merge.
+	 * @return The words of every dictionary.
+	 */
+	static ArrayList<AbstractWord> merge(Collection<Stream> searched) {
+
+		PriorityQueue<Stream> streams = new PriorityQueue<Stream>(Math.max(1,
+				searched.size()), STREAM_ORDER);
+
+		for (Stream stream : searched) {
+			if (stream.hasNext()) {
+				streams.add(stream);
+			}
+		}
+
+		ArrayList<AbstractWord> words = new ArrayList<AbstractWord>();
+
+		while (!streams.isEmpty()) {
+
+			Stream stream = streams.poll();
+
+			words.add(stream.next().word);
+			stream.position++;
+
+			if (stream.hasNext()) {
+				streams.add(stream);
+			}
+		}
+
+		return words;
+	}
+
+	/**
+	 * Reads the first words of a dictionary matching the search, in the
+	 * order of the merge.
+	 */
+	private Stream searchDictionary(int dictionaryPosition,
+			Dictionary dictionary, String wordToMatch, Boolean addSuggestions,
+			int max, AopdsCancellationSignal signal)
+			throws AopdsDatabaseException {
+
+		Stream stream = new Stream(dictionaryPosition, max);
+
+		if (max <= 0) {
+			return stream;
+		}
+
+		// the search keys of the default analyzer are the merge keys
+		boolean mergeOrder = database.getAnalyzer(dictionary.getCode())
+				== MERGE_ANALYZER;
+
+		Cursor res = database.searchWordCursor(dictionary.getCode(),
+				wordToMatch, false, addSuggestions, signal);
+
+		if (res == null) {
+			return stream; // no matching
+		}
+
+		try {
+
+			while (res.moveToNext()) {
+
+				AopdsDatabase.checkCancellation(signal, null);
+
+				AbstractWord word = AopdsDatabase.mapSearchedWord(res);
+				word.setDictionary(dictionary);
+
+				MergedWord merged = new MergedWord(word);
+
+				if (mergeOrder && stream.isPast(merged)) {
+					break;
+				}
+
+				stream.offer(merged);
+			}
+
+		} finally {
+			res.close();
+		}
+
+		stream.finish();
+
+		return stream;
+	}
+
+}
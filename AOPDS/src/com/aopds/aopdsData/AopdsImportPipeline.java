@@ -0,0 +1,399 @@
+package com.aopds.aopdsData;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.analysis.EntryAnnotationParser;
+import com.aopds.aopdsData.domain.Annotation;
+import com.aopds.aopdsData.importer.DictionarySink;
+
+import android.os.Process;
+
+/**
+ *
+ * Pipeline of the imports of the dictionary files : a reader thread reads
+ * the file and cuts its entries into chunks, a pool of threads analyzes the
+ * chunks in parallel (search and sound keys, trigrams, notes of the entries)
+ * and the thread running the import writes the analyzed chunks in the order
+ * of the file. The writing thread is the only one using the connection.<br>
+ * <br>
+ *
+ * The chunks not written yet are limited (see MAX_PENDING_CHUNKS) : the
+ * reader waits for the writer, the memory used does not depend on the size of
+ * the file.
+ *
+ */
+final class AopdsImportPipeline {
+
+	/**
+	 * Tag for logging/debugging system
+	 */
+	private final static String LOG_TAG = "AopdsImportPipeline";
+
+	/**
+	 * Number of entries of a chunk.
+	 */
+	static final int CHUNK_SIZE = 500;
+
+	/**
+	 * Number of chunks analyzed or waiting for the writer, per analyzing
+	 * thread.
+	 */
+	private static final int MAX_PENDING_CHUNKS = 4;
+
+	/**
+	 * Reads the entries of a dictionary.
+	 */
+	interface Source {
+
+		/**
+		 * Reads the entries, in the reader thread.
+		 *
+		 * @param sink
+		 *            The sink receiving the entries.
+		 * @throws IOException
+		 *             If the entries cannot be read.
+		 */
+		void read(DictionarySink sink) throws IOException;
+	}
+
+	/**
+	 * Writes the analyzed entries.
+	 */
+	interface ChunkWriter {
+
+		/**
+		 * Writes a chunk of entries, in the thread running the import.
+		 *
+		 * @param words
+		 *            The analyzed entries, in the order of the file.
+		 */
+		void write(ArrayList<ImportedWord> words);
+	}
+
+	/**
+	 * An entry of the file and its analysis.
+	 */
+	static final class ImportedWord {
+
+		/**
+		 * Position of the entry in the file, from 0, counting the skipped
+		 * entries (see DictionarySink.skip).
+		 */
+		final int position;
+
+		final String word;
+		final String entry;
+		final String phonetic;
+
+		String searchKey;
+		String soundKey;
+		ArrayList<String> trigrams;
+		ArrayList<Annotation> annotations;
+
+		ImportedWord(int position, String word, String entry, String phonetic) {
+			this.position = position;
+			this.word = word;
+			this.entry = entry;
+			this.phonetic = phonetic;
+		}
+	}
+
+	/**
+	 * The end of the chunks.
+	 */
+	private static final Future<ArrayList<ImportedWord>> END = new FutureTask<ArrayList<ImportedWord>>(
+			new Callable<ArrayList<ImportedWord>>() {
+				public ArrayList<ImportedWord> call() {
+					return null;
+				}
+			});
+
+	private final AopdsAnalyzer analyzer;
+	private final int threads;
+
+	/**
+	 * Analyzed chunks, in the order of the file, then END.
+	 */
+	private final BlockingQueue<Future<ArrayList<ImportedWord>>> chunks;
+
+	/**
+	 * true when the writer stops : the reader stops at its next entry.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * The error of the reader, if any.
+	 */
+	private Throwable readError;
+
+	/**
+	 * Creates the pipeline of an import, with an analyzing thread per
+	 * processor but one.
+	 *
+	 * @param analyzer
+	 *            The analyzer of the dictionary receiving the entries.
+	 */
+	AopdsImportPipeline(AopdsAnalyzer analyzer) {
+		this.analyzer = analyzer;
+		threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		chunks = new ArrayBlockingQueue<Future<ArrayList<ImportedWord>>>(
+				threads * MAX_PENDING_CHUNKS);
+	}
+
+	/**
+	 * Imports the entries of a source : reads them in a reader thread and
+	 * writes them in the calling thread. Returns when all the entries read are
+	 * written.
+	 *
+	 * @param source
+	 *            The entries to import.
+	 * @param skip
+	 *            The number of first entries of the source to skip, written
+	 *            by an interrupted import : the position of the first entry
+	 *            to write.
+	 * @param writer
+	 *            The writer of the entries.
+	 * @throws IOException
+	 *             If the source cannot be read. The entries read before are
+	 *             written.
+	 */
+	void run(final Source source, final int skip, ChunkWriter writer)
+			throws IOException {
+
+		final ExecutorService analyzers = Executors.newFixedThreadPool(
+				threads, new ThreadFactory() {
+
+					private int count;
+
+					public synchronized Thread newThread(final Runnable task) {
+						return new Thread(new Runnable() {
+							public void run() {
+								Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+								task.run();
+							}
+						}, LOG_TAG + "-" + (++count));
+					}
+				});
+
+		Thread reader = new Thread(new Runnable() {
+			public void run() {
+				read(source, skip, analyzers);
+			}
+		}, LOG_TAG + "-reader");
+
+		reader.start();
+
+		boolean written = false;
+
+		try {
+			Future<ArrayList<ImportedWord>> chunk;
+
+			while ((chunk = chunks.take()) != END) {
+				writer.write(analyzed(chunk));
+			}
+
+			written = true;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Import interrupted.");
+
+		} finally {
+			if (!written) {
+				stop();
+			}
+			analyzers.shutdown();
+		}
+
+		synchronized (this) {
+			if (readError instanceof IOException) {
+				throw (IOException) readError;
+			} else if (readError instanceof RuntimeException) {
+				throw (RuntimeException) readError;
+			} else if (readError != null) {
+				throw (Error) readError;
+			}
+		}
+	}
+
+	/**
+	 * Stops the reader after a failure of the writer : drops the chunks until
+	 * the reader ends them.
+	 */
+	private void stop() {
+
+		cancelled = true;
+
+		boolean interrupted = Thread.interrupted();
+
+		while (true) {
+			try {
+				if (chunks.take() == END) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Reads the source and queues its chunks for the analysis, in the reader
+	 * thread. Ends the chunks by END, even if the reading fails : the entries
+	 * read before the failure are queued.
+	 */
+	private void read(Source source, int skip, ExecutorService analyzers) {
+
+		ChunkSink sink = new ChunkSink(skip, analyzers);
+
+		try {
+			try {
+				source.read(sink);
+			} finally {
+				sink.flush();
+			}
+
+		} catch (CancellationException e) {
+			// the writer has stopped
+
+		} catch (Throwable e) {
+			synchronized (this) {
+				readError = e;
+			}
+
+		} finally {
+			try {
+				chunks.put(END);
+			} catch (InterruptedException e) {
+				// the writer drains the chunks until the end of the reader
+			}
+		}
+	}
+
+	/**
+	 * @return The analyzed entries of a chunk.
+	 */
+	private static ArrayList<ImportedWord> analyzed(
+			Future<ArrayList<ImportedWord>> chunk) throws InterruptedException {
+
+		try {
+			return chunk.get();
+
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw (Error) e.getCause();
+		}
+	}
+
+	/**
+	 * Analyzes an entry, in an analyzing thread.
+	 */
+	private void analyze(ImportedWord word) {
+
+		word.searchKey = analyzer.indexKey(word.word);
+		word.soundKey = analyzer.soundKey(word.word);
+		word.trigrams = AopdsSearchKey.trigrams(AopdsSearchKey.KEY_START
+				+ word.searchKey + AopdsSearchKey.KEY_END);
+		word.annotations = EntryAnnotationParser.parse(word.entry);
+	}
+
+	/**
+	 * Cuts the entries read into chunks and queues their analysis, in the
+	 * reader thread. The entries before the first position to write are only
+	 * read.
+	 */
+	private final class ChunkSink implements DictionarySink {
+
+		private final ExecutorService analyzers;
+
+		/**
+		 * Position of the first entry to write.
+		 */
+		private final int skip;
+
+		/**
+		 * Position of the next entry.
+		 */
+		private int position;
+
+		private ArrayList<ImportedWord> chunk = new ArrayList<ImportedWord>(
+				CHUNK_SIZE);
+
+		ChunkSink(int skip, ExecutorService analyzers) {
+			this.skip = skip;
+			this.analyzers = analyzers;
+		}
+
+		public void add(String word, String entry, String phonetic) {
+
+			int wordPosition = position++;
+
+			if (wordPosition < skip) {
+				return;
+			}
+
+			chunk.add(new ImportedWord(wordPosition, word, entry, phonetic));
+
+			if (chunk.size() >= CHUNK_SIZE) {
+				flush();
+			}
+		}
+
+		public void skip() {
+			position++;
+		}
+
+		/**
+		 * Queues the analysis of the current chunk.
+		 */
+		void flush() {
+
+			if (cancelled) {
+				throw new CancellationException();
+			}
+
+			if (chunk.isEmpty()) {
+				return;
+			}
+
+			final ArrayList<ImportedWord> words = chunk;
+			chunk = new ArrayList<ImportedWord>(CHUNK_SIZE);
+
+			Future<ArrayList<ImportedWord>> analysis = analyzers
+					.submit(new Callable<ArrayList<ImportedWord>>() {
+						public ArrayList<ImportedWord> call() {
+							for (ImportedWord word : words) {
+								analyze(word);
+							}
+							return words;
+						}
+					});
+
+			try {
+				chunks.put(analysis);
+			} catch (InterruptedException e) {
+				throw new CancellationException();
+			}
+		}
+	}
+
+}
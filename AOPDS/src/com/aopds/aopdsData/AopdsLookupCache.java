@@ -0,0 +1,166 @@
+package com.aopds.aopdsData;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 
+ * Bounded cache of the results of the database lookups, keeping the most
+ * recently used ones (LRU). The android.util.LruCache of the framework is
+ * only available from API 12 : this one is a LinkedHashMap in access order.
+ * The size of a result is given by sizeOf, 1 by default : the maximum size
+ * is then a number of results, or a memory budget if sizeOf estimates the
+ * memory used by a result.<br>
+ * <br>
+ * 
+ * The results are removed after the writes of the data they depend on. A
+ * result read before a removal may be put in the cache after it and would
+ * then be stale : the version of the cache is taken before the lookup and the
+ * result is only put if nothing has been removed since.<br>
+ * <br>
+ * 
+ * Thread safe.
+ * 
+ * @param <K>
+ *            The type of the keys of the lookups.
+ * @param <V>
+ *            The type of the cached results.
+ */
+public class AopdsLookupCache<K, V> {
+
+	/**
+	 * Selection of the results to remove.
+	 */
+	public interface KeyFilter<K> {
+
+		/**
+		 * @return true if the result of the key must be removed.
+		 */
+		boolean matches(K key);
+	}
+
+	private final LinkedHashMap<K, V> entries;
+	private int maxSize;
+	private int size;
+	private int version;
+
+	/**
+	 * Creates the cache.
+	 * 
+	 * @param maxSize
+	 *            [must be positive] The maximum total size of the results.
+	 */
+	public AopdsLookupCache(int maxSize) {
+		this.maxSize = maxSize;
+		entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+	}
+
+	/**
+	 * @return The size of a result, 1 by default. Must not change while the
+	 *         result is in the cache.
+	 */
+	protected int sizeOf(K key, V value) {
+		return 1;
+	}
+
+	/**
+	 * @return The cached result of a key, null if it is not in the cache.
+	 */
+	public synchronized V get(K key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * @return The version to give to put() with the result of a lookup
+	 *         starting now.
+	 */
+	public synchronized int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Puts the result of a lookup in the cache, unless results have been
+	 * removed since the lookup started. The least recently used results are
+	 * removed if the cache is full.
+	 * 
+	 * @param key
+	 *            The key of the lookup.
+	 * @param value
+	 *            The result.
+	 * @param lookupVersion
+	 *            The version of the cache when the lookup started.
+	 */
+	public synchronized void put(K key, V value, int lookupVersion) {
+
+		if (lookupVersion != version) {
+			return;
+		}
+
+		V previous = entries.put(key, value);
+
+		if (previous != null) {
+			size -= sizeOf(key, previous);
+		}
+		size += sizeOf(key, value);
+
+		trim();
+	}
+
+	/**
+	 * Changes the maximum total size of the results.
+	 * 
+	 * @param maxSize
+	 *            [must be positive] The new maximum size.
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		trim();
+	}
+
+	/**
+	 * Removes the results depending on written data.
+	 * 
+	 * @param filter
+	 *            The selection of the results to remove.
+	 */
+	public synchronized void remove(KeyFilter<K> filter) {
+
+		Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+
+		while (it.hasNext()) {
+			Map.Entry<K, V> entry = it.next();
+
+			if (filter.matches(entry.getKey())) {
+				size -= sizeOf(entry.getKey(), entry.getValue());
+				it.remove();
+			}
+		}
+
+		version++;
+	}
+
+	/**
+	 * Removes all the results.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+		version++;
+	}
+
+	/**
+	 * Removes the least recently used results until the cache is not full.
+	 */
+	private void trim() {
+
+		Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+
+		while (size > maxSize && it.hasNext()) {
+			Map.Entry<K, V> eldest = it.next();
+			size -= sizeOf(eldest.getKey(), eldest.getValue());
+			it.remove();
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+package com.aopds.aopdsData;
+
+import java.util.ArrayList;
+
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.tools.AopdsLogger;
+
+import android.content.Context;
+
+/**
+ *
+ * Provisioning of the database at the first launch, in stages run by a
+ * background thread : the schema, then the languages and the installed
+ * dictionaries, then the import of the words of the dictionaries. The
+ * launcher is displayed at once and only the screens needing a stage wait
+ * for it (see isReady and AopdsProvisioningListener).<br>
+ * <br>
+ *
+ * Each stage is written in a single transaction with its number (see
+ * AopdsDatabase.provisionStage) : an interrupted stage is run again from its
+ * beginning at the next start, but the words of the dictionaries, committed
+ * in batches, are resumed after the last one. A provisioned database,
+ * created by an older version or copied from the prebuilt database, has
+ * nothing to run : the prebuilt database of the assets is copied by the
+ * thread before it opens the database. The imports of dictionary files
+ * interrupted by the end of the process are resumed once the database is
+ * provisioned (see AopdsDatabase.resumeImports).<br>
+ * <br>
+ *
+ * Thread safe.
+ *
+ */
+public final class AopdsProvisioning {
+
+	/**
+	 * Tag for logging/debugging system
+	 */
+	private final static String LOG_TAG = "AopdsProvisioning";
+
+	/**
+	 * Stages of the provisioning, in their order.
+	 */
+	public static final int STAGE_NONE = 0;
+	public static final int STAGE_SCHEMA = 1;
+	public static final int STAGE_LANGUAGES = 2;
+	public static final int STAGE_DICTIONARY = 3;
+
+	private static AopdsProvisioning instance;
+
+	private final AopdsDatabase database;
+
+	private final ArrayList<AopdsProvisioningListener> listeners;
+
+	/**
+	 * The last provisioned stage.
+	 */
+	private int stage = STAGE_NONE;
+
+	/**
+	 * The thread provisioning the database, null if it is not running.
+	 */
+	private Thread worker;
+
+	/**
+	 * Creates the provisioning.
+	 *
+	 * @param database
+	 *            The database to provision.
+	 */
+	private AopdsProvisioning(AopdsDatabase database) {
+		this.database = database;
+		listeners = new ArrayList<AopdsProvisioningListener>();
+	}
+
+	/**
+	 * Singleton system. Get the instance of the provisioning.
+	 *
+	 * @param context
+	 *            The android application context.
+	 * @return The provisioning of the database of the application.
+	 */
+	public static synchronized AopdsProvisioning getInstance(Context context) {
+
+		if (instance == null) {
+			instance = new AopdsProvisioning(AopdsDatabase.getInstance(context));
+		}
+		return instance;
+	}
+
+	/**
+	 * Starts the provisioning in a background thread, if the database is not
+	 * provisioned and the provisioning is not running. Returns at once.
+	 */
+	public synchronized void start() {
+
+		if (stage == STAGE_DICTIONARY || worker != null) {
+			return;
+		}
+
+		worker = new Thread(new Runnable() {
+			public void run() {
+				provision();
+			}
+		}, LOG_TAG);
+
+		worker.start();
+	}
+
+	/**
+	 * @return The last provisioned stage.
+	 */
+	public synchronized int getStage() {
+		return stage;
+	}
+
+	/**
+	 * @param stage
+	 *            A stage of the provisioning.
+	 * @return true if the stage is provisioned.
+	 */
+	public synchronized boolean isReady(int stage) {
+		return this.stage >= stage;
+	}
+
+	/**
+	 * Register as a provisioning listener.
+	 *
+	 * @param listener
+	 *            The instance which has to listen to the provisioning.
+	 */
+	public void registerProvisioningListener(AopdsProvisioningListener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Unregister a provisioning listener.
+	 *
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	public void unregisterProvisioningListener(
+			AopdsProvisioningListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Runs the stages not provisioned yet, in the worker thread.
+	 */
+	private void provision() {
+
+		int next = STAGE_SCHEMA;
+
+		try {
+
+			// before the database is opened
+			database.installPrebuiltDatabase();
+
+			// opening the database creates its schema
+			int provisioned = database.getProvisionedStage();
+
+			for (int done = STAGE_SCHEMA; done <= provisioned; done++) {
+				ready(done);
+			}
+
+			for (next = provisioned + 1; next <= STAGE_DICTIONARY; next++) {
+
+				AopdsLogger.info(LOG_TAG, "Provisioning stage " + next
+						+ " ...");
+
+				database.provisionStage(next, this);
+				ready(next);
+			}
+
+			// the imports interrupted by the end of the process
+			try {
+				database.resumeImports();
+			} catch (AopdsDatabaseException e) {
+				AopdsLogger.error(LOG_TAG, "Imports not resumed : "
+						+ e.getMessage(), e);
+			} catch (RuntimeException e) {
+				AopdsLogger.error(LOG_TAG, "Imports not resumed : "
+						+ e.getMessage(), e);
+			}
+
+		} catch (AopdsDatabaseException e) {
+			failed(next, e);
+		} catch (RuntimeException e) {
+			// the listeners waiting for the stage are notified all the same
+			failed(next, database.handleError(e));
+		} finally {
+			synchronized (this) {
+				worker = null;
+			}
+		}
+	}
+
+	/**
+	 * Logs the failure of a stage and notifies the listeners.
+	 */
+	private void failed(int stage, AopdsDatabaseException e) {
+
+		AopdsLogger.error(LOG_TAG, "Provisioning failed at stage " + stage
+				+ " : " + e.getMessage(), e);
+
+		for (AopdsProvisioningListener listener : getListeners()) {
+			listener.onProvisioningFailed(stage, e);
+		}
+	}
+
+	/**
+	 * Records a provisioned stage and notifies the listeners.
+	 */
+	private void ready(int stage) {
+
+		synchronized (this) {
+			this.stage = stage;
+		}
+
+		for (AopdsProvisioningListener listener : getListeners()) {
+			listener.onStageReady(stage);
+		}
+	}
+
+	/**
+	 * Notifies the listeners of the progress of a stage.
+	 */
+	void progress(int stage, int done, int total) {
+
+		for (AopdsProvisioningListener listener : getListeners()) {
+			listener.onStageProgress(stage, done, total);
+		}
+	}
+
+	/**
+	 * @return A copy of the listeners, notified out of the lock.
+	 */
+	private ArrayList<AopdsProvisioningListener> getListeners() {
+		synchronized (listeners) {
+			return new ArrayList<AopdsProvisioningListener>(listeners);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.aopds.aopdsData;
+
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+
+/**
+ * A listener for the provisioning of the database at the first launch (see
+ * AopdsProvisioning). Any class implementing this interface can be notified
+ * of the progress of the stages and of their end.<br>
+ * <br>
+ *
+ * The notifications are sent in the threads provisioning the database, not in
+ * the UI thread.
+ *
+ */
+public interface AopdsProvisioningListener {
+
+	/**
+	 * Called while a stage is running, for the stages long enough to report
+	 * their progress (the dictionary import).
+	 *
+	 * @param stage
+	 *            The running stage.
+	 * @param done
+	 *            The work done, in units of total.
+	 * @param total
+	 *            The work of the stage.
+	 */
+	public void onStageProgress(int stage, int done, int total);
+
+	/**
+	 * Called when a stage is provisioned : the screens needing it can be
+	 * used.
+	 *
+	 * @param stage
+	 *            The provisioned stage.
+	 */
+	public void onStageReady(int stage);
+
+	/**
+	 * Called when a stage cannot be provisioned. The stage is run again at
+	 * the next start of the provisioning.
+	 *
+	 * @param stage
+	 *            The failed stage.
+	 * @param e
+	 *            The cause of the failure.
+	 */
+	public void onProvisioningFailed(int stage, AopdsDatabaseException e);
+
+}
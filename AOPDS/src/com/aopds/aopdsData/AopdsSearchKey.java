@@ -0,0 +1,190 @@
+package com.aopds.aopdsData;
+
+import java.util.ArrayList;
+
+/**
+ *
+ * Computes the search keys stored next to the words in the AOPDS database.<br>
+ * <br>
+ *
+ * A search key is the word folded to lower case, without diacritics (fadas,
+ * accents, cedillas ...) and without the hyphens and apostrophes. The keys
+ * are compared with the SQLite binary collation, so that a prefix search can
+ * be done with an index range ( key >= prefix AND key < upper bound ) instead
+ * of a case insensitive LIKE which cannot use any index.<br>
+ * <br>
+ *
+ * Folding the diacritics keeps the words in the alphabetical order of the
+ * latin alphabets (a with a fada is sorted with a), the words differing only
+ * by their diacritics are then sorted by the word itself.
+ *
+ */
+public final class AopdsSearchKey {
+
+	/**
+	 * Characters with diacritics handled by the folding.
+	 */
+	private static final String ACCENTED_CHARS = "\u00e0\u00e1\u00e2\u00e3\u00e4\u00e5\u0101\u0103\u0105"
+			+ "\u00e7\u0107\u0109\u010b\u010d"
+			+ "\u010f\u0111"
+			+ "\u00e8\u00e9\u00ea\u00eb\u0113\u0115\u0117\u0119\u011b"
+			+ "\u011d\u011f\u0121\u0123"
+			+ "\u0125\u0127"
+			+ "\u00ec\u00ed\u00ee\u00ef\u0129\u012b\u012d\u012f\u0131"
+			+ "\u0135"
+			+ "\u0137"
+			+ "\u013a\u013c\u013e\u0140\u0142"
+			+ "\u00f1\u0144\u0146\u0148"
+			+ "\u00f2\u00f3\u00f4\u00f5\u00f6\u00f8\u014d\u014f\u0151"
+			+ "\u0155\u0157\u0159"
+			+ "\u015b\u015d\u015f\u0161"
+			+ "\u0163\u0165\u0167"
+			+ "\u00f9\u00fa\u00fb\u00fc\u0169\u016b\u016d\u016f\u0171\u0173"
+			+ "\u0175"
+			+ "\u00fd\u00ff\u0177"
+			+ "\u017a\u017c\u017e";
+
+	/**
+	 * Base letters of the characters of ACCENTED_CHARS (same positions).
+	 */
+	private static final String BASE_CHARS = "aaaaaaaaa" + "ccccc" + "dd"
+			+ "eeeeeeeee" + "gggg" + "hh" + "iiiiiiiii" + "j" + "k" + "lllll"
+			+ "nnnn" + "ooooooooo" + "rrr" + "ssss" + "ttt" + "uuuuuuuuuu"
+			+ "w" + "yyy" + "zzz";
+
+	/**
+	 * Characters marking the beginning and the end of a key in its trigrams
+	 * (see trigrams) : the trigrams of a key also tell how it begins and
+	 * ends, and a key of one or two characters has trigrams too.
+	 */
+	public static final char KEY_START = '\u0002';
+	public static final char KEY_END = '\u0003';
+
+	private AopdsSearchKey() {
+	}
+
+	/**
+	 * Computes the search key of a word.
+	 *
+	 * @param word
+	 *            The word to fold.
+	 * @return The search key of the word, never empty if the word is not.
+	 */
+	public static String fold(String word) {
+
+		StringBuilder key = new StringBuilder(word.length());
+
+		for (int i = 0; i < word.length(); i++) {
+
+			char c = Character.toLowerCase(word.charAt(i));
+
+			// characters ignored in the keys
+			if (c == '-' || c == '\'' || c == '\u2019' || c == '\ufeff') {
+				continue;
+			}
+
+			// ligatures
+			if (c == '\u00df') {
+				key.append("ss");
+				continue;
+			}
+			if (c == '\u00e6') {
+				key.append("ae");
+				continue;
+			}
+			if (c == '\u0153') {
+				key.append("oe");
+				continue;
+			}
+
+			int accented = ACCENTED_CHARS.indexOf(c);
+
+			if (accented >= 0) {
+				key.append(BASE_CHARS.charAt(accented));
+			} else {
+				key.append(c);
+			}
+		}
+
+		// a word made of ignored characters only keeps its own key
+		if (key.length() == 0) {
+			return word.toLowerCase();
+		}
+
+		return key.toString();
+	}
+
+	/**
+	 * Computes the smallest key greater than every key beginning by the
+	 * provided prefix. Every key K beginning by the prefix verifies : prefix <=
+	 * K < upper bound.<br>
+	 * <br>
+	 *
+	 * The keys are compared by SQLite on their UTF-8 bytes, that is in the
+	 * order of their code points : a character out of the basic plane (a
+	 * surrogate pair in Java) is greater than every character of the basic
+	 * plane. The bound is then computed on the code points, not on the chars.
+	 *
+	 * @param prefix
+	 *            [must not be empty] A search key prefix.
+	 * @return The exclusive upper bound of the keys beginning by the prefix.
+	 */
+	public static String prefixUpperBound(String prefix) {
+
+		int end = prefix.length();
+
+		// incrementing the last code point which is not the greatest one
+		while (end > 0) {
+
+			int last = prefix.codePointBefore(end);
+			int start = end - Character.charCount(last);
+
+			if (last < Character.MAX_CODE_POINT) {
+
+				int next = last + 1;
+
+				// the surrogates are not characters
+				if (next >= Character.MIN_SURROGATE
+						&& next <= Character.MAX_SURROGATE) {
+					next = Character.MAX_SURROGATE + 1;
+				}
+
+				return new StringBuilder(start + 2)
+						.append(prefix, 0, start).appendCodePoint(next)
+						.toString();
+			}
+
+			end = start;
+		}
+
+		// the prefix was only made of greatest code points
+		return prefix + "\uDBFF\uDFFF";
+	}
+
+	/**
+	 * Computes the trigrams of a text : its substrings of 3 characters, once
+	 * each, in the order of the text. The trigrams of a search key are the
+	 * trigrams of KEY_START + key + KEY_END.
+	 *
+	 * @param text
+	 *            A search key or a part of a search key.
+	 * @return The trigrams of the text, an empty list if the text is shorter
+	 *         than 3 characters.
+	 */
+	public static ArrayList<String> trigrams(String text) {
+
+		ArrayList<String> trigrams = new ArrayList<String>();
+
+		for (int i = 0; i + 3 <= text.length(); i++) {
+
+			String trigram = text.substring(i, i + 3);
+
+			if (!trigrams.contains(trigram)) {
+				trigrams.add(trigram);
+			}
+		}
+
+		return trigrams;
+	}
+
+}
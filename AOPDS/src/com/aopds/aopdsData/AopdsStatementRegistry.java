@@ -0,0 +1,135 @@
+package com.aopds.aopdsData;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ *
+ * Registry of the SQL of the frequent queries of the database manager, by
+ * query shape : the SQL of a shape is built once, when it is registered, and
+ * the same text is run by every call with its own arguments, instead of a
+ * text built again by each call.<br>
+ * <br>
+ *
+ * Whether a run parses the SQL again depends on the connection, which is not
+ * seen from here : the statement cache of the connections can only be sized
+ * from Honeycomb (SQLiteDatabase.setMaxSqlCacheSize, API 11), has a fixed
+ * size before, and each connection of a pool has its own. The registry only
+ * counts the distinct shapes run and the runs of a shape run before, which
+ * are not a count of reused compiled queries.<br>
+ * <br>
+ *
+ * Thread safe.
+ *
+ */
+final class AopdsStatementRegistry {
+
+	/**
+	 * Size of the statement cache of the connections from Honeycomb, the
+	 * maximum allowed by SQLiteDatabase.setMaxSqlCacheSize (API 11). The
+	 * registry holds no more shapes.
+	 */
+	static final int MAX_SQL_CACHE_SIZE = 100;
+
+	/**
+	 * SQL of the shapes, by shape name.
+	 */
+	private final HashMap<String, String> statements;
+
+	/**
+	 * Shapes already run.
+	 */
+	private final HashSet<String> run;
+
+	private int repeatedRuns;
+
+	AopdsStatementRegistry() {
+		statements = new HashMap<String, String>();
+		run = new HashSet<String>();
+	}
+
+	/**
+	 * Registers the SQL of a shape.
+	 *
+	 * @param shape
+	 *            The name of the shape, unique.
+	 * @param sql
+	 *            The SQL of the shape, with ? for its arguments.
+	 */
+	synchronized void register(String shape, String sql) {
+
+		if (statements.containsKey(shape)) {
+			throw new IllegalStateException("The shape " + shape
+					+ " is already registered.");
+		}
+
+		if (statements.size() >= MAX_SQL_CACHE_SIZE) {
+			throw new IllegalStateException("Too many shapes : the shape "
+					+ shape + " exceeds the statement cache size.");
+		}
+
+		statements.put(shape, sql);
+	}
+
+	/**
+	 * Runs the query of a shape.
+	 *
+	 * @param connection
+	 *            The connection to run the query on.
+	 * @param shape
+	 *            [must be registered] The name of the shape.
+	 * @param selectArgs
+	 *            The arguments of the query.
+	 * @return The cursor of the query.
+	 */
+	Cursor query(SQLiteDatabase connection, String shape, String[] selectArgs) {
+		return connection.rawQuery(prepare(shape), selectArgs);
+	}
+
+	/**
+	 * Counts a run of a shape.
+	 *
+	 * @return The SQL of the shape.
+	 */
+	private synchronized String prepare(String shape) {
+
+		String sql = statements.get(shape);
+
+		if (sql == null) {
+			throw new IllegalStateException("The shape " + shape
+					+ " is not registered.");
+		}
+
+		if (!run.add(shape)) {
+			repeatedRuns++;
+		}
+
+		return sql;
+	}
+
+	/**
+	 * @return The number of distinct shapes run.
+	 */
+	synchronized int getDistinctShapesRun() {
+		return run.size();
+	}
+
+	/**
+	 * @return The number of runs of a shape already run before, whether the
+	 *         connection has parsed its SQL again or not.
+	 */
+	synchronized int getRepeatedShapeRuns() {
+		return repeatedRuns;
+	}
+
+	/**
+	 * @return The number of registered shapes.
+	 */
+	synchronized int size() {
+		return statements.size();
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.aopds.aopdsData;
+
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Write-behind buffer of the usage counts of the words (see
+ * AopdsDatabase.recordWordLookup and AopdsDatabase.recordWordOpen). The
+ * counts are added in memory and written to the database in a single
+ * transaction, a while after the first of them : a search session does not
+ * write anything on each lookup, and the searches never wait for a write.<br>
+ * <br>
+ * 
+ * The counts not written yet are lost if the application is killed. They are
+ * only used to rank the searches, this is the price of not writing on each
+ * lookup.<br>
+ * <br>
+ * 
+ * Thread safe.
+ * 
+ */
+final class AopdsUsageRecorder {
+
+	/**
+	 * Usage counts of a word, added since the last write.
+	 */
+	static final class Usage {
+
+		final String type;
+		final long id;
+		final int dictionaryId;
+		int lookups;
+		int opens;
+
+		Usage(String type, long id, int dictionaryId) {
+			this.type = type;
+			this.id = id;
+			this.dictionaryId = dictionaryId;
+		}
+	}
+
+	private final AopdsDatabase database;
+
+	/**
+	 * Delay between the first count recorded and the write, in ms.
+	 */
+	private final long flushDelay;
+
+	/**
+	 * Single thread writing the counts.
+	 */
+	private final ScheduledExecutorService flusher = Executors
+			.newSingleThreadScheduledExecutor();
+
+	/**
+	 * Counts not written yet, by word type and id.
+	 */
+	private HashMap<String, Usage> pending = new HashMap<String, Usage>();
+
+	private boolean flushScheduled;
+
+	private final Runnable flushTask = new Runnable() {
+		public void run() {
+			flush();
+		}
+	};
+
+	/**
+	 * Creates the recorder.
+	 * 
+	 * @param database
+	 *            The database to write the counts to.
+	 * @param flushDelay
+	 *            The delay between the first count recorded and the write,
+	 *            in ms.
+	 */
+	AopdsUsageRecorder(AopdsDatabase database, long flushDelay) {
+		this.database = database;
+		this.flushDelay = flushDelay;
+	}
+
+	/**
+	 * Adds usage counts of a word, to be written later.
+	 * 
+	 * @param type
+	 *            The type of the word : AopdsDatabase.WORD_TYPE_HEADWORD or
+	 *            AopdsDatabase.WORD_TYPE_SUGGESTION.
+	 * @param id
+	 *            The id of the word.
+	 * @param dictionaryId
+	 *            The dictionary of the word.
+	 * @param lookups
+	 *            The number of lookups to add.
+	 * @param opens
+	 *            The number of opens to add.
+	 */
+	synchronized void record(String type, long id, int dictionaryId,
+			int lookups, int opens) {
+
+		String key = type + id;
+		Usage usage = pending.get(key);
+
+		if (usage == null) {
+			usage = new Usage(type, id, dictionaryId);
+			pending.put(key, usage);
+		}
+
+		usage.lookups += lookups;
+		usage.opens += opens;
+
+		if (!flushScheduled) {
+			flushScheduled = true;
+			flusher.schedule(flushTask, flushDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes the counts recorded since the last write, in the calling thread.
+	 */
+	void flush() {
+
+		HashMap<String, Usage> toWrite;
+
+		synchronized (this) {
+			toWrite = pending;
+			pending = new HashMap<String, Usage>();
+			flushScheduled = false;
+		}
+
+		if (!toWrite.isEmpty()) {
+			database.writeWordUsage(toWrite.values());
+		}
+	}
+
+	/**
+	 * Writes the counts not written yet in the background thread, now.
+	 */
+	void flushSoon() {
+		flusher.execute(flushTask);
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.aopds.aopdsData.analysis;
+
+/**
+ * An analyzer computes the search keys of the words of a language. The
+ * database stores the index key of every word and looks up the query key of
+ * the typed text, so that the forms of a word which should be found together
+ * (with or without fadas, mutated or not ...) are found by a single index
+ * probe.<br>
+ * <br>
+ * 
+ * The keys are compared with the SQLite binary collation and searched by
+ * prefix : the key of the beginning of a word must be the beginning of the
+ * key of the word, as far as possible.<br>
+ * <br>
+ * 
+ * The analyzers are registered by language in AopdsAnalyzers. They must be
+ * thread safe.
+ * 
+ */
+public interface AopdsAnalyzer {
+
+	/**
+	 * Computes the key under which a word is stored.
+	 * 
+	 * @param word
+	 *            [must not be empty] A word of the dictionary.
+	 * @return The index key of the word, never empty.
+	 */
+	public String indexKey(String word);
+
+	/**
+	 * Computes the key searched for a text typed by the user.
+	 * 
+	 * @param text
+	 *            [must not be empty] The typed word or beginning of word.
+	 * @return The query key of the text, never empty.
+	 */
+	public String queryKey(String text);
+
+	/**
+	 * Computes the key of the pronunciation of a word : the words sounding
+	 * alike, or spelled by ear, should have the same sound key. Used for the
+	 * word and for the typed text.
+	 * 
+	 * @param word
+	 *            [must not be empty] A word of the dictionary or a typed word.
+	 * @return The sound key of the word, never empty.
+	 */
+	public String soundKey(String word);
+
+}
@@ -0,0 +1,70 @@
+package com.aopds.aopdsData.analysis;
+
+import java.util.HashMap;
+
+/**
+ * Registry of the analyzers, by language abreviation (see
+ * Language.getAbreviation()). The languages without a registered analyzer
+ * use the DefaultAnalyzer.<br>
+ * <br>
+ * 
+ * The keys stored in the database depend on the analyzers : registering a new
+ * analyzer for a language whose words are already stored requires an upgrade
+ * of the database recomputing the keys.
+ * 
+ */
+public final class AopdsAnalyzers {
+
+	/**
+	 * Abreviation of the Irish language.
+	 */
+	public static final String LANGUAGE_IRISH = "ga";
+
+	private static final AopdsAnalyzer DEFAULT_ANALYZER = new DefaultAnalyzer();
+
+	private static final HashMap<String, AopdsAnalyzer> analyzers = new HashMap<String, AopdsAnalyzer>();
+
+	static {
+		register(LANGUAGE_IRISH, new IrishAnalyzer());
+	}
+
+	private AopdsAnalyzers() {
+	}
+
+	/**
+	 * Registers the analyzer of a language, replacing the previous one.
+	 * 
+	 * @param abreviation
+	 *            The abreviation of the language.
+	 * @param analyzer
+	 *            The analyzer of the language.
+	 */
+	public static synchronized void register(String abreviation,
+			AopdsAnalyzer analyzer) {
+		analyzers.put(abreviation, analyzer);
+	}
+
+	/**
+	 * Get the analyzer of a language.
+	 * 
+	 * @param abreviation
+	 *            The abreviation of the language, may be null.
+	 * @return The analyzer of the language, the default one if the language
+	 *         has none.
+	 */
+	public static synchronized AopdsAnalyzer forLanguage(String abreviation) {
+
+		AopdsAnalyzer analyzer = abreviation == null ? null : analyzers
+				.get(abreviation);
+
+		return analyzer == null ? DEFAULT_ANALYZER : analyzer;
+	}
+
+	/**
+	 * @return The analyzer of the languages without a specific one.
+	 */
+	public static AopdsAnalyzer getDefault() {
+		return DEFAULT_ANALYZER;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.aopds.aopdsData.analysis;
+
+import com.aopds.aopdsData.AopdsSearchKey;
+
+/**
+ * Analyzer of the languages without a specific one : the keys are the words
+ * folded to lower case and without diacritics (see AopdsSearchKey), the
+ * sound keys are computed by a simplified Metaphone (see PhoneticKey).
+ * 
+ */
+public class DefaultAnalyzer implements AopdsAnalyzer {
+
+	public String indexKey(String word) {
+		return AopdsSearchKey.fold(word);
+	}
+
+	public String queryKey(String text) {
+		return AopdsSearchKey.fold(text);
+	}
+
+	public String soundKey(String word) {
+		return PhoneticKey.metaphone(AopdsSearchKey.fold(word));
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.aopds.aopdsData.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.aopds.aopdsData.domain.Annotation;
+
+/**
+ *
+ * Parses the grammar and sense notes of the entries : the texts between
+ * brackets or parentheses, such as "that[pronoun:direct relative]" or
+ * "strain(of music)". The notes of the imported dictionaries are not always
+ * closed by the right character ("[pronoun:direct relative)") or closed at
+ * all ("how[degree") : a note ends at the first closing bracket or
+ * parenthesis, or at the end of the entry.<br>
+ * <br>
+ *
+ * The part of speech of a note is its first part (before ':' or ',') if it
+ * names one, in full or abbreviated ("adj", "prep" ...), else the first word
+ * of the note naming one in full ("indirect relative pronoun"). The note "to"
+ * of an English gloss ("name(to)") marks a verb.
+ *
+ */
+public final class EntryAnnotationParser {
+
+	/**
+	 * Parts of speech by their names and abbreviations.
+	 */
+	private static final HashMap<String, String> ABBREVIATIONS = new HashMap<String, String>();
+
+	/**
+	 * Parts of speech by their full names only, to find them in a note.
+	 */
+	private static final HashMap<String, String> NAMES = new HashMap<String, String>();
+
+	static {
+		String[] names = { Annotation.NOUN, Annotation.VERB,
+				Annotation.ADJECTIVE, Annotation.ADVERB, Annotation.PRONOUN,
+				Annotation.PREPOSITION, Annotation.CONJUNCTION,
+				Annotation.INTERJECTION, Annotation.PARTICLE,
+				Annotation.ARTICLE, Annotation.NUMERAL, Annotation.PREFIX,
+				Annotation.SUFFIX };
+
+		for (String name : names) {
+			NAMES.put(name, name);
+			ABBREVIATIONS.put(name, name);
+		}
+
+		ABBREVIATIONS.put("n", Annotation.NOUN);
+		ABBREVIATIONS.put("v", Annotation.VERB);
+		ABBREVIATIONS.put("vt", Annotation.VERB);
+		ABBREVIATIONS.put("vi", Annotation.VERB);
+		ABBREVIATIONS.put("to", Annotation.VERB);
+		ABBREVIATIONS.put("adj", Annotation.ADJECTIVE);
+		ABBREVIATIONS.put("adv", Annotation.ADVERB);
+		ABBREVIATIONS.put("pron", Annotation.PRONOUN);
+		ABBREVIATIONS.put("prep", Annotation.PREPOSITION);
+		ABBREVIATIONS.put("conj", Annotation.CONJUNCTION);
+		ABBREVIATIONS.put("interj", Annotation.INTERJECTION);
+		ABBREVIATIONS.put("art", Annotation.ARTICLE);
+		ABBREVIATIONS.put("num", Annotation.NUMERAL);
+	}
+
+	private EntryAnnotationParser() {
+	}
+
+	/**
+	 * Get the notes of an entry.
+	 *
+	 * @param entry
+	 *            The entry of a headword, may be null.
+	 * @return The notes of the entry in their order, with the id 0, an empty
+	 *         list if there is none.
+	 */
+	public static ArrayList<Annotation> parse(String entry) {
+
+		ArrayList<Annotation> annotations = new ArrayList<Annotation>();
+
+		if (entry == null) {
+			return annotations;
+		}
+
+		int position = 0;
+
+		while (position < entry.length()) {
+
+			int start = indexOfAny(entry, "[(", position);
+
+			if (start < 0) {
+				break;
+			}
+
+			int end = indexOfAny(entry, "])", start + 1);
+			if (end < 0) {
+				end = entry.length();
+			}
+
+			String note = entry.substring(start + 1, end).trim();
+
+			if (note.length() > 0) {
+				annotations.add(new Annotation(0, partOfSpeech(note), note));
+			}
+
+			position = end + 1;
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * @return The part of speech named by a note, null if there is none.
+	 */
+	private static String partOfSpeech(String note) {
+
+		String lower = note.toLowerCase();
+
+		// first part : [adjective:third person ...]
+		int headEnd = indexOfAny(lower, ":,", 0);
+		String head = (headEnd < 0 ? lower : lower.substring(0, headEnd))
+				.trim();
+
+		if (head.endsWith(".")) {
+			head = head.substring(0, head.length() - 1);
+		}
+
+		String partOfSpeech = ABBREVIATIONS.get(head);
+
+		if (partOfSpeech != null) {
+			return partOfSpeech;
+		}
+
+		// a word of the note : [indirect relative pronoun]
+		for (String word : lower.split("[^a-z]+")) {
+			partOfSpeech = NAMES.get(word);
+			if (partOfSpeech != null) {
+				return partOfSpeech;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The position of the first of some characters in a text from a
+	 *         position, -1 if there is none.
+	 */
+	private static int indexOfAny(String text, String characters, int from) {
+
+		for (int i = from; i < text.length(); i++) {
+			if (characters.indexOf(text.charAt(i)) >= 0) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+}
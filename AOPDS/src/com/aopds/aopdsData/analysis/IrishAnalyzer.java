@@ -0,0 +1,239 @@
+package com.aopds.aopdsData.analysis;
+
+import com.aopds.aopdsData.AopdsSearchKey;
+
+/**
+ * Analyzer of the Irish language. The headwords are given in their radical
+ * form but are often met, and typed, with an initial mutation : the keys are
+ * computed without the mutations of the beginning of each word, so that
+ * bhean, mb&aacute;d or t-uisce are found under bean, b&aacute;d and uisce.<br>
+ * <br>
+ * 
+ * The mutations removed are :
+ * <ul>
+ * <li>the lenition : bh, ch, dh, fh, gh, mh, ph, sh, th become b, c, d, f, g,
+ * m, p, s, t (bhean : bean)</li>
+ * <li>the eclipsis : mb, gc, nd, bhf, ng, bp, dt become b, c, d, f, g, p, t
+ * (mb&aacute;d : b&aacute;d, bhfear : fear)</li>
+ * <li>the prefixes of the vowels : t-, n-, h- or t, n, h before a capital
+ * vowel (t-uisce, nAthair, h&Eacute;ireann : uisce, athair, &Eacute;ireann)</li>
+ * <li>the t before s : ts before a vowel, l, n or r (tsr&aacute;id :
+ * sr&aacute;id)</li>
+ * </ul>
+ * 
+ * Both the words and the typed texts are analyzed the same way : a word
+ * beginning by a mutation-like form (thar, chuig) is still found by itself,
+ * with the words of its radical. While the text is typed, an eclipsis ending
+ * it is only removed once the letter after it confirms it : mb and bhf are
+ * searched as m and bh (b) until mba or bhfe is typed, so that the results
+ * do not jump from the m words to the b words and back as the user types.
+ * A lenition ending the text (bh) is already searched as its consonant.<br>
+ * <br>
+ * 
+ * The sound keys follow the Irish spelling, from the radical : bh and mh
+ * sound v, ch is the c of loch, dh and gh sound y and are silent at the end of
+ * a word, sh and th sound h, fh is silent, the vowels are dropped except the
+ * first letter.
+ * 
+ */
+public class IrishAnalyzer implements AopdsAnalyzer {
+
+	/**
+	 * Eclipsis prefixes, the last character is the eclipsed consonant. bhf is
+	 * checked before the lenition of b.
+	 */
+	private static final String[] ECLIPSES = { "bhf", "mb", "gc", "nd", "ng",
+			"bp", "dt" };
+
+	/**
+	 * Consonants which can be lenited.
+	 */
+	private static final String LENITED_CONSONANTS = "bcdfgmpst";
+
+	/**
+	 * Consonants which can follow the t of the s.
+	 */
+	private static final String CONSONANTS_AFTER_TS = "lnr";
+
+	private static final String VOWELS = "aeiou";
+
+	/**
+	 * Sounds of the lenited consonants (LENITED_CONSONANTS order).
+	 */
+	private static final String[] LENITED_SOUNDS = { "v", "x", "y", "", "y",
+			"v", "f", "h", "h" };
+
+	public String indexKey(String word) {
+		return AopdsSearchKey.fold(removeMutations(word));
+	}
+
+	public String queryKey(String text) {
+
+		// the eclipsis being typed, not confirmed yet
+		String confirmed = text;
+
+		while (confirmed.length() > 1 && isEclipsis(lastWord(confirmed))) {
+			confirmed = confirmed.substring(0, confirmed.length() - 1);
+		}
+
+		return AopdsSearchKey.fold(removeMutations(confirmed));
+	}
+
+	public String soundKey(String word) {
+
+		String key = indexKey(word);
+		StringBuilder sound = new StringBuilder(key.length());
+		boolean first = true;
+
+		for (int i = 0; i < key.length(); i++) {
+
+			char c = key.charAt(i);
+
+			if (c < 'a' || c > 'z') {
+				continue;
+			}
+
+			String code;
+			int lenited = LENITED_CONSONANTS.indexOf(c);
+
+			if (lenited >= 0 && i + 1 < key.length()
+					&& key.charAt(i + 1) == 'h') {
+				code = LENITED_SOUNDS[lenited];
+				i++;
+			} else if (VOWELS.indexOf(c) >= 0) {
+				code = first ? "a" : null;
+			} else if (c == 'c' || c == 'k' || c == 'q') {
+				code = "k";
+			} else if (c == 'w') {
+				code = "v";
+			} else {
+				code = String.valueOf(c);
+			}
+
+			first = false;
+
+			// repeated sounds : nn, ll, rr ...
+			if (code != null && code.length() > 0
+					&& (sound.length() == 0 || sound
+							.charAt(sound.length() - 1) != code.charAt(0))) {
+				sound.append(code);
+			}
+		}
+
+		// final dh or gh : chuaigh
+		if (sound.length() > 1 && sound.charAt(sound.length() - 1) == 'y') {
+			sound.deleteCharAt(sound.length() - 1);
+		}
+
+		return sound.length() > 0 ? sound.toString() : key;
+	}
+
+	/**
+	 * Removes the initial mutation of each word of a text.
+	 */
+	private static String removeMutations(String text) {
+
+		StringBuilder radical = new StringBuilder(text.length());
+		int start = 0;
+
+		while (start < text.length()) {
+
+			int end = text.indexOf(' ', start);
+			if (end < 0) {
+				end = text.length();
+			}
+
+			radical.append(removeMutation(text.substring(start, end)));
+
+			if (end < text.length()) {
+				radical.append(' ');
+			}
+			start = end + 1;
+		}
+
+		return radical.toString();
+	}
+
+	/**
+	 * Removes the initial mutation of a word. At least one letter is always
+	 * kept after the mutation.
+	 */
+	static String removeMutation(String word) {
+
+		if (word.length() < 2) {
+			return word;
+		}
+
+		char first = word.charAt(0);
+		char second = word.charAt(1);
+
+		// prefixes of the vowels : t-uisce, n-athair, h-anam
+		if (word.length() > 2 && second == '-' && "tnh".indexOf(first) >= 0
+				&& isVowel(word.charAt(2))) {
+			return word.substring(2);
+		}
+
+		// prefixes of the capital vowels : tUisce, nAthair, hAlbain
+		if ("tnh".indexOf(first) >= 0 && isVowel(second)
+				&& Character.isUpperCase(second)) {
+			return word.substring(1);
+		}
+
+		String lower = word.toLowerCase();
+
+		for (String eclipsis : ECLIPSES) {
+			if (lower.length() >= eclipsis.length()
+					&& lower.startsWith(eclipsis)) {
+				return word.substring(eclipsis.length() - 1);
+			}
+		}
+
+		// t of the s : an tsraid, an tseachtain
+		if (lower.length() > 2
+				&& lower.startsWith("ts")
+				&& (isVowel(lower.charAt(2)) || CONSONANTS_AFTER_TS
+						.indexOf(lower.charAt(2)) >= 0)) {
+			return word.substring(1);
+		}
+
+		// lenition : bhean, chuaigh
+		if (lower.charAt(1) == 'h'
+				&& LENITED_CONSONANTS.indexOf(lower.charAt(0)) >= 0) {
+			return word.charAt(0) + word.substring(2);
+		}
+
+		return word;
+	}
+
+	/**
+	 * @return The last word of a text, empty if it ends by a space.
+	 */
+	private static String lastWord(String text) {
+		return text.substring(text.lastIndexOf(' ') + 1);
+	}
+
+	/**
+	 * @return true if the word is an eclipsis alone, without the letters of
+	 *         its radical after the eclipsed consonant.
+	 */
+	private static boolean isEclipsis(String word) {
+
+		String lower = word.toLowerCase();
+
+		for (String eclipsis : ECLIPSES) {
+			if (lower.equals(eclipsis)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return true if the character is a vowel, with or without a fada.
+	 */
+	private static boolean isVowel(char c) {
+		return VOWELS.indexOf(AopdsSearchKey.fold(String.valueOf(c))) >= 0;
+	}
+
+}
@@ -0,0 +1,229 @@
+package com.aopds.aopdsData.analysis;
+
+/**
+ *
+ * Sound keys of the languages without specific rules, computed by a
+ * simplified Metaphone : the letters are replaced by the consonant sounds
+ * they usually stand for in the latin alphabets (ph and f give f, c before e
+ * gives s ...), the vowels are dropped except the first letter, the silent
+ * letters and the repeated sounds are removed.<br>
+ * <br>
+ *
+ * The words spelled by ear share their sound key with the right spelling as
+ * far as possible : fotograf and photograph have the key ftkrf.
+ *
+ */
+public final class PhoneticKey {
+
+	private static final String VOWELS = "aeiou";
+
+	/**
+	 * Letters making c and g soft.
+	 */
+	private static final String FRONT_VOWELS = "eiy";
+
+	private PhoneticKey() {
+	}
+
+	/**
+	 * Computes the sound key of a word.
+	 *
+	 * @param key
+	 *            [must not be empty] The search key of the word (see
+	 *            AopdsSearchKey.fold).
+	 * @return The sound key of the word, never empty.
+	 */
+	public static String metaphone(String key) {
+
+		String word = letters(key);
+
+		if (word.length() == 0) {
+			return key;
+		}
+
+		StringBuilder sound = new StringBuilder(word.length());
+		int start = 0;
+
+		// silent or special first letters
+		if (word.startsWith("kn") || word.startsWith("gn")
+				|| word.startsWith("pn") || word.startsWith("ae")
+				|| word.startsWith("wr")) {
+			start = 1;
+		} else if (word.charAt(0) == 'x') {
+			sound.append('s');
+			start = 1;
+		} else if (word.startsWith("wh")) {
+			sound.append('w');
+			start = 2;
+		}
+
+		for (int i = start; i < word.length(); i++) {
+
+			char c = word.charAt(i);
+			char previous = charAt(word, i - 1);
+			char next = charAt(word, i + 1);
+			char afterNext = charAt(word, i + 2);
+
+			if (c == previous && c != 'c') {
+				continue; // doubled letter
+			}
+
+			String code = null;
+
+			switch (c) {
+			case 'a':
+			case 'e':
+			case 'i':
+			case 'o':
+			case 'u':
+				if (i == start) {
+					code = "a";
+				}
+				break;
+			case 'b':
+				// final mb : lamb
+				if (!(previous == 'm' && i == word.length() - 1)) {
+					code = "b";
+				}
+				break;
+			case 'c':
+				if (next == 'h' || (next == 'i' && afterNext == 'a')) {
+					code = previous == 's' ? "k" : "x";
+				} else if (FRONT_VOWELS.indexOf(next) >= 0) {
+					// silent in sci, sce
+					if (previous != 's') {
+						code = "s";
+					}
+				} else {
+					code = "k";
+				}
+				break;
+			case 'd':
+				code = next == 'g' && FRONT_VOWELS.indexOf(afterNext) >= 0 ? "j"
+						: "t";
+				break;
+			case 'g':
+				if (next == 'h' && i + 2 < word.length()
+						&& !isVowel(afterNext)) {
+					// silent in night
+				} else if (next == 'n' && i + 2 == word.length()) {
+					// silent in sign
+				} else if (FRONT_VOWELS.indexOf(next) >= 0 && previous != 'g') {
+					code = "j";
+				} else {
+					code = "k";
+				}
+				break;
+			case 'h':
+				if (isVowel(next) && "csptg".indexOf(previous) < 0) {
+					code = "h";
+				}
+				break;
+			case 'k':
+				if (previous != 'c') {
+					code = "k";
+				}
+				break;
+			case 'p':
+				code = next == 'h' ? "f" : "p";
+				break;
+			case 'q':
+				code = "k";
+				break;
+			case 's':
+				if (next == 'h'
+						|| (next == 'i' && (afterNext == 'o' || afterNext == 'a'))) {
+					code = "x";
+				} else {
+					code = "s";
+				}
+				break;
+			case 't':
+				if (next == 'i' && (afterNext == 'o' || afterNext == 'a')) {
+					code = "x";
+				} else if (next == 'h') {
+					code = "0";
+				} else if (!(next == 'c' && afterNext == 'h')) {
+					code = "t";
+				}
+				break;
+			case 'v':
+				code = "f";
+				break;
+			case 'w':
+			case 'y':
+				if (isVowel(next)) {
+					code = String.valueOf(c);
+				}
+				break;
+			case 'x':
+				code = "ks";
+				break;
+			case 'z':
+				code = "s";
+				break;
+			default:
+				code = String.valueOf(c);
+				break;
+			}
+
+			append(sound, code);
+		}
+
+		return sound.length() > 0 ? sound.toString() : word;
+	}
+
+	/**
+	 * Appends the code of a sound to a sound key, unless the key already ends
+	 * by the same sound (ck, sc ...).
+	 *
+	 * @param sound
+	 *            The sound key being computed.
+	 * @param code
+	 *            The code of the sound, null for a silent letter.
+	 */
+	static void append(StringBuilder sound, String code) {
+
+		if (code == null || code.length() == 0) {
+			return;
+		}
+
+		if (sound.length() > 0
+				&& sound.charAt(sound.length() - 1) == code.charAt(0)) {
+			code = code.substring(1);
+		}
+
+		sound.append(code);
+	}
+
+	/**
+	 * @return The letters a to z of a search key, without the spaces and the
+	 *         other characters.
+	 */
+	static String letters(String key) {
+
+		StringBuilder letters = new StringBuilder(key.length());
+
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (c >= 'a' && c <= 'z') {
+				letters.append(c);
+			}
+		}
+
+		return letters.toString();
+	}
+
+	static boolean isVowel(char c) {
+		return c != 0 && VOWELS.indexOf(c) >= 0;
+	}
+
+	/**
+	 * @return The character at a position of a word, 0 out of the word.
+	 */
+	static char charAt(String word, int position) {
+		return position >= 0 && position < word.length() ? word
+				.charAt(position) : 0;
+	}
+
+}
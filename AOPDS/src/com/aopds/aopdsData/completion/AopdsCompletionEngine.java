@@ -0,0 +1,368 @@
+package com.aopds.aopdsData.completion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.AopdsDatabaseListener;
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.domain.SearchableWords;
+import com.aopds.tools.AopdsLogger;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+
+/**
+ * Singleton<br>
+ * <br>
+ * 
+ * Autocompletion of the words typed in a dictionary and correction of the
+ * misspelled ones. Keeps one completion trie per dictionary in memory, built
+ * from the database in a background thread the first time the dictionary is
+ * prepared, then kept up to date by the notifications of the database.<br>
+ * <br>
+ * 
+ * While the trie of a dictionary is not ready, no completion nor correction is
+ * given : the callers keep on using the word search of the database.
+ * 
+ */
+public final class AopdsCompletionEngine implements AopdsDatabaseListener {
+
+	/**
+	 * Singleton instance.
+	 */
+	private static AopdsCompletionEngine instance;
+
+	/**
+	 * Tag for logging/debugging system
+	 */
+	private final static String LOG_TAG = "AopdsCompletionEngine";
+
+	/**
+	 * Maximum edit distance between a misspelled word and its corrections.
+	 */
+	public static final int MAX_CORRECTION_DISTANCE = 2;
+
+	/**
+	 * Length up to which a word is only corrected within the distance 1 : two
+	 * edits on a short word give too many unrelated words.
+	 */
+	private static final int SHORT_WORD_LENGTH = 4;
+
+	/**
+	 * Words of the dictionaries, read from the database.
+	 */
+	interface WordSource {
+
+		AopdsAnalyzer getAnalyzer(int dictionaryId)
+				throws AopdsDatabaseException;
+
+		SearchableWords getSearchableWords(int dictionaryId)
+				throws AopdsDatabaseException;
+	}
+
+	private final WordSource data;
+
+	/**
+	 * Tries of the dictionaries, by dictionary id. A dictionary being built
+	 * has no trie yet but has its list of pending changes.
+	 */
+	private final HashMap<Integer, CompletionTrie> tries = new HashMap<Integer, CompletionTrie>();
+
+	/**
+	 * Analyzers computing the keys of the tries, by dictionary id.
+	 */
+	private final HashMap<Integer, AopdsAnalyzer> analyzers = new HashMap<Integer, AopdsAnalyzer>();
+
+	/**
+	 * Number of the last change of the words included in the trie of each
+	 * dictionary, by dictionary id : the notifications of the changes up to
+	 * it are ignored.
+	 */
+	private final HashMap<Integer, Long> trieChanges = new HashMap<Integer, Long>();
+
+	/**
+	 * Changes notified while the tries are being built, by dictionary id :
+	 * triples (true for an addition, word, number of the change).
+	 */
+	private final HashMap<Integer, ArrayList<Object[]>> pendingChanges = new HashMap<Integer, ArrayList<Object[]>>();
+
+	/**
+	 * Pending change of a dictionary whose words have all changed.
+	 */
+	private static final Object[] RELOAD = new Object[0];
+
+	private AopdsCompletionEngine(Context context) {
+
+		final AopdsDatabase database = AopdsDatabase.getInstance(context);
+
+		data = new WordSource() {
+
+			public AopdsAnalyzer getAnalyzer(int dictionaryId)
+					throws AopdsDatabaseException {
+				return database.getAnalyzer(dictionaryId);
+			}
+
+			public SearchableWords getSearchableWords(int dictionaryId)
+					throws AopdsDatabaseException {
+				return database.getSearchableWords(dictionaryId);
+			}
+		};
+
+		database.registerDatabaseListener(this);
+	}
+
+	/**
+	 * Creates an engine reading the words of a source, without listening to
+	 * the database : the changes are given by calling the listener methods.
+	 */
+	AopdsCompletionEngine(WordSource data) {
+		this.data = data;
+	}
+
+	/**
+	 * Singleton system. Get the instance of the completion engine.
+	 * 
+	 * @param context
+	 *            The android application context.
+	 * @return The instance of the completion engine.
+	 */
+	public static synchronized AopdsCompletionEngine getInstance(
+			Context context) {
+
+		if (instance == null) {
+			instance = new AopdsCompletionEngine(context);
+		}
+		return instance;
+	}
+
+	/**
+	 * Builds the trie of a dictionary in a background thread, if it is not
+	 * already built or being built. Returns immediately.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary which is going to be searched.
+	 */
+	public synchronized void prepareDictionary(final int dictionaryId) {
+
+		if (tries.containsKey(dictionaryId)
+				|| pendingChanges.containsKey(dictionaryId)) {
+			return;
+		}
+
+		pendingChanges.put(dictionaryId, new ArrayList<Object[]>());
+
+		new Thread(new Runnable() {
+
+			public void run() {
+				Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+				buildTrie(dictionaryId);
+			}
+
+		}, LOG_TAG + "-" + dictionaryId).start();
+	}
+
+	/**
+	 * Get the first words of a dictionary beginning by a prefix, in the order
+	 * of the word search. No database access is done.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param prefix
+	 *            The beginning of the word typed by the user.
+	 * @param max
+	 *            The maximum number of completions.
+	 * @return The completions of the prefix, or null if the dictionary is not
+	 *         ready yet.
+	 */
+	public ArrayList<String> complete(int dictionaryId, String prefix, int max) {
+
+		CompletionTrie trie;
+		AopdsAnalyzer analyzer;
+
+		synchronized (this) {
+			trie = tries.get(dictionaryId);
+			analyzer = analyzers.get(dictionaryId);
+		}
+
+		if (trie == null) {
+			return null;
+		}
+
+		if (prefix.length() == 0) {
+			return new ArrayList<String>();
+		}
+
+		return trie.complete(analyzer.queryKey(prefix), max);
+	}
+
+	/**
+	 * Get the words of a dictionary close to a word which has not been found,
+	 * the closest first. The fadas and the case are not counted in the
+	 * distance, nor what the analyzer of the dictionary ignores. No database
+	 * access is done.
+	 * 
+	 * @param dictionaryId
+	 *            The dictionary to look up in.
+	 * @param word
+	 *            The word searched by the user.
+	 * @param max
+	 *            The maximum number of corrections.
+	 * @return The corrections of the word, or null if the dictionary is not
+	 *         ready yet.
+	 */
+	public ArrayList<String> correct(int dictionaryId, String word, int max) {
+
+		CompletionTrie trie;
+		AopdsAnalyzer analyzer;
+
+		synchronized (this) {
+			trie = tries.get(dictionaryId);
+			analyzer = analyzers.get(dictionaryId);
+		}
+
+		if (trie == null) {
+			return null;
+		}
+
+		word = word.trim();
+
+		if (word.length() == 0) {
+			return new ArrayList<String>();
+		}
+
+		String key = analyzer.queryKey(word);
+
+		int maxDistance = key.length() > SHORT_WORD_LENGTH ? MAX_CORRECTION_DISTANCE
+				: 1;
+
+		return trie.lookup(key, maxDistance, max);
+	}
+
+	public void onWordAdded(int dictionaryId, String word, long change) {
+		onWordChanged(dictionaryId, word, true, change);
+	}
+
+	public void onWordRemoved(int dictionaryId, String word, long change) {
+		onWordChanged(dictionaryId, word, false, change);
+	}
+
+	/**
+	 * Drops the trie of the dictionary : the next preparation builds it
+	 * again. A trie being built is dropped at the end of its building.
+	 */
+	public synchronized void onDictionaryChanged(int dictionaryId) {
+
+		tries.remove(dictionaryId);
+		analyzers.remove(dictionaryId);
+		trieChanges.remove(dictionaryId);
+
+		ArrayList<Object[]> pending = pendingChanges.get(dictionaryId);
+		if (pending != null) {
+			pending.add(RELOAD);
+		}
+	}
+
+	/**
+	 * Applies a change to the trie of a dictionary or keeps it for the end of
+	 * its building. The changes already read with the words are ignored.
+	 */
+	private void onWordChanged(int dictionaryId, String word, boolean added,
+			long change) {
+
+		CompletionTrie trie;
+		AopdsAnalyzer analyzer;
+
+		synchronized (this) {
+			trie = tries.get(dictionaryId);
+			analyzer = analyzers.get(dictionaryId);
+
+			if (trie == null) {
+				ArrayList<Object[]> pending = pendingChanges.get(dictionaryId);
+				if (pending != null) {
+					pending.add(new Object[] { added, word, change });
+				}
+				return;
+			}
+
+			if (change <= trieChanges.get(dictionaryId)) {
+				return;
+			}
+		}
+
+		applyChange(trie, analyzer, word, added);
+	}
+
+	private static void applyChange(CompletionTrie trie,
+			AopdsAnalyzer analyzer, String word, boolean added) {
+
+		if (added) {
+			trie.add(analyzer.indexKey(word), word);
+		} else {
+			trie.remove(analyzer.indexKey(word), word);
+		}
+	}
+
+	/**
+	 * Reads the words of a dictionary and publishes their trie.
+	 */
+	private void buildTrie(int dictionaryId) {
+
+		long start = SystemClock.uptimeMillis();
+
+		CompletionTrie trie = new CompletionTrie();
+		AopdsAnalyzer analyzer;
+		SearchableWords words;
+
+		try {
+			analyzer = data.getAnalyzer(dictionaryId);
+			words = data.getSearchableWords(dictionaryId);
+
+			for (String word : words.getWords()) {
+				trie.add(analyzer.indexKey(word), word);
+			}
+
+		} catch (AopdsDatabaseException e) {
+			AopdsLogger.error(LOG_TAG, "Impossible to build the completions of"
+					+ " dictionary " + dictionaryId + " : " + e.getMessage(),
+					e);
+
+			synchronized (this) {
+				// another preparation will try again
+				pendingChanges.remove(dictionaryId);
+			}
+			return;
+		}
+
+		synchronized (this) {
+
+			ArrayList<Object[]> changes = pendingChanges.remove(dictionaryId);
+
+			if (changes.contains(RELOAD)) {
+				// the words read may be out of date, another preparation
+				// builds the trie again
+				return;
+			}
+
+			// the changes notified during the building, except the ones
+			// committed before the reading of the words
+			for (Object[] change : changes) {
+				if ((Long) change[2] > words.getChange()) {
+					applyChange(trie, analyzer, (String) change[1],
+							(Boolean) change[0]);
+				}
+			}
+
+			analyzers.put(dictionaryId, analyzer);
+			trieChanges.put(dictionaryId, words.getChange());
+			tries.put(dictionaryId, trie);
+		}
+
+		AopdsLogger.info(LOG_TAG, "Completions of dictionary " + dictionaryId
+				+ " ready : " + trie.size() + " words in "
+				+ (SystemClock.uptimeMillis() - start) + " ms.");
+	}
+
+}
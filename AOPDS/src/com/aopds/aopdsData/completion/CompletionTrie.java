@@ -0,0 +1,510 @@
+package com.aopds.aopdsData.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 
+ * Compact prefix trie (radix tree) of the words of a dictionary, giving the
+ * completions of a prefix without any database access.<br>
+ * <br>
+ * 
+ * The words are stored under their search key : the edges of the trie are
+ * labelled by the longest common parts of the keys and a node ending a key
+ * holds the words having this key, sorted. The children of a node are sorted
+ * by the first character of their label, so that a depth first walk gives
+ * the words in the order of the word search (search key then word).<br>
+ * <br>
+ * 
+ * The same word may be added several times (two headwords, a headword and a
+ * suggestion ...), it is then kept until it has been removed as many times.
+ * <br>
+ * <br>
+ * 
+ * The trie also gives the words close to a misspelled word : walking it with
+ * the rows of the edit distance (Levenshtein) between the misspelled key and
+ * the prefixes of the trie, as a Levenshtein automaton would, a branch is left
+ * as soon as its prefix is too far from the key. Only the prefixes within the
+ * maximum distance are visited, whatever the size of the dictionary.<br>
+ * <br>
+ * 
+ * Thread safe : the completions may be computed in a worker thread while the
+ * trie is updated in the UI thread.
+ * 
+ */
+public class CompletionTrie {
+
+	/**
+	 * Node of the trie.
+	 */
+	private static final class Node {
+
+		/**
+		 * Label of the edge leading to the node, empty for the root.
+		 */
+		String label;
+
+		/**
+		 * Children, sorted by the first character of their label.
+		 */
+		Node[] children;
+		int childCount;
+
+		/**
+		 * Words whose search key ends in this node, sorted, and how many times
+		 * each of them has been added.
+		 */
+		String[] words;
+		int[] counts;
+		int wordCount;
+
+		Node(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * @return The position of the child whose label begins by c or
+		 *         (-(insertion point) - 1) if there is none.
+		 */
+		int findChild(char c) {
+
+			int low = 0;
+			int high = childCount - 1;
+
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				char current = children[middle].label.charAt(0);
+
+				if (current < c) {
+					low = middle + 1;
+				} else if (current > c) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+
+			return -(low + 1);
+		}
+
+		void insertChild(int position, Node child) {
+
+			if (children == null) {
+				children = new Node[2];
+			} else if (childCount == children.length) {
+				Node[] grown = new Node[childCount * 2];
+				System.arraycopy(children, 0, grown, 0, childCount);
+				children = grown;
+			}
+
+			System.arraycopy(children, position, children, position + 1,
+					childCount - position);
+			children[position] = child;
+			childCount++;
+		}
+
+		void removeChild(int position) {
+
+			System.arraycopy(children, position + 1, children, position,
+					childCount - position - 1);
+			childCount--;
+			children[childCount] = null;
+
+			if (childCount == 0) {
+				children = null;
+			}
+		}
+
+		int findWord(String word) {
+
+			int low = 0;
+			int high = wordCount - 1;
+
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				int comparison = words[middle].compareTo(word);
+
+				if (comparison < 0) {
+					low = middle + 1;
+				} else if (comparison > 0) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+
+			return -(low + 1);
+		}
+
+		/**
+		 * @return true if the word was not already in the node.
+		 */
+		boolean addWord(String word) {
+
+			int position = findWord(word);
+
+			if (position >= 0) {
+				counts[position]++;
+				return false;
+			}
+
+			position = -position - 1;
+
+			if (words == null) {
+				words = new String[1];
+				counts = new int[1];
+			} else if (wordCount == words.length) {
+				String[] grownWords = new String[wordCount * 2];
+				int[] grownCounts = new int[wordCount * 2];
+				System.arraycopy(words, 0, grownWords, 0, wordCount);
+				System.arraycopy(counts, 0, grownCounts, 0, wordCount);
+				words = grownWords;
+				counts = grownCounts;
+			}
+
+			System.arraycopy(words, position, words, position + 1, wordCount
+					- position);
+			System.arraycopy(counts, position, counts, position + 1,
+					wordCount - position);
+			words[position] = word;
+			counts[position] = 1;
+			wordCount++;
+
+			return true;
+		}
+
+		/**
+		 * @return true if the last occurrence of the word has been removed.
+		 */
+		boolean removeWord(String word) {
+
+			int position = findWord(word);
+
+			if (position < 0) {
+				return false;
+			}
+
+			if (--counts[position] > 0) {
+				return false;
+			}
+
+			System.arraycopy(words, position + 1, words, position, wordCount
+					- position - 1);
+			System.arraycopy(counts, position + 1, counts, position,
+					wordCount - position - 1);
+			wordCount--;
+			words[wordCount] = null;
+
+			if (wordCount == 0) {
+				words = null;
+				counts = null;
+			}
+
+			return true;
+		}
+	}
+
+	private final Node root = new Node("");
+
+	/**
+	 * Number of distinct words in the trie.
+	 */
+	private int size;
+
+	/**
+	 * Adds a word to the trie.
+	 * 
+	 * @param key
+	 *            [must not be empty] The search key of the word.
+	 * @param word
+	 *            The word.
+	 */
+	public synchronized void add(String key, String word) {
+
+		Node node = root;
+		int position = 0;
+
+		while (position < key.length()) {
+
+			int childPosition = node.findChild(key.charAt(position));
+
+			if (childPosition < 0) { // new branch
+				Node leaf = new Node(key.substring(position));
+				if (leaf.addWord(word)) {
+					size++;
+				}
+				node.insertChild(-childPosition - 1, leaf);
+				return;
+			}
+
+			Node child = node.children[childPosition];
+			int common = commonLength(child.label, key, position);
+
+			if (common < child.label.length()) {
+				// the key leaves the label : splitting the edge
+				Node middle = new Node(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				middle.insertChild(0, child);
+				node.children[childPosition] = middle;
+				child = middle;
+			}
+
+			node = child;
+			position += common;
+		}
+
+		if (node.addWord(word)) {
+			size++;
+		}
+	}
+
+	/**
+	 * Removes a word from the trie.
+	 * 
+	 * @param key
+	 *            The search key of the word.
+	 * @param word
+	 *            The word.
+	 */
+	public synchronized void remove(String key, String word) {
+
+		Node parent = null;
+		int positionInParent = -1;
+		Node node = root;
+		int position = 0;
+
+		while (position < key.length()) {
+
+			int childPosition = node.findChild(key.charAt(position));
+
+			if (childPosition < 0) {
+				return; // unknown key
+			}
+
+			Node child = node.children[childPosition];
+
+			if (!key.startsWith(child.label, position)) {
+				return; // unknown key
+			}
+
+			parent = node;
+			positionInParent = childPosition;
+			node = child;
+			position += child.label.length();
+		}
+
+		if (!node.removeWord(word)) {
+			return;
+		}
+
+		size--;
+
+		if (parent == null || node.wordCount > 0) {
+			return;
+		}
+
+		// keeping the trie compact
+		if (node.childCount == 0) {
+			parent.removeChild(positionInParent);
+			if (parent != root && parent.wordCount == 0
+					&& parent.childCount == 1) {
+				mergeWithChild(parent);
+			}
+		} else if (node.childCount == 1) {
+			mergeWithChild(node);
+		}
+	}
+
+	/**
+	 * Get the first words, in the order of the word search, whose search key
+	 * begins by a prefix.
+	 * 
+	 * @param prefix
+	 *            The search key prefix.
+	 * @param max
+	 *            The maximum number of words to return.
+	 * @return The completions of the prefix, an empty list if there is none.
+	 */
+	public synchronized ArrayList<String> complete(String prefix, int max) {
+
+		ArrayList<String> completions = new ArrayList<String>();
+
+		Node node = root;
+		int position = 0;
+
+		// looking for the subtree of the keys beginning by the prefix
+		while (position < prefix.length()) {
+
+			int childPosition = node.findChild(prefix.charAt(position));
+
+			if (childPosition < 0) {
+				return completions;
+			}
+
+			Node child = node.children[childPosition];
+			int common = commonLength(child.label, prefix, position);
+
+			if (common < child.label.length()
+					&& position + common < prefix.length()) {
+				return completions; // the prefix leaves the label
+			}
+
+			node = child;
+			position += common;
+		}
+
+		collect(node, completions, max);
+
+		return completions;
+	}
+
+	/**
+	 * Get the words whose search key is within a maximum edit distance of a
+	 * key, the closest first, then in the order of the word search.
+	 * 
+	 * @param key
+	 *            The search key of the misspelled word.
+	 * @param maxDistance
+	 *            The maximum edit distance of the words.
+	 * @param max
+	 *            The maximum number of words to return.
+	 * @return The words close to the key, an empty list if there is none.
+	 */
+	public synchronized ArrayList<String> lookup(String key, int maxDistance,
+			int max) {
+
+		// a prefix longer than that is always too far from the key
+		int maxDepth = key.length() + maxDistance;
+		int[][] rows = new int[maxDepth + 1][key.length() + 1];
+
+		for (int j = 0; j <= key.length(); j++) {
+			rows[0][j] = j;
+		}
+
+		// the words found, by distance
+		List<List<String>> matches = new ArrayList<List<String>>(
+				maxDistance + 1);
+		for (int i = 0; i <= maxDistance; i++) {
+			matches.add(new ArrayList<String>());
+		}
+
+		lookup(root, key, 0, rows, matches, max);
+
+		ArrayList<String> words = new ArrayList<String>();
+
+		for (int i = 0; i <= maxDistance && words.size() < max; i++) {
+			for (String word : matches.get(i)) {
+				if (words.size() == max) {
+					break;
+				}
+				words.add(word);
+			}
+		}
+
+		return words;
+	}
+
+	/**
+	 * @return The number of distinct words in the trie.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Depth first walk adding the words of a subtree to a list.
+	 */
+	private static void collect(Node node, ArrayList<String> completions,
+			int max) {
+
+		for (int i = 0; i < node.wordCount && completions.size() < max; i++) {
+			completions.add(node.words[i]);
+		}
+
+		for (int i = 0; i < node.childCount && completions.size() < max; i++) {
+			collect(node.children[i], completions, max);
+		}
+	}
+
+	/**
+	 * Depth first walk adding the words of a subtree close to a key to the
+	 * lists of their distance. rows[depth] is the row of the distances between
+	 * the prefix leading to the node and the beginnings of the key.
+	 */
+	private static void lookup(Node node, String key, int depth,
+			int[][] rows, List<List<String>> matches, int max) {
+
+		int maxDistance = matches.size() - 1;
+
+		// the rows of the characters of the label
+		for (int i = 0; i < node.label.length(); i++) {
+
+			if (depth + 1 >= rows.length) {
+				return;
+			}
+
+			char c = node.label.charAt(i);
+			int[] previous = rows[depth];
+			int[] current = rows[depth + 1];
+			int closest = current[0] = previous[0] + 1;
+
+			for (int j = 1; j < current.length; j++) {
+				int substitution = previous[j - 1]
+						+ (c == key.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitution,
+						Math.min(previous[j], current[j - 1]) + 1);
+				closest = Math.min(closest, current[j]);
+			}
+
+			if (closest > maxDistance) {
+				return; // every word of the subtree is too far
+			}
+
+			depth++;
+		}
+
+		int distance = rows[depth][key.length()];
+
+		if (distance <= maxDistance && matches.get(distance).size() < max) {
+			for (int i = 0; i < node.wordCount; i++) {
+				matches.get(distance).add(node.words[i]);
+			}
+		}
+
+		for (int i = 0; i < node.childCount; i++) {
+			lookup(node.children[i], key, depth, rows, matches, max);
+		}
+	}
+
+	/**
+	 * Merges a node without words with its only child.
+	 */
+	private static void mergeWithChild(Node node) {
+
+		Node child = node.children[0];
+
+		node.label = node.label + child.label;
+		node.children = child.children;
+		node.childCount = child.childCount;
+		node.words = child.words;
+		node.counts = child.counts;
+		node.wordCount = child.wordCount;
+	}
+
+	/**
+	 * @return The length of the common beginning of a label and of a key from
+	 *         a position.
+	 */
+	private static int commonLength(String label, String key, int from) {
+
+		int length = Math.min(label.length(), key.length() - from);
+		int i = 0;
+
+		while (i < length && label.charAt(i) == key.charAt(from + i)) {
+			i++;
+		}
+
+		return i;
+	}
+
+}
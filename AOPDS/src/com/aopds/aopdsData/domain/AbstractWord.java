@@ -14,6 +14,7 @@ public abstract class AbstractWord implements Serializable {
 	private String entry;
 	private String phonetic;
 	private Dictionary dictionary;
+	private boolean preview;
 
 	public AbstractWord() {
 	}
@@ -73,4 +74,17 @@ public abstract class AbstractWord implements Serializable {
 		this.dictionary = dictionary;
 	}
 
+	/**
+	 * @return true if the word has been read for a list : its entry is a
+	 *         snippet and its phonetic is not read (see
+	 *         AopdsDatabase.loadEntry).
+	 */
+	public boolean isPreview() {
+		return preview;
+	}
+
+	public void setPreview(boolean preview) {
+		this.preview = preview;
+	}
+
 }
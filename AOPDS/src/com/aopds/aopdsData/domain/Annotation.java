@@ -0,0 +1,80 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+
+/**
+ * A grammar or sense note of the entry of a headword, such as
+ * "[pronoun:direct relative]" or "(of music)", with the part of speech it
+ * gives, if any. The notes are parsed from the entries when the headwords are
+ * imported (see EntryAnnotationParser).
+ */
+public class Annotation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String NOUN = "noun";
+	public static final String VERB = "verb";
+	public static final String ADJECTIVE = "adjective";
+	public static final String ADVERB = "adverb";
+	public static final String PRONOUN = "pronoun";
+	public static final String PREPOSITION = "preposition";
+	public static final String CONJUNCTION = "conjunction";
+	public static final String INTERJECTION = "interjection";
+	public static final String PARTICLE = "particle";
+	public static final String ARTICLE = "article";
+	public static final String NUMERAL = "numeral";
+	public static final String PREFIX = "prefix";
+	public static final String SUFFIX = "suffix";
+
+	private long headwordId;
+	private String partOfSpeech;
+	private String note;
+
+	public Annotation() {
+	}
+
+	public Annotation(long headwordId, String partOfSpeech, String note) {
+		super();
+		this.headwordId = headwordId;
+		this.partOfSpeech = partOfSpeech;
+		this.note = note;
+	}
+
+	public long getHeadwordId() {
+		return headwordId;
+	}
+
+	public void setHeadwordId(long headwordId) {
+		this.headwordId = headwordId;
+	}
+
+	/**
+	 * @return The part of speech given by the note (one of the constants of
+	 *         this class), null if the note is not a grammar note.
+	 */
+	public String getPartOfSpeech() {
+		return partOfSpeech;
+	}
+
+	public void setPartOfSpeech(String partOfSpeech) {
+		this.partOfSpeech = partOfSpeech;
+	}
+
+	/**
+	 * @return The text of the note, without its brackets.
+	 */
+	public String getNote() {
+		return note;
+	}
+
+	public void setNote(String note) {
+		this.note = note;
+	}
+
+	@Override
+	public String toString() {
+		return "Annotation [headwordId=" + headwordId + ", partOfSpeech="
+				+ partOfSpeech + ", note=" + note + "]";
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+
+/**
+ * A word found by a full text search on the entries, with the part of its
+ * entry matching the searched text and the score used to rank it.
+ */
+public class EntryMatch implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private AbstractWord word;
+	private String snippet;
+	private double score;
+
+	public EntryMatch() {
+	}
+
+	public EntryMatch(AbstractWord word, String snippet, double score) {
+		super();
+		this.word = word;
+		this.snippet = snippet;
+		this.score = score;
+	}
+
+	public AbstractWord getWord() {
+		return word;
+	}
+
+	public void setWord(AbstractWord word) {
+		this.word = word;
+	}
+
+	/**
+	 * @return The part of the entry matching the searched text, the matching
+	 *         terms being surrounded by the &lt;b&gt; and &lt;/b&gt; tags.
+	 */
+	public String getSnippet() {
+		return snippet;
+	}
+
+	public void setSnippet(String snippet) {
+		this.snippet = snippet;
+	}
+
+	/**
+	 * @return The relevance of the match, the higher the better.
+	 */
+	public double getScore() {
+		return score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+
+	@Override
+	public String toString() {
+		return "EntryMatch [word=" + word + ", snippet=" + snippet
+				+ ", score=" + score + "]";
+	}
+
+}
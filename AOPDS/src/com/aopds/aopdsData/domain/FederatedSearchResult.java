@@ -0,0 +1,60 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The words found by a search in several dictionaries (see
+ * AopdsFederatedSearch), merged in the order of the word search, each of them
+ * with its dictionary, and the dictionaries which could not be searched in
+ * time.
+ */
+public class FederatedSearchResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private ArrayList<AbstractWord> words;
+	private ArrayList<Dictionary> notSearched;
+
+	public FederatedSearchResult() {
+	}
+
+	public FederatedSearchResult(ArrayList<AbstractWord> words,
+			ArrayList<Dictionary> notSearched) {
+		super();
+		this.words = words;
+		this.notSearched = notSearched;
+	}
+
+	/**
+	 * @return The words found, ordered by merge key (see
+	 *         AopdsFederatedSearch) then word, with their dictionary (see
+	 *         AbstractWord.getDictionary).
+	 */
+	public ArrayList<AbstractWord> getWords() {
+		return words;
+	}
+
+	public void setWords(ArrayList<AbstractWord> words) {
+		this.words = words;
+	}
+
+	/**
+	 * @return The dictionaries whose search has timed out or failed, empty if
+	 *         every dictionary has been searched.
+	 */
+	public ArrayList<Dictionary> getNotSearched() {
+		return notSearched;
+	}
+
+	public void setNotSearched(ArrayList<Dictionary> notSearched) {
+		this.notSearched = notSearched;
+	}
+
+	@Override
+	public String toString() {
+		return "FederatedSearchResult [words=" + words + ", notSearched="
+				+ notSearched + "]";
+	}
+
+}
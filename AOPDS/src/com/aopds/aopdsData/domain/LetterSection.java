@@ -0,0 +1,68 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+
+/**
+ * The words of a dictionary whose search key begins by a letter, in the
+ * ordered list of the words of the dictionary (see AopdsDatabase.browseWords
+ * and AopdsDatabase.getLetterSections).
+ */
+public class LetterSection implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String letter;
+	private int firstPosition;
+	private int wordCount;
+
+	public LetterSection() {
+	}
+
+	public LetterSection(String letter, int firstPosition, int wordCount) {
+		super();
+		this.letter = letter;
+		this.firstPosition = firstPosition;
+		this.wordCount = wordCount;
+	}
+
+	/**
+	 * @return The first letter of the search keys of the words.
+	 */
+	public String getLetter() {
+		return letter;
+	}
+
+	public void setLetter(String letter) {
+		this.letter = letter;
+	}
+
+	/**
+	 * @return The position of the first word of the section in the ordered
+	 *         list of the words of the dictionary, from 0.
+	 */
+	public int getFirstPosition() {
+		return firstPosition;
+	}
+
+	public void setFirstPosition(int firstPosition) {
+		this.firstPosition = firstPosition;
+	}
+
+	/**
+	 * @return The number of words of the section.
+	 */
+	public int getWordCount() {
+		return wordCount;
+	}
+
+	public void setWordCount(int wordCount) {
+		this.wordCount = wordCount;
+	}
+
+	@Override
+	public String toString() {
+		return "LetterSection [letter=" + letter + ", firstPosition="
+				+ firstPosition + ", wordCount=" + wordCount + "]";
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The words of a dictionary found by the searches, read by
+ * AopdsDatabase.getSearchableWords, with the number of the last change of the
+ * searchable words they include : the changes notified with a greater number
+ * are not in the list.
+ */
+public class SearchableWords implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private ArrayList<String> words;
+	private long change;
+
+	public SearchableWords() {
+	}
+
+	public SearchableWords(ArrayList<String> words, long change) {
+		super();
+		this.words = words;
+		this.change = change;
+	}
+
+	/**
+	 * @return The words, ordered by search key.
+	 */
+	public ArrayList<String> getWords() {
+		return words;
+	}
+
+	public void setWords(ArrayList<String> words) {
+		this.words = words;
+	}
+
+	/**
+	 * @return The number of the last change included in the words (see
+	 *         AopdsDatabaseListener), 0 if there was none.
+	 */
+	public long getChange() {
+		return change;
+	}
+
+	public void setChange(long change) {
+		this.change = change;
+	}
+
+}
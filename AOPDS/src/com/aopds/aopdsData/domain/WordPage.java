@@ -0,0 +1,97 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * A page of the ordered list of the words of a dictionary, read by
+ * AopdsDatabase.browseWords, with the positions of its first and last words
+ * to read the previous and the next pages.
+ */
+public class WordPage implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private ArrayList<AbstractWord> words;
+	private WordPosition first;
+	private WordPosition last;
+	private boolean atStart;
+	private boolean atEnd;
+
+	public WordPage() {
+	}
+
+	public WordPage(ArrayList<AbstractWord> words, WordPosition first,
+			WordPosition last, boolean atStart, boolean atEnd) {
+		super();
+		this.words = words;
+		this.first = first;
+		this.last = last;
+		this.atStart = atStart;
+		this.atEnd = atEnd;
+	}
+
+	/**
+	 * @return The words of the page, in the order of the dictionary.
+	 */
+	public ArrayList<AbstractWord> getWords() {
+		return words;
+	}
+
+	public void setWords(ArrayList<AbstractWord> words) {
+		this.words = words;
+	}
+
+	/**
+	 * @return The position of the first word of the page, to read the
+	 *         previous page, null if the page is empty.
+	 */
+	public WordPosition getFirst() {
+		return first;
+	}
+
+	public void setFirst(WordPosition first) {
+		this.first = first;
+	}
+
+	/**
+	 * @return The position of the last word of the page, to read the next
+	 *         page, null if the page is empty.
+	 */
+	public WordPosition getLast() {
+		return last;
+	}
+
+	public void setLast(WordPosition last) {
+		this.last = last;
+	}
+
+	/**
+	 * @return true if there is no word before the page.
+	 */
+	public boolean isAtStart() {
+		return atStart;
+	}
+
+	public void setAtStart(boolean atStart) {
+		this.atStart = atStart;
+	}
+
+	/**
+	 * @return true if there is no word after the page.
+	 */
+	public boolean isAtEnd() {
+		return atEnd;
+	}
+
+	public void setAtEnd(boolean atEnd) {
+		this.atEnd = atEnd;
+	}
+
+	@Override
+	public String toString() {
+		return "WordPage [words=" + words + ", first=" + first + ", last="
+				+ last + ", atStart=" + atStart + ", atEnd=" + atEnd + "]";
+	}
+
+}
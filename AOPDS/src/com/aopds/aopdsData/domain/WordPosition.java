@@ -0,0 +1,85 @@
+package com.aopds.aopdsData.domain;
+
+import java.io.Serializable;
+
+/**
+ * The position of a word in the ordered list of the words of a dictionary
+ * (see AopdsDatabase.browseWords). The words are ordered by search key, then
+ * by word, type and id, so that every word has its own position.
+ */
+public class WordPosition implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String searchKey;
+	private String word;
+	private String type;
+	private long id;
+
+	public WordPosition() {
+	}
+
+	public WordPosition(String searchKey, String word, String type, long id) {
+		super();
+		this.searchKey = searchKey;
+		this.word = word;
+		this.type = type;
+		this.id = id;
+	}
+
+	/**
+	 * Get the position just before the first word whose search key is
+	 * greater or equal to a key : the words after this position are the words
+	 * from this key, the words before it are the words before this key.
+	 * 
+	 * @param searchKey
+	 *            A search key or the beginning of a search key.
+	 * @return The position of the key.
+	 */
+	public static WordPosition ofKey(String searchKey) {
+		return new WordPosition(searchKey, "", "", -1);
+	}
+
+	public String getSearchKey() {
+		return searchKey;
+	}
+
+	public void setSearchKey(String searchKey) {
+		this.searchKey = searchKey;
+	}
+
+	public String getWord() {
+		return word;
+	}
+
+	public void setWord(String word) {
+		this.word = word;
+	}
+
+	/**
+	 * @return The type of the word : AopdsDatabase.WORD_TYPE_HEADWORD or
+	 *         AopdsDatabase.WORD_TYPE_SUGGESTION.
+	 */
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	@Override
+	public String toString() {
+		return "WordPosition [searchKey=" + searchKey + ", word=" + word
+				+ ", type=" + type + ", id=" + id + "]";
+	}
+
+}
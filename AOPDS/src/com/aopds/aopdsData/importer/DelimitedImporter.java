@@ -0,0 +1,139 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+/**
+ * Importer of the dictionaries written as lines of delimited fields, such as
+ * TSV or CSV files : one entry per line, the headword, the entry and the
+ * phonetic in columns. The files are read in UTF-8.<br>
+ * <br>
+ *
+ * With the quotes, a field can be quoted ("...") to hold the delimiter, the
+ * line breaks and the quotes (doubled), as in CSV. The lines without the
+ * columns of the headword and the entry are ignored, the lines with an empty
+ * headword are skipped (see DictionarySink.skip).
+ *
+ */
+public class DelimitedImporter extends StreamImporter {
+
+	private final char delimiter;
+	private final boolean quotes;
+
+	private final int wordColumn;
+	private final int entryColumn;
+	private final int phoneticColumn;
+
+	/**
+	 * Creates an importer of delimited fields.
+	 *
+	 * @param delimiter
+	 *            The delimiter of the fields.
+	 * @param quotes
+	 *            true if the fields can be quoted.
+	 * @param wordColumn
+	 *            The column of the headwords, from 0.
+	 * @param entryColumn
+	 *            The column of the entries.
+	 * @param phoneticColumn
+	 *            The column of the phonetics, -1 if there is none.
+	 * @param extensions
+	 *            The extensions of the files, with their dot.
+	 */
+	public DelimitedImporter(char delimiter, boolean quotes, int wordColumn,
+			int entryColumn, int phoneticColumn, String... extensions) {
+		super(extensions);
+		this.delimiter = delimiter;
+		this.quotes = quotes;
+		this.wordColumn = wordColumn;
+		this.entryColumn = entryColumn;
+		this.phoneticColumn = phoneticColumn;
+	}
+
+	@Override
+	public void read(InputStream input, DictionarySink sink)
+			throws IOException {
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				input, "UTF-8"), BUFFER_SIZE);
+
+		// the fields of the line being read
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		int c = reader.read();
+
+		// byte order mark
+		if (c == '\uFEFF') {
+			c = reader.read();
+		}
+
+		for (; c != -1; c = reader.read()) {
+
+			if (quoted) {
+				if (c != '"') {
+					field.append((char) c);
+				} else {
+					// "" is a quote, else the end of the quoted text
+					reader.mark(1);
+					if (reader.read() == '"') {
+						field.append('"');
+					} else {
+						reader.reset();
+						quoted = false;
+					}
+				}
+
+			} else if (c == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+
+			} else if (c == '\n') {
+				fields.add(field.toString());
+				field.setLength(0);
+				addEntry(fields, sink);
+				fields.clear();
+
+			} else if (c == '"' && quotes && field.length() == 0) {
+				quoted = true;
+
+			} else if (c != '\r') {
+				field.append((char) c);
+			}
+		}
+
+		// last line, without line break
+		if (field.length() > 0 || !fields.isEmpty()) {
+			fields.add(field.toString());
+			addEntry(fields, sink);
+		}
+	}
+
+	/**
+	 * Gives the entry of the fields of a line to the sink, if it has one.
+	 */
+	private void addEntry(ArrayList<String> fields, DictionarySink sink) {
+
+		if (fields.size() <= Math.max(wordColumn, entryColumn)) {
+			return;
+		}
+
+		String word = ImportText.collapse(fields.get(wordColumn));
+
+		if (word == null) {
+			sink.skip();
+			return;
+		}
+
+		String phonetic = phoneticColumn < 0
+				|| phoneticColumn >= fields.size() ? null : ImportText
+				.collapse(fields.get(phoneticColumn));
+
+		sink.add(word, fields.get(entryColumn).trim(), phonetic);
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An importer reads the entries of the dictionary files of a format and
+ * gives them to a sink (see DictionarySink), in their order in the file. The
+ * file is read as a stream : the memory used depends on the size of an entry,
+ * not on the size of the file.<br>
+ * <br>
+ *
+ * The importers are registered by format in DictionaryImporters. They must be
+ * thread safe.
+ *
+ */
+public interface DictionaryImporter {
+
+	/**
+	 * @param fileName
+	 *            The name of a dictionary file.
+	 * @return true if the file is in the format of the importer, by the
+	 *         extension of its name.
+	 */
+	public boolean accepts(String fileName);
+
+	/**
+	 * Reads the entries of a dictionary file.
+	 *
+	 * @param file
+	 *            [must be accepted] The dictionary file.
+	 * @param sink
+	 *            The sink receiving the entries.
+	 * @throws IOException
+	 *             If the file cannot be read or is not in the format of the
+	 *             importer. The entries read before are in the sink.
+	 */
+	public void read(File file, DictionarySink sink) throws IOException;
+
+}
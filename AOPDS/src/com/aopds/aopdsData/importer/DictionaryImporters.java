@@ -0,0 +1,66 @@
+package com.aopds.aopdsData.importer;
+
+import java.util.ArrayList;
+
+/**
+ * Registry of the importers of the dictionary files, found by the name of the
+ * file (see DictionaryImporter.accepts).<br>
+ * <br>
+ *
+ * The delimited formats have their columns in the order headword, entry,
+ * phonetic (optional). The lines of the bundled dictionaries (.txt) are
+ * "entry#headword".
+ *
+ */
+public final class DictionaryImporters {
+
+	/**
+	 * Importer of the bundled dictionaries.
+	 */
+	public static final StreamImporter LINES = new DelimitedImporter('#',
+			false, 1, 0, -1, ".txt");
+
+	private static final ArrayList<DictionaryImporter> importers = new ArrayList<DictionaryImporter>();
+
+	static {
+		register(LINES);
+		register(new DelimitedImporter('\t', false, 0, 1, 2, ".tsv", ".tab"));
+		register(new DelimitedImporter(',', true, 0, 1, 2, ".csv"));
+		register(new XdxfImporter());
+		register(new TeiImporter());
+		register(new StarDictImporter());
+	}
+
+	private DictionaryImporters() {
+	}
+
+	/**
+	 * Registers an importer, before the importers already registered : it is
+	 * used for the files it accepts.
+	 *
+	 * @param importer
+	 *            The importer of a format.
+	 */
+	public static synchronized void register(DictionaryImporter importer) {
+		importers.add(0, importer);
+	}
+
+	/**
+	 * Get the importer of a dictionary file.
+	 *
+	 * @param fileName
+	 *            The name of the file.
+	 * @return The importer of the file, null if the format is unknown.
+	 */
+	public static synchronized DictionaryImporter forFile(String fileName) {
+
+		for (DictionaryImporter importer : importers) {
+			if (importer.accepts(fileName)) {
+				return importer;
+			}
+		}
+
+		return null;
+	}
+
+}
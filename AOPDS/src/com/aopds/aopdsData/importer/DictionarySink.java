@@ -0,0 +1,32 @@
+package com.aopds.aopdsData.importer;
+
+/**
+ * Receives the entries read by an importer (see DictionaryImporter), one at a
+ * time. The sink writes each entry when it receives it and keeps none of
+ * them : the memory used by an import does not grow with the size of the
+ * file.
+ *
+ */
+public interface DictionarySink {
+
+	/**
+	 * Adds an entry of the dictionary.
+	 *
+	 * @param word
+	 *            [must not be empty] The headword.
+	 * @param entry
+	 *            The translation or the definition of the headword, may be
+	 *            null.
+	 * @param phonetic
+	 *            The pronunciation of the headword, may be null.
+	 */
+	public void add(String word, String entry, String phonetic);
+
+	/**
+	 * Skips an entry of the dictionary without headword. The entry is not
+	 * imported, but it keeps its position in the file : the positions of the
+	 * next entries do not depend on the headwords found empty.
+	 */
+	public void skip();
+
+}
@@ -0,0 +1,112 @@
+package com.aopds.aopdsData.importer;
+
+/**
+ * Clean up of the texts read by the importers.
+ *
+ */
+final class ImportText {
+
+	private ImportText() {
+	}
+
+	/**
+	 * @return A text without its leading and trailing spaces and with a single
+	 *         space between its words, null if it is empty.
+	 */
+	static String collapse(CharSequence text) {
+
+		StringBuilder collapsed = new StringBuilder(text.length());
+		boolean space = false;
+
+		for (int i = 0; i < text.length(); i++) {
+
+			char c = text.charAt(i);
+
+			if (Character.isWhitespace(c) || c == '\u00A0') {
+				space = collapsed.length() > 0;
+			} else {
+				if (space) {
+					collapsed.append(' ');
+					space = false;
+				}
+				collapsed.append(c);
+			}
+		}
+
+		return collapsed.length() == 0 ? null : collapsed.toString();
+	}
+
+	/**
+	 * @return The text of a markup (HTML, XDXF, Pango ...) : the tags are
+	 *         replaced by spaces and the usual entities are decoded.
+	 */
+	static String stripTags(String markup) {
+
+		StringBuilder text = new StringBuilder(markup.length());
+		int i = 0;
+
+		while (i < markup.length()) {
+
+			char c = markup.charAt(i);
+
+			if (c == '<') {
+				int end = markup.indexOf('>', i);
+				if (end < 0) {
+					break;
+				}
+				text.append(' ');
+				i = end + 1;
+
+			} else if (c == '&') {
+				int end = markup.indexOf(';', i);
+				String entity = end < 0 || end - i > 8 ? null : decode(markup
+						.substring(i + 1, end));
+				if (entity == null) {
+					text.append(c);
+					i++;
+				} else {
+					text.append(entity);
+					i = end + 1;
+				}
+
+			} else {
+				text.append(c);
+				i++;
+			}
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * @return The text of an entity, null if it is unknown.
+	 */
+	private static String decode(String entity) {
+
+		if (entity.equals("lt")) {
+			return "<";
+		} else if (entity.equals("gt")) {
+			return ">";
+		} else if (entity.equals("amp")) {
+			return "&";
+		} else if (entity.equals("quot")) {
+			return "\"";
+		} else if (entity.equals("apos")) {
+			return "'";
+		} else if (entity.equals("nbsp")) {
+			return " ";
+		} else if (entity.startsWith("#")) {
+			try {
+				int code = entity.startsWith("#x") ? Integer.parseInt(entity
+						.substring(2), 16) : Integer.parseInt(entity
+						.substring(1));
+				return new String(Character.toChars(code));
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+
+		return null;
+	}
+
+}
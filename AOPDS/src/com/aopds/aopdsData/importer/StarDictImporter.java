@@ -0,0 +1,270 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importer of the StarDict dictionaries : the .ifo file, read with the .idx
+ * (or .idx.gz) and .dict (or .dict.dz) files beside it. The index and the
+ * data are read together as two streams : the data of the words must be in
+ * the order of the index, as written by the StarDict tools.<br>
+ * <br>
+ *
+ * The text fields of the data (plain text and markups) make the entry, the
+ * phonetic field (t) the phonetic. The other fields (pictures, sounds ...)
+ * are ignored. The synonyms (.syn) are not imported.
+ *
+ */
+public class StarDictImporter implements DictionaryImporter {
+
+	private static final String IFO_MAGIC = "StarDict's dict ifo file";
+
+	public boolean accepts(String fileName) {
+		return fileName.toLowerCase().endsWith(".ifo");
+	}
+
+	public void read(File file, DictionarySink sink) throws IOException {
+
+		String base = file.getPath().substring(0,
+				file.getPath().length() - ".ifo".length());
+
+		// options of the dictionary
+		String sameTypeSequence = null;
+		boolean offsets64 = false;
+
+		BufferedReader ifo = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), "UTF-8"));
+
+		try {
+			String line = ifo.readLine();
+
+			if (line == null || !line.trim().equals(IFO_MAGIC)) {
+				throw new IOException("Not a StarDict file : " + file);
+			}
+
+			while ((line = ifo.readLine()) != null) {
+				if (line.startsWith("sametypesequence=")) {
+					sameTypeSequence = line.substring(line.indexOf('=') + 1)
+							.trim();
+				} else if (line.startsWith("idxoffsetbits=")) {
+					offsets64 = line.substring(line.indexOf('=') + 1).trim()
+							.equals("64");
+				}
+			}
+		} finally {
+			ifo.close();
+		}
+
+		DataInputStream index = new DataInputStream(open(base + ".idx"));
+
+		try {
+			InputStream data = open(base + ".dict");
+
+			try {
+				read(index, offsets64, data, sameTypeSequence, sink);
+			} finally {
+				data.close();
+			}
+		} finally {
+			index.close();
+		}
+	}
+
+	/**
+	 * Reads the words of the index and their data.
+	 */
+	private static void read(DataInputStream index, boolean offsets64,
+			InputStream data, String sameTypeSequence, DictionarySink sink)
+			throws IOException {
+
+		ByteArrayOutputStream word = new ByteArrayOutputStream();
+		byte[] buffer = new byte[StreamImporter.BUFFER_SIZE];
+
+		// position in the data
+		long position = 0;
+
+		while (true) {
+
+			// the word, ended by a 0
+			word.reset();
+			int b = index.read();
+
+			if (b < 0) {
+				return;
+			}
+
+			for (; b != 0; b = index.read()) {
+				if (b < 0) {
+					throw new EOFException("Truncated StarDict index.");
+				}
+				word.write(b);
+			}
+
+			long offset = offsets64 ? index.readLong() : index.readInt()
+					& 0xffffffffL;
+			int size = index.readInt();
+
+			if (offset < position || size < 0) {
+				throw new IOException(
+						"StarDict data not in the order of the index.");
+			}
+
+			skip(data, offset - position);
+
+			if (size > buffer.length) {
+				buffer = new byte[Math.max(size, buffer.length * 2)];
+			}
+
+			readFully(data, buffer, size);
+			position = offset + size;
+
+			String headword = ImportText.collapse(word.toString("UTF-8"));
+
+			if (headword != null) {
+				addEntry(headword, buffer, size, sameTypeSequence, sink);
+			}
+		}
+	}
+
+	/**
+	 * Gives the entry of the data of a word to the sink.
+	 */
+	private static void addEntry(String word, byte[] data, int size,
+			String sameTypeSequence, DictionarySink sink) throws IOException {
+
+		StringBuilder entry = new StringBuilder();
+		StringBuilder phonetic = new StringBuilder();
+
+		int position = 0;
+		int field = 0;
+
+		while (position < size) {
+
+			char type;
+
+			if (sameTypeSequence == null) {
+				type = (char) data[position++];
+			} else if (field < sameTypeSequence.length()) {
+				type = sameTypeSequence.charAt(field);
+			} else {
+				break;
+			}
+
+			// the last field of a type sequence has no end
+			boolean last = sameTypeSequence != null
+					&& field == sameTypeSequence.length() - 1;
+
+			int start;
+			int end;
+
+			if (Character.isLowerCase(type)) {
+				start = position;
+				end = position;
+				while (end < size && (last || data[end] != 0)) {
+					end++;
+				}
+				position = end + 1;
+			} else {
+				if (last) {
+					start = position;
+				} else {
+					if (position + 4 > size) {
+						break;
+					}
+					int length = ((data[position] & 0xff) << 24)
+							| ((data[position + 1] & 0xff) << 16)
+							| ((data[position + 2] & 0xff) << 8)
+							| (data[position + 3] & 0xff);
+					start = position + 4;
+					position = start + length;
+				}
+				end = last ? size : Math.min(position, size);
+			}
+
+			field++;
+
+			String text = new String(data, start, end - start, "UTF-8");
+
+			switch (type) {
+			case 'm':
+			case 'l':
+				entry.append(text).append(' ');
+				break;
+			case 'g':
+			case 'x':
+			case 'h':
+			case 'w':
+			case 'k':
+			case 'y':
+				entry.append(ImportText.stripTags(text)).append(' ');
+				break;
+			case 't':
+				phonetic.append(text).append(' ');
+				break;
+			default:
+				// resources and binary data
+				break;
+			}
+		}
+
+		sink.add(word, ImportText.collapse(entry), ImportText
+				.collapse(phonetic));
+	}
+
+	/**
+	 * Opens a file of the dictionary, or its compressed version.
+	 */
+	private static InputStream open(String path) throws IOException {
+
+		File file = new File(path);
+
+		if (file.exists()) {
+			return new BufferedInputStream(new FileInputStream(file),
+					StreamImporter.BUFFER_SIZE);
+		}
+
+		// .idx.gz or .dict.dz, gzip files
+		file = new File(path + (path.endsWith(".idx") ? ".gz" : ".dz"));
+
+		return new GZIPInputStream(new FileInputStream(file),
+				StreamImporter.BUFFER_SIZE);
+	}
+
+	private static void skip(InputStream input, long count) throws IOException {
+
+		while (count > 0) {
+			long skipped = input.skip(count);
+			if (skipped <= 0) {
+				if (input.read() < 0) {
+					throw new EOFException("Truncated StarDict data.");
+				}
+				skipped = 1;
+			}
+			count -= skipped;
+		}
+	}
+
+	private static void readFully(InputStream input, byte[] buffer, int size)
+			throws IOException {
+
+		int read = 0;
+
+		while (read < size) {
+			int count = input.read(buffer, read, size - read);
+			if (count < 0) {
+				throw new EOFException("Truncated StarDict data.");
+			}
+			read += count;
+		}
+	}
+
+}
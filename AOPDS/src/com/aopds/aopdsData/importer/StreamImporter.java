@@ -0,0 +1,77 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An importer of the formats holding a dictionary in a single file, which can
+ * also be read from a stream (an asset, a download ...).
+ *
+ */
+public abstract class StreamImporter implements DictionaryImporter {
+
+	/**
+	 * Size of the buffer of the files.
+	 */
+	static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Extensions of the files of the format, in lower case.
+	 */
+	private final String[] extensions;
+
+	/**
+	 * @param extensions
+	 *            The extensions of the files of the format, with their dot.
+	 */
+	protected StreamImporter(String... extensions) {
+		this.extensions = new String[extensions.length];
+
+		for (int i = 0; i < extensions.length; i++) {
+			this.extensions[i] = extensions[i].toLowerCase();
+		}
+	}
+
+	public boolean accepts(String fileName) {
+
+		String name = fileName.toLowerCase();
+
+		for (String extension : extensions) {
+			if (name.endsWith(extension)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public void read(File file, DictionarySink sink) throws IOException {
+
+		InputStream input = new BufferedInputStream(new FileInputStream(file),
+				BUFFER_SIZE);
+
+		try {
+			read(input, sink);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Reads the entries of a dictionary from a stream, left open.
+	 *
+	 * @param input
+	 *            The content of a dictionary file.
+	 * @param sink
+	 *            The sink receiving the entries.
+	 * @throws IOException
+	 *             If the stream cannot be read or is not in the format of the
+	 *             importer. The entries read before are in the sink.
+	 */
+	public abstract void read(InputStream input, DictionarySink sink)
+			throws IOException;
+
+}
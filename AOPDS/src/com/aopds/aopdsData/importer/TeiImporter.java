@@ -0,0 +1,123 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import android.util.Xml;
+
+/**
+ * Importer of the TEI Lex-0 dictionaries, such as the FreeDict ones. Each
+ * entry gives an entry to each of its headwords (orth) : the text of the
+ * entry without its headwords and its pronunciation (pron), which is the
+ * phonetic. The forms of the headword (form type="inflected") stay in the
+ * text. The parts of speech (pos) are kept between brackets, as the notes of
+ * the entries (see EntryAnnotationParser), and the senses are separated by
+ * semicolons.
+ *
+ */
+public class TeiImporter extends StreamImporter {
+
+	public TeiImporter() {
+		super(".tei");
+	}
+
+	@Override
+	public void read(InputStream input, DictionarySink sink)
+			throws IOException {
+
+		XmlPullParser parser = Xml.newPullParser();
+
+		// the headwords, entry and phonetic of the entry being read
+		ArrayList<String> words = new ArrayList<String>();
+		StringBuilder word = new StringBuilder();
+		StringBuilder entry = new StringBuilder();
+		StringBuilder phonetic = new StringBuilder();
+
+		// where the text goes, null out of the entries
+		StringBuilder text = null;
+
+		// depth of the entry, and of the inflected form being read or 0
+		int entryDepth = 0;
+		int inflectedDepth = 0;
+
+		try {
+			parser.setInput(input, null);
+
+			for (int event = parser.getEventType(); event != XmlPullParser.END_DOCUMENT; event = parser
+					.next()) {
+
+				if (event == XmlPullParser.START_TAG) {
+
+					String name = parser.getName();
+
+					if (text == null) {
+						if (name.equals("entry")) {
+							words.clear();
+							entry.setLength(0);
+							phonetic.setLength(0);
+							entryDepth = parser.getDepth();
+							text = entry;
+						}
+					} else if (name.equals("form")
+							&& "inflected".equals(parser.getAttributeValue(
+									null, "type")) && inflectedDepth == 0) {
+						inflectedDepth = parser.getDepth();
+						entry.append(" (");
+					} else if (name.equals("orth") && inflectedDepth == 0) {
+						word.setLength(0);
+						text = word;
+					} else if (name.equals("pron") && inflectedDepth == 0) {
+						text = phonetic;
+					} else if (name.equals("pos")) {
+						entry.append(" [");
+					} else if (name.equals("sense")
+							&& ImportText.collapse(entry) != null) {
+						entry.append(" ; ");
+					} else {
+						entry.append(' ');
+					}
+
+				} else if (event == XmlPullParser.END_TAG && text != null) {
+
+					String name = parser.getName();
+
+					if (parser.getDepth() == entryDepth) {
+						String entryText = ImportText.collapse(entry);
+						String phoneticText = ImportText.collapse(phonetic);
+						for (String headword : words) {
+							sink.add(headword, entryText, phoneticText);
+						}
+						text = null;
+					} else if (parser.getDepth() == inflectedDepth) {
+						inflectedDepth = 0;
+						entry.append(") ");
+					} else if (name.equals("orth") && text == word) {
+						String headword = ImportText.collapse(word);
+						if (headword != null) {
+							words.add(headword);
+						}
+						text = entry;
+					} else if (name.equals("pron") && text == phonetic) {
+						text = entry;
+					} else if (name.equals("pos")) {
+						entry.append("] ");
+					}
+
+				} else if (event == XmlPullParser.TEXT && text != null) {
+					text.append(parser.getText());
+				}
+			}
+
+		} catch (XmlPullParserException e) {
+			IOException error = new IOException("Invalid TEI : "
+					+ e.getMessage());
+			error.initCause(e);
+			throw error;
+		}
+	}
+
+}
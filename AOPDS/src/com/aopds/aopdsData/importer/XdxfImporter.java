@@ -0,0 +1,104 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import android.util.Xml;
+
+/**
+ * Importer of the XDXF dictionaries. Each article (ar) gives an entry to each
+ * of its keys (k) : the text of the article without its keys and its
+ * transcription (tr), which is the phonetic. The grammar notes (gr) are kept
+ * between brackets, as the notes of the entries (see EntryAnnotationParser).
+ *
+ */
+public class XdxfImporter extends StreamImporter {
+
+	public XdxfImporter() {
+		super(".xdxf");
+	}
+
+	@Override
+	public void read(InputStream input, DictionarySink sink)
+			throws IOException {
+
+		XmlPullParser parser = Xml.newPullParser();
+
+		// the keys, entry and phonetic of the article being read
+		ArrayList<String> keys = new ArrayList<String>();
+		StringBuilder key = new StringBuilder();
+		StringBuilder entry = new StringBuilder();
+		StringBuilder phonetic = new StringBuilder();
+
+		// where the text goes, null out of the articles
+		StringBuilder text = null;
+
+		try {
+			parser.setInput(input, null);
+
+			for (int event = parser.getEventType(); event != XmlPullParser.END_DOCUMENT; event = parser
+					.next()) {
+
+				if (event == XmlPullParser.START_TAG) {
+
+					String name = parser.getName();
+
+					if (name.equals("ar")) {
+						keys.clear();
+						entry.setLength(0);
+						phonetic.setLength(0);
+						text = entry;
+					} else if (text == null) {
+						continue;
+					} else if (name.equals("k")) {
+						key.setLength(0);
+						text = key;
+					} else if (name.equals("tr")) {
+						text = phonetic;
+					} else if (name.equals("gr")) {
+						entry.append(" [");
+					} else {
+						entry.append(' ');
+					}
+
+				} else if (event == XmlPullParser.END_TAG && text != null) {
+
+					String name = parser.getName();
+
+					if (name.equals("ar")) {
+						String entryText = ImportText.collapse(entry);
+						String phoneticText = ImportText.collapse(phonetic);
+						for (String word : keys) {
+							sink.add(word, entryText, phoneticText);
+						}
+						text = null;
+					} else if (name.equals("k")) {
+						String word = ImportText.collapse(key);
+						if (word != null) {
+							keys.add(word);
+						}
+						text = entry;
+					} else if (name.equals("tr")) {
+						text = entry;
+					} else if (name.equals("gr")) {
+						entry.append("] ");
+					}
+
+				} else if (event == XmlPullParser.TEXT && text != null) {
+					text.append(parser.getText());
+				}
+			}
+
+		} catch (XmlPullParserException e) {
+			IOException error = new IOException("Invalid XDXF : "
+					+ e.getMessage());
+			error.initCause(e);
+			throw error;
+		}
+	}
+
+}
@@ -0,0 +1,350 @@
+package com.aopds.guiAdapters;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.aopds.R;
+import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Dictionary;
+import com.aopds.aopdsData.domain.LetterSection;
+import com.aopds.aopdsData.domain.WordPage;
+import com.aopds.aopdsData.domain.WordPosition;
+
+import android.content.Context;
+import android.os.Handler;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 
+ * Adapter browsing the whole ordered list of the words of a dictionary. Only a
+ * window of a few pages read by AopdsDatabase.browseWords is kept in memory :
+ * when the list comes close to an edge of the window, the next or previous
+ * page is read in a background thread and appended or prepended, and the page
+ * at the other edge is dropped.<br>
+ * <br>
+ * 
+ * Prepending or dropping pages at the beginning of the window moves the words
+ * already displayed, the listener is told by how many positions so that the
+ * list can keep showing the same words. The position of the window in the
+ * dictionary is followed, for the letter sections of the fast scroll : when
+ * the fast scroll asks for a section beginning out of the window, the window
+ * is reset at the first word of the section.
+ * 
+ */
+public class BrowseAdapter extends WordListAdapter {
+
+	/**
+	 * Number of words read at once.
+	 */
+	public static final int PAGE_SIZE = 50;
+
+	/**
+	 * Maximum number of pages kept in memory.
+	 */
+	public static final int MAX_PAGES = 5;
+
+	/**
+	 * Distance to an edge of the window, in words, from which the next page
+	 * is read.
+	 */
+	public static final int PREFETCH_DISTANCE = 20;
+
+	/**
+	 * Listener of the changes of the window.
+	 */
+	public interface BrowseListener {
+
+		/**
+		 * Called when the words of the window have been moved.
+		 * 
+		 * @param shift
+		 *            The number of positions the displayed words have moved
+		 *            by, positive if pages have been prepended.
+		 */
+		void onWindowShifted(int shift);
+
+		/**
+		 * Called when a page could not be read.
+		 * 
+		 * @param e
+		 *            The error.
+		 */
+		void onBrowseError(AopdsDatabaseException e);
+	}
+
+	private final AopdsDatabase data;
+	private final BrowseListener listener;
+
+	/**
+	 * Pages of the window, in the order of the dictionary.
+	 */
+	private final ArrayList<WordPage> pages = new ArrayList<WordPage>();
+
+	/**
+	 * Handler of the UI thread, publishing the pages read.
+	 */
+	private final Handler handler = new Handler();
+
+	/**
+	 * Single thread reading the pages, one at a time.
+	 */
+	private final ExecutorService pageExecutor = Executors
+			.newSingleThreadExecutor();
+
+	/**
+	 * Incremented at each reset, the pages read for a previous window are
+	 * dropped.
+	 */
+	private int generation;
+
+	/**
+	 * true while a page is read : the pages are read one at a time so that
+	 * the window is never changed at one edge while a page is read for it.
+	 */
+	private boolean loading;
+
+	/**
+	 * Creates the adapter, empty until reset() is called.
+	 * 
+	 * @param context
+	 *            The android context.
+	 * @param concernedDictionary
+	 *            The dictionary to browse.
+	 * @param listener
+	 *            The listener of the changes of the window.
+	 */
+	public BrowseAdapter(Context context, Dictionary concernedDictionary,
+			BrowseListener listener) {
+		super(context, R.layout.search_word_list_item,
+				new ArrayList<AbstractWord>(), concernedDictionary);
+
+		this.data = AopdsDatabase.getInstance(context);
+		this.listener = listener;
+	}
+
+	/**
+	 * Empties the window and reads the page starting from a position.
+	 * 
+	 * @param from
+	 *            The position just before the first word to display.
+	 * @param position
+	 *            The position of the first word to display in the ordered
+	 *            list of the words of the dictionary (see
+	 *            LetterSection.getFirstPosition).
+	 */
+	public void reset(WordPosition from, int position) {
+
+		generation++;
+		loading = false;
+
+		pages.clear();
+		clear();
+
+		firstPosition = position;
+
+		loadPage(from, true);
+	}
+
+	@Override
+	public int getPositionForSection(int section) {
+
+		if (sections.isEmpty()) {
+			return 0;
+		}
+
+		LetterSection target = sections.get(Math.max(0,
+				Math.min(section, sections.size() - 1)));
+
+		int position = target.getFirstPosition() - firstPosition;
+
+		if (position >= 0 && position < getCount()) {
+			return position;
+		}
+
+		// out of the window, unless the window is already read from it
+		if (position != 0) {
+			reset(WordPosition.ofKey(target.getLetter()),
+					target.getFirstPosition());
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Stops reading pages. The adapter must not be used afterwards.
+	 */
+	public void close() {
+		generation++;
+		pageExecutor.shutdownNow();
+	}
+
+	@Override
+	public View getView(int position, View convertView, ViewGroup parent) {
+
+		// the list comes close to an edge of the window
+		if (position >= getCount() - PREFETCH_DISTANCE) {
+			loadNextPage();
+		}
+		if (position < PREFETCH_DISTANCE) {
+			loadPreviousPage();
+		}
+
+		return super.getView(position, convertView, parent);
+	}
+
+	private void loadNextPage() {
+
+		if (loading || pages.isEmpty()) {
+			return;
+		}
+
+		WordPage last = pages.get(pages.size() - 1);
+
+		if (!last.isAtEnd()) {
+			loadPage(last.getLast(), true);
+		}
+	}
+
+	private void loadPreviousPage() {
+
+		if (loading || pages.isEmpty()) {
+			return;
+		}
+
+		WordPage first = pages.get(0);
+
+		if (!first.isAtStart()) {
+			loadPage(first.getFirst(), false);
+		}
+	}
+
+	/**
+	 * Reads a page in the background thread and adds it to the window in the
+	 * UI thread.
+	 */
+	private void loadPage(final WordPosition from, final boolean forward) {
+
+		loading = true;
+
+		final int pageGeneration = generation;
+		final int dictionaryId = concernedDictionary.getCode();
+
+		pageExecutor.execute(new Runnable() {
+
+			public void run() {
+
+				WordPage page = null;
+				AopdsDatabaseException error = null;
+
+				try {
+					page = data.browseWords(dictionaryId, from, forward,
+							PAGE_SIZE);
+				} catch (AopdsDatabaseException e) {
+					error = e;
+				}
+
+				// an empty page stands at the position it has been read from
+				if (page != null && page.getWords().isEmpty()) {
+					page.setFirst(from);
+					page.setLast(from);
+				}
+
+				final WordPage readPage = page;
+				final AopdsDatabaseException readError = error;
+
+				handler.post(new Runnable() {
+					public void run() {
+						publishPage(pageGeneration, readPage, readError,
+								forward);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Adds a page read to the window, in the UI thread, and drops the page at
+	 * the other edge if the window is full.
+	 */
+	private void publishPage(int pageGeneration, WordPage page,
+			AopdsDatabaseException error, boolean forward) {
+
+		if (pageGeneration != generation) {
+			return; // read for a previous window
+		}
+
+		loading = false;
+
+		if (error != null) {
+			listener.onBrowseError(error);
+			return;
+		}
+
+		int shift = 0;
+
+		if (forward) {
+
+			if (pages.isEmpty() || page.getWords().size() > 0) {
+				pages.add(page);
+			} else {
+				// nothing after the last page any more
+				pages.get(pages.size() - 1).setAtEnd(true);
+			}
+
+			if (pages.size() > MAX_PAGES) {
+				int dropped = pages.remove(0).getWords().size();
+				shift -= dropped;
+				firstPosition += dropped;
+			}
+
+		} else {
+
+			if (page.getWords().size() > 0) {
+				pages.add(0, page);
+				shift += page.getWords().size();
+				firstPosition -= page.getWords().size();
+			} else {
+				// nothing before the first page any more
+				pages.get(0).setAtStart(true);
+			}
+
+			if (pages.size() > MAX_PAGES) {
+				pages.remove(pages.size() - 1);
+			}
+
+		}
+
+		refill();
+
+		if (shift != 0) {
+			listener.onWindowShifted(shift);
+		}
+
+		if (getCount() == 0) {
+			// nothing after the position of the reset, no view will ask for
+			// the words before it
+			loadPreviousPage();
+		}
+	}
+
+	/**
+	 * Fills the adapter with the words of the window, notifying the list only
+	 * once.
+	 */
+	private void refill() {
+
+		setNotifyOnChange(false);
+		clear();
+
+		for (WordPage page : pages) {
+			addAll(page.getWords());
+		}
+
+		notifyDataSetChanged();
+	}
+
+}
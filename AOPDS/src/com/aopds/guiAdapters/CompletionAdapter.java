@@ -0,0 +1,100 @@
+package com.aopds.guiAdapters;
+
+import java.util.ArrayList;
+
+import android.content.Context;
+import android.widget.Filter;
+
+import com.aopds.aopdsData.completion.AopdsCompletionEngine;
+
+/**
+ * 
+ * Adapter of the completions proposed by an AutoCompleteTextView while the
+ * user types a word to search in a dictionary. The completions are given by
+ * the AopdsCompletionEngine, without any database access.
+ * 
+ */
+public class CompletionAdapter extends ArrayAdapterExtension<String> {
+
+	/**
+	 * Maximum number of completions proposed.
+	 */
+	public static final int MAX_COMPLETIONS = 20;
+
+	private final AopdsCompletionEngine engine;
+	private final int dictionaryId;
+	private final Filter filter;
+
+	/**
+	 * 
+	 * Creates the completion adapter of a dictionary.
+	 * 
+	 * @param context
+	 *            The android application context.
+	 * @param textViewResourceId
+	 *            The layout of a completion, containing only a TextView.
+	 * @param dictionaryId
+	 *            The dictionary of the completed words.
+	 */
+	public CompletionAdapter(Context context, int textViewResourceId,
+			int dictionaryId) {
+		super(context, textViewResourceId, new ArrayList<String>());
+
+		this.engine = AopdsCompletionEngine.getInstance(context);
+		this.dictionaryId = dictionaryId;
+		this.filter = new CompletionFilter();
+
+		engine.prepareDictionary(dictionaryId);
+	}
+
+	@Override
+	public Filter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Computes the completions in the filtering thread and publishes them in
+	 * the UI thread.
+	 */
+	private class CompletionFilter extends Filter {
+
+		@Override
+		protected FilterResults performFiltering(CharSequence constraint) {
+
+			FilterResults results = new FilterResults();
+
+			ArrayList<String> completions = null;
+
+			if (constraint != null) {
+				completions = engine.complete(dictionaryId,
+						constraint.toString(), MAX_COMPLETIONS);
+			}
+
+			if (completions == null) { // not ready or nothing typed
+				completions = new ArrayList<String>();
+			}
+
+			results.values = completions;
+			results.count = completions.size();
+
+			return results;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected void publishResults(CharSequence constraint,
+				FilterResults results) {
+
+			setNotifyOnChange(false);
+			clear();
+			addAll((ArrayList<String>) results.values);
+
+			if (results.count > 0) {
+				notifyDataSetChanged();
+			} else {
+				notifyDataSetInvalidated();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,307 @@
+package com.aopds.guiAdapters;
+
+import com.aopds.R;
+
+import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Headword;
+import com.aopds.aopdsData.domain.Suggestion;
+import android.content.Context;
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+import android.graphics.Color;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CursorAdapter;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+/**
+ * 
+ * Adapter for the results of a word search. This class is a bridge between a
+ * word search cursor (see AopdsDatabase.rankedSearchWordCursor) and a
+ * ListView.<br>
+ * <br>
+ * 
+ * The rows are bound straight from the window of the cursor : the words are
+ * copied into buffers kept by each row view, no word object is created to
+ * display them. Only the words clicked are mapped (see getItem). The memory
+ * used is then proportional to the displayed rows, not to the number of
+ * results. The rows look like the ones of WordListAdapter.
+ * 
+ */
+public class WordCursorAdapter extends CursorAdapter {
+
+	public static final int VIEW_TYPE_HEADWORD = WordListAdapter.VIEW_TYPE_HEADWORD;
+	public static final int VIEW_TYPE_SUGGESTION = WordListAdapter.VIEW_TYPE_SUGGESTION;
+
+	private static final String MODIFIED_WORD_START = " ( ";
+	private static final String MODIFIED_WORD_END = " )";
+
+	/**
+	 * Views of a row and the buffers receiving its fields.
+	 */
+	private static final class RowViews {
+
+		TextView word;
+		TextView entry;
+		ImageView image;
+
+		final CharArrayBuffer wordBuffer = new CharArrayBuffer(32);
+		final CharArrayBuffer entryBuffer = new CharArrayBuffer(128);
+
+		/**
+		 * Word of a modified headword, displayed after the modified word.
+		 */
+		final CharArrayBuffer headwordBuffer = new CharArrayBuffer(32);
+
+		/**
+		 * Text of a modification : modified word ( headword ).
+		 */
+		char[] text = new char[64];
+	}
+
+	private final LayoutInflater inflater;
+
+	/**
+	 * Buffer of the one character fields (type, status ...), only used in
+	 * the UI thread.
+	 */
+	private final CharArrayBuffer codeBuffer = new CharArrayBuffer(1);
+
+	/**
+	 * Creates the adapter.
+	 * 
+	 * @param context
+	 *            The android context.
+	 * @param cursor
+	 *            The word search cursor to display, may be null.
+	 */
+	public WordCursorAdapter(Context context, Cursor cursor) {
+		super(context, cursor, false);
+
+		inflater = (LayoutInflater) context
+				.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+	}
+
+	@Override
+	public int getItemViewType(int position) {
+
+		Cursor cursor = getCursor();
+
+		if (cursor == null || !cursor.moveToPosition(position)) {
+			return VIEW_TYPE_HEADWORD;
+		}
+
+		return getViewType(cursor);
+	}
+
+	@Override
+	public int getViewTypeCount() {
+		return 2;
+	}
+
+	/**
+	 * Maps the word of a position, as WordListAdapter does : the last
+	 * modification of a modified headword is returned instead of the headword.
+	 * The word is a preview if the cursor is read by the list projection (see
+	 * AopdsDatabase.loadEntry).
+	 * 
+	 * @param position
+	 *            The position of the word.
+	 * @return The word displayed at this position, null if there is none.
+	 */
+	@Override
+	public AbstractWord getItem(int position) {
+
+		Cursor cursor = getCursor();
+
+		if (cursor == null || !cursor.moveToPosition(position)) {
+			return null;
+		}
+
+		AbstractWord word = AopdsDatabase.mapListedWord(cursor);
+
+		if (word instanceof Headword
+				&& ((Headword) word).getLastModification() != null) {
+			return ((Headword) word).getLastModification();
+		}
+
+		return word;
+	}
+
+	@Override
+	public View newView(Context context, Cursor cursor, ViewGroup parent) {
+
+		RowViews views = new RowViews();
+		View v;
+
+		if (getViewType(cursor) == VIEW_TYPE_SUGGESTION) {
+
+			v = inflater.inflate(R.layout.search_word_suggestion_list_item,
+					null);
+
+			views.image = (ImageView) v
+					.findViewById(R.id.searchWordSuggestionListItemImage);
+			views.word = (TextView) v.findViewById(R.id.suggestionTopText);
+			views.entry = (TextView) v.findViewById(R.id.suggestionBottomText);
+
+		} else {
+
+			v = inflater.inflate(R.layout.search_word_list_item, null);
+
+			views.word = (TextView) v.findViewById(R.id.headwordTopText);
+			views.entry = (TextView) v.findViewById(R.id.headwordBottomText);
+		}
+
+		v.setTag(views);
+
+		return v;
+	}
+
+	@Override
+	public void bindView(View v, Context context, Cursor cursor) {
+
+		RowViews views = (RowViews) v.getTag();
+
+		if (getViewType(cursor) == VIEW_TYPE_HEADWORD) {
+
+			setText(views.word, cursor, AopdsDatabase.SEARCHED_WORD_WORD,
+					views.wordBuffer);
+			setText(views.entry, cursor, AopdsDatabase.SEARCHED_WORD_ENTRY,
+					views.entryBuffer);
+			return;
+		}
+
+		boolean modification = !cursor
+				.isNull(AopdsDatabase.SEARCHED_WORD_LM_ID);
+
+		// the fields of the suggestion : the row or its last modification
+		int wordField = modification ? AopdsDatabase.SEARCHED_WORD_LM_WORD
+				: AopdsDatabase.SEARCHED_WORD_WORD;
+		int entryField = modification ? AopdsDatabase.SEARCHED_WORD_LM_ENTRY
+				: AopdsDatabase.SEARCHED_WORD_ENTRY;
+		int synchroStatusField = modification ? AopdsDatabase.SEARCHED_WORD_LM_SYNCH_STAT
+				: AopdsDatabase.SEARCHED_WORD_SYNCH_STAT;
+		int actionTypeField = modification ? AopdsDatabase.SEARCHED_WORD_LM_ACT_TYPE
+				: AopdsDatabase.SEARCHED_WORD_ACT_TYPE;
+
+		char synchroStatus = getCode(cursor, synchroStatusField);
+
+		if (synchroStatus == Suggestion.SYNCHRO_STATUS_UNSYNCHRONIZED.charAt(0)) {
+			v.setBackgroundColor(Color.BLUE);
+		} else if (synchroStatus == Suggestion.SYNCHRO_STATUS_WAITING
+				.charAt(0)) {
+			v.setBackgroundColor(Color.YELLOW);
+		} else if (synchroStatus == Suggestion.SYNCHRO_STATUS_REFUSED
+				.charAt(0)) {
+			v.setBackgroundColor(Color.RED);
+		} else if (synchroStatus == Suggestion.SYNCHRO_STATUS_ACCEPTED
+				.charAt(0)) {
+			v.setBackgroundColor(Color.GREEN);
+		} else {
+			v.setBackgroundColor(Color.BLACK);
+		}
+
+		char actionType = getCode(cursor, actionTypeField);
+
+		if (actionType == AopdsDatabase.ACTION_TYPE_ADDITION.charAt(0)) {
+			views.image.setImageResource(R.drawable.pencil_add);
+		} else if (actionType == AopdsDatabase.ACTION_TYPE_DELETION.charAt(0)) {
+			views.image.setImageResource(R.drawable.pencil_delete);
+		} else {
+			views.image.setImageResource(R.drawable.pencil);
+		}
+
+		if (modification) {
+			setModificationText(views, cursor);
+		} else {
+			setText(views.word, cursor, wordField, views.wordBuffer);
+		}
+
+		setText(views.entry, cursor, entryField, views.entryBuffer);
+	}
+
+	/**
+	 * @return The view type of the current row of the cursor.
+	 */
+	private int getViewType(Cursor cursor) {
+
+		if (getCode(cursor, AopdsDatabase.SEARCHED_WORD_TYPE) == AopdsDatabase.WORD_TYPE_SUGGESTION
+				.charAt(0)
+				|| !cursor.isNull(AopdsDatabase.SEARCHED_WORD_LM_ID)) {
+			return VIEW_TYPE_SUGGESTION;
+		}
+
+		return VIEW_TYPE_HEADWORD;
+	}
+
+	/**
+	 * @return The first character of a one character field, 0 if it is null
+	 *         or empty.
+	 */
+	private char getCode(Cursor cursor, int field) {
+
+		cursor.copyStringToBuffer(field, codeBuffer);
+
+		return codeBuffer.sizeCopied > 0 ? codeBuffer.data[0] : 0;
+	}
+
+	/**
+	 * Displays a field of the current row of the cursor, through a buffer.
+	 */
+	private static void setText(TextView view, Cursor cursor, int field,
+			CharArrayBuffer buffer) {
+
+		if (view == null) {
+			return;
+		}
+
+		cursor.copyStringToBuffer(field, buffer);
+		view.setText(buffer.data, 0, buffer.sizeCopied);
+	}
+
+	/**
+	 * Displays the word of a modification followed by the word of the
+	 * modified headword.
+	 */
+	private static void setModificationText(RowViews views, Cursor cursor) {
+
+		if (views.word == null) {
+			return;
+		}
+
+		cursor.copyStringToBuffer(AopdsDatabase.SEARCHED_WORD_LM_WORD,
+				views.wordBuffer);
+		cursor.copyStringToBuffer(AopdsDatabase.SEARCHED_WORD_WORD,
+				views.headwordBuffer);
+
+		int length = views.wordBuffer.sizeCopied + MODIFIED_WORD_START.length()
+				+ views.headwordBuffer.sizeCopied + MODIFIED_WORD_END.length();
+
+		if (views.text.length < length) {
+			views.text = new char[length * 2];
+		}
+
+		int position = 0;
+
+		System.arraycopy(views.wordBuffer.data, 0, views.text, position,
+				views.wordBuffer.sizeCopied);
+		position += views.wordBuffer.sizeCopied;
+
+		MODIFIED_WORD_START.getChars(0, MODIFIED_WORD_START.length(),
+				views.text, position);
+		position += MODIFIED_WORD_START.length();
+
+		System.arraycopy(views.headwordBuffer.data, 0, views.text, position,
+				views.headwordBuffer.sizeCopied);
+		position += views.headwordBuffer.sizeCopied;
+
+		MODIFIED_WORD_END.getChars(0, MODIFIED_WORD_END.length(), views.text,
+				position);
+
+		views.word.setText(views.text, 0, length);
+	}
+
+}
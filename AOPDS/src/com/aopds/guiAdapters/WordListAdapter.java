@@ -1,5 +1,6 @@
 package com.aopds.guiAdapters;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.aopds.R;
@@ -7,6 +8,7 @@ import com.aopds.R;
 import com.aopds.aopdsData.domain.AbstractWord;
 import com.aopds.aopdsData.domain.Dictionary;
 import com.aopds.aopdsData.domain.Headword;
+import com.aopds.aopdsData.domain.LetterSection;
 import com.aopds.aopdsData.domain.Suggestion;
 import android.content.Context;
 import android.graphics.Color;
@@ -14,17 +16,25 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
+import android.widget.SectionIndexer;
 import android.widget.TextView;
 
 /**
  * 
  * Adapter for a Headword List. This class is a bridge between a headword list
- * and a ListView.
+ * and a ListView.<br>
+ * <br>
+ * 
+ * When the list holds consecutive words of the ordered list of the words of a
+ * dictionary, the letter sections of the dictionary can be given to the
+ * adapter (see setSections) : the fast scroll of the ListView then jumps from
+ * a letter to another.
  * 
  * @author Julien Wollscheid | July 2011
  * 
  */
-public class WordListAdapter extends ArrayAdapterExtension<AbstractWord> {
+public class WordListAdapter extends ArrayAdapterExtension<AbstractWord>
+		implements SectionIndexer {
 
 	public static final int VIEW_TYPE_HEADWORD = 0;
 	public static final int VIEW_TYPE_SUGGESTION = 1;
@@ -32,6 +42,18 @@ public class WordListAdapter extends ArrayAdapterExtension<AbstractWord> {
 	Dictionary concernedDictionary;
 	LayoutInflater inflater;
 
+	/**
+	 * Letter sections of the dictionary, empty if the list is not ordered.
+	 */
+	ArrayList<LetterSection> sections = new ArrayList<LetterSection>();
+	String[] sectionLetters = new String[0];
+
+	/**
+	 * Position of the first word of the list in the ordered list of the words
+	 * of the dictionary.
+	 */
+	int firstPosition;
+
 	/**
 	 * Creates the adapter.
 	 * 
@@ -53,6 +75,70 @@ public class WordListAdapter extends ArrayAdapterExtension<AbstractWord> {
 
 	}
 
+	/**
+	 * Gives the letter sections of the dictionary to the adapter.
+	 * 
+	 * @param sections
+	 *            The sections (see AopdsDatabase.getLetterSections).
+	 * @param firstPosition
+	 *            The position of the first word of the list in the ordered
+	 *            list of the words of the dictionary.
+	 */
+	public void setSections(ArrayList<LetterSection> sections,
+			int firstPosition) {
+
+		this.sections = sections;
+		this.firstPosition = firstPosition;
+
+		sectionLetters = new String[sections.size()];
+
+		for (int i = 0; i < sectionLetters.length; i++) {
+			sectionLetters[i] = sections.get(i).getLetter();
+		}
+	}
+
+	public Object[] getSections() {
+		return sectionLetters;
+	}
+
+	public int getPositionForSection(int section) {
+
+		if (sections.isEmpty()) {
+			return 0;
+		}
+
+		section = Math.max(0, Math.min(section, sections.size() - 1));
+
+		int position = sections.get(section).getFirstPosition()
+				- firstPosition;
+
+		// the section may begin out of the list
+		return Math.max(0, Math.min(position, getCount() - 1));
+	}
+
+	public int getSectionForPosition(int position) {
+
+		int dictionaryPosition = firstPosition + position;
+
+		// last section beginning before the position
+		int low = 0;
+		int high = sections.size() - 1;
+		int section = 0;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+
+			if (sections.get(middle).getFirstPosition() <= dictionaryPosition) {
+				section = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return section;
+	}
+
 	@Override
 	public int getItemViewType(int position) {
 
@@ -5,7 +5,7 @@ import java.io.File;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 import org.xmlpull.v1.XmlPullParser;
@@ -99,7 +99,9 @@ public class AopdsPreferencesManager {
 	private String language;
 
 	/**
-	 * Authorized languages. Loaded from resources.
+	 * Authorized languages. Loaded from resources and the database when
+	 * needed, null until then : the languages of the database are available
+	 * once it is provisioned (see AopdsProvisioning).
 	 */
 	private ArrayList<Language> supportedLanguages;
 
@@ -119,8 +121,6 @@ public class AopdsPreferencesManager {
 
 		listeners = new ArrayList<AopdsPreferencesListener>();
 
-		supportedLanguages = new ArrayList<Language>();
-
 	}
 
 	/**
@@ -137,9 +137,6 @@ public class AopdsPreferencesManager {
 
 			instance = new AopdsPreferencesManager(context);
 
-			// loading supported languages
-			instance.loadAuthorizedLanguages();
-
 			// loading preferences
 			try {
 				if (instance.preferencesPersisted()) {
@@ -218,6 +215,11 @@ public class AopdsPreferencesManager {
 	 * @return A list containing all supported languages.
 	 */
 	public List<Language> getSupportedLanguages() {
+
+		if (supportedLanguages == null) {
+			loadAuthorizedLanguages();
+		}
+
 		return supportedLanguages;
 	}
 
@@ -230,17 +232,12 @@ public class AopdsPreferencesManager {
 	 */
 	private Boolean isLanguageSupported(String language) {
 
-		Iterator<Language> it = supportedLanguages.iterator();
-		Boolean found = false;
+		// the abbreviations of the resources, without waiting for the
+		// database
+		List<String> languages = Arrays.asList(context.getResources()
+				.getStringArray(R.array.authorizedLanguages));
 
-		// searching in the list
-		while (it.hasNext() && !found) {
-			if (it.next().getAbreviation().equals(language)) {
-				found = true;
-			}
-		}
-
-		return found;
+		return languages.contains(language);
 
 	}
 
@@ -263,6 +260,8 @@ public class AopdsPreferencesManager {
 
 		AopdsDatabase db = AopdsDatabase.getInstance(context);
 
+		supportedLanguages = new ArrayList<Language>();
+
 		// getting full languages from database.
 		for (String language : languages) {
 			try {
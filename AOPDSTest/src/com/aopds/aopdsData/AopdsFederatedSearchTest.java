@@ -0,0 +1,103 @@
+package com.aopds.aopdsData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.aopds.aopdsData.domain.AbstractWord;
+import com.aopds.aopdsData.domain.Headword;
+
+import junit.framework.TestCase;
+
+/**
+ * Merge of the federated search (AopdsFederatedSearch) : the first words of
+ * each dictionary kept in the order of the merge whatever the order of their
+ * search, the reading stopped past the last word kept, and the words of the
+ * dictionaries merged into a single ordered list.
+ */
+public class AopdsFederatedSearchTest extends TestCase {
+
+	public void testFirstWordsInMergeOrder() {
+
+		// the order of the Irish search keys : mbad is found as "bad"
+		AopdsFederatedSearch.Stream stream = read(0, 2, "b\u00e1d", "bean",
+				"mb\u00e1d", "bord");
+
+		assertEquals(Arrays.asList("b\u00e1d", "bean"), words(stream));
+	}
+
+	public void testWordsReadOutOfOrderKept() {
+
+		AopdsFederatedSearch.Stream stream = read(0, 2, "mb\u00e1d", "bord",
+				"abhainn", "bean");
+
+		assertEquals(Arrays.asList("abhainn", "bean"), words(stream));
+	}
+
+	public void testReadingPastTheLastWordKept() {
+
+		AopdsFederatedSearch.Stream stream = new AopdsFederatedSearch.Stream(
+				0, 2);
+
+		stream.offer(word("bad"));
+		assertFalse(stream.isPast(word("bean")));
+		stream.offer(word("bean"));
+
+		// the same merge key may come before
+		assertFalse(stream.isPast(word("Bean")));
+		assertTrue(stream.isPast(word("bord")));
+	}
+
+	public void testMergeOfStreamsInDifferentOrders() {
+
+		ArrayList<AopdsFederatedSearch.Stream> streams = new ArrayList<AopdsFederatedSearch.Stream>();
+
+		// Irish order, default order, and no matching
+		streams.add(read(0, 3, "b\u00e1d", "mbord", "bean"));
+		streams.add(read(1, 3, "bad", "bean", "boat"));
+		streams.add(read(2, 3));
+
+		ArrayList<AbstractWord> merged = AopdsFederatedSearch.merge(streams);
+		ArrayList<String> words = new ArrayList<String>();
+
+		for (AbstractWord word : merged) {
+			words.add(word.getWord());
+		}
+
+		// the same word ordered by dictionary
+		assertEquals(Arrays.asList("bad", "b\u00e1d", "bean", "bean", "boat",
+				"mbord"), words);
+	}
+
+	private static AopdsFederatedSearch.Stream read(int dictionaryPosition,
+			int max, String... words) {
+
+		AopdsFederatedSearch.Stream stream = new AopdsFederatedSearch.Stream(
+				dictionaryPosition, max);
+
+		for (String word : words) {
+			stream.offer(word(word));
+		}
+
+		stream.finish();
+		return stream;
+	}
+
+	private static AopdsFederatedSearch.MergedWord word(String word) {
+
+		Headword headword = new Headword();
+		headword.setWord(word);
+		return new AopdsFederatedSearch.MergedWord(headword);
+	}
+
+	private static ArrayList<String> words(AopdsFederatedSearch.Stream stream) {
+
+		ArrayList<String> words = new ArrayList<String>();
+
+		for (AopdsFederatedSearch.MergedWord word : stream.words) {
+			words.add(word.word.getWord());
+		}
+
+		return words;
+	}
+
+}
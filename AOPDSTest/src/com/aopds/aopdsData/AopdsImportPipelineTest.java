@@ -0,0 +1,148 @@
+package com.aopds.aopdsData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import com.aopds.aopdsData.AopdsImportPipeline.ImportedWord;
+import com.aopds.aopdsData.analysis.AopdsAnalyzers;
+import com.aopds.aopdsData.importer.DictionarySink;
+
+import junit.framework.TestCase;
+
+/**
+ * Imports through the pipeline (AopdsImportPipeline) : the entries are
+ * analyzed in parallel but written in the order of the source, with their
+ * positions, after the entries to skip.
+ */
+public class AopdsImportPipelineTest extends TestCase {
+
+	/**
+	 * Entries of several chunks, the last one not full.
+	 */
+	private static final int ENTRIES = AopdsImportPipeline.CHUNK_SIZE * 3 + 7;
+
+	public void testEntriesInTheOrderOfTheSource() throws IOException {
+
+		ArrayList<ImportedWord> words = run(new Words(ENTRIES, -1), 0);
+
+		assertEquals(ENTRIES, words.size());
+
+		for (int i = 0; i < ENTRIES; i++) {
+			ImportedWord word = words.get(i);
+			assertEquals(i, word.position);
+			assertEquals("word" + i, word.word);
+			assertNotNull(word.searchKey);
+			assertNotNull(word.soundKey);
+			assertNotNull(word.trigrams);
+			assertNotNull(word.annotations);
+		}
+	}
+
+	public void testSkippedEntriesKeepTheirPositions() throws IOException {
+
+		ArrayList<ImportedWord> words = run(new Words(10, 3), 0);
+
+		assertEquals(9, words.size());
+		assertEquals(2, words.get(2).position);
+		assertEquals(4, words.get(3).position);
+		assertEquals("word4", words.get(3).word);
+	}
+
+	public void testResumedAfterTheCheckpoint() throws IOException {
+
+		ArrayList<ImportedWord> words = run(new Words(ENTRIES, 3),
+				AopdsImportPipeline.CHUNK_SIZE + 1);
+
+		assertEquals(ENTRIES - AopdsImportPipeline.CHUNK_SIZE - 1, words
+				.size());
+		assertEquals(AopdsImportPipeline.CHUNK_SIZE + 1, words.get(0).position);
+		assertEquals(ENTRIES - 1, words.get(words.size() - 1).position);
+	}
+
+	public void testEntriesReadBeforeTheErrorWritten() {
+
+		final ArrayList<ImportedWord> words = new ArrayList<ImportedWord>();
+
+		try {
+			new AopdsImportPipeline(AopdsAnalyzers.getDefault()).run(
+					new AopdsImportPipeline.Source() {
+						public void read(DictionarySink sink)
+								throws IOException {
+							new Words(ENTRIES, -1).read(sink);
+							throw new IOException("unmounted");
+						}
+					}, 0, new AopdsImportPipeline.ChunkWriter() {
+						public void write(ArrayList<ImportedWord> chunk) {
+							words.addAll(chunk);
+						}
+					});
+			fail("Error of the source lost.");
+		} catch (IOException e) {
+			assertEquals("unmounted", e.getMessage());
+			assertEquals(ENTRIES, words.size());
+		}
+	}
+
+	public void testFailureOfTheWriter() throws IOException {
+
+		try {
+			new AopdsImportPipeline(AopdsAnalyzers.getDefault()).run(
+					new Words(ENTRIES * 10, -1), 0,
+					new AopdsImportPipeline.ChunkWriter() {
+						public void write(ArrayList<ImportedWord> chunk) {
+							throw new IllegalStateException("disk full");
+						}
+					});
+			fail("Failure of the writer lost.");
+		} catch (IllegalStateException e) {
+			// the reader has stopped, the import returns
+			assertEquals("disk full", e.getMessage());
+		}
+	}
+
+	private static ArrayList<ImportedWord> run(AopdsImportPipeline.Source source,
+			int skip) throws IOException {
+
+		final ArrayList<ImportedWord> words = new ArrayList<ImportedWord>();
+
+		new AopdsImportPipeline(AopdsAnalyzers.getDefault()).run(source, skip,
+				new AopdsImportPipeline.ChunkWriter() {
+					public void write(ArrayList<ImportedWord> chunk) {
+						words.addAll(chunk);
+					}
+				});
+
+		return words;
+	}
+
+	/**
+	 * Source of numbered entries, one of them without headword.
+	 */
+	private static final class Words implements AopdsImportPipeline.Source {
+
+		private final int count;
+		private final int empty;
+
+		/**
+		 * @param count
+		 *            The number of entries.
+		 * @param empty
+		 *            The position of the entry without headword, -1 if none.
+		 */
+		Words(int count, int empty) {
+			this.count = count;
+			this.empty = empty;
+		}
+
+		public void read(DictionarySink sink) {
+			for (int i = 0; i < count; i++) {
+				if (i == empty) {
+					sink.skip();
+				} else {
+					sink.add("word" + i, "entry[n] " + i, null);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.aopds.aopdsData;
+
+import junit.framework.TestCase;
+
+/**
+ * Results of the lookup cache (AopdsLookupCache) : the least recently used
+ * ones removed beyond the memory budget, the results of the lookups started
+ * before a removal not kept, and the removals selected by a filter.
+ */
+public class AopdsLookupCacheTest extends TestCase {
+
+	private AopdsLookupCache<String, String> cache;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		// the size of a result is its length
+		cache = new AopdsLookupCache<String, String>(10) {
+			@Override
+			protected int sizeOf(String key, String value) {
+				return value.length();
+			}
+		};
+	}
+
+	public void testLeastRecentlyUsedRemovedBeyondTheBudget() {
+
+		cache.put("a", "aaaa", cache.getVersion());
+		cache.put("b", "bbbb", cache.getVersion());
+		assertEquals("aaaa", cache.get("a"));
+
+		cache.put("c", "cccc", cache.getVersion());
+
+		assertEquals("aaaa", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("cccc", cache.get("c"));
+	}
+
+	public void testReplacedResultSize() {
+
+		cache.put("a", "aaaaaaaa", cache.getVersion());
+		cache.put("a", "aa", cache.getVersion());
+		cache.put("b", "bbbbbbbb", cache.getVersion());
+
+		assertEquals("aa", cache.get("a"));
+		assertEquals("bbbbbbbb", cache.get("b"));
+	}
+
+	public void testResultOverTheBudgetNotKept() {
+
+		cache.put("a", "aaaaaaaaaaa", cache.getVersion());
+
+		assertNull(cache.get("a"));
+	}
+
+	public void testBudgetReduced() {
+
+		cache.put("a", "aaaa", cache.getVersion());
+		cache.put("b", "bbbb", cache.getVersion());
+
+		cache.setMaxSize(5);
+
+		assertNull(cache.get("a"));
+		assertEquals("bbbb", cache.get("b"));
+	}
+
+	public void testLookupStartedBeforeARemovalNotKept() {
+
+		int version = cache.getVersion();
+		cache.remove(new AopdsLookupCache.KeyFilter<String>() {
+			public boolean matches(String key) {
+				return false;
+			}
+		});
+		cache.put("a", "aaaa", version);
+		assertNull(cache.get("a"));
+
+		version = cache.getVersion();
+		cache.clear();
+		cache.put("a", "aaaa", version);
+		assertNull(cache.get("a"));
+	}
+
+	public void testRemovalByFilter() {
+
+		cache.put("a1", "1", cache.getVersion());
+		cache.put("a2", "2", cache.getVersion());
+		cache.put("b1", "3", cache.getVersion());
+
+		cache.remove(new AopdsLookupCache.KeyFilter<String>() {
+			public boolean matches(String key) {
+				return key.startsWith("a");
+			}
+		});
+
+		assertNull(cache.get("a1"));
+		assertNull(cache.get("a2"));
+		assertEquals("3", cache.get("b1"));
+
+		// the size of the removed results is freed
+		cache.put("c", "cccccccc", cache.getVersion());
+		assertEquals("3", cache.get("b1"));
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.aopds.aopdsData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Caches of the word searches (AopdsDatabase) : the searches removed by the
+ * changes of their dictionaries and of the words they may find, and the
+ * memory budget used by the windows of the ranked searches.
+ */
+public class AopdsSearchCacheTest extends TestCase {
+
+	private AopdsLookupCache<AopdsDatabase.CachedSearch, String> cache;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		cache = new AopdsLookupCache<AopdsDatabase.CachedSearch, String>(100);
+
+		for (AopdsDatabase.CachedSearch search : new AopdsDatabase.CachedSearch[] {
+				search(1, "te", false), search(1, "tea", true),
+				search(1, "b", false), search(2, "te", false) }) {
+			cache.put(search, search.key, cache.getVersion());
+		}
+	}
+
+	public void testSearchesOfTheDictionaries() {
+
+		cache.remove(AopdsDatabase.searchesOf(Arrays.asList(2, 3)));
+
+		assertNotNull(cache.get(search(1, "te", false)));
+		assertNull(cache.get(search(2, "te", false)));
+	}
+
+	public void testPrefixSearchesFindingAWord() {
+
+		cache.remove(AopdsDatabase.searchesFinding(keys("1", "teach")));
+
+		assertNull(cache.get(search(1, "te", false)));
+		assertNotNull(cache.get(search(1, "tea", true)));
+		assertNotNull(cache.get(search(1, "b", false)));
+		assertNotNull(cache.get(search(2, "te", false)));
+	}
+
+	public void testExactSearchesFindingAWord() {
+
+		cache.remove(AopdsDatabase.searchesFinding(keys("1", "tea")));
+
+		assertNull(cache.get(search(1, "te", false)));
+		assertNull(cache.get(search(1, "tea", true)));
+		assertNotNull(cache.get(search(1, "b", false)));
+	}
+
+	public void testWordOfNoSearch() {
+
+		cache.remove(AopdsDatabase.searchesFinding(keys("2", "bad")));
+
+		assertNotNull(cache.get(search(1, "b", false)));
+		assertNotNull(cache.get(search(2, "te", false)));
+	}
+
+	public void testRankedWindowSize() {
+
+		ArrayList<String[]> rows = new ArrayList<String[]>();
+		AopdsDatabase.RankedWindow empty = new AopdsDatabase.RankedWindow(
+				null, rows, -1);
+
+		rows = new ArrayList<String[]>();
+		rows.add(new String[] { "1", "tea", null });
+		AopdsDatabase.RankedWindow one = new AopdsDatabase.RankedWindow(
+				new String[] { "_id", "WORD", "PHONETIC" }, rows, -1);
+
+		rows = new ArrayList<String[]>();
+		rows.add(new String[] { "1", "tea", null });
+		rows.add(new String[] { "2", "teachta", "t\u02b2axta" });
+		AopdsDatabase.RankedWindow two = new AopdsDatabase.RankedWindow(
+				new String[] { "_id", "WORD", "PHONETIC" }, rows, 0);
+
+		assertTrue(empty.estimateSize() > 0);
+		assertTrue(one.estimateSize() > empty.estimateSize());
+		assertTrue(two.estimateSize() > one.estimateSize() + 2 * 7);
+	}
+
+	private static AopdsDatabase.CachedSearch search(int dictionaryId,
+			String key, boolean exactMatch) {
+		return new AopdsDatabase.CachedSearch(dictionaryId, key, exactMatch,
+				false);
+	}
+
+	private static ArrayList<String[]> keys(String dictionaryId, String key) {
+
+		ArrayList<String[]> keys = new ArrayList<String[]>();
+		keys.add(new String[] { dictionaryId, key });
+		return keys;
+	}
+
+}
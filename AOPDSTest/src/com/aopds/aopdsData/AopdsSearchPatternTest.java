@@ -0,0 +1,89 @@
+package com.aopds.aopdsData;
+
+import java.util.Arrays;
+
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.analysis.AopdsAnalyzers;
+
+import junit.framework.TestCase;
+
+/**
+ * Patterns of the pattern search (AopdsDatabase.compilePattern) : the
+ * wildcards kept for GLOB and the other characters escaped, the letters
+ * analyzed as the stored words, and the trigrams of the candidates.
+ */
+public class AopdsSearchPatternTest extends TestCase {
+
+	private static final String START = String
+			.valueOf(AopdsSearchKey.KEY_START);
+	private static final String END = String.valueOf(AopdsSearchKey.KEY_END);
+
+	private final AopdsAnalyzer standard = AopdsAnalyzers.getDefault();
+	private final AopdsAnalyzer irish = AopdsAnalyzers
+			.forLanguage(AopdsAnalyzers.LANGUAGE_IRISH);
+
+	public void testWildcardsKept() {
+
+		AopdsDatabase.WordPattern pattern = AopdsDatabase.compilePattern(
+				standard, "Ab?IRT*");
+
+		assertEquals("ab?irt*", pattern.glob);
+		assertEquals("ab", pattern.firstLetters);
+	}
+
+	public void testBracketEscaped() {
+
+		AopdsDatabase.WordPattern pattern = AopdsDatabase.compilePattern(
+				standard, "a[b]*");
+
+		assertEquals("a[[]b]*", pattern.glob);
+		assertEquals(Arrays.asList(START + "a[", "a[b", "[b]"),
+				pattern.trigrams);
+	}
+
+	public void testLettersAnalyzedAsTheWords() {
+
+		// the eclipsis of "mb" is removed as in the stored words
+		AopdsDatabase.WordPattern pattern = AopdsDatabase.compilePattern(
+				irish, "mb?d");
+
+		assertEquals("b?d", pattern.glob);
+		assertEquals("b", pattern.firstLetters);
+
+		assertEquals("*bean*", AopdsDatabase.compilePattern(irish,
+				"*bhean*").glob);
+		assertEquals("bad*", AopdsDatabase.compilePattern(standard,
+				"b\u00e1d*").glob);
+	}
+
+	public void testTrigramsOfTheParts() {
+
+		assertEquals(Arrays.asList("ach", "cht"), AopdsDatabase
+				.compilePattern(standard, "*acht*").trigrams);
+
+		// marked by the beginning and the end of the keys
+		assertEquals(Arrays.asList(START + "ab", "irt", "rt" + END),
+				AopdsDatabase.compilePattern(standard, "ab?irt").trigrams);
+	}
+
+	public void testPatternWithoutTrigram() {
+
+		AopdsDatabase.WordPattern letters = AopdsDatabase.compilePattern(
+				standard, "a*");
+		AopdsDatabase.WordPattern wildcard = AopdsDatabase.compilePattern(
+				standard, "?a?");
+
+		// matched on the range of the first letters, or on the dictionary
+		assertTrue(letters.trigrams.isEmpty());
+		assertEquals("a", letters.firstLetters);
+		assertTrue(wildcard.trigrams.isEmpty());
+		assertNull(wildcard.firstLetters);
+	}
+
+	public void testNumberOfTrigramsBounded() {
+
+		assertEquals(8, AopdsDatabase.compilePattern(standard,
+				"*abcdefghijklmnop*").trigrams.size());
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.aopds.aopdsData;
+
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+import com.aopds.aopdsData.domain.Headword;
+
+import android.test.AndroidTestCase;
+
+/**
+ * Ids of the words of the bundled dictionary, loaded by the provisioning or
+ * copied from the prebuilt database : the lines of the file of the assets
+ * holding an entry, counted from 0, as the ids of the words on the server.
+ */
+public class BundledDictionaryTest extends AndroidTestCase {
+
+	/**
+	 * Time given to the provisioning of the database, in ms.
+	 */
+	private static final long PROVISIONING_TIMEOUT = 10 * 60 * 1000;
+
+	private AopdsDatabase database;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		AopdsProvisioning provisioning = AopdsProvisioning
+				.getInstance(getContext());
+		provisioning.start();
+
+		long end = System.currentTimeMillis() + PROVISIONING_TIMEOUT;
+
+		while (!provisioning.isReady(AopdsProvisioning.STAGE_DICTIONARY)) {
+			assertTrue("Database not provisioned.",
+					System.currentTimeMillis() < end);
+			Thread.sleep(500);
+		}
+
+		database = AopdsDatabase.getInstance(getContext());
+	}
+
+	public void testIdOfTheLine() throws AopdsDatabaseException {
+
+		// the line before, without entry, has no id
+		assertWord(4899, "dreancaid", "flea");
+		assertWord(6000, "foghlamtha", "learned");
+	}
+
+	public void testIdOfTheLastLine() throws AopdsDatabaseException {
+		assertWord(12856, "z\u00fa", "zoo");
+	}
+
+	private void assertWord(long id, String word, String entry)
+			throws AopdsDatabaseException {
+
+		Headword headword = database.getWordById(id);
+
+		assertNotNull(headword);
+		assertEquals(word, headword.getWord());
+		assertEquals(entry, headword.getEntry());
+	}
+
+}
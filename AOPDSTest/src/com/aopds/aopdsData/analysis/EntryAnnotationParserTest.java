@@ -0,0 +1,87 @@
+package com.aopds.aopdsData.analysis;
+
+import java.util.ArrayList;
+
+import com.aopds.aopdsData.domain.Annotation;
+
+import junit.framework.TestCase;
+
+/**
+ * Notes of the entries and their parts of speech (EntryAnnotationParser),
+ * including the notes badly closed by the imported dictionaries.
+ */
+public class EntryAnnotationParserTest extends TestCase {
+
+	public void testEntryWithoutNote() {
+		assertEquals(0, EntryAnnotationParser.parse("house").size());
+		assertEquals(0, EntryAnnotationParser.parse(null).size());
+	}
+
+	public void testNotesInTheirOrder() {
+
+		ArrayList<Annotation> annotations = EntryAnnotationParser
+				.parse("that[pronoun:direct relative] strain(of music)");
+
+		assertEquals(2, annotations.size());
+		assertNote(annotations.get(0), Annotation.PRONOUN,
+				"pronoun:direct relative");
+		assertNote(annotations.get(1), null, "of music");
+	}
+
+	public void testNoteClosedByTheOtherCharacter() {
+
+		ArrayList<Annotation> annotations = EntryAnnotationParser
+				.parse("that[pronoun:direct relative) who");
+
+		assertEquals(1, annotations.size());
+		assertNote(annotations.get(0), Annotation.PRONOUN,
+				"pronoun:direct relative");
+	}
+
+	public void testNoteNotClosed() {
+
+		ArrayList<Annotation> annotations = EntryAnnotationParser
+				.parse("how[degree");
+
+		assertEquals(1, annotations.size());
+		assertNote(annotations.get(0), null, "degree");
+	}
+
+	public void testEmptyNote() {
+		assertEquals(0, EntryAnnotationParser.parse("word() []").size());
+	}
+
+	public void testAbbreviatedPartOfSpeech() {
+		assertPartOfSpeech(Annotation.ADJECTIVE, "good[adj]");
+		assertPartOfSpeech(Annotation.PREPOSITION, "on[prep.]");
+		assertPartOfSpeech(Annotation.NOUN, "house[n, masc]");
+		assertPartOfSpeech(Annotation.VERB, "go[vi]");
+	}
+
+	public void testPartOfSpeechInTheNote() {
+		assertPartOfSpeech(Annotation.PRONOUN,
+				"that[indirect relative pronoun]");
+		assertPartOfSpeech(Annotation.ADVERB, "then[Adverb]");
+	}
+
+	public void testVerbOfAnEnglishGloss() {
+		assertPartOfSpeech(Annotation.VERB, "name(to)");
+	}
+
+	private static void assertPartOfSpeech(String partOfSpeech, String entry) {
+
+		ArrayList<Annotation> annotations = EntryAnnotationParser.parse(entry);
+
+		assertEquals(1, annotations.size());
+		assertEquals(partOfSpeech, annotations.get(0).getPartOfSpeech());
+	}
+
+	private static void assertNote(Annotation annotation, String partOfSpeech,
+			String note) {
+
+		assertEquals(0, annotation.getHeadwordId());
+		assertEquals(partOfSpeech, annotation.getPartOfSpeech());
+		assertEquals(note, annotation.getNote());
+	}
+
+}
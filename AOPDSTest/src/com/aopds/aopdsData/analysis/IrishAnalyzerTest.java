@@ -0,0 +1,107 @@
+package com.aopds.aopdsData.analysis;
+
+import junit.framework.TestCase;
+
+/**
+ * Search keys of the Irish words (IrishAnalyzer) : the initial mutations
+ * removed from the words and from the typed texts, the eclipsis ending a
+ * typed text held back, and the words which only look mutated.
+ */
+public class IrishAnalyzerTest extends TestCase {
+
+	private final IrishAnalyzer irish = new IrishAnalyzer();
+
+	public void testPrefixesOfTheVowels() {
+		assertEquals("uisce", irish.indexKey("t-uisce"));
+		assertEquals("athair", irish.indexKey("n-athair"));
+		assertEquals("anam", irish.indexKey("h-anam"));
+		assertEquals("uisce", irish.indexKey("tUisce"));
+		assertEquals("athair", irish.indexKey("nAthair"));
+		assertEquals("eireann", irish.indexKey("h\u00c9ireann"));
+	}
+
+	public void testEclipses() {
+		assertEquals("bad", irish.indexKey("mb\u00e1d"));
+		assertEquals("cat", irish.indexKey("gcat"));
+		assertEquals("duine", irish.indexKey("nduine"));
+		assertEquals("fear", irish.indexKey("bhfear"));
+		assertEquals("geata", irish.indexKey("ngeata"));
+		assertEquals("paiste", irish.indexKey("bp\u00e1iste"));
+		assertEquals("tig", irish.indexKey("dtig"));
+		assertEquals("bad", irish.indexKey("MB\u00c1D"));
+	}
+
+	public void testTBeforeS() {
+		assertEquals("sraid", irish.indexKey("tsr\u00e1id"));
+		assertEquals("seachtain", irish.indexKey("tseachtain"));
+		assertEquals("slainte", irish.indexKey("tsl\u00e1inte"));
+	}
+
+	public void testLenition() {
+		assertEquals("bean", irish.indexKey("bhean"));
+		assertEquals("bean", irish.indexKey("Bhean"));
+		assertEquals("duine", irish.indexKey("dhuine"));
+		assertEquals("fear", irish.indexKey("fhear"));
+		assertEquals("post", irish.indexKey("phost"));
+		assertEquals("samhradh", irish.indexKey("shamhradh"));
+	}
+
+	public void testEachWordOfAText() {
+		assertEquals("an sraid", irish.indexKey("an tsr\u00e1id"));
+		assertEquals("ar an bord", irish.indexKey("ar an mbord"));
+	}
+
+	public void testMutationRemovedKeepingTheCase() {
+		assertEquals("B\u00c1D", IrishAnalyzer
+				.removeMutation("MB\u00c1D"));
+		assertEquals("\u00c9ireann", IrishAnalyzer
+				.removeMutation("h\u00c9ireann"));
+		assertEquals("bean", IrishAnalyzer.removeMutation("bhean"));
+	}
+
+	public void testOneLetterKeptAfterTheMutation() {
+		assertEquals("b", IrishAnalyzer.removeMutation("mb"));
+		assertEquals("t", IrishAnalyzer.removeMutation("t"));
+		assertEquals("t-", IrishAnalyzer.removeMutation("t-"));
+		assertEquals("ts", IrishAnalyzer.removeMutation("ts"));
+	}
+
+	public void testWordsWhichOnlyLookMutated() {
+		// t, n or h before a small vowel, ts before another consonant
+		// than l, n or r
+		assertEquals("tuisce", irish.indexKey("Tuisce"));
+		assertEquals("hata", irish.indexKey("hata"));
+		assertEquals("nead", irish.indexKey("nead"));
+		assertEquals("teach", irish.indexKey("teach"));
+		assertEquals("tsb", irish.indexKey("tsb"));
+		assertEquals("tabhair", irish.indexKey("tabhair"));
+
+		// a radical beginning like a lenition is found by itself
+		assertEquals(irish.indexKey("thar"), irish.queryKey("thar"));
+		assertEquals(irish.indexKey("chuig"), irish.queryKey("chuig"));
+	}
+
+	public void testTypedTextsAnalyzedAsTheWords() {
+		assertEquals(irish.indexKey("bhfear"), irish.queryKey("bhfear"));
+		assertEquals(irish.indexKey("t-uisce"), irish.queryKey("t-uisce"));
+		assertEquals(irish.indexKey("tsr\u00e1id"), irish
+				.queryKey("tsr\u00e1id"));
+	}
+
+	public void testEclipsisEndingTheTextHeldBack() {
+		assertEquals("m", irish.queryKey("mb"));
+		assertEquals("ba", irish.queryKey("mba"));
+		assertEquals("g", irish.queryKey("gc"));
+		assertEquals("ca", irish.queryKey("gca"));
+		assertEquals("n", irish.queryKey("nd"));
+		assertEquals("ar an m", irish.queryKey("ar an mb"));
+		assertEquals("ar an bo", irish.queryKey("ar an mbo"));
+	}
+
+	public void testBhfHeldBackAsTheLenitedB() {
+		assertEquals("b", irish.queryKey("bhf"));
+		assertEquals("fe", irish.queryKey("bhfe"));
+		assertEquals("b", irish.queryKey("bh"));
+	}
+
+}
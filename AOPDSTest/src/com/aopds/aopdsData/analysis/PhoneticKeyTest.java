@@ -0,0 +1,69 @@
+package com.aopds.aopdsData.analysis;
+
+import junit.framework.TestCase;
+
+/**
+ * Sound keys of the simplified Metaphone (PhoneticKey) and of the Irish
+ * rules (IrishAnalyzer.soundKey) : the spellings of a same sound share their
+ * key.
+ */
+public class PhoneticKeyTest extends TestCase {
+
+	private final IrishAnalyzer irish = new IrishAnalyzer();
+
+	public void testSpellingsOfTheSameSound() {
+		assertEquals("ftkrf", PhoneticKey.metaphone("photograph"));
+		assertEquals("ftkrf", PhoneticKey.metaphone("fotograf"));
+	}
+
+	public void testSilentLetters() {
+		assertEquals("nt", PhoneticKey.metaphone("knight"));
+		assertEquals("nt", PhoneticKey.metaphone("night"));
+		assertEquals("sn", PhoneticKey.metaphone("sign"));
+		assertEquals("lm", PhoneticKey.metaphone("lamb"));
+		assertEquals("rt", PhoneticKey.metaphone("wright"));
+	}
+
+	public void testSoftAndHardConsonants() {
+		assertEquals("sl", PhoneticKey.metaphone("cell"));
+		assertEquals("jm", PhoneticKey.metaphone("gem"));
+		assertEquals("skl", PhoneticKey.metaphone("school"));
+		assertEquals("sns", PhoneticKey.metaphone("science"));
+		assertEquals("xrx", PhoneticKey.metaphone("church"));
+		assertEquals("nxn", PhoneticKey.metaphone("nation"));
+		assertEquals("0m", PhoneticKey.metaphone("thumb"));
+	}
+
+	public void testFirstLetters() {
+		assertEquals("slfn", PhoneticKey.metaphone("xylophone"));
+		assertEquals("a", PhoneticKey.metaphone("a"));
+	}
+
+	public void testKeyWithoutLetters() {
+		assertEquals("!!", PhoneticKey.metaphone("!!"));
+	}
+
+	public void testIrishMutations() {
+		assertEquals(irish.soundKey("bean"), irish.soundKey("bhean"));
+		assertEquals(irish.soundKey("bean"), irish.soundKey("mbean"));
+		assertEquals(irish.soundKey("fear"), irish.soundKey("fhear"));
+		assertEquals(irish.soundKey("fear"), irish.soundKey("bhfear"));
+		assertEquals(irish.soundKey("sr\u00e1id"), irish.soundKey("tsr\u00e1id"));
+		assertEquals(irish.soundKey("m\u00f3r"), irish.soundKey("mh\u00f3r"));
+	}
+
+	public void testIrishSpellingsOfTheSameSound() {
+		assertEquals("kln", irish.soundKey("cail\u00edn"));
+		assertEquals("kln", irish.soundKey("kailin"));
+		assertEquals(irish.soundKey("baine"), irish.soundKey("bainne"));
+	}
+
+	public void testIrishLenitedConsonants() {
+		assertEquals("tx", irish.soundKey("teach"));
+		assertEquals("ask", irish.soundKey("uisce"));
+
+		// final gh is silent
+		assertEquals("k", irish.soundKey("chuaigh"));
+	}
+
+}
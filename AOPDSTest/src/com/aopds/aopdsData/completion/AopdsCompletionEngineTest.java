@@ -0,0 +1,184 @@
+package com.aopds.aopdsData.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import com.aopds.aopdsData.analysis.AopdsAnalyzer;
+import com.aopds.aopdsData.analysis.AopdsAnalyzers;
+import com.aopds.aopdsData.domain.SearchableWords;
+
+import junit.framework.TestCase;
+
+/**
+ * Completions and corrections of the engine (AopdsCompletionEngine) : the
+ * trie built in the background, the changes notified during its building
+ * applied once, the ones already read ignored, and the trie dropped by the
+ * changes of the whole dictionary.
+ */
+public class AopdsCompletionEngineTest extends TestCase {
+
+	private static final int DICTIONARY = 1;
+
+	private Words words;
+	private AopdsCompletionEngine engine;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		words = new Words();
+		engine = new AopdsCompletionEngine(words);
+	}
+
+	public void testNotReadyBeforeTheBuilding() {
+
+		assertNull(engine.complete(DICTIONARY, "te", 10));
+		assertNull(engine.correct(DICTIONARY, "teash", 10));
+	}
+
+	public void testCompletionsAndCorrections() throws InterruptedException {
+
+		build();
+
+		assertEquals(Arrays.asList("tea", "teach", "ten"), engine.complete(
+				DICTIONARY, "TE", 10));
+		assertEquals(Arrays.asList("teach", "tea"), engine.correct(
+				DICTIONARY, " teash ", 10));
+		assertTrue(engine.complete(DICTIONARY, "", 10).isEmpty());
+	}
+
+	public void testShortWordsCorrectedWithinOneEdit()
+			throws InterruptedException {
+
+		build();
+
+		// "tn" is two edits away from "tea"
+		assertEquals(Arrays.asList("ten"), engine.correct(DICTIONARY, "tn",
+				10));
+	}
+
+	public void testChangesAfterTheBuilding() throws InterruptedException {
+
+		build();
+
+		engine.onWordAdded(DICTIONARY, "teacht", 4);
+		engine.onWordRemoved(DICTIONARY, "ten", 5);
+
+		assertEquals(Arrays.asList("tea", "teach", "teacht"), engine.complete(
+				DICTIONARY, "te", 10));
+	}
+
+	public void testChangesAlreadyReadIgnored() throws InterruptedException {
+
+		build();
+
+		// notified after the reading of the words which include them
+		engine.onWordAdded(DICTIONARY, "teach", 2);
+		engine.onWordRemoved(DICTIONARY, "tea", 3);
+
+		assertEquals(Arrays.asList("tea", "teach", "ten"), engine.complete(
+				DICTIONARY, "te", 10));
+	}
+
+	public void testChangesNotifiedDuringTheBuilding()
+			throws InterruptedException {
+
+		words.reading = new CountDownLatch(1);
+		engine.prepareDictionary(DICTIONARY);
+
+		// committed before the reading, notified during the building
+		engine.onWordAdded(DICTIONARY, "teach", 3);
+		engine.onWordRemoved(DICTIONARY, "ten", 3);
+		// committed after the reading
+		engine.onWordAdded(DICTIONARY, "teacht", 4);
+		engine.onWordRemoved(DICTIONARY, "tea", 5);
+
+		words.reading.countDown();
+		waitForTrie();
+
+		assertEquals(Arrays.asList("teach", "teacht", "ten"), engine.complete(
+				DICTIONARY, "te", 10));
+
+		// a single occurrence of the word read
+		engine.onWordRemoved(DICTIONARY, "teach", 6);
+		assertEquals(Arrays.asList("teacht", "ten"), engine.complete(
+				DICTIONARY, "te", 10));
+	}
+
+	public void testDictionaryChangedDuringTheBuilding()
+			throws InterruptedException {
+
+		words.reading = new CountDownLatch(1);
+		engine.prepareDictionary(DICTIONARY);
+
+		engine.onDictionaryChanged(DICTIONARY);
+		words.reading.countDown();
+
+		// the words read are dropped, the next preparation reads them again
+		while (words.reads < 1) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(50);
+		assertNull(engine.complete(DICTIONARY, "te", 10));
+
+		build();
+		assertNotNull(engine.complete(DICTIONARY, "te", 10));
+	}
+
+	public void testDictionaryChangedAfterTheBuilding()
+			throws InterruptedException {
+
+		build();
+
+		engine.onDictionaryChanged(DICTIONARY);
+
+		assertNull(engine.complete(DICTIONARY, "te", 10));
+	}
+
+	private void build() throws InterruptedException {
+		engine.prepareDictionary(DICTIONARY);
+		waitForTrie();
+	}
+
+	private void waitForTrie() throws InterruptedException {
+
+		for (int i = 0; i < 500
+				&& engine.complete(DICTIONARY, "a", 1) == null; i++) {
+			Thread.sleep(10);
+		}
+
+		assertNotNull("Trie not built.", engine.complete(DICTIONARY, "a", 1));
+	}
+
+	/**
+	 * Words of the dictionary, including the changes up to 3, read when the
+	 * latch is opened.
+	 */
+	private static final class Words implements
+			AopdsCompletionEngine.WordSource {
+
+		volatile CountDownLatch reading;
+		volatile int reads;
+
+		public AopdsAnalyzer getAnalyzer(int dictionaryId) {
+			return AopdsAnalyzers.getDefault();
+		}
+
+		public SearchableWords getSearchableWords(int dictionaryId) {
+
+			if (reading != null) {
+				try {
+					reading.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			reads++;
+
+			return new SearchableWords(new ArrayList<String>(Arrays.asList(
+					"tea", "teach", "ten")), 3);
+		}
+	}
+
+}
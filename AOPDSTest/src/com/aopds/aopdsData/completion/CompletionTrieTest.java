@@ -0,0 +1,114 @@
+package com.aopds.aopdsData.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Words of the completion trie (CompletionTrie) : the completions in the order
+ * of the word search, the words added several times, the branches merged
+ * back by the removals and the corrections within an edit distance.
+ */
+public class CompletionTrieTest extends TestCase {
+
+	private CompletionTrie trie;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		trie = new CompletionTrie();
+
+		for (String word : new String[] { "teach", "teachta", "tea", "ten",
+				"bean", "bad", "b\u00e1d" }) {
+			trie.add(key(word), word);
+		}
+	}
+
+	public void testCompletionsInSearchOrder() {
+
+		assertEquals(Arrays.asList("tea", "teach", "teachta", "ten"), trie
+				.complete("te", 10));
+		assertEquals(Arrays.asList("bad", "b\u00e1d"), trie.complete("bad", 10));
+	}
+
+	public void testPrefixInsideALabel() {
+
+		assertEquals(Arrays.asList("teach", "teachta"), trie.complete("teac",
+				10));
+		assertEquals(Arrays.asList("teachta"), trie.complete("teacht", 10));
+		assertTrue(trie.complete("teaz", 10).isEmpty());
+		assertTrue(trie.complete("teachtai", 10).isEmpty());
+	}
+
+	public void testMaximumNumberOfCompletions() {
+
+		assertEquals(Arrays.asList("tea", "teach"), trie.complete("t", 2));
+	}
+
+	public void testWordAddedTwice() {
+
+		trie.add("tea", "tea");
+		assertEquals(7, trie.size());
+
+		trie.remove("tea", "tea");
+		assertEquals(Arrays.asList("tea", "teach", "teachta", "ten"), trie
+				.complete("te", 10));
+
+		trie.remove("tea", "tea");
+		assertEquals(Arrays.asList("teach", "teachta", "ten"), trie.complete(
+				"te", 10));
+		assertEquals(6, trie.size());
+	}
+
+	public void testRemovalKeepsTheOtherWords() {
+
+		trie.remove("teach", "teach");
+		trie.remove("ten", "ten");
+
+		assertEquals(Arrays.asList("tea", "teachta"), trie.complete("te", 10));
+		assertEquals(Arrays.asList("teachta"), trie.complete("teac", 10));
+
+		trie.remove("teachta", "teachta");
+		trie.add("teach", "teach");
+
+		assertEquals(Arrays.asList("tea", "teach"), trie.complete("te", 10));
+	}
+
+	public void testUnknownWordRemoved() {
+
+		trie.remove("teac", "teac");
+		trie.remove("tea", "teach");
+		trie.remove("zoo", "zoo");
+
+		assertEquals(7, trie.size());
+	}
+
+	public void testCorrectionsClosestFirst() {
+
+		// one substitution, then one substitution and one deletion
+		assertEquals(Arrays.asList("teach", "tea"), trie.lookup("teash", 2, 10));
+		assertEquals(Arrays.asList("teach"), trie.lookup("teash", 1, 10));
+	}
+
+	public void testCorrectionsOfTheSameDistanceInSearchOrder() {
+
+		ArrayList<String> words = trie.lookup("ban", 1, 10);
+
+		assertEquals(Arrays.asList("bad", "b\u00e1d", "bean"), words);
+	}
+
+	public void testNoCorrection() {
+
+		assertTrue(trie.lookup("xyz", 2, 10).isEmpty());
+		assertEquals(Arrays.asList("tea"), trie.lookup("tea", 2, 1));
+	}
+
+	/**
+	 * The search key of a word : the word without fadas.
+	 */
+	private static String key(String word) {
+		return word.replace('\u00e1', 'a');
+	}
+
+}
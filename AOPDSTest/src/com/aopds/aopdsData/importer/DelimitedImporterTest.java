@@ -0,0 +1,113 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+/**
+ * Lines of the delimited files (DelimitedImporter) : the CSV quotes, the byte
+ * order mark, the line breaks and the lines of the bundled dictionary.
+ */
+public class DelimitedImporterTest extends TestCase {
+
+	private final StreamImporter csv = new DelimitedImporter(',', true, 0, 1,
+			2, ".csv");
+
+	private final StreamImporter tsv = new DelimitedImporter('\t', false, 0,
+			1, 2, ".tsv");
+
+	public void testQuotedFields() throws IOException {
+
+		ArrayList<String> entries = read(csv,
+				"house,\"a building, for people\",haus\n"
+						+ "\"say \"\"hello\"\"\",greet,\n");
+
+		assertEquals(2, entries.size());
+		assertEquals("house|a building, for people|haus", entries.get(0));
+		assertEquals("say \"hello\"|greet|null", entries.get(1));
+	}
+
+	public void testLineBreakInQuotedField() throws IOException {
+
+		ArrayList<String> entries = read(csv,
+				"house,\"a building\nfor people\",\r\ntree,plant,\r\n");
+
+		assertEquals(2, entries.size());
+		assertEquals("house|a building\nfor people|null", entries.get(0));
+		assertEquals("tree|plant|null", entries.get(1));
+	}
+
+	public void testQuotesOnlyInCsv() throws IOException {
+
+		ArrayList<String> entries = read(tsv, "\"house\"\ta \"building\"\n");
+
+		assertEquals(1, entries.size());
+		assertEquals("\"house\"|a \"building\"|null", entries.get(0));
+	}
+
+	public void testByteOrderMark() throws IOException {
+
+		ArrayList<String> entries = read(tsv, "\uFEFFhouse\tbuilding\n");
+
+		assertEquals(1, entries.size());
+		assertEquals("house|building|null", entries.get(0));
+	}
+
+	public void testLastLineWithoutLineBreak() throws IOException {
+
+		ArrayList<String> entries = read(tsv, "house\tbuilding\r\ntree\tplant");
+
+		assertEquals(2, entries.size());
+		assertEquals("tree|plant|null", entries.get(1));
+	}
+
+	public void testLinesWithoutEntry() throws IOException {
+
+		ArrayList<String> entries = read(tsv,
+				"house\tbuilding\n\ntitle\ntree\tplant\n");
+
+		assertEquals(2, entries.size());
+		assertEquals("house|building|null", entries.get(0));
+		assertEquals("tree|plant|null", entries.get(1));
+	}
+
+	public void testEmptyHeadwordSkipped() throws IOException {
+
+		ArrayList<String> entries = read(tsv,
+				"house\tbuilding\n \tnothing\ntree\tplant\n");
+
+		assertEquals(3, entries.size());
+		assertEquals("-", entries.get(1));
+		assertEquals("tree|plant|null", entries.get(2));
+	}
+
+	public void testHeadwordCollapsed() throws IOException {
+
+		ArrayList<String> entries = read(tsv,
+				"  big \u00a0 house \t a building \t bIg \n");
+
+		assertEquals("big house|a building|bIg", entries.get(0));
+	}
+
+	public void testBundledLines() throws IOException {
+
+		ArrayList<String> entries = read(DictionaryImporters.LINES,
+				"\uFEFFflea#dreancaid\r\ngroup,dream\r\nzoo#z\u00fa");
+
+		assertEquals(2, entries.size());
+		assertEquals("dreancaid|flea|null", entries.get(0));
+		assertEquals("z\u00fa|zoo|null", entries.get(1));
+	}
+
+	private static ArrayList<String> read(StreamImporter importer,
+			String content) throws IOException {
+
+		RecordingSink sink = new RecordingSink();
+		importer.read(new ByteArrayInputStream(content.getBytes("UTF-8")),
+				sink);
+		return sink.entries;
+	}
+
+}
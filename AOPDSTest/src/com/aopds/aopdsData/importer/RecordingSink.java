@@ -0,0 +1,21 @@
+package com.aopds.aopdsData.importer;
+
+import java.util.ArrayList;
+
+/**
+ * Sink of the importer tests, keeping the entries it receives as
+ * "word|entry|phonetic" and the skipped entries as "-".
+ */
+class RecordingSink implements DictionarySink {
+
+	final ArrayList<String> entries = new ArrayList<String>();
+
+	public void add(String word, String entry, String phonetic) {
+		entries.add(word + "|" + entry + "|" + phonetic);
+	}
+
+	public void skip() {
+		entries.add("-");
+	}
+
+}
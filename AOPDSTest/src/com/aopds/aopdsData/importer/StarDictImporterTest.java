@@ -0,0 +1,141 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import android.test.AndroidTestCase;
+
+/**
+ * Words of the StarDict dictionaries (StarDictImporter) : the index read with
+ * the data, with or without type sequence, and the compressed files.
+ */
+public class StarDictImporterTest extends AndroidTestCase {
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		directory = new File(getContext().getCacheDir(), "stardict-test");
+		directory.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+		super.tearDown();
+	}
+
+	public void testSameTypeSequence() throws IOException {
+
+		File ifo = write("sametypesequence=m", false, new String[] { "cat",
+				"dog" }, new String[] { "chat", "chien" });
+
+		RecordingSink sink = new RecordingSink();
+		new StarDictImporter().read(ifo, sink);
+
+		assertEquals(2, sink.entries.size());
+		assertEquals("cat|chat|null", sink.entries.get(0));
+		assertEquals("dog|chien|null", sink.entries.get(1));
+	}
+
+	public void testTypedFields() throws IOException {
+
+		File ifo = write(null, false, new String[] { "cat" },
+				new String[] { "tk\u00e6t\0mchat\0h<i>felis</i>\0" });
+
+		RecordingSink sink = new RecordingSink();
+		new StarDictImporter().read(ifo, sink);
+
+		assertEquals(1, sink.entries.size());
+		assertEquals("cat|chat felis|k\u00e6t", sink.entries.get(0));
+	}
+
+	public void testCompressedIndexAndData() throws IOException {
+
+		File ifo = write("sametypesequence=m", true, new String[] { "cat" },
+				new String[] { "chat" });
+
+		RecordingSink sink = new RecordingSink();
+		new StarDictImporter().read(ifo, sink);
+
+		assertEquals(1, sink.entries.size());
+		assertEquals("cat|chat|null", sink.entries.get(0));
+	}
+
+	public void testNotStarDict() throws IOException {
+
+		File ifo = new File(directory, "dict.ifo");
+		OutputStream output = new FileOutputStream(ifo);
+		output.write("version=2.4.2\n".getBytes("UTF-8"));
+		output.close();
+
+		try {
+			new StarDictImporter().read(ifo, new RecordingSink());
+			fail("Not a StarDict file read.");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Writes the files of a dictionary.
+	 *
+	 * @return The .ifo file.
+	 */
+	private File write(String option, boolean compressed, String[] words,
+			String[] data) throws IOException {
+
+		ByteArrayOutputStream index = new ByteArrayOutputStream();
+		DataOutputStream indexData = new DataOutputStream(index);
+		ByteArrayOutputStream dict = new ByteArrayOutputStream();
+
+		for (int i = 0; i < words.length; i++) {
+			byte[] bytes = data[i].getBytes("UTF-8");
+			indexData.write(words[i].getBytes("UTF-8"));
+			indexData.write(0);
+			indexData.writeInt(dict.size());
+			indexData.writeInt(bytes.length);
+			dict.write(bytes);
+		}
+
+		File ifo = new File(directory, "dict.ifo");
+		OutputStream output = new FileOutputStream(ifo);
+		output.write(("StarDict's dict ifo file\nversion=2.4.2\nwordcount="
+				+ words.length + "\n" + (option == null ? "" : option + "\n"))
+				.getBytes("UTF-8"));
+		output.close();
+
+		write(new File(directory, compressed ? "dict.idx.gz" : "dict.idx"),
+				compressed, index.toByteArray());
+		write(new File(directory, compressed ? "dict.dict.dz" : "dict.dict"),
+				compressed, dict.toByteArray());
+
+		return ifo;
+	}
+
+	private static void write(File file, boolean compressed, byte[] content)
+			throws IOException {
+
+		OutputStream output = new FileOutputStream(file);
+
+		if (compressed) {
+			output = new GZIPOutputStream(output);
+		}
+
+		try {
+			output.write(content);
+		} finally {
+			output.close();
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+/**
+ * Entries of the TEI dictionaries (TeiImporter) : an entry per headword, the
+ * pronunciation as phonetic, the parts of speech between brackets and the
+ * senses separated by semicolons.
+ */
+public class TeiImporterTest extends TestCase {
+
+	private final TeiImporter importer = new TeiImporter();
+
+	public void testEntry() throws IOException {
+
+		ArrayList<String> entries = read("<TEI><text><body>"
+				+ "<entry><form><orth>teach</orth><pron>t\u02b2ax</pron></form>"
+				+ "<gramGrp><pos>n</pos></gramGrp>"
+				+ "<sense><cit><quote>house</quote></cit></sense>"
+				+ "<sense><cit><quote>home</quote></cit></sense></entry>"
+				+ "</body></text></TEI>");
+
+		assertEquals(1, entries.size());
+		assertEquals("teach|[n] ; house ; home|t\u02b2ax", entries.get(0));
+	}
+
+	public void testEntryPerHeadword() throws IOException {
+
+		ArrayList<String> entries = read("<TEI><entry><form><orth>colour</orth>"
+				+ "<orth>color</orth></form><sense>hue</sense></entry></TEI>");
+
+		assertEquals(2, entries.size());
+		assertEquals("colour|hue|null", entries.get(0));
+		assertEquals("color|hue|null", entries.get(1));
+	}
+
+	public void testInflectedFormInTheEntry() throws IOException {
+
+		ArrayList<String> entries = read("<TEI><entry><form><orth>teach</orth>"
+				+ "<form type=\"inflected\"><orth>ti\u00ed</orth></form></form>"
+				+ "<sense>house</sense></entry></TEI>");
+
+		assertEquals(1, entries.size());
+		assertTrue(entries.get(0).startsWith("teach|("));
+		assertTrue(entries.get(0).endsWith("ti\u00ed) ; house|null"));
+	}
+
+	public void testTextOutOfTheEntries() throws IOException {
+
+		ArrayList<String> entries = read("<TEI><teiHeader><title>Irish"
+				+ "</title></teiHeader><entry><form><orth>cat</orth></form>"
+				+ "<sense>cat</sense></entry></TEI>");
+
+		assertEquals(1, entries.size());
+		assertEquals("cat|cat|null", entries.get(0));
+	}
+
+	private ArrayList<String> read(String content) throws IOException {
+
+		RecordingSink sink = new RecordingSink();
+		importer.read(new ByteArrayInputStream(content.getBytes("UTF-8")),
+				sink);
+		return sink.entries;
+	}
+
+}
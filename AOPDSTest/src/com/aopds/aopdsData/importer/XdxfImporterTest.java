@@ -0,0 +1,71 @@
+package com.aopds.aopdsData.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+/**
+ * Articles of the XDXF dictionaries (XdxfImporter) : an entry per key, the
+ * transcription as phonetic and the grammar notes between brackets.
+ */
+public class XdxfImporterTest extends TestCase {
+
+	private final XdxfImporter importer = new XdxfImporter();
+
+	public void testArticle() throws IOException {
+
+		ArrayList<String> entries = read("<xdxf><ar><k>maison</k>"
+				+ "<tr>mez\u0254\u0303</tr> <gr>n, fem</gr> house</ar></xdxf>");
+
+		assertEquals(1, entries.size());
+		assertEquals("maison|[n, fem] house|mez\u0254\u0303", entries.get(0));
+	}
+
+	public void testEntryPerKey() throws IOException {
+
+		ArrayList<String> entries = read("<xdxf><ar><k>colour</k><k>color</k>"
+				+ "hue</ar><ar><k> big \n house </k>mansion</ar></xdxf>");
+
+		assertEquals(3, entries.size());
+		assertEquals("colour|hue|null", entries.get(0));
+		assertEquals("color|hue|null", entries.get(1));
+		assertEquals("big house|mansion|null", entries.get(2));
+	}
+
+	public void testTextOutOfTheArticles() throws IOException {
+
+		ArrayList<String> entries = read("<xdxf><full_name>French</full_name>"
+				+ "<description>k</description><ar><k>chat</k>cat</ar></xdxf>");
+
+		assertEquals(1, entries.size());
+		assertEquals("chat|cat|null", entries.get(0));
+	}
+
+	public void testInvalidFile() {
+
+		RecordingSink sink = new RecordingSink();
+
+		try {
+			importer.read(stream("<xdxf><ar><k>chat</k>cat</ar><ar>"), sink);
+			fail("Invalid XDXF read.");
+		} catch (IOException e) {
+			// the articles read before are kept
+			assertEquals(1, sink.entries.size());
+		}
+	}
+
+	private ArrayList<String> read(String content) throws IOException {
+
+		RecordingSink sink = new RecordingSink();
+		importer.read(stream(content), sink);
+		return sink.entries;
+	}
+
+	private static ByteArrayInputStream stream(String content)
+			throws IOException {
+		return new ByteArrayInputStream(content.getBytes("UTF-8"));
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.aopds.tools;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.aopds.aopdsData.AopdsDatabase;
+import com.aopds.aopdsData.AopdsDataException.AopdsDatabaseException;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Bundle;
+
+/**
+ *
+ * Instrumentation compiling the prebuilt database shipped in the assets (see
+ * AopdsDatabase.compileDatabase) into the files of the application. The
+ * compile-database Ant target of the application (custom_rules.xml) installs
+ * debug builds of the application and of this project, runs it and pulls
+ * the file into the assets :
+ *
+ * <pre>
+ * adb shell am instrument -w com.aopds.test/com.aopds.tools.AopdsDatabaseCompiler
+ * </pre>
+ *
+ * It is part of the test project, not of the application : the release
+ * builds do not contain it.
+ *
+ */
+public class AopdsDatabaseCompiler extends Instrumentation {
+
+	private final static String LOG_TAG = "AopdsDatabaseCompiler";
+
+	@Override
+	public void onCreate(Bundle arguments) {
+		super.onCreate(arguments);
+		start();
+	}
+
+	/**
+	 * Compiles the database, in the thread of the instrumentation.
+	 */
+	@Override
+	public void onStart() {
+		super.onStart();
+
+		Context context = getTargetContext();
+		File destination = new File(context.getFilesDir(),
+				AopdsDatabase.PREBUILT_DATABASE_ASSET);
+		Bundle results = new Bundle();
+
+		try {
+			AopdsDatabase.compileDatabase(context, destination);
+
+			results.putString(REPORT_KEY_STREAMRESULT, "Database compiled into "
+					+ destination + "\n");
+			finish(Activity.RESULT_OK, results);
+
+		} catch (IOException e) {
+			fail(results, e);
+		} catch (AopdsDatabaseException e) {
+			fail(results, e);
+		}
+	}
+
+	/**
+	 * Reports the failure of the compilation.
+	 */
+	private void fail(Bundle results, Exception e) {
+
+		AopdsLogger.error(LOG_TAG, "Database compilation failed : "
+				+ e.getMessage(), e);
+
+		results.putString(REPORT_KEY_STREAMRESULT,
+				"Database compilation failed : " + e.getMessage() + "\n");
+		finish(Activity.RESULT_CANCELED, results);
+	}
+
+}